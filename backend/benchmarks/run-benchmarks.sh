@@ -0,0 +1,32 @@
+#!/bin/bash
+
+# Ejecuta los benchmarks JMH y guarda los resultados en results/<commit>.json
+# Uso: ./run-benchmarks.sh [regex de benchmarks] [opciones JMH adicionales]
+#   ./run-benchmarks.sh
+#   ./run-benchmarks.sh ClienteMapperBenchmark
+#   ./run-benchmarks.sh ClienteSerializationBenchmark -prof gc
+
+cd "$(dirname "$0")" || exit 1
+
+INCLUDE="${1:-.*}"
+shift
+EXTRA_ARGS="$*"
+
+COMMIT=$(git rev-parse --short HEAD 2>/dev/null || echo "local")
+if ! git diff --quiet HEAD -- .. 2>/dev/null; then
+    COMMIT="${COMMIT}-dirty"
+fi
+mkdir -p results
+RESULT_FILE="results/${COMMIT}.json"
+
+echo "1. Instalando la aplicación..."
+mvn -q -f ../pom.xml install -DskipTests || exit 1
+
+echo "2. Compilando benchmarks..."
+mvn -q package || exit 1
+
+echo "3. Ejecutando benchmarks: ${INCLUDE}"
+mvn -q exec:exec -Djmh.args="${INCLUDE} ${EXTRA_ARGS}" -Djmh.result="${RESULT_FILE}" || exit 1
+
+echo ""
+echo "Resultados guardados en: benchmarks/${RESULT_FILE}"
@@ -0,0 +1,51 @@
+package com.example.clientesapi.benchmarks;
+
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.entity.Rut;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Datos de prueba compartidos por los benchmarks.
+ */
+final class BenchmarkData {
+    
+    private static final String[] NOMBRES = {"María", "Carlos", "Ana", "Miguel", "Laura", "Diego", "Carmen", "Antonio"};
+    private static final String[] APELLIDOS = {"González", "Rodríguez", "López", "Fernández", "Martínez", "Sánchez"};
+    private static final String[] TIPOS = {"VIP", "REGULAR", "NUEVO", "CORP", "ESTUDIANTE"};
+    
+    private BenchmarkData() {
+    }
+    
+    static ClienteDTO cliente(long n) {
+        return new ClienteDTO(
+                null,
+                rut(n),
+                NOMBRES[(int) (n % NOMBRES.length)],
+                APELLIDOS[(int) (n % APELLIDOS.length)],
+                (int) (18 + n % 70),
+                "cliente" + n + "@benchmark.com",
+                TIPOS[(int) (n % TIPOS.length)]);
+    }
+    
+    static List<ClienteDTO> clientes(int size) {
+        List<ClienteDTO> clientes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ClienteDTO cliente = cliente(i);
+            cliente.setId((long) i + 1);
+            clientes.add(cliente);
+        }
+        return clientes;
+    }
+    
+    static String rut(long n) {
+        long cuerpo = 10_000_000L + n;
+        return cuerpo + "-" + Rut.digitoVerificador((int) cuerpo);
+    }
+    
+    static String[] tipos() {
+        return TIPOS.clone();
+    }
+    
+}
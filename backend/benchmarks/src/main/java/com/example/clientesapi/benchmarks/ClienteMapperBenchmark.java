@@ -0,0 +1,58 @@
+package com.example.clientesapi.benchmarks;
+
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.entity.Cliente;
+import com.example.clientesapi.mapper.ClienteMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversiones entidad/DTO de {@link ClienteMapper}, usadas en cada lectura y escritura de clientes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClienteMapperBenchmark {
+    
+    private final ClienteMapper mapper = new ClienteMapper();
+    
+    private ClienteDTO dto;
+    private Cliente entity;
+    
+    @Setup
+    public void setup() {
+        dto = BenchmarkData.cliente(42);
+        dto.setId(42L);
+        entity = mapper.toEntity(dto);
+    }
+    
+    @Benchmark
+    public ClienteDTO toDTO() {
+        return mapper.toDTO(entity);
+    }
+    
+    @Benchmark
+    public Cliente toEntity() {
+        return mapper.toEntity(dto);
+    }
+    
+    @Benchmark
+    public Cliente updateEntityFromDTO() {
+        mapper.updateEntityFromDTO(dto, entity);
+        return entity;
+    }
+    
+}
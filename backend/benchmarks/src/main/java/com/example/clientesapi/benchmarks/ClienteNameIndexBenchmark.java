@@ -0,0 +1,138 @@
+package com.example.clientesapi.benchmarks;
+
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.index.ClienteNameIndex;
+import com.example.clientesapi.repository.ClienteBulkRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Búsqueda aproximada de {@link ClienteNameIndex} sobre millones de clientes con nombres y apellidos de
+ * frecuencias realistas (unos pocos muy comunes y una cola larga). Mide la distribución de latencias
+ * (p50, p99) de búsquedas de una y varias palabras, con errores de escritura y prefijos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ClienteNameIndexBenchmark {
+
+    private static final String[] NOMBRES = {
+            "María", "José", "Juan", "Luis", "Carlos", "Jorge", "Ana", "Francisco", "Rosa", "Pedro", "Patricia",
+            "Manuel", "Claudia", "Sergio", "Carolina", "Cristián", "Daniela", "Rodrigo", "Camila", "Héctor",
+            "Valentina", "Sebastián", "Javiera", "Matías", "Constanza", "Felipe", "Fernanda", "Nicolás", "Catalina",
+            "Benjamín", "Isidora", "Tomás", "Antonia", "Vicente", "Florencia", "Agustín", "Josefa", "Martín",
+            "Sofía", "Ignacio", "Gabriela", "Diego", "Paula", "Andrés", "Verónica", "Alejandro", "Marcela",
+            "Ricardo", "Lorena", "Gonzalo", "Ximena", "Mauricio", "Paola", "Eduardo", "Soledad", "Raúl", "Pilar",
+            "Álvaro", "Macarena", "Joaquín", "Bárbara", "Esteban", "Ignacia", "Óscar", "Trinidad", "Renato"};
+    private static final String[] APELLIDOS = {
+            "González", "Muñoz", "Rojas", "Díaz", "Pérez", "Soto", "Contreras", "Silva", "Martínez", "Sepúlveda",
+            "Morales", "Rodríguez", "López", "Fuentes", "Hernández", "Torres", "Araya", "Flores", "Espinoza",
+            "Valenzuela", "Castillo", "Tapia", "Reyes", "Gutiérrez", "Castro", "Pizarro", "Álvarez", "Vásquez",
+            "Sánchez", "Fernández", "Ramírez", "Carrasco", "Gómez", "Cortés", "Herrera", "Núñez", "Jara",
+            "Vergara", "Rivera", "Figueroa", "Riquelme", "García", "Miranda", "Bravo", "Vera", "Molina", "Vega",
+            "Campos", "Sandoval", "Orellana", "Zúñiga", "Olivares", "Alarcón", "Gallardo", "Ortiz", "Garrido",
+            "Salazar", "Guzmán", "Henríquez", "Saavedra", "Navarro", "Aguilera", "Parra", "Romero", "Aravena",
+            "Vargas", "Vázquez", "Cáceres", "Yáñez", "Leiva", "Escobar", "Ruiz", "Valdés", "Vidal", "Salinas",
+            "Zamora", "Lagos", "Cárdenas", "Fuentealba", "Ibáñez", "Gallegos", "Jiménez", "Peña", "Maldonado",
+            "Cofré", "Quezada", "Alvarado", "Toledo", "Bustos", "Acuña", "Mella", "Cabrera", "Poblete", "Ulloa",
+            "Sáez", "Mendoza", "Cerda", "Méndez", "Moreno", "Palma", "Lizama", "Ortega", "Inostroza", "Villarroel"};
+
+    @Param({"5000000"})
+    private int clientes;
+
+    @Param({"gonzales", "juan gonzales", "maria jose rodrigues", "sepulbeda", "fuental", "ximena zuniga soto"})
+    private String query;
+
+    private ClienteNameIndex index;
+
+    @Setup
+    public void setup() {
+        index = new ClienteNameIndex(new ClientesGenerados(clientes), 0, 0.5, 32);
+        index.rebuild();
+    }
+
+    @Benchmark
+    public List<ClienteNameIndex.Coincidencia> find() {
+        return index.find(query, 20);
+    }
+
+    // Índice sesgado hacia el inicio de la lista: los primeros nombres son mucho más frecuentes
+    private static String frecuente(String[] valores, SplittableRandom random) {
+        double r = random.nextDouble();
+        return valores[(int) (valores.length * r * r)];
+    }
+
+    /**
+     * Tabla de clientes generada al recorrerla, sin retenerla en memoria.
+     */
+    private record ClientesGenerados(int cantidad) implements ClienteBulkRepository {
+
+        @Override
+        public long forEach(int fetchSize, Consumer<ClienteDTO> consumer) {
+            SplittableRandom random = new SplittableRandom(42);
+            ClienteDTO cliente = new ClienteDTO();
+            for (int i = 1; i <= cantidad; i++) {
+                String nombre = frecuente(NOMBRES, random);
+                if (random.nextInt(4) == 0) {
+                    nombre += " " + frecuente(NOMBRES, random);
+                }
+                String apellido = frecuente(APELLIDOS, random);
+                String materno = frecuente(APELLIDOS, random);
+                String local = switch (random.nextInt(3)) {
+                    case 0 -> nombre.split(" ")[0] + "." + apellido;
+                    case 1 -> nombre.charAt(0) + apellido + random.nextInt(100);
+                    default -> apellido + "." + materno + random.nextInt(1000);
+                };
+                cliente.setId((long) i);
+                cliente.setRut(BenchmarkData.rut(i));
+                cliente.setNombre(nombre);
+                cliente.setApellido(apellido + " " + materno);
+                cliente.setEdad(18 + random.nextInt(70));
+                cliente.setEmail(local + "@correo.cl");
+                cliente.setCodTipoCliente("REGULAR");
+                consumer.accept(cliente);
+            }
+            return cantidad;
+        }
+
+        @Override
+        public Map<String, ClienteDTO> findByRuts(Collection<String> ruts) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Map<String, String> findRutsByEmail(Collection<String> emails) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Long> insertBatch(List<ClienteDTO> clientes) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void updateBatch(List<ClienteDTO> clientes) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+}
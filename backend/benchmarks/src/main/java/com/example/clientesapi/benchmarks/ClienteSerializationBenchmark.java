@@ -0,0 +1,83 @@
+package com.example.clientesapi.benchmarks;
+
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.json.ClienteJsonModule;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización de respuestas con {@link ClienteDTO}: una lista y un cliente individual.
+ * <p>
+ * {@code reflexion} es un ObjectMapper configurado como el de Spring Boot sin los módulos de la aplicación;
+ * {@code json}, {@code cbor} y {@code smile} usan los serializadores propios y Blackbird, como las respuestas
+ * de la API. Ejecutar con {@code -prof gc} para ver los bytes reservados por operación.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ClienteSerializationBenchmark {
+    
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+    
+    @Param({"reflexion", "json", "cbor", "smile"})
+    private String formato;
+    
+    private List<ClienteDTO> clientes;
+    private ObjectWriter listWriter;
+    private ObjectWriter writer;
+    private final OutputStream out = OutputStream.nullOutputStream();
+    
+    @Setup
+    public void setup() {
+        Jackson2ObjectMapperBuilder builder = switch (formato) {
+            case "reflexion" -> Jackson2ObjectMapperBuilder.json();
+            case "json" -> Jackson2ObjectMapperBuilder.json().modulesToInstall(new ClienteJsonModule(), new BlackbirdModule());
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().modulesToInstall(new ClienteJsonModule(), new BlackbirdModule());
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().modulesToInstall(new ClienteJsonModule(), new BlackbirdModule());
+            default -> throw new IllegalArgumentException(formato);
+        };
+        ObjectMapper objectMapper = builder.build();
+        // Como el convertidor HTTP: quien cierra la respuesta es el contenedor
+        listWriter = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, ClienteDTO.class))
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        writer = objectMapper.writerFor(ClienteDTO.class).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        clientes = BenchmarkData.clientes(size);
+    }
+    
+    @Benchmark
+    public OutputStream serializeList() throws IOException {
+        listWriter.writeValue(out, clientes);
+        return out;
+    }
+    
+    @Benchmark
+    public OutputStream serializeOne() throws IOException {
+        writer.writeValue(out, clientes.get(0));
+        return out;
+    }
+    
+}
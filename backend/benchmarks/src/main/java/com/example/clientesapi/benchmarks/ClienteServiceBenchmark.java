@@ -0,0 +1,102 @@
+package com.example.clientesapi.benchmarks;
+
+import com.example.clientesapi.ClientesApiApplication;
+import com.example.clientesapi.cache.ClienteCache;
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.dto.TipoClienteDTO;
+import com.example.clientesapi.service.ClienteService;
+import com.example.clientesapi.service.TipoClienteService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Flujo completo de {@link ClienteService} (transacción, JPA y JDBC) contra H2 embebido en modo MySQL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClienteServiceBenchmark {
+    
+    private static final int PRELOADED = 10_000;
+    
+    private ConfigurableApplicationContext context;
+    private ClienteService clienteService;
+    private ClienteCache clienteCache;
+    private final AtomicLong sequence = new AtomicLong(PRELOADED);
+    private long maxId;
+    
+    @Setup(Level.Trial)
+    public void setup() {
+        SpringApplication application = new SpringApplication(ClientesApiApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        // Los argumentos de línea de comandos tienen prioridad sobre application.properties
+        context = application.run(
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--spring.sql.init.mode=never",
+                "--logging.level.root=WARN");
+        
+        clienteService = context.getBean(ClienteService.class);
+        clienteCache = context.getBean(ClienteCache.class);
+        
+        TipoClienteService tipoClienteService = context.getBean(TipoClienteService.class);
+        for (String tipo : BenchmarkData.tipos()) {
+            tipoClienteService.save(new TipoClienteDTO(tipo, "Tipo " + tipo));
+        }
+        for (int i = 0; i < PRELOADED; i++) {
+            maxId = clienteService.create(BenchmarkData.cliente(i)).getId();
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public ClienteDTO create() {
+        return clienteService.create(BenchmarkData.cliente(sequence.getAndIncrement()));
+    }
+    
+    @Benchmark
+    public ClienteDTO findByIdCached() {
+        return clienteService.findById(randomId());
+    }
+    
+    @Benchmark
+    public ClienteDTO findByIdUncached() {
+        Long id = randomId();
+        clienteCache.invalidate(id);
+        return clienteService.findById(id);
+    }
+    
+    private Long randomId() {
+        return maxId - ThreadLocalRandom.current().nextLong(PRELOADED);
+    }
+    
+}
@@ -0,0 +1,109 @@
+package com.example.clientesapi.benchmarks;
+
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.exception.DuplicateResourceException;
+import com.example.clientesapi.exception.GlobalExceptionHandler;
+import com.example.clientesapi.exception.ResourceNotFoundException;
+import com.example.clientesapi.json.ClienteJsonModule;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construcción de las respuestas de error de {@link GlobalExceptionHandler} y, en los {@code *Json},
+ * también su serialización con el ObjectMapper de la aplicación.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GlobalExceptionHandlerBenchmark {
+    
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+    private final ObjectWriter writer = Jackson2ObjectMapperBuilder.json()
+            .modulesToInstall(new ClienteJsonModule(), new BlackbirdModule())
+            .build()
+            .writer()
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    private final OutputStream out = OutputStream.nullOutputStream();
+    
+    private ResourceNotFoundException notFound;
+    private DuplicateResourceException duplicate;
+    private MethodArgumentNotValidException invalid;
+    private RuntimeException unexpected;
+    
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        notFound = new ResourceNotFoundException("Cliente no encontrado con ID: 42");
+        duplicate = new DuplicateResourceException("Ya existe un cliente con RUT: 12345678-5");
+        unexpected = new IllegalStateException("boom");
+        
+        ClienteDTO target = new ClienteDTO();
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(target, "clienteDTO");
+        bindingResult.rejectValue("rut", "NotBlank", "El RUT es obligatorio");
+        bindingResult.rejectValue("email", "Email", "El formato del email no es válido");
+        bindingResult.rejectValue("edad", "Max", "La edad debe ser menor o igual a 150");
+        MethodParameter parameter = new MethodParameter(
+                GlobalExceptionHandlerBenchmark.class.getDeclaredMethod("target", ClienteDTO.class), 0);
+        invalid = new MethodArgumentNotValidException(parameter, bindingResult);
+    }
+    
+    @Benchmark
+    public ResponseEntity<?> resourceNotFound() {
+        return handler.handleResourceNotFoundException(notFound);
+    }
+    
+    @Benchmark
+    public ResponseEntity<?> duplicateResource() {
+        return handler.handleDuplicateResourceException(duplicate);
+    }
+    
+    @Benchmark
+    public ResponseEntity<?> validationErrors() {
+        return handler.handleValidationExceptions(invalid);
+    }
+    
+    @Benchmark
+    public ResponseEntity<?> genericException() {
+        return handler.handleGenericException(unexpected);
+    }
+    
+    @Benchmark
+    public OutputStream resourceNotFoundJson() throws IOException {
+        writer.writeValue(out, handler.handleResourceNotFoundException(notFound).getBody());
+        return out;
+    }
+    
+    @Benchmark
+    public OutputStream validationErrorsJson() throws IOException {
+        writer.writeValue(out, handler.handleValidationExceptions(invalid).getBody());
+        return out;
+    }
+    
+    @SuppressWarnings("unused")
+    private void target(ClienteDTO clienteDTO) {
+        // Solo se usa como MethodParameter de la excepción de validación
+    }
+    
+}
@@ -0,0 +1,113 @@
+package com.example.clientesapi.benchmarks;
+
+import com.example.clientesapi.entity.Rut;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Búsqueda de un cliente por RUT contra H2 embebido en modo MySQL: por el índice único de la columna de
+ * texto {@code rut} (esquema anterior) y por el índice único entero de {@code rut_numero}, incluyendo en
+ * este caso la normalización del RUT recibido. Los RUT se piden con puntos, como llegan desde formularios.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RutLookupBenchmark {
+    
+    @Param({"1000000"})
+    private int clientes;
+    
+    private Connection connection;
+    private PreparedStatement porRut;
+    private PreparedStatement porRutNumero;
+    private String[] conPuntos;
+    private String[] canonicos;
+    
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:rut;MODE=MySQL;DATABASE_TO_LOWER=TRUE", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE cliente (id BIGINT AUTO_INCREMENT PRIMARY KEY, rut VARCHAR(12) NOT NULL, "
+                    + "rut_numero INT NOT NULL, rut_dv CHAR(1) NOT NULL, nombre VARCHAR(50) NOT NULL)");
+        }
+        conPuntos = new String[clientes];
+        canonicos = new String[clientes];
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO cliente (rut, rut_numero, rut_dv, nombre) VALUES (?, ?, ?, ?)")) {
+            for (int i = 0; i < clientes; i++) {
+                String rut = BenchmarkData.rut(i);
+                canonicos[i] = rut;
+                conPuntos[i] = String.format("%,d", Rut.numero(rut)).replace(',', '.') + "-" + Rut.dv(rut);
+                insert.setString(1, rut);
+                insert.setInt(2, Rut.numero(rut));
+                insert.setString(3, String.valueOf(Rut.dv(rut)));
+                insert.setString(4, "Cliente " + i);
+                insert.addBatch();
+                if (i % 10_000 == 9_999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE UNIQUE INDEX uk_cliente_rut ON cliente (rut)");
+            statement.execute("CREATE UNIQUE INDEX uk_cliente_rut_numero ON cliente (rut_numero)");
+        }
+        porRut = connection.prepareStatement("SELECT id, rut, nombre FROM cliente WHERE rut = ?");
+        porRutNumero = connection.prepareStatement(
+                "SELECT id, rut, nombre FROM cliente WHERE rut_numero = ? AND rut_dv = ?");
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+    
+    // Sin normalizar solo encuentra el RUT si se pide exactamente como se guardó
+    @Benchmark
+    public long porRut() throws SQLException {
+        porRut.setString(1, canonicos[ThreadLocalRandom.current().nextInt(clientes)]);
+        return leer(porRut);
+    }
+    
+    @Benchmark
+    public long porRutNumero() throws SQLException {
+        String canonico = Rut.normalize(conPuntos[ThreadLocalRandom.current().nextInt(clientes)]);
+        porRutNumero.setInt(1, Rut.numero(canonico));
+        porRutNumero.setString(2, String.valueOf(Rut.dv(canonico)));
+        return leer(porRutNumero);
+    }
+    
+    private static long leer(PreparedStatement statement) throws SQLException {
+        try (ResultSet rs = statement.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : -1;
+        }
+    }
+    
+}
@@ -0,0 +1,56 @@
+#!/bin/bash
+
+# Prueba de carga para comparar el modo de hilos de plataforma con el de hilos virtuales.
+# Requiere 'hey' (https://github.com/rakyll/hey) y la aplicación corriendo con MySQL.
+#
+# Uso:
+#   1. Modo actual:           mvn spring-boot:run
+#      ./load-test.sh plataforma
+#   2. Modo hilos virtuales:  mvn -Pjava21 spring-boot:run -Dspring-boot.run.profiles=virtual-threads
+#      ./load-test.sh virtuales
+#
+# Todas las requests salen del mismo cliente: iniciar la aplicación con --clientes.admission.enabled=true
+# y --clientes.admission.rate=0 para que el límite de tasa por cliente no las rechace. Con LISTADOS=N se
+# ejecutan además N listados concurrentes de GET /api/clientes durante cada medición, para verificar que
+# la latencia de las lecturas puntuales se mantiene acotada mientras los listados se rechazan con 503.
+#
+# Variables opcionales: BASE_URL, CLIENTE_ID, DURACION, CONCURRENCIAS, LISTADOS
+
+ETIQUETA="${1:-actual}"
+BASE_URL="${BASE_URL:-http://localhost:8080}"
+CLIENTE_ID="${CLIENTE_ID:-1}"
+DURACION="${DURACION:-30s}"
+CONCURRENCIAS="${CONCURRENCIAS:-50 200 1000 2000 5000}"
+LISTADOS="${LISTADOS:-0}"
+RESULTADOS="load-test-${ETIQUETA}.txt"
+
+if ! command -v hey &> /dev/null; then
+    echo "Error: 'hey' no está instalado (go install github.com/rakyll/hey@latest)."
+    exit 1
+fi
+
+if ! curl -sf "${BASE_URL}/api/clientes/${CLIENTE_ID}" > /dev/null; then
+    echo "Error: la aplicación no responde en ${BASE_URL} o el cliente ${CLIENTE_ID} no existe."
+    exit 1
+fi
+
+echo "Modo: ${ETIQUETA}" | tee "${RESULTADOS}"
+printf "%-12s %-14s %-12s %-12s %-10s\n" "concurrencia" "req/s" "p50 (s)" "p99 (s)" "errores" | tee -a "${RESULTADOS}"
+
+for C in ${CONCURRENCIAS}; do
+    if [ "${LISTADOS}" -gt 0 ]; then
+        hey -z "${DURACION}" -c "${LISTADOS}" "${BASE_URL}/api/clientes?size=1000" > /dev/null &
+    fi
+    SALIDA=$(hey -z "${DURACION}" -c "${C}" "${BASE_URL}/api/clientes/${CLIENTE_ID}")
+    wait
+    RPS=$(echo "${SALIDA}" | awk '/Requests\/sec/ {print $2}')
+    P50=$(echo "${SALIDA}" | awk '/50% in/ {print $3}')
+    P99=$(echo "${SALIDA}" | awk '/99% in/ {print $3}')
+    OK=$(echo "${SALIDA}" | awk '/\[200\]/ {print $2}')
+    TOTAL=$(echo "${SALIDA}" | awk '/responses/ && /\[/ {sum += $2} END {print sum}')
+    ERRORES=$(( ${TOTAL:-0} - ${OK:-0} ))
+    printf "%-12s %-14s %-12s %-12s %-10s\n" "${C}" "${RPS}" "${P50}" "${P99}" "${ERRORES}" | tee -a "${RESULTADOS}"
+done
+
+echo ""
+echo "Resultados guardados en ${RESULTADOS}"
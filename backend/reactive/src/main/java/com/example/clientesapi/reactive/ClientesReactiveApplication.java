@@ -0,0 +1,20 @@
+package com.example.clientesapi.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Variante reactiva de la API de clientes: mismos contratos que la aplicación servlet, atendidos por
+ * los hilos de event loop de Netty con acceso no bloqueante a la base de datos vía R2DBC.
+ * <p>
+ * Solo se escanea el paquete {@code reactive}: los DTOs y excepciones se reutilizan de la aplicación
+ * principal, pero no sus componentes (controladores MVC, servicios JPA, cachés).
+ */
+@SpringBootApplication
+public class ClientesReactiveApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ClientesReactiveApplication.class, args);
+    }
+
+}
@@ -0,0 +1,171 @@
+package com.example.clientesapi.reactive.controller;
+
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.exception.BusinessLogicException;
+import com.example.clientesapi.reactive.service.ClienteReactiveService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/clientes")
+@RequiredArgsConstructor
+@Tag(name = "Clientes", description = "API para gestión de clientes")
+public class ClienteReactiveController {
+    
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    
+    private final ClienteReactiveService clienteService;
+    
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Listar todos los clientes", 
+               description = "Retorna una lista de todos los clientes del sistema. El arreglo JSON se escribe a medida " +
+                             "que se leen las filas. Si se indica 'after' o 'limit' se activa el modo cursor: se retorna " +
+                             "una página ordenada por ID y, si hay más resultados, el cursor de la siguiente página en " +
+                             "el header " + NEXT_CURSOR_HEADER)
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Lista de clientes obtenida exitosamente",
+                    content = @Content(mediaType = "application/json", 
+                                     schema = @Schema(implementation = ClienteDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Parámetros de paginación inválidos")
+    })
+    public Mono<ResponseEntity<Flux<ClienteDTO>>> getAllClientes(
+            @Parameter(description = "Cursor: ID del último cliente de la página anterior")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Cantidad máxima de clientes por página (1-" + MAX_PAGE_SIZE + ")")
+            @RequestParam(required = false) Integer limit) {
+        if (after == null && limit == null) {
+            return Mono.just(ResponseEntity.ok(clienteService.findAll()));
+        }
+        
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            return Mono.error(new BusinessLogicException("El parámetro limit debe estar entre 1 y " + MAX_PAGE_SIZE));
+        }
+        
+        // La página está acotada por MAX_PAGE_SIZE: se reúne para saber si corresponde emitir el cursor. Se
+        // pide una fila extra: el cursor solo se envía si existe una página siguiente, de modo que un total
+        // múltiplo del tamaño de página no termina con una página vacía
+        return clienteService.findPage(after, pageSize + 1)
+                .collectList()
+                .map(clientes -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                    if (clientes.size() > pageSize) {
+                        clientes = clientes.subList(0, pageSize);
+                        response.header(NEXT_CURSOR_HEADER, String.valueOf(clientes.get(pageSize - 1).getId()));
+                    }
+                    return response.body(Flux.fromIterable(clientes));
+                });
+    }
+    
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Exportar clientes como NDJSON", 
+               description = "Escribe todos los clientes, uno por línea, a medida que el cliente HTTP los consume. " +
+                             "El uso de memoria es constante sin importar el tamaño de la tabla")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stream de clientes en formato NDJSON",
+                    content = @Content(mediaType = "application/x-ndjson", 
+                                     schema = @Schema(implementation = ClienteDTO.class)))
+    })
+    public Flux<ClienteDTO> streamClientes() {
+        return clienteService.findAll();
+    }
+    
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Obtener cliente por ID", 
+               description = "Retorna un cliente específico basado en su ID")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Cliente encontrado",
+                    content = @Content(mediaType = "application/json", 
+                                     schema = @Schema(implementation = ClienteDTO.class))),
+        @ApiResponse(responseCode = "404", description = "Cliente no encontrado")
+    })
+    public Mono<ClienteDTO> getClienteById(
+            @Parameter(description = "ID único del cliente", required = true)
+            @PathVariable Long id) {
+        return clienteService.findById(id);
+    }
+    
+    @GetMapping(value = "/rut/{rut}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Obtener cliente por RUT", 
+               description = "Retorna un cliente específico basado en su RUT, con o sin puntos y guion "
+                           + "(12.345.678-5, 12345678-5 o 123456785)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Cliente encontrado",
+                    content = @Content(mediaType = "application/json", 
+                                     schema = @Schema(implementation = ClienteDTO.class))),
+        @ApiResponse(responseCode = "400", description = "RUT sin formato válido"),
+        @ApiResponse(responseCode = "404", description = "Cliente no encontrado")
+    })
+    public Mono<ClienteDTO> getClienteByRut(
+            @Parameter(description = "RUT del cliente", required = true)
+            @PathVariable String rut) {
+        return clienteService.findByRut(rut);
+    }
+    
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    @Operation(summary = "Crear nuevo cliente", 
+               description = "Crea un nuevo cliente en el sistema")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Cliente creado exitosamente",
+                    content = @Content(mediaType = "application/json", 
+                                     schema = @Schema(implementation = ClienteDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Datos de entrada inválidos"),
+        @ApiResponse(responseCode = "409", description = "Ya existe un cliente con ese RUT o email")
+    })
+    public Mono<ClienteDTO> createCliente(
+            @Parameter(description = "Datos del cliente a crear", required = true)
+            @Valid @RequestBody ClienteDTO clienteDTO) {
+        return clienteService.create(clienteDTO);
+    }
+    
+    @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Actualizar cliente", 
+               description = "Actualiza los datos de un cliente existente")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Cliente actualizado exitosamente",
+                    content = @Content(mediaType = "application/json", 
+                                     schema = @Schema(implementation = ClienteDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Datos de entrada inválidos"),
+        @ApiResponse(responseCode = "404", description = "Cliente no encontrado"),
+        @ApiResponse(responseCode = "409", description = "Ya existe otro cliente con ese RUT o email")
+    })
+    public Mono<ClienteDTO> updateCliente(
+            @Parameter(description = "ID único del cliente", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "Datos actualizados del cliente", required = true)
+            @Valid @RequestBody ClienteDTO clienteDTO) {
+        return clienteService.update(id, clienteDTO);
+    }
+    
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Operation(summary = "Eliminar cliente", 
+               description = "Elimina un cliente del sistema")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Cliente eliminado exitosamente"),
+        @ApiResponse(responseCode = "404", description = "Cliente no encontrado")
+    })
+    public Mono<Void> deleteCliente(
+            @Parameter(description = "ID único del cliente", required = true)
+            @PathVariable Long id) {
+        return clienteService.delete(id);
+    }
+    
+}
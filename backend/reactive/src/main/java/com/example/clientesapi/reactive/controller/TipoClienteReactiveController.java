@@ -0,0 +1,120 @@
+package com.example.clientesapi.reactive.controller;
+
+import com.example.clientesapi.dto.TipoClienteDTO;
+import com.example.clientesapi.reactive.service.TipoClienteReactiveService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/tipos-cliente")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Tipos de Cliente", description = "API para gestión de tipos de cliente")
+public class TipoClienteReactiveController {
+    
+    private final TipoClienteReactiveService tipoClienteService;
+    
+    @GetMapping
+    @Operation(summary = "Obtener todos los tipos de cliente", 
+               description = "Retorna una lista de todos los tipos de cliente disponibles")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", 
+                    description = "Lista de tipos de cliente obtenida exitosamente",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = TipoClienteDTO.class)))
+    })
+    public Flux<TipoClienteDTO> getAllTiposCliente() {
+        log.debug("GET /api/tipos-cliente - Obteniendo todos los tipos de cliente");
+        return tipoClienteService.findAll();
+    }
+    
+    @GetMapping("/{codigo}")
+    @Operation(summary = "Obtener tipo de cliente por código", 
+               description = "Retorna un tipo de cliente específico por su código")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", 
+                    description = "Tipo de cliente encontrado",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = TipoClienteDTO.class))),
+        @ApiResponse(responseCode = "404", 
+                    description = "Tipo de cliente no encontrado")
+    })
+    public Mono<TipoClienteDTO> getTipoClienteByCodigo(
+            @Parameter(description = "Código del tipo de cliente", required = true)
+            @PathVariable String codigo) {
+        log.debug("GET /api/tipos-cliente/{} - Obteniendo tipo de cliente por código", codigo);
+        return tipoClienteService.findById(codigo);
+    }
+    
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    @Operation(summary = "Crear nuevo tipo de cliente", 
+               description = "Crea un nuevo tipo de cliente")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", 
+                    description = "Tipo de cliente creado exitosamente",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = TipoClienteDTO.class))),
+        @ApiResponse(responseCode = "400", 
+                    description = "Datos de entrada inválidos"),
+        @ApiResponse(responseCode = "409", 
+                    description = "Tipo de cliente ya existe")
+    })
+    public Mono<TipoClienteDTO> createTipoCliente(
+            @Parameter(description = "Datos del tipo de cliente a crear", required = true)
+            @Valid @RequestBody TipoClienteDTO tipoClienteDTO) {
+        log.info("POST /api/tipos-cliente - Creando tipo de cliente: {}", tipoClienteDTO.getCodigo());
+        return tipoClienteService.save(tipoClienteDTO);
+    }
+    
+    @PutMapping("/{codigo}")
+    @Operation(summary = "Actualizar tipo de cliente", 
+               description = "Actualiza un tipo de cliente existente")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", 
+                    description = "Tipo de cliente actualizado exitosamente",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = TipoClienteDTO.class))),
+        @ApiResponse(responseCode = "400", 
+                    description = "Datos de entrada inválidos"),
+        @ApiResponse(responseCode = "404", 
+                    description = "Tipo de cliente no encontrado")
+    })
+    public Mono<TipoClienteDTO> updateTipoCliente(
+            @Parameter(description = "Código del tipo de cliente", required = true)
+            @PathVariable String codigo,
+            @Parameter(description = "Datos actualizados del tipo de cliente", required = true)
+            @Valid @RequestBody TipoClienteDTO tipoClienteDTO) {
+        log.info("PUT /api/tipos-cliente/{} - Actualizando tipo de cliente", codigo);
+        return tipoClienteService.update(codigo, tipoClienteDTO);
+    }
+    
+    @DeleteMapping("/{codigo}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Operation(summary = "Eliminar tipo de cliente", 
+               description = "Elimina un tipo de cliente por su código")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", 
+                    description = "Tipo de cliente eliminado exitosamente"),
+        @ApiResponse(responseCode = "404", 
+                    description = "Tipo de cliente no encontrado")
+    })
+    public Mono<Void> deleteTipoCliente(
+            @Parameter(description = "Código del tipo de cliente", required = true)
+            @PathVariable String codigo) {
+        log.info("DELETE /api/tipos-cliente/{} - Eliminando tipo de cliente", codigo);
+        return tipoClienteService.deleteById(codigo);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.clientesapi.reactive.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+
+/**
+ * Fila de la tabla {@code cliente} para R2DBC. Las reglas de validación viven en {@code ClienteDTO}.
+ */
+@Table("cliente")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClienteRow {
+    
+    @Id
+    @Column("id")
+    private Long id;
+    
+    @Column("rut")
+    private String rut;
+    
+    // Cuerpo numérico y dígito verificador del RUT, con el índice único entero que usan las búsquedas
+    @Column("rut_numero")
+    private Integer rutNumero;
+    
+    @Column("rut_dv")
+    private String rutDv;
+    
+    @Column("nombre")
+    private String nombre;
+    
+    @Column("apellido")
+    private String apellido;
+    
+    @Column("edad")
+    private Integer edad;
+    
+    @Column("email")
+    private String email;
+    
+    @Column("cod_tipo_cliente")
+    private String codTipoCliente;
+    
+    @Version
+    @Column("version")
+    private Long version;
+    
+    @Column("updated_at")
+    private Instant updatedAt;
+    
+}
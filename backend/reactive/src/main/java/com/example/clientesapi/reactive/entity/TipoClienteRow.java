@@ -0,0 +1,37 @@
+package com.example.clientesapi.reactive.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+
+/**
+ * Fila de la tabla {@code tipo_cliente} para R2DBC. El código es asignado por el cliente, por lo que
+ * las altas se hacen con {@code R2dbcEntityTemplate.insert} y no con {@code save}.
+ */
+@Table("tipo_cliente")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TipoClienteRow {
+    
+    @Id
+    @Column("codigo")
+    private String codigo;
+    
+    @Column("descripcion")
+    private String descripcion;
+    
+    @Version
+    @Column("version")
+    private Long version;
+    
+    @Column("updated_at")
+    private Instant updatedAt;
+    
+}
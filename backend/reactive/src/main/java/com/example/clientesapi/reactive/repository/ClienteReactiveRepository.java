@@ -0,0 +1,22 @@
+package com.example.clientesapi.reactive.repository;
+
+import com.example.clientesapi.reactive.entity.ClienteRow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ClienteReactiveRepository extends ReactiveCrudRepository<ClienteRow, Long> {
+    
+    // WHERE rut_numero = ? sobre el índice único entero; el dígito verificador se compara en la fila
+    Mono<ClienteRow> findByRutNumeroAndRutDv(Integer rutNumero, String rutDv);
+    
+    // Listado completo: las filas se emiten a medida que el suscriptor las pide
+    Flux<ClienteRow> findAllByOrderByIdAsc();
+    
+    // Paginación por cursor: se usa solo el tamaño del Pageable (página 0), nunca un offset
+    Flux<ClienteRow> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    
+}
@@ -0,0 +1,13 @@
+package com.example.clientesapi.reactive.repository;
+
+import com.example.clientesapi.reactive.entity.TipoClienteRow;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface TipoClienteReactiveRepository extends ReactiveCrudRepository<TipoClienteRow, String> {
+    
+    Flux<TipoClienteRow> findAllByOrderByCodigoAsc();
+    
+}
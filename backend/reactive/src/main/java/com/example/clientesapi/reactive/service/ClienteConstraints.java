@@ -0,0 +1,47 @@
+package com.example.clientesapi.reactive.service;
+
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.exception.BusinessLogicException;
+import com.example.clientesapi.exception.DuplicateResourceException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+/**
+ * Traduce las violaciones de restricciones de la tabla {@code cliente} a las mismas excepciones de
+ * negocio que la aplicación servlet.
+ * <p>
+ * R2DBC no expone el nombre de la restricción: se busca en el mensaje del driver, que lo incluye tanto
+ * en MySQL ({@code for key 'cliente.uk_cliente_rut_numero'}) como en H2
+ * ({@code PUBLIC.UK_CLIENTE_RUT_NUMERO_INDEX_1}).
+ */
+final class ClienteConstraints {
+    
+    static final String UK_RUT = "uk_cliente_rut_numero";
+    static final String UK_EMAIL = "uk_cliente_email";
+    static final String FK_TIPO_CLIENTE = "fk_cliente_tipo_cliente";
+    
+    private ClienteConstraints() {
+    }
+    
+    /**
+     * @param otro {@code true} si la escritura es una actualización (el conflicto es con otro cliente)
+     */
+    static RuntimeException translate(DataIntegrityViolationException ex, ClienteDTO dto, boolean otro) {
+        String message = ex.getMostSpecificCause().getMessage();
+        message = message != null ? message.toLowerCase(Locale.ROOT) : "";
+        String prefijo = otro ? "Ya existe otro cliente con " : "Ya existe un cliente con ";
+        
+        if (message.contains(UK_RUT)) {
+            return new DuplicateResourceException(prefijo + "RUT: " + dto.getRut(), ex);
+        }
+        if (message.contains(UK_EMAIL)) {
+            return new DuplicateResourceException(prefijo + "email: " + dto.getEmail(), ex);
+        }
+        if (message.contains(FK_TIPO_CLIENTE)) {
+            return new BusinessLogicException("No existe el tipo de cliente: " + dto.getCodTipoCliente(), ex);
+        }
+        return ex;
+    }
+    
+}
@@ -0,0 +1,149 @@
+package com.example.clientesapi.reactive.service;
+
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.entity.Rut;
+import com.example.clientesapi.exception.BusinessLogicException;
+import com.example.clientesapi.exception.ResourceNotFoundException;
+import com.example.clientesapi.reactive.entity.ClienteRow;
+import com.example.clientesapi.reactive.repository.ClienteReactiveRepository;
+import com.example.clientesapi.reactive.repository.TipoClienteReactiveRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class ClienteReactiveService {
+    
+    private final ClienteReactiveRepository clienteRepository;
+    private final TipoClienteReactiveRepository tipoClienteRepository;
+    
+    /**
+     * Emite todos los clientes en orden de ID. Las filas se leen del driver según la demanda del
+     * suscriptor, por lo que la memoria usada no crece con el tamaño de la tabla.
+     */
+    @Transactional(readOnly = true)
+    public Flux<ClienteDTO> findAll() {
+        return clienteRepository.findAllByOrderByIdAsc().map(this::toDTO);
+    }
+    
+    /**
+     * Retorna hasta {@code limit} clientes con ID mayor a {@code after}, ordenados por ID.
+     * El último ID de la página sirve como cursor para la siguiente.
+     */
+    @Transactional(readOnly = true)
+    public Flux<ClienteDTO> findPage(Long after, int limit) {
+        return clienteRepository.findByIdGreaterThanOrderByIdAsc(after != null ? after : 0L, PageRequest.of(0, limit))
+                .map(this::toDTO);
+    }
+    
+    @Transactional(readOnly = true)
+    public Mono<ClienteDTO> findById(Long id) {
+        return clienteRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Cliente no encontrado con ID: " + id)))
+                .map(this::toDTO);
+    }
+    
+    /**
+     * Busca el cliente por RUT en cualquiera de sus formatos ("12.345.678-5", "12345678-5", "123456785").
+     */
+    @Transactional(readOnly = true)
+    public Mono<ClienteDTO> findByRut(String rut) {
+        String canonico = Rut.normalize(rut);
+        if (canonico == null) {
+            return Mono.error(new BusinessLogicException("El RUT no tiene un formato válido: " + rut));
+        }
+        return clienteRepository.findByRutNumeroAndRutDv(Rut.numero(canonico), String.valueOf(Rut.dv(canonico)))
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Cliente no encontrado con RUT: " + rut)))
+                .map(this::toDTO);
+    }
+    
+    public Mono<ClienteDTO> create(ClienteDTO clienteDTO) {
+        // La unicidad de RUT y email la garantizan las restricciones únicas de la tabla
+        return validateRut(clienteDTO)
+                .then(validateTipoCliente(clienteDTO))
+                .then(Mono.defer(() -> {
+                    ClienteRow cliente = toRow(clienteDTO);
+                    cliente.setId(null);
+                    return clienteRepository.save(cliente);
+                }))
+                .onErrorMap(DataIntegrityViolationException.class,
+                        e -> ClienteConstraints.translate(e, clienteDTO, false))
+                .map(this::toDTO);
+    }
+    
+    public Mono<ClienteDTO> update(Long id, ClienteDTO clienteDTO) {
+        return clienteRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Cliente no encontrado con ID: " + id)))
+                .flatMap(existing -> validateRut(clienteDTO).then(validateTipoCliente(clienteDTO)).thenReturn(existing))
+                .flatMap(existing -> {
+                    // Con la versión leída, @Version rechaza la escritura si otro la modificó entremedio
+                    ClienteRow cliente = toRow(clienteDTO);
+                    cliente.setId(existing.getId());
+                    cliente.setVersion(existing.getVersion());
+                    return clienteRepository.save(cliente);
+                })
+                .onErrorMap(DataIntegrityViolationException.class,
+                        e -> ClienteConstraints.translate(e, clienteDTO, true))
+                .map(this::toDTO);
+    }
+    
+    public Mono<Void> delete(Long id) {
+        return clienteRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Cliente no encontrado con ID: " + id)))
+                .flatMap(clienteRepository::delete);
+    }
+    
+    // Deja el RUT del DTO en forma canónica, o falla si no es válido
+    private static Mono<Void> validateRut(ClienteDTO dto) {
+        return Mono.fromRunnable(() -> dto.setRut(Rut.validate(dto.getRut())));
+    }
+    
+    private Mono<Void> validateTipoCliente(ClienteDTO dto) {
+        return tipoClienteRepository.existsById(dto.getCodTipoCliente())
+                .flatMap(existe -> existe
+                        ? Mono.<Void>empty()
+                        : Mono.error(new BusinessLogicException("No existe el tipo de cliente: " + dto.getCodTipoCliente())));
+    }
+    
+    private ClienteDTO toDTO(ClienteRow cliente) {
+        return new ClienteDTO(
+                cliente.getId(),
+                cliente.getRut(),
+                cliente.getNombre(),
+                cliente.getApellido(),
+                cliente.getEdad(),
+                cliente.getEmail(),
+                cliente.getCodTipoCliente(),
+                cliente.getVersion(),
+                cliente.getUpdatedAt()
+        );
+    }
+    
+    private ClienteRow toRow(ClienteDTO dto) {
+        return new ClienteRow(
+                dto.getId(),
+                dto.getRut(),
+                Rut.numero(dto.getRut()),
+                String.valueOf(Rut.dv(dto.getRut())),
+                dto.getNombre(),
+                dto.getApellido(),
+                dto.getEdad(),
+                dto.getEmail(),
+                dto.getCodTipoCliente(),
+                null,
+                Instant.now().truncatedTo(ChronoUnit.MILLIS)
+        );
+    }
+    
+}
@@ -0,0 +1,87 @@
+package com.example.clientesapi.reactive.service;
+
+import com.example.clientesapi.dto.TipoClienteDTO;
+import com.example.clientesapi.exception.BusinessLogicException;
+import com.example.clientesapi.exception.DuplicateResourceException;
+import com.example.clientesapi.exception.ResourceNotFoundException;
+import com.example.clientesapi.reactive.entity.TipoClienteRow;
+import com.example.clientesapi.reactive.repository.TipoClienteReactiveRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class TipoClienteReactiveService {
+    
+    private final TipoClienteReactiveRepository tipoClienteRepository;
+    private final R2dbcEntityTemplate entityTemplate;
+    
+    @Transactional(readOnly = true)
+    public Flux<TipoClienteDTO> findAll() {
+        log.debug("Buscando todos los tipos de cliente");
+        return tipoClienteRepository.findAllByOrderByCodigoAsc().map(this::convertToDTO);
+    }
+    
+    @Transactional(readOnly = true)
+    public Mono<TipoClienteDTO> findById(String codigo) {
+        log.debug("Buscando tipo de cliente por código: {}", codigo);
+        return tipoClienteRepository.findById(codigo)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Tipo de cliente no encontrado con código: " + codigo)))
+                .map(this::convertToDTO);
+    }
+    
+    public Mono<TipoClienteDTO> save(TipoClienteDTO tipoClienteDTO) {
+        log.info("Creando nuevo tipo de cliente: {}", tipoClienteDTO.getCodigo());
+        
+        // El código es la clave primaria: un INSERT duplicado falla con DuplicateKeyException
+        return entityTemplate.insert(convertToEntity(tipoClienteDTO))
+                .onErrorMap(DuplicateKeyException.class,
+                        e -> new DuplicateResourceException("Ya existe un tipo de cliente con código: " + tipoClienteDTO.getCodigo(), e))
+                .map(this::convertToDTO);
+    }
+    
+    public Mono<TipoClienteDTO> update(String codigo, TipoClienteDTO tipoClienteDTO) {
+        log.info("Actualizando tipo de cliente: {}", codigo);
+        
+        return tipoClienteRepository.findById(codigo)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Tipo de cliente no encontrado con código: " + codigo)))
+                .flatMap(existing -> {
+                    existing.setDescripcion(tipoClienteDTO.getDescripcion());
+                    existing.setUpdatedAt(Instant.now().truncatedTo(ChronoUnit.MILLIS));
+                    return tipoClienteRepository.save(existing);
+                })
+                .map(this::convertToDTO);
+    }
+    
+    public Mono<Void> deleteById(String codigo) {
+        log.info("Eliminando tipo de cliente: {}", codigo);
+        
+        return tipoClienteRepository.existsById(codigo)
+                .flatMap(existe -> existe
+                        ? tipoClienteRepository.deleteById(codigo)
+                        : Mono.error(new ResourceNotFoundException("Tipo de cliente no encontrado con código: " + codigo)))
+                .onErrorMap(DataIntegrityViolationException.class,
+                        e -> new BusinessLogicException("El tipo de cliente tiene clientes asociados: " + codigo, e));
+    }
+    
+    private TipoClienteDTO convertToDTO(TipoClienteRow tipoCliente) {
+        return new TipoClienteDTO(tipoCliente.getCodigo(), tipoCliente.getDescripcion(),
+                tipoCliente.getVersion(), tipoCliente.getUpdatedAt());
+    }
+    
+    private TipoClienteRow convertToEntity(TipoClienteDTO dto) {
+        return new TipoClienteRow(dto.getCodigo(), dto.getDescripcion(), null, Instant.now().truncatedTo(ChronoUnit.MILLIS));
+    }
+}
@@ -0,0 +1,7 @@
+-- Catálogo de tipos de cliente para el perfil h2 (CORPORATIVO se abrevia CORP: el código admite 10 caracteres)
+MERGE INTO tipo_cliente (codigo, descripcion) KEY (codigo) VALUES
+('VIP', 'Cliente VIP - Servicio premium con beneficios especiales'),
+('REGULAR', 'Cliente Regular - Servicio estándar'),
+('NUEVO', 'Cliente Nuevo - Recién registrado en el sistema'),
+('CORP', 'Cliente Corporativo - Empresa o entidad jurídica'),
+('ESTUDIANTE', 'Cliente Estudiante - Descuentos especiales para estudiantes');
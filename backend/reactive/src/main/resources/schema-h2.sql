@@ -0,0 +1,25 @@
+-- Esquema de la tabla cliente/tipo_cliente para H2 (perfil h2). Mantiene los nombres de las
+-- restricciones del esquema MySQL para que los errores se traduzcan igual
+CREATE TABLE IF NOT EXISTS tipo_cliente (
+    codigo VARCHAR(10) NOT NULL PRIMARY KEY,
+    descripcion VARCHAR(100) NOT NULL,
+    updated_at TIMESTAMP(3),
+    version BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS cliente (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    rut VARCHAR(12) NOT NULL,
+    nombre VARCHAR(50) NOT NULL,
+    apellido VARCHAR(50) NOT NULL,
+    edad INT,
+    email VARCHAR(100) NOT NULL,
+    cod_tipo_cliente VARCHAR(10) NOT NULL,
+    updated_at TIMESTAMP(3),
+    version BIGINT NOT NULL DEFAULT 0,
+    rut_numero INT NOT NULL,
+    rut_dv CHAR(1) NOT NULL,
+    CONSTRAINT uk_cliente_rut_numero UNIQUE (rut_numero),
+    CONSTRAINT uk_cliente_email UNIQUE (email),
+    CONSTRAINT fk_cliente_tipo_cliente FOREIGN KEY (cod_tipo_cliente) REFERENCES tipo_cliente (codigo)
+);
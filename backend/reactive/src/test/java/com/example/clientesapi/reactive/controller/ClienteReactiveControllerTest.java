@@ -0,0 +1,213 @@
+package com.example.clientesapi.reactive.controller;
+
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.entity.Rut;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * API reactiva contra H2 (R2DBC): CRUD, cuerpos de error iguales a los de {@code GlobalExceptionHandler},
+ * paginación con cursor y exportación NDJSON.
+ */
+@SpringBootTest
+@AutoConfigureWebTestClient
+@ActiveProfiles("h2")
+class ClienteReactiveControllerTest {
+    
+    private static final AtomicInteger SIGUIENTE = new AtomicInteger(10_000_000);
+    
+    @Autowired
+    private WebTestClient webTestClient;
+    
+    @Test
+    void crearLeerActualizarYEliminar() {
+        int numero = SIGUIENTE.incrementAndGet();
+        ClienteDTO creado = crear(cliente(numero));
+        assertThat(creado.getId()).isNotNull();
+        assertThat(creado.getRut()).isEqualTo(rut(numero));
+        
+        webTestClient.get().uri("/api/clientes/{id}", creado.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.nombre").isEqualTo("Ana")
+                .jsonPath("$.codTipoCliente").isEqualTo("VIP");
+        webTestClient.get().uri("/api/clientes/rut/{rut}", String.valueOf(numero) + Rut.digitoVerificador(numero))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(creado.getId());
+        
+        ClienteDTO modificado = cliente(numero);
+        modificado.setNombre("Beatriz");
+        webTestClient.put().uri("/api/clientes/{id}", creado.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(modificado)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.nombre").isEqualTo("Beatriz");
+        
+        webTestClient.delete().uri("/api/clientes/{id}", creado.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+        webTestClient.get().uri("/api/clientes/{id}", creado.getId())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+    
+    @Test
+    void clienteInexistenteResponde404() {
+        webTestClient.get().uri("/api/clientes/{id}", Long.MAX_VALUE)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(404)
+                .jsonPath("$.error").isEqualTo("Recurso no encontrado")
+                .jsonPath("$.message").isEqualTo("Cliente no encontrado con ID: " + Long.MAX_VALUE)
+                .jsonPath("$.timestamp").exists();
+    }
+    
+    @Test
+    void rutOEmailRepetidosResponden409() {
+        ClienteDTO existente = crear(cliente(SIGUIENTE.incrementAndGet()));
+        
+        ClienteDTO mismoRut = cliente(SIGUIENTE.incrementAndGet());
+        mismoRut.setRut(existente.getRut());
+        webTestClient.post().uri("/api/clientes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(mismoRut)
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(409)
+                .jsonPath("$.error").isEqualTo("Recurso duplicado")
+                .jsonPath("$.message").isEqualTo("Ya existe un cliente con RUT: " + existente.getRut());
+        
+        ClienteDTO otro = crear(cliente(SIGUIENTE.incrementAndGet()));
+        ClienteDTO mismoEmail = cliente(SIGUIENTE.incrementAndGet());
+        mismoEmail.setRut(otro.getRut());
+        mismoEmail.setEmail(existente.getEmail());
+        webTestClient.put().uri("/api/clientes/{id}", otro.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(mismoEmail)
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Recurso duplicado")
+                .jsonPath("$.message").isEqualTo("Ya existe otro cliente con email: " + existente.getEmail());
+    }
+    
+    @Test
+    void datosInvalidosResponden400() {
+        ClienteDTO sinNombre = cliente(SIGUIENTE.incrementAndGet());
+        sinNombre.setNombre("");
+        webTestClient.post().uri("/api/clientes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(sinNombre)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(400)
+                .jsonPath("$.error").isEqualTo("Error de validación")
+                .jsonPath("$.message").isEqualTo("Los datos proporcionados no son válidos")
+                .jsonPath("$.validationErrors.nombre").isEqualTo("El nombre es obligatorio");
+        
+        ClienteDTO tipoInexistente = cliente(SIGUIENTE.incrementAndGet());
+        tipoInexistente.setCodTipoCliente("NOEXISTE");
+        webTestClient.post().uri("/api/clientes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(tipoInexistente)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Error de lógica de negocio")
+                .jsonPath("$.message").isEqualTo("No existe el tipo de cliente: NOEXISTE");
+        
+        webTestClient.get().uri("/api/clientes?limit=0")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("El parámetro limit debe estar entre 1 y 1000");
+    }
+    
+    @Test
+    void elCursorSoloSeEnviaSiHayUnaPaginaSiguiente() {
+        List<ClienteDTO> creados = List.of(
+                crear(cliente(SIGUIENTE.incrementAndGet())),
+                crear(cliente(SIGUIENTE.incrementAndGet())),
+                crear(cliente(SIGUIENTE.incrementAndGet())),
+                crear(cliente(SIGUIENTE.incrementAndGet())));
+        long antes = creados.get(0).getId() - 1;
+        
+        webTestClient.get().uri("/api/clientes?after={after}&limit=2", antes)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(ClienteReactiveController.NEXT_CURSOR_HEADER, String.valueOf(creados.get(1).getId()))
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].id").isEqualTo(creados.get(0).getId())
+                .jsonPath("$[1].id").isEqualTo(creados.get(1).getId());
+        
+        // La última página está completa, pero no hay más filas: no se envía cursor
+        webTestClient.get().uri("/api/clientes?after={after}&limit=2", creados.get(1).getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(ClienteReactiveController.NEXT_CURSOR_HEADER)
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[1].id").isEqualTo(creados.get(3).getId());
+    }
+    
+    @Test
+    void streamEmiteUnClientePorLineaEnOrdenDeId() {
+        ClienteDTO primero = crear(cliente(SIGUIENTE.incrementAndGet()));
+        ClienteDTO segundo = crear(cliente(SIGUIENTE.incrementAndGet()));
+        
+        List<ClienteDTO> clientes = webTestClient.get().uri("/api/clientes/stream")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(ClienteDTO.class)
+                .getResponseBody()
+                .collectList()
+                .block(Duration.ofSeconds(10));
+        
+        assertThat(clientes).extracting(ClienteDTO::getId).contains(primero.getId(), segundo.getId()).isSorted();
+        assertThat(clientes).filteredOn(c -> c.getId().equals(segundo.getId()))
+                .singleElement()
+                .extracting(ClienteDTO::getRut).isEqualTo(segundo.getRut());
+    }
+    
+    private ClienteDTO crear(ClienteDTO cliente) {
+        return webTestClient.post().uri("/api/clientes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(cliente)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(ClienteDTO.class)
+                .returnResult()
+                .getResponseBody();
+    }
+    
+    private static String rut(int numero) {
+        return numero + "-" + Rut.digitoVerificador(numero);
+    }
+    
+    private static ClienteDTO cliente(int numero) {
+        return new ClienteDTO(null, rut(numero), "Ana", "Rojas", 30, "reactivo" + numero + "@example.com", "VIP");
+    }
+    
+}
@@ -1,9 +1,14 @@
 package com.example.clientesapi;
 
+import com.example.clientesapi.config.ClientesRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@ImportRuntimeHints(ClientesRuntimeHints.class)
 public class ClientesApiApplication {
 
     public static void main(String[] args) {
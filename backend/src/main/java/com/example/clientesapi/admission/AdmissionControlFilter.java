@@ -0,0 +1,213 @@
+package com.example.clientesapi.admission;
+
+import com.example.clientesapi.exception.GlobalExceptionHandler.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Control de admisión de {@code /api/**}: límite de tasa por cliente y límite de concurrencia por clase
+ * de endpoint ({@link EndpointClass}).
+ * <p>
+ * Un cliente que supera su tasa recibe 429; una request cuya clase no tiene lugar dentro de la espera
+ * máxima recibe 503. Ambos incluyen {@code Retry-After}. Como cada clase tiene sus propios lugares, los
+ * listados y exportaciones no pueden ocupar las conexiones que necesitan las lecturas puntuales, cuya
+ * latencia se mantiene acotada aunque los listados estén saturados.
+ * <p>
+ * El lugar se ocupa hasta que la respuesta termina, salvo que el endpoint lo libere antes con
+ * {@link #releaseEarly}.
+ */
+@Slf4j
+public class AdmissionControlFilter extends OncePerRequestFilter {
+    
+    private static final String PERMISO = AdmissionControlFilter.class.getName() + ".permiso";
+    
+    private final AdmissionProperties properties;
+    private final ObjectMapper objectMapper;
+    private final ClientAddress clientAddress;
+    private final Cache<String, TokenBucket> baldes;
+    private final Cache<String, TokenBucket> altas;
+    private final Map<EndpointClass, ConcurrencyLimiter> limiters = new EnumMap<>(EndpointClass.class);
+    private final LongAdder rechazosPorTasa = new LongAdder();
+    
+    public AdmissionControlFilter(AdmissionProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.clientAddress = new ClientAddress(properties.getTrustedProxies(),
+                properties.getSourceIpv4Prefix(), properties.getSourceIpv6Prefix());
+        this.baldes = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxClients())
+                .expireAfterAccess(properties.getClientIdleTimeout())
+                .build();
+        this.altas = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxClients())
+                .expireAfterAccess(properties.getClientIdleTimeout())
+                .build();
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            AdmissionProperties.Limit limit = properties.getLimit(endpointClass);
+            limiters.put(endpointClass, new ConcurrencyLimiter(endpointClass,
+                    limit.getMaxConcurrent(), limit.getMaxQueue(), limit.getMaxWait()));
+        }
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (properties.getRate() > 0) {
+            long espera = tryConsume(request);
+            if (espera > 0) {
+                rechazosPorTasa.increment();
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, Duration.ofNanos(espera), "Demasiadas solicitudes",
+                        "Se superó el límite de solicitudes por cliente");
+                return;
+            }
+        }
+        
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        EndpointClass endpointClass = EndpointClass.of(request.getMethod(), path);
+        if (endpointClass == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        ConcurrencyLimiter limiter = limiters.get(endpointClass);
+        if (!limiter.tryAcquire()) {
+            log.debug("Request rechazada por sobrecarga: {} {} (clase {})", request.getMethod(), path, endpointClass);
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, properties.getOverloadRetryAfter(), "Servicio sobrecargado",
+                    "No hay capacidad disponible para atender la solicitud");
+            return;
+        }
+        Permiso permiso = new Permiso(limiter);
+        request.setAttribute(PERMISO, permiso);
+        boolean liberar = true;
+        try {
+            chain.doFilter(request, response);
+            // Las respuestas en streaming siguen escribiéndose después de salir del filtro: el lugar se
+            // libera al completarse. El contenedor no completa la request asíncrona antes de que este hilo
+            // retorne, así que el listener no puede perderse el evento
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(permiso);
+                liberar = false;
+            }
+        } finally {
+            if (liberar) {
+                permiso.release();
+            }
+        }
+    }
+    
+    /**
+     * Libera el lugar de concurrencia que ocupa la request, si tiene uno, antes de que termine. Lo usa una
+     * escritura ya encolada en el pipeline de escrituras mientras espera su lote: la espera no ocupa una
+     * conexión, y si retuviera el lugar no podrían agruparse más de {@code write.max-concurrent}
+     * escrituras por lote. Desde ahí el límite es la cola acotada del pipeline.
+     */
+    public static void releaseEarly(ServletRequest request) {
+        if (request.getAttribute(PERMISO) instanceof Permiso permiso) {
+            permiso.release();
+        }
+    }
+    
+    public Iterable<ConcurrencyLimiter> getLimiters() {
+        return limiters.values();
+    }
+    
+    public long getRechazosPorTasa() {
+        return rechazosPorTasa.sum();
+    }
+    
+    /**
+     * Consume un token del cliente: el usuario autenticado si lo hay, o su dirección de origen. Un
+     * header enviado por el propio cliente no sirve de clave, porque cambiarlo en cada request daría un
+     * límite nuevo cada vez. Retorna 0 o los nanosegundos de espera hasta el próximo token.
+     */
+    private long tryConsume(HttpServletRequest request) {
+        long ahora = System.nanoTime();
+        Principal usuario = request.getUserPrincipal();
+        if (usuario != null) {
+            return baldes.get("usuario:" + usuario.getName(), clave -> new TokenBucket(
+                    properties.getRate(), properties.getBurst(), ahora)).tryConsume(ahora);
+        }
+        String direccion = clientAddress.resolve(request);
+        TokenBucket balde = baldes.getIfPresent(direccion);
+        if (balde == null) {
+            long espera = altas.get(clientAddress.source(direccion), fuente -> new TokenBucket(
+                    properties.getNewClientRate(), properties.getNewClientBurst(), ahora)).tryConsume(ahora);
+            if (espera > 0) {
+                return espera;
+            }
+            balde = baldes.get(direccion, clave -> new TokenBucket(properties.getRate(), properties.getBurst(), ahora));
+        }
+        return balde.tryConsume(ahora);
+    }
+    
+    private void reject(HttpServletResponse response, HttpStatus status, Duration retryAfter, String error, String message)
+            throws IOException {
+        long segundos = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(retryAfter.toNanos() + 999_999_999));
+        ErrorResponse errorResponse = new ErrorResponse(status.value(), error,
+                message + "; reintentar en " + segundos + " s");
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(segundos));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+    
+    // Lugar ocupado por una request: se libera una sola vez, al terminar, al completarse la respuesta
+    // asíncrona o antes con releaseEarly
+    private static final class Permiso implements AsyncListener {
+        
+        private final ConcurrencyLimiter limiter;
+        private final AtomicBoolean liberado = new AtomicBoolean();
+        
+        private Permiso(ConcurrencyLimiter limiter) {
+            this.limiter = limiter;
+        }
+        
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+        
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+        
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+        
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+        
+        // Un timeout o error va seguido de onComplete
+        void release() {
+            if (liberado.compareAndSet(false, true)) {
+                limiter.release();
+            }
+        }
+    }
+    
+}
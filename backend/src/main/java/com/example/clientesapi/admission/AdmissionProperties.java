@@ -0,0 +1,89 @@
+package com.example.clientesapi.admission;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuración del control de admisión de {@code /api/**} ({@code clientes.admission.*}).
+ */
+@ConfigurationProperties(prefix = "clientes.admission")
+@Data
+public class AdmissionProperties {
+    
+    /**
+     * Proxies cuyo {@code X-Forwarded-For} se acepta, como direcciones o redes CIDR. Sin proxies de
+     * confianza el cliente es siempre la dirección remota; el header no se lee.
+     */
+    private List<String> trustedProxies = new ArrayList<>();
+    
+    /** Requests por segundo sostenidas por cliente; 0 desactiva el límite de tasa. */
+    private double rate = 50;
+    
+    /** Requests que un cliente puede hacer de una vez por sobre la tasa sostenida. */
+    private int burst = 100;
+    
+    /**
+     * Clientes nuevos por segundo que puede dar de alta una misma red de origen. Sin este tope, rotar
+     * direcciones dentro de una red propia daría un límite nuevo por request y desplazaría de memoria
+     * los límites de los demás clientes.
+     */
+    private double newClientRate = 1;
+    
+    /** Clientes nuevos que una red de origen puede dar de alta de una vez. */
+    private int newClientBurst = 32;
+    
+    /** Largo de la red de origen de un cliente IPv4. */
+    private int sourceIpv4Prefix = 24;
+    
+    /** Largo de la red de origen de un cliente IPv6. */
+    private int sourceIpv6Prefix = 64;
+    
+    /** Máximo de clientes con límite de tasa en memoria; se descartan los de menos actividad. */
+    private long maxClients = 100_000;
+    
+    /** Tiempo sin requests después del cual se olvida el límite de tasa de un cliente. */
+    private Duration clientIdleTimeout = Duration.ofMinutes(10);
+    
+    /** Valor de {@code Retry-After} en los rechazos por sobrecarga (503). */
+    private Duration overloadRetryAfter = Duration.ofSeconds(1);
+    
+    /** Listados, búsquedas y exportaciones. */
+    private Limit list = new Limit(4, 8, Duration.ofMillis(500));
+    
+    /** Lecturas puntuales. */
+    private Limit read = new Limit(32, 64, Duration.ofMillis(50));
+    
+    /** Escrituras. */
+    private Limit write = new Limit(4, 32, Duration.ofMillis(250));
+    
+    public Limit getLimit(EndpointClass endpointClass) {
+        return switch (endpointClass) {
+            case LIST -> list;
+            case READ -> read;
+            case WRITE -> write;
+        };
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+        
+        /** Requests de la clase en ejecución a la vez. */
+        private int maxConcurrent;
+        
+        /** Requests esperando un lugar; las siguientes se rechazan de inmediato. */
+        private int maxQueue;
+        
+        /** Espera máxima por un lugar; quien no lo obtiene en ese tiempo se rechaza. */
+        private Duration maxWait;
+        
+    }
+    
+}
@@ -0,0 +1,154 @@
+package com.example.clientesapi.admission;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Dirección de origen de una request para el límite de tasa.
+ * <p>
+ * Es la dirección remota, salvo que esta sea uno de los proxies de confianza: entonces se recorre
+ * {@code X-Forwarded-For} de derecha a izquierda, saltando los proxies de confianza, y vale la primera
+ * dirección que no lo es. Las entradas más a la izquierda las escribe el propio cliente y no se leen.
+ * Nunca se consulta DNS: una entrada que no es una dirección IP literal corta el recorrido.
+ */
+final class ClientAddress {
+    
+    static final String X_FORWARDED_FOR = "X-Forwarded-For";
+    
+    private static final Pattern IPV4 = Pattern.compile("\\d{1,3}(\\.\\d{1,3}){3}");
+    
+    private final List<Network> trustedProxies;
+    private final int ipv4Prefix;
+    private final int ipv6Prefix;
+    
+    /**
+     * @param trustedProxies direcciones o redes en notación CIDR ({@code 10.0.0.0/8}, {@code fd00::/8})
+     * @param ipv4Prefix largo de la red de origen de una dirección IPv4 (ver {@link #source})
+     * @param ipv6Prefix largo de la red de origen de una dirección IPv6
+     */
+    ClientAddress(List<String> trustedProxies, int ipv4Prefix, int ipv6Prefix) {
+        this.trustedProxies = trustedProxies.stream().map(Network::parse).toList();
+        this.ipv4Prefix = ipv4Prefix;
+        this.ipv6Prefix = ipv6Prefix;
+    }
+    
+    /**
+     * Dirección del cliente, o la dirección remota tal cual si no es una dirección IP.
+     */
+    String resolve(HttpServletRequest request) {
+        InetAddress actual = parse(request.getRemoteAddr());
+        if (actual == null) {
+            return request.getRemoteAddr();
+        }
+        if (isTrusted(actual)) {
+            List<String> saltos = forwardedFor(request);
+            for (int i = saltos.size() - 1; i >= 0; i--) {
+                InetAddress salto = parse(saltos.get(i));
+                if (salto == null) {
+                    break;
+                }
+                actual = salto;
+                if (!isTrusted(salto)) {
+                    break;
+                }
+            }
+        }
+        return actual.getHostAddress();
+    }
+    
+    /**
+     * Red de origen de una dirección resuelta: los primeros {@code ipv4Prefix} o {@code ipv6Prefix} bits.
+     * Quien controla una red puede usar cualquiera de sus direcciones, así que la red es la unidad con la
+     * que se acota cuántos clientes nuevos puede dar de alta una misma fuente.
+     */
+    String source(String address) {
+        InetAddress inet = parse(address);
+        if (inet == null) {
+            return address;
+        }
+        byte[] bytes = inet.getAddress();
+        Network.mask(bytes, bytes.length == 4 ? ipv4Prefix : ipv6Prefix);
+        try {
+            return InetAddress.getByAddress(bytes).getHostAddress() + "/" + (bytes.length == 4 ? ipv4Prefix : ipv6Prefix);
+        } catch (UnknownHostException e) {
+            return address;
+        }
+    }
+    
+    private boolean isTrusted(InetAddress address) {
+        for (Network network : trustedProxies) {
+            if (network.contains(address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    // Varios headers equivalen a una sola lista separada por comas, en el orden en que llegan
+    private static List<String> forwardedFor(HttpServletRequest request) {
+        List<String> saltos = new ArrayList<>();
+        for (String header : Collections.list(request.getHeaders(X_FORWARDED_FOR))) {
+            for (String salto : header.split(",")) {
+                saltos.add(salto.trim());
+            }
+        }
+        return saltos;
+    }
+    
+    // Solo literales: InetAddress resuelve por DNS un nombre, pero no un texto que empieza con un dígito
+    // hexadecimal o ':' y que tiene forma IPv4 o contiene ':'
+    static InetAddress parse(String literal) {
+        if (literal == null || literal.isEmpty()
+                || (Character.digit(literal.charAt(0), 16) < 0 && literal.charAt(0) != ':')
+                || (!IPV4.matcher(literal).matches() && literal.indexOf(':') < 0)) {
+            return null;
+        }
+        try {
+            return InetAddress.getByName(literal);
+        } catch (UnknownHostException | SecurityException e) {
+            return null;
+        }
+    }
+    
+    private record Network(byte[] prefijo, int largo) {
+        
+        static Network parse(String cidr) {
+            int barra = cidr.indexOf('/');
+            InetAddress direccion = ClientAddress.parse(barra < 0 ? cidr.trim() : cidr.substring(0, barra).trim());
+            if (direccion == null) {
+                throw new IllegalArgumentException("Proxy de confianza inválido: " + cidr);
+            }
+            byte[] bytes = direccion.getAddress();
+            int largo = barra < 0 ? bytes.length * 8 : Integer.parseInt(cidr.substring(barra + 1).trim());
+            if (largo < 0 || largo > bytes.length * 8) {
+                throw new IllegalArgumentException("Proxy de confianza inválido: " + cidr);
+            }
+            mask(bytes, largo);
+            return new Network(bytes, largo);
+        }
+        
+        boolean contains(InetAddress address) {
+            byte[] bytes = address.getAddress();
+            if (bytes.length != prefijo.length) {
+                return false;
+            }
+            mask(bytes, largo);
+            return Arrays.equals(bytes, prefijo);
+        }
+        
+        static void mask(byte[] bytes, int largo) {
+            for (int i = 0; i < bytes.length; i++) {
+                int bits = Math.max(0, Math.min(8, largo - i * 8));
+                bytes[i] &= (byte) (0xFF << (8 - bits));
+            }
+        }
+    }
+    
+}
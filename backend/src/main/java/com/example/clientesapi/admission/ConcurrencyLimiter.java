@@ -0,0 +1,83 @@
+package com.example.clientesapi.admission;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Límite de concurrencia de una clase de endpoint, con una cola acotada en cantidad y en tiempo de
+ * espera: bajo sobrecarga se rechaza rápido en lugar de acumular requests que terminarían por timeout.
+ */
+public class ConcurrencyLimiter {
+    
+    private final EndpointClass endpointClass;
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+    // Justo: los lugares se entregan en orden de llegada y la espera de cada request queda acotada
+    private final Semaphore permisos;
+    private final AtomicInteger enEspera = new AtomicInteger();
+    private final LongAdder rechazosPorCola = new LongAdder();
+    private final LongAdder rechazosPorEspera = new LongAdder();
+    
+    public ConcurrencyLimiter(EndpointClass endpointClass, int maxConcurrent, int maxQueue, Duration maxWait) {
+        this.endpointClass = endpointClass;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueue = maxQueue;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.permisos = new Semaphore(maxConcurrent, true);
+    }
+    
+    /**
+     * Obtiene un lugar, esperando como máximo el tiempo configurado. Retorna {@code false} si la cola
+     * está llena o la espera se agotó.
+     */
+    boolean tryAcquire() {
+        if (permisos.tryAcquire()) {
+            return true;
+        }
+        if (enEspera.incrementAndGet() > maxQueue) {
+            enEspera.decrementAndGet();
+            rechazosPorCola.increment();
+            return false;
+        }
+        try {
+            if (permisos.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            enEspera.decrementAndGet();
+        }
+        rechazosPorEspera.increment();
+        return false;
+    }
+    
+    void release() {
+        permisos.release();
+    }
+    
+    public EndpointClass getEndpointClass() {
+        return endpointClass;
+    }
+    
+    public int getEnCurso() {
+        return maxConcurrent - permisos.availablePermits();
+    }
+    
+    public int getEnEspera() {
+        return enEspera.get();
+    }
+    
+    public long getRechazosPorCola() {
+        return rechazosPorCola.sum();
+    }
+    
+    public long getRechazosPorEspera() {
+        return rechazosPorEspera.sum();
+    }
+    
+}
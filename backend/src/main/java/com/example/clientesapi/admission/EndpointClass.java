@@ -0,0 +1,47 @@
+package com.example.clientesapi.admission;
+
+import java.util.Set;
+
+/**
+ * Clases de endpoint con límites de concurrencia independientes, para que un tipo de request no
+ * agote la capacidad de los demás.
+ */
+public enum EndpointClass {
+    
+    /** Listados, búsquedas y exportaciones: recorren muchas filas y retienen una conexión por más tiempo. */
+    LIST,
+    
+    /** Lecturas puntuales por ID, RUT o código, en su mayoría resueltas en caché. */
+    READ,
+    
+    /** Creaciones, modificaciones, eliminaciones, cargas masivas e importaciones. */
+    WRITE;
+    
+    private static final Set<String> LISTADOS = Set.of(
+            "/api/clientes", "/api/clientes/search", "/api/clientes/stream", "/api/clientes/export");
+    
+    private static final Set<String> METODOS_SEGUROS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+    
+    /**
+     * Clase de la request, o {@code null} si no tiene límite de concurrencia: el long-poll de
+     * {@code /api/clientes/changes} espera sin retener conexiones ni hilos.
+     */
+    static EndpointClass of(String method, String path) {
+        if (path.equals("/api/clientes/changes")) {
+            return null;
+        }
+        if (!METODOS_SEGUROS.contains(method)) {
+            // _mget es un POST solo por el tamaño del cuerpo: son lecturas puntuales por clave
+            return path.equals("/api/clientes/_mget") ? READ : WRITE;
+        }
+        return LISTADOS.contains(path) && (method.equals("GET") || method.equals("HEAD")) ? LIST : READ;
+    }
+    
+    /**
+     * Si la request modifica datos; {@code path} es relativo al contexto de la aplicación.
+     */
+    public static boolean isWrite(String method, String path) {
+        return of(method, path) == WRITE;
+    }
+    
+}
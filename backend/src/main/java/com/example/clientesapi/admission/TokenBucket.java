@@ -0,0 +1,33 @@
+package com.example.clientesapi.admission;
+
+/**
+ * Balde de tokens: se recarga a una tasa constante hasta su capacidad y cada request consume un token.
+ */
+final class TokenBucket {
+    
+    private final double capacidad;
+    private final double tokensPorNano;
+    private double tokens;
+    private long ultimaRecarga;
+    
+    TokenBucket(double tokensPorSegundo, int capacidad, long ahora) {
+        this.capacidad = capacidad;
+        this.tokensPorNano = tokensPorSegundo / 1_000_000_000d;
+        this.tokens = capacidad;
+        this.ultimaRecarga = ahora;
+    }
+    
+    /**
+     * Consume un token. Retorna 0 si lo había, o los nanosegundos que faltan para que haya uno.
+     */
+    synchronized long tryConsume(long ahora) {
+        tokens = Math.min(capacidad, tokens + (ahora - ultimaRecarga) * tokensPorNano);
+        ultimaRecarga = ahora;
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPorNano);
+    }
+    
+}
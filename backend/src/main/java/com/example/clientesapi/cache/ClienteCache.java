@@ -0,0 +1,228 @@
+package com.example.clientesapi.cache;
+
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.event.ClienteChangeEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Caché acotada de clientes por ID y por RUT.
+ * <p>
+ * Cada cliente se guarda una sola vez, indexado por ID; un índice secundario RUT → ID permite que
+ * ambas búsquedas compartan la misma entrada. Las entradas expiran por tamaño y por TTL, y se invalidan
+ * cuando el cliente se actualiza o elimina. Además se recuerdan por un tiempo corto los RUT consultados
+ * que no existen, para que las búsquedas repetidas de RUT inexistentes no lleguen a la base de datos.
+ * Los DTO retornados son compartidos y no deben modificarse.
+ * <p>
+ * Las cargas desde la base de datos tras un fallo pasan por {@link #loadById} y {@link #loadByRut}: las
+ * lecturas concurrentes de la misma clave comparten una sola consulta.
+ * <p>
+ * Una carga que leyó la fila antes de un cambio puede terminar después de que éste invalidó la caché.
+ * Para que no vuelva a cachear el estado anterior, cada cambio confirmado deja por un tiempo corto
+ * ({@code clientes.cache.cliente.change-ttl}) la versión mínima que se acepta para ese ID (ninguna si el
+ * cliente fue eliminado) y los RUT que pasaron a existir, que no se pueden recordar como inexistentes.
+ */
+@Component
+public class ClienteCache {
+    
+    private final Cache<Long, ClienteDTO> porId;
+    private final Map<String, Long> idPorRut = new ConcurrentHashMap<>();
+    private final Cache<String, Boolean> rutsInexistentes;
+    private final Cache<Long, Long> versionesMinimas;
+    private final Cache<String, Boolean> rutsExistentes;
+    private final SingleFlight<Long, ClienteDTO> cargasPorId;
+    private final SingleFlight<String, ClienteDTO> cargasPorRut;
+    
+    public ClienteCache(@Value("${clientes.cache.cliente.maximum-size:10000}") long maximumSize,
+                        @Value("${clientes.cache.cliente.ttl:10m}") Duration ttl,
+                        @Value("${clientes.cache.cliente.negative-maximum-size:10000}") long negativeMaximumSize,
+                        @Value("${clientes.cache.cliente.negative-ttl:30s}") Duration negativeTtl,
+                        @Value("${clientes.cache.cliente.load-wait:5s}") Duration loadWait,
+                        @Value("${clientes.cache.cliente.change-ttl:1m}") Duration changeTtl) {
+        this.cargasPorId = new SingleFlight<>(loadWait);
+        this.cargasPorRut = new SingleFlight<>(loadWait);
+        this.porId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                // El listener corre en el hilo que remueve, para que el índice por RUT quede consistente
+                .executor(Runnable::run)
+                .removalListener((Long id, ClienteDTO cliente, RemovalCause cause) -> {
+                    if (cliente != null && cause != RemovalCause.REPLACED) {
+                        idPorRut.remove(cliente.getRut(), id);
+                    }
+                })
+                .recordStats()
+                .build();
+        this.rutsInexistentes = Caffeine.newBuilder()
+                .maximumSize(negativeMaximumSize)
+                .expireAfterWrite(negativeTtl)
+                .recordStats()
+                .build();
+        this.versionesMinimas = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(changeTtl)
+                .build();
+        this.rutsExistentes = Caffeine.newBuilder()
+                .maximumSize(negativeMaximumSize)
+                .expireAfterWrite(changeTtl)
+                .build();
+    }
+    
+    public ClienteDTO getById(Long id) {
+        return porId.getIfPresent(id);
+    }
+    
+    public ClienteDTO getByRut(String rut) {
+        Long id = idPorRut.get(rut);
+        if (id == null) {
+            return null;
+        }
+        ClienteDTO cliente = porId.getIfPresent(id);
+        return cliente != null && rut.equals(cliente.getRut()) ? cliente : null;
+    }
+    
+    /**
+     * Indica si el RUT fue consultado recientemente y no existía.
+     */
+    public boolean isMissingRut(String rut) {
+        return rutsInexistentes.getIfPresent(rut) != null;
+    }
+    
+    /**
+     * Guarda el cliente salvo que la caché ya tenga una versión más reciente, lo que ocurre cuando una
+     * lectura que empezó antes de una actualización termina después de que ésta se cacheó, o que un
+     * cambio confirmado hace poco lo haya dejado obsoleto o eliminado.
+     */
+    public void put(ClienteDTO cliente) {
+        ClienteDTO[] previous = new ClienteDTO[1];
+        ClienteDTO current = porId.asMap().compute(cliente.getId(), (id, existing) -> {
+            previous[0] = existing;
+            // Se consulta dentro de compute: el cambio registra la versión mínima antes de invalidar la
+            // misma clave, así que o esta carga la ve o la invalidación llega después y la remueve
+            Long minima = versionesMinimas.getIfPresent(id);
+            if (minima != null && version(cliente) < minima) {
+                return existing;
+            }
+            return existing != null && version(existing) > version(cliente) ? existing : cliente;
+        });
+        if (current != cliente) {
+            return;
+        }
+        if (previous[0] != null && !previous[0].getRut().equals(cliente.getRut())) {
+            idPorRut.remove(previous[0].getRut(), previous[0].getId());
+        }
+        idPorRut.put(cliente.getRut(), cliente.getId());
+    }
+    
+    /**
+     * Carga el cliente con {@code loader}, o espera la carga del mismo ID que ya está en curso.
+     */
+    public ClienteDTO loadById(Long id, Supplier<ClienteDTO> loader) {
+        return cargasPorId.load(id, loader);
+    }
+    
+    /**
+     * Carga el cliente con {@code loader}, o espera la carga del mismo RUT que ya está en curso.
+     */
+    public ClienteDTO loadByRut(String rut, Supplier<ClienteDTO> loader) {
+        return cargasPorRut.load(rut, loader);
+    }
+    
+    /**
+     * Recuerda el RUT como inexistente, salvo que un cliente con ese RUT se haya creado hace poco: la
+     * consulta que no lo encontró pudo ser anterior a la creación.
+     */
+    public void putMissingRut(String rut) {
+        rutsInexistentes.asMap().compute(rut, (r, existing) ->
+                rutsExistentes.getIfPresent(r) != null ? existing : Boolean.TRUE);
+    }
+    
+    public void invalidate(Long id) {
+        // El removalListener limpia el índice por RUT
+        porId.invalidate(id);
+    }
+    
+    public Cache<Long, ClienteDTO> getNativeCache() {
+        return porId;
+    }
+    
+    public Cache<String, Boolean> getNegativeCache() {
+        return rutsInexistentes;
+    }
+    
+    public SingleFlight<Long, ClienteDTO> getLoadsById() {
+        return cargasPorId;
+    }
+    
+    public SingleFlight<String, ClienteDTO> getLoadsByRut() {
+        return cargasPorRut;
+    }
+    
+    // Se invalida dentro de la transacción y otra vez después del commit, para acotar la ventana en que
+    // una lectura concurrente puede volver a cachear el estado anterior.
+    @EventListener
+    public void onClienteChange(ClienteChangeEvent event) {
+        evict(event);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void afterClienteChange(ClienteChangeEvent event) {
+        // Solo con el cambio confirmado: si la transacción se revierte, el estado anterior sigue siendo válido
+        Long minima = versionMinima(event);
+        if (minima != null) {
+            versionesMinimas.asMap().merge(event.getId(), minima, Math::max);
+        }
+        if (event.getAfter() != null) {
+            rutsExistentes.put(event.getAfter().getRut(), Boolean.TRUE);
+        }
+        evict(event);
+        // Con la versión ya asignada, el estado confirmado se puede cachear directamente
+        if (event.getAfter() != null && event.getAfter().getVersion() != null) {
+            put(event.getAfter());
+        }
+    }
+    
+    // Ninguna versión si el cliente fue eliminado (los ID no se reutilizan); si no, la nueva o, si aún no
+    // se conoce, la siguiente a la anterior
+    private static Long versionMinima(ClienteChangeEvent event) {
+        if (event.getAfter() == null) {
+            return Long.MAX_VALUE;
+        }
+        if (event.getAfter().getVersion() != null) {
+            return event.getAfter().getVersion();
+        }
+        if (event.getBefore() != null && event.getBefore().getVersion() != null) {
+            return event.getBefore().getVersion() + 1;
+        }
+        return null;
+    }
+    
+    private static long version(ClienteDTO cliente) {
+        return cliente.getVersion() != null ? cliente.getVersion() : -1;
+    }
+    
+    private void evict(ClienteChangeEvent event) {
+        invalidate(event.getId());
+        // Las lecturas que lleguen después del cambio no esperan una carga que pudo empezar antes
+        cargasPorId.forget(event.getId());
+        if (event.getBefore() != null) {
+            idPorRut.remove(event.getBefore().getRut(), event.getId());
+            cargasPorRut.forget(event.getBefore().getRut());
+        }
+        if (event.getAfter() != null) {
+            rutsInexistentes.invalidate(event.getAfter().getRut());
+            cargasPorRut.forget(event.getAfter().getRut());
+        }
+    }
+    
+}
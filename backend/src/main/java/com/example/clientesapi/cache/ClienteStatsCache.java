@@ -0,0 +1,239 @@
+package com.example.clientesapi.cache;
+
+import com.example.clientesapi.datasource.ReadRoutingContext;
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.dto.ClienteStatsDTO;
+import com.example.clientesapi.entity.Cliente;
+import com.example.clientesapi.event.ClienteChangeEvent;
+import com.example.clientesapi.repository.ClienteRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Estadísticas de clientes por tipo, materializadas en memoria.
+ * <p>
+ * Por cada tipo (y en total) se mantiene un histograma con una celda por edad posible (0-150) más la
+ * cantidad de clientes sin edad. Los contadores se actualizan después del commit de cada alta,
+ * modificación o baja: se resta el estado anterior del cliente y se suma el nuevo, de modo que un
+ * cambio de tipo o de edad mueve al cliente de celda. Leer las estadísticas recorre solo el
+ * histograma, sin importar la cantidad de clientes.
+ * <p>
+ * Periódicamente los contadores se recalculan con una consulta GROUP BY, para corregir cambios hechos
+ * fuera de la aplicación. Un cambio confirmado mientras corre la consulta puede estar contado en ella o
+ * no, así que no se vuelve a aplicar como diferencia: en la misma transacción (REPEATABLE READ, de modo
+ * que ambas lecturas ven la misma foto) se lee el estado de los clientes que cambiaron, se descuenta tal
+ * como la consulta lo contó y se suma su último estado conocido. Sin aislamiento entre transacciones
+ * (almacenamiento en memoria) la corrección es aproximada hasta la siguiente reconciliación.
+ */
+@Component
+@Slf4j
+public class ClienteStatsCache {
+    
+    private static final int EDAD_MAXIMA = 150;
+    private static final int ANCHO_TRAMO = 10;
+    private static final int CHUNK_IDS = 500;
+    
+    private final ClienteRepository clienteRepository;
+    private final TipoClienteCache tipoClienteCache;
+    private final TransactionTemplate fotoTemplate;
+    
+    private final Object lock = new Object();
+    private volatile Snapshot snapshot = new Snapshot();
+    
+    // Último estado de cada cliente que cambió durante una reconciliación en curso (null si no hay
+    // ninguna); protegido por lock
+    private Map<Long, ClienteChangeEvent> pendientes;
+    
+    public ClienteStatsCache(ClienteRepository clienteRepository, TipoClienteCache tipoClienteCache,
+                             PlatformTransactionManager transactionManager) {
+        this.clienteRepository = clienteRepository;
+        this.tipoClienteCache = tipoClienteCache;
+        this.fotoTemplate = new TransactionTemplate(transactionManager);
+        this.fotoTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.fotoTemplate.setReadOnly(true);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reconcile();
+    }
+    
+    /**
+     * Recalcula los contadores desde la base de datos y reemplaza los actuales.
+     */
+    @Scheduled(fixedDelayString = "${clientes.stats.reconcile-interval:PT10M}",
+               initialDelayString = "${clientes.stats.reconcile-interval:PT10M}")
+    public void reconcile() {
+        synchronized (lock) {
+            pendientes = new HashMap<>();
+        }
+        try {
+            // Se lee de la primaria: los cambios recibidos ya están confirmados allí, y una réplica atrasada
+            // podría no incluirlos
+            ReadRoutingContext.onPrimary(() -> fotoTemplate.execute(status -> {
+                recalculate();
+                return null;
+            }));
+        } finally {
+            synchronized (lock) {
+                pendientes = null;
+            }
+        }
+    }
+    
+    private void recalculate() {
+        Snapshot recalculado = new Snapshot();
+        // Filas [codTipoCliente, edad, cantidad]
+        for (Object[] fila : clienteRepository.countGroupByTipoAndEdad()) {
+            recalculado.add((String) fila[0], (Integer) fila[1], ((Number) fila[2]).longValue());
+        }
+        
+        // Con el lock tomado no se reciben cambios nuevos hasta reemplazar los contadores; los que lleguen
+        // después se aplican como diferencia sobre el resultado, que ya incluye el estado de estos clientes
+        synchronized (lock) {
+            List<Long> ids = new ArrayList<>(pendientes.keySet());
+            for (int desde = 0; desde < ids.size(); desde += CHUNK_IDS) {
+                for (Cliente contado : clienteRepository.findAllById(ids.subList(desde, Math.min(desde + CHUNK_IDS, ids.size())))) {
+                    recalculado.add(contado.getCodTipoCliente(), contado.getEdad(), -1);
+                }
+            }
+            for (ClienteChangeEvent ultimo : pendientes.values()) {
+                if (ultimo.getAfter() != null) {
+                    recalculado.add(ultimo.getAfter(), 1);
+                }
+            }
+            long diferencia = recalculado.global.total.get() - snapshot.global.total.get();
+            snapshot = recalculado;
+            if (diferencia != 0) {
+                log.warn("Estadísticas de clientes reconciliadas con diferencias: {} clientes", diferencia);
+            } else {
+                log.debug("Estadísticas de clientes reconciliadas: {} clientes", recalculado.global.total.get());
+            }
+        }
+    }
+    
+    public ClienteStatsDTO getStats() {
+        Snapshot current = snapshot;
+        ClienteStatsDTO stats = toDTO(current.global, null);
+        List<ClienteStatsDTO> porTipo = new ArrayList<>();
+        tipoClienteCache.findAll().forEach(tipo -> porTipo.add(getStats(current, tipo.getCodigo())));
+        stats.setPorTipo(porTipo);
+        return stats;
+    }
+    
+    public ClienteStatsDTO getStats(String codTipoCliente) {
+        return getStats(snapshot, codTipoCliente);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClienteChange(ClienteChangeEvent event) {
+        synchronized (lock) {
+            if (pendientes != null) {
+                pendientes.merge(event.getId(), event, ClienteStatsCache::ultimo);
+            }
+            if (event.getBefore() != null) {
+                snapshot.add(event.getBefore(), -1);
+            }
+            if (event.getAfter() != null) {
+                snapshot.add(event.getAfter(), 1);
+            }
+        }
+    }
+    
+    // Los listeners de transacciones distintas pueden ejecutarse en otro orden que sus commits: vale la
+    // versión mayor, y una baja es definitiva
+    private static ClienteChangeEvent ultimo(ClienteChangeEvent anterior, ClienteChangeEvent nuevo) {
+        if (anterior.getAfter() == null) {
+            return anterior;
+        }
+        if (nuevo.getAfter() == null) {
+            return nuevo;
+        }
+        Long versionAnterior = anterior.getAfter().getVersion();
+        Long versionNueva = nuevo.getAfter().getVersion();
+        return versionAnterior != null && versionNueva != null && versionNueva < versionAnterior ? anterior : nuevo;
+    }
+    
+    private static ClienteStatsDTO getStats(Snapshot current, String codTipoCliente) {
+        Contadores contadores = current.porTipo.get(codTipoCliente);
+        return toDTO(contadores != null ? contadores : new Contadores(), codTipoCliente);
+    }
+    
+    private static ClienteStatsDTO toDTO(Contadores contadores, String codTipoCliente) {
+        ClienteStatsDTO stats = new ClienteStatsDTO();
+        stats.setCodTipoCliente(codTipoCliente);
+        stats.setTotal(contadores.total.get());
+        stats.setSinEdad(contadores.sinEdad.get());
+        
+        Map<String, Long> histograma = new LinkedHashMap<>();
+        long conEdad = 0;
+        long sumaEdades = 0;
+        for (int edad = 0; edad <= EDAD_MAXIMA; edad++) {
+            long cantidad = contadores.porEdad.get(edad);
+            if (cantidad > 0) {
+                if (stats.getEdadMinima() == null) {
+                    stats.setEdadMinima(edad);
+                }
+                stats.setEdadMaxima(edad);
+                conEdad += cantidad;
+                sumaEdades += cantidad * edad;
+            }
+            int desde = edad - edad % ANCHO_TRAMO;
+            int hasta = Math.min(desde + ANCHO_TRAMO - 1, EDAD_MAXIMA);
+            histograma.merge(desde == hasta ? String.valueOf(desde) : desde + "-" + hasta, cantidad, Long::sum);
+        }
+        if (conEdad > 0) {
+            stats.setEdadPromedio((double) sumaEdades / conEdad);
+        }
+        stats.setHistograma(histograma);
+        return stats;
+    }
+    
+    private static final class Snapshot {
+        
+        private final Map<String, Contadores> porTipo = new ConcurrentHashMap<>();
+        private final Contadores global = new Contadores();
+        
+        private void add(ClienteDTO cliente, long delta) {
+            add(cliente.getCodTipoCliente(), cliente.getEdad(), delta);
+        }
+        
+        private void add(String codTipoCliente, Integer edad, long delta) {
+            global.add(edad, delta);
+            porTipo.computeIfAbsent(codTipoCliente, codigo -> new Contadores()).add(edad, delta);
+        }
+    }
+    
+    private static final class Contadores {
+        
+        private final AtomicLongArray porEdad = new AtomicLongArray(EDAD_MAXIMA + 1);
+        private final AtomicLong sinEdad = new AtomicLong();
+        private final AtomicLong total = new AtomicLong();
+        
+        private void add(Integer edad, long delta) {
+            if (edad == null || edad < 0 || edad > EDAD_MAXIMA) {
+                sinEdad.addAndGet(delta);
+            } else {
+                porEdad.addAndGet(edad, delta);
+            }
+            total.addAndGet(delta);
+        }
+    }
+    
+}
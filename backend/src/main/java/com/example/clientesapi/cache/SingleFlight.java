@@ -0,0 +1,138 @@
+package com.example.clientesapi.cache;
+
+import com.example.clientesapi.datasource.ReadRoutingContext;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalescencia de cargas concurrentes de una misma clave ("single flight").
+ * <p>
+ * La primera llamada para una clave ejecuta la carga; las que llegan mientras está en curso la esperan y
+ * reciben el mismo resultado, o la misma excepción, sin repetir la consulta. Así, cuando se invalida un
+ * registro muy leído, las lecturas concurrentes que fallan juntas en la caché llegan a la base de datos
+ * como una sola. No retiene resultados: al terminar la carga la clave se libera, y si la carga falla se
+ * libera antes de informar el error, para que las llamadas siguientes no lo reciban.
+ * <p>
+ * La espera está acotada: quien espera más de {@code maxWait} una carga demorada (por ejemplo, porque
+ * aguarda una conexión del pool) ejecuta la suya sin compartirla, en lugar de quedar bloqueado mientras
+ * dure la otra.
+ * <p>
+ * Una carga dentro de una transacción no se comparte, porque puede ver cambios aún no confirmados. Las
+ * lecturas forzadas a la primaria (lectura de las propias escrituras) solo se comparten entre sí.
+ */
+public final class SingleFlight<K, V> {
+    
+    private static final Duration ESPERA_MAXIMA = Duration.ofSeconds(5);
+    
+    private final ConcurrentHashMap<Clave<K>, CompletableFuture<V>> enCurso = new ConcurrentHashMap<>();
+    private final long esperaMaximaNanos;
+    
+    private final LongAdder cargas = new LongAdder();
+    private final LongAdder compartidas = new LongAdder();
+    private final LongAdder esperasAgotadas = new LongAdder();
+    
+    public SingleFlight() {
+        this(ESPERA_MAXIMA);
+    }
+    
+    public SingleFlight(Duration maxWait) {
+        this.esperaMaximaNanos = maxWait.toNanos();
+    }
+    
+    /**
+     * Ejecuta la carga de la clave, o espera la que ya está en curso y retorna su resultado.
+     */
+    public V load(K key, Supplier<V> loader) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            cargas.increment();
+            return loader.get();
+        }
+        
+        Clave<K> clave = new Clave<>(key, ReadRoutingContext.isPrimaryForced());
+        CompletableFuture<V> propia = new CompletableFuture<>();
+        CompletableFuture<V> existente = enCurso.putIfAbsent(clave, propia);
+        if (existente != null) {
+            return esperar(existente, loader);
+        }
+        
+        cargas.increment();
+        V valor;
+        try {
+            valor = loader.get();
+        } catch (RuntimeException | Error e) {
+            enCurso.remove(clave, propia);
+            propia.completeExceptionally(e);
+            throw e;
+        }
+        enCurso.remove(clave, propia);
+        propia.complete(valor);
+        return valor;
+    }
+    
+    /**
+     * Desliga la carga en curso de la clave, si hay una: quienes ya la esperan reciben su resultado, pero
+     * las llamadas siguientes cargan de nuevo. Se usa cuando el registro cambia, para que nadie que llegue
+     * después del cambio reciba un resultado leído antes.
+     */
+    public void forget(K key) {
+        enCurso.remove(new Clave<>(key, false));
+        enCurso.remove(new Clave<>(key, true));
+    }
+    
+    /**
+     * Llamadas que ejecutaron la carga.
+     */
+    public long getLoads() {
+        return cargas.sum();
+    }
+    
+    /**
+     * Llamadas que esperaron una carga en curso en lugar de ejecutar la propia.
+     */
+    public long getShared() {
+        return compartidas.sum();
+    }
+    
+    /**
+     * Llamadas que dejaron de esperar una carga en curso al pasar {@code maxWait} y ejecutaron la propia.
+     */
+    public long getTimedOut() {
+        return esperasAgotadas.sum();
+    }
+    
+    private V esperar(CompletableFuture<V> carga, Supplier<V> loader) {
+        try {
+            V valor = carga.get(esperaMaximaNanos, TimeUnit.NANOSECONDS);
+            compartidas.increment();
+            return valor;
+        } catch (TimeoutException e) {
+            esperasAgotadas.increment();
+            return loader.get();
+        } catch (ExecutionException e) {
+            compartidas.increment();
+            // Se relanza la excepción original de la carga (por ejemplo, ResourceNotFoundException)
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido mientras esperaba una carga en curso", e);
+        }
+    }
+    
+    private record Clave<K>(K key, boolean primaria) {
+    }
+    
+}
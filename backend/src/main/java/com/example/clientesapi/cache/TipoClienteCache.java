@@ -0,0 +1,191 @@
+package com.example.clientesapi.cache;
+
+import com.example.clientesapi.datasource.ReadRoutingContext;
+import com.example.clientesapi.dto.TipoClienteDTO;
+import com.example.clientesapi.event.ChangeType;
+import com.example.clientesapi.event.TipoClienteChangeEvent;
+import com.example.clientesapi.repository.TipoClienteRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Caché en memoria del catálogo de tipos de cliente.
+ * <p>
+ * El catálogo completo se carga al iniciar la aplicación y se mantiene como una instantánea inmutable
+ * que se reemplaza de forma atómica cuando un tipo se crea, actualiza o elimina (después del commit).
+ * Las lecturas no reservan memoria ni acceden a la base de datos. Los DTO retornados son compartidos
+ * y no deben modificarse. Cada instantánea calcula una vez el ETag y la fecha de última modificación
+ * del catálogo, para que las consultas condicionales del listado no tengan que recorrerlo.
+ * <p>
+ * Las lecturas concurrentes que no encuentran el catálogo cargado, o un código que no está en él,
+ * comparten una sola consulta (ver {@link SingleFlight}).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TipoClienteCache {
+    
+    private static final String CATALOGO = "catalogo";
+    
+    private final TipoClienteRepository tipoClienteRepository;
+    
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    
+    private final SingleFlight<String, Snapshot> cargaCatalogo = new SingleFlight<>();
+    private final SingleFlight<String, TipoClienteDTO> cargasPorCodigo = new SingleFlight<>();
+    
+    private volatile Snapshot snapshot;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+    
+    /**
+     * Vuelve a leer el catálogo completo desde la base de datos (desde la primaria si hay réplicas).
+     */
+    public synchronized void reload() {
+        List<TipoClienteDTO> tipos = ReadRoutingContext.onPrimary(tipoClienteRepository::findAll).stream()
+                .map(tipo -> new TipoClienteDTO(tipo.getCodigo(), tipo.getDescripcion(), tipo.getVersion(), tipo.getUpdatedAt()))
+                .collect(Collectors.toList());
+        snapshot = new Snapshot(tipos);
+        log.info("Catálogo de tipos de cliente cargado en caché: {} tipos", tipos.size());
+    }
+    
+    public List<TipoClienteDTO> findAll() {
+        hits.increment();
+        return current().todos;
+    }
+    
+    /**
+     * Retorna el tipo de cliente con el código indicado, o {@code null} si no está en el catálogo.
+     */
+    public TipoClienteDTO get(String codigo) {
+        TipoClienteDTO tipo = codigo != null ? current().porCodigo.get(codigo) : null;
+        (tipo != null ? hits : misses).increment();
+        return tipo;
+    }
+    
+    /**
+     * ETag del catálogo completo; cambia cuando cualquier tipo se crea, actualiza o elimina.
+     */
+    public String getEtag() {
+        return current().etag;
+    }
+    
+    /**
+     * Fecha de la última modificación del catálogo en milisegundos, o -1 si no se conoce.
+     */
+    public long getLastModified() {
+        return current().lastModified;
+    }
+    
+    public boolean contains(String codigo) {
+        return get(codigo) != null;
+    }
+    
+    /**
+     * Carga el tipo con {@code loader}, o espera la carga del mismo código que ya está en curso.
+     */
+    public TipoClienteDTO load(String codigo, Supplier<TipoClienteDTO> loader) {
+        return cargasPorCodigo.load(codigo, loader);
+    }
+    
+    public synchronized void put(TipoClienteDTO tipoCliente) {
+        Map<String, TipoClienteDTO> porCodigo = new HashMap<>(current().porCodigo);
+        porCodigo.put(tipoCliente.getCodigo(), tipoCliente);
+        snapshot = new Snapshot(porCodigo.values());
+    }
+    
+    public synchronized void remove(String codigo) {
+        Map<String, TipoClienteDTO> porCodigo = new HashMap<>(current().porCodigo);
+        if (porCodigo.remove(codigo) != null) {
+            snapshot = new Snapshot(porCodigo.values());
+        }
+    }
+    
+    public long getHits() {
+        return hits.sum();
+    }
+    
+    public long getMisses() {
+        return misses.sum();
+    }
+    
+    public SingleFlight<String, ?> getCatalogLoads() {
+        return cargaCatalogo;
+    }
+    
+    public SingleFlight<String, TipoClienteDTO> getLoadsByCodigo() {
+        return cargasPorCodigo;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTipoClienteChange(TipoClienteChangeEvent event) {
+        cargasPorCodigo.forget(event.getCodigo());
+        if (event.getType() == ChangeType.DELETED) {
+            remove(event.getCodigo());
+        } else {
+            put(event.getTipoCliente());
+        }
+    }
+    
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            current = cargaCatalogo.load(CATALOGO, () -> {
+                synchronized (this) {
+                    if (snapshot == null) {
+                        reload();
+                    }
+                    return snapshot;
+                }
+            });
+        }
+        return current;
+    }
+    
+    private static final class Snapshot {
+        
+        private final Map<String, TipoClienteDTO> porCodigo;
+        private final List<TipoClienteDTO> todos;
+        private final String etag;
+        private final long lastModified;
+        
+        private Snapshot(Collection<TipoClienteDTO> tipos) {
+            this.todos = tipos.stream()
+                    .sorted(Comparator.comparing(TipoClienteDTO::getCodigo))
+                    .toList();
+            this.porCodigo = todos.stream()
+                    .collect(Collectors.toUnmodifiableMap(TipoClienteDTO::getCodigo, Function.identity()));
+            long hash = 1;
+            long maxUpdatedAt = -1;
+            for (TipoClienteDTO tipo : todos) {
+                long updatedAt = tipo.getUpdatedAt() != null ? tipo.getUpdatedAt().toEpochMilli() : 0;
+                hash = 31 * hash + tipo.getCodigo().hashCode();
+                hash = 31 * hash + Objects.hashCode(tipo.getVersion());
+                hash = 31 * hash + Long.hashCode(updatedAt);
+                maxUpdatedAt = Math.max(maxUpdatedAt, updatedAt > 0 ? updatedAt : -1);
+            }
+            this.etag = "\"" + todos.size() + "-" + Long.toHexString(hash) + "\"";
+            this.lastModified = maxUpdatedAt;
+        }
+    }
+    
+}
@@ -0,0 +1,72 @@
+package com.example.clientesapi.config;
+
+import com.example.clientesapi.admission.AdmissionControlFilter;
+import com.example.clientesapi.admission.AdmissionProperties;
+import com.example.clientesapi.admission.ConcurrencyLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Control de admisión de {@code /api/**} ({@code clientes.admission.enabled=true}): límite de tasa por
+ * cliente y de concurrencia por clase de endpoint, con rechazo inmediato (429/503) bajo sobrecarga.
+ */
+@Configuration
+@ConditionalOnProperty(name = "clientes.admission.enabled", havingValue = "true")
+@EnableConfigurationProperties(AdmissionProperties.class)
+public class AdmissionControlConfig {
+    
+    @Bean
+    public AdmissionControlFilter admissionControlFilter(AdmissionProperties properties, ObjectMapper objectMapper) {
+        return new AdmissionControlFilter(properties, objectMapper);
+    }
+    
+    // Antes que los demás filtros: una request rechazada no debe consumir nada más
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilterRegistration(AdmissionControlFilter filter) {
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+    
+    @Bean
+    public MeterBinder admissionControlMetrics(AdmissionControlFilter filter) {
+        return registry -> {
+            FunctionCounter.builder("clientes.admission.rechazos", filter, AdmissionControlFilter::getRechazosPorTasa)
+                    .tag("clase", "todas")
+                    .tag("motivo", "tasa")
+                    .description("Requests rechazadas por el control de admisión")
+                    .register(registry);
+            for (ConcurrencyLimiter limiter : filter.getLimiters()) {
+                String clase = limiter.getEndpointClass().name().toLowerCase();
+                FunctionCounter.builder("clientes.admission.rechazos", limiter, ConcurrencyLimiter::getRechazosPorCola)
+                        .tag("clase", clase)
+                        .tag("motivo", "cola_llena")
+                        .description("Requests rechazadas por el control de admisión")
+                        .register(registry);
+                FunctionCounter.builder("clientes.admission.rechazos", limiter, ConcurrencyLimiter::getRechazosPorEspera)
+                        .tag("clase", clase)
+                        .tag("motivo", "espera_agotada")
+                        .description("Requests rechazadas por el control de admisión")
+                        .register(registry);
+                Gauge.builder("clientes.admission.en_curso", limiter, ConcurrencyLimiter::getEnCurso)
+                        .tag("clase", clase)
+                        .description("Requests de la clase en ejecución")
+                        .register(registry);
+                Gauge.builder("clientes.admission.en_espera", limiter, ConcurrencyLimiter::getEnEspera)
+                        .tag("clase", clase)
+                        .description("Requests de la clase esperando un lugar")
+                        .register(registry);
+            }
+        };
+    }
+    
+}
@@ -0,0 +1,53 @@
+package com.example.clientesapi.config;
+
+import com.example.clientesapi.entity.Cliente;
+import com.example.clientesapi.entity.OutboxEvento;
+import com.example.clientesapi.entity.TipoCliente;
+import com.example.clientesapi.exception.GlobalExceptionHandler;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Pistas de reflexión para la imagen nativa ({@code mvn -Pnative package}); se evalúan durante el
+ * procesamiento AOT, no en runtime.
+ * <p>
+ * Spring registra por sí mismo los tipos de los parámetros y respuestas de los controladores, pero no los
+ * que Jackson lee o escribe por otros caminos (outbox, exportación, importación, filtro de admisión) ni
+ * los getters y setters que Lombok genera en las entidades, que Hibernate y el almacenamiento en memoria
+ * recorren por reflexión. Los DTO se buscan por paquete para que uno nuevo no quede sin pistas.
+ */
+public class ClientesRuntimeHints implements RuntimeHintsRegistrar {
+    
+    private static final String PAQUETE_DTO = "com.example.clientesapi.dto";
+    
+    private static final Class<?>[] ENTIDADES = {Cliente.class, TipoCliente.class, OutboxEvento.class};
+    
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        BindingReflectionHintsRegistrar binding = new BindingReflectionHintsRegistrar();
+        
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter((metadataReader, metadataReaderFactory) -> true);
+        for (BeanDefinition dto : scanner.findCandidateComponents(PAQUETE_DTO)) {
+            binding.registerReflectionHints(hints.reflection(),
+                    ClassUtils.resolveClassName(dto.getBeanClassName(), classLoader));
+        }
+        
+        binding.registerReflectionHints(hints.reflection(),
+                GlobalExceptionHandler.ErrorResponse.class,
+                GlobalExceptionHandler.ValidationErrorResponse.class);
+        
+        for (Class<?> entidad : ENTIDADES) {
+            hints.reflection().registerType(entidad,
+                    MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_DECLARED_METHODS);
+        }
+    }
+    
+}
@@ -0,0 +1,28 @@
+package com.example.clientesapi.config;
+
+import com.example.clientesapi.memory.InMemoryStoreProperties;
+import com.example.clientesapi.memory.InMemoryTransactionManager;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Almacenamiento en memoria en lugar de MySQL (perfil {@code memory}).
+ * <p>
+ * Los repositorios del paquete {@code memory} reemplazan a los de Spring Data JPA y JDBC, y las
+ * anotaciones {@code @Transactional} usan {@link InMemoryTransactionManager}. El perfil excluye la
+ * configuración automática de DataSource, JPA e inicialización SQL.
+ */
+@Configuration
+@Profile("memory")
+@EnableConfigurationProperties(InMemoryStoreProperties.class)
+public class InMemoryStoreConfig {
+    
+    @Bean
+    public PlatformTransactionManager transactionManager() {
+        return new InMemoryTransactionManager();
+    }
+    
+}
@@ -0,0 +1,54 @@
+package com.example.clientesapi.config;
+
+import com.example.clientesapi.json.ClienteJsonModule;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NativeDetector;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Serialización de las respuestas. Spring Boot registra los {@link Module} de este archivo en su
+ * ObjectMapper, y con él se arman también los de CBOR y Smile.
+ * <p>
+ * Los clientes y errores se escriben con serializadores propios ({@link ClienteJsonModule}); el resto
+ * de los DTO usa Blackbird, que reemplaza la reflexión por accesores generados. Los formatos binarios
+ * se eligen con {@code Accept: application/cbor} o {@code application/x-jackson-smile}; sin ellos la
+ * respuesta es JSON.
+ * <p>
+ * En la imagen nativa no se pueden definir clases en runtime, así que ahí Blackbird se omite y esos DTO
+ * se serializan por reflexión (con las pistas de {@link ClientesRuntimeHints}).
+ */
+@Configuration
+public class JacksonConfig {
+    
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    
+    @Bean
+    public Module clienteJsonModule() {
+        return new ClienteJsonModule();
+    }
+    
+    @Bean
+    public Module blackbirdModule() {
+        return NativeDetector.inNativeImage() ? new SimpleModule("sin-blackbird") : new BlackbirdModule();
+    }
+    
+    // Reemplazan a los convertidores que Spring MVC agrega por defecto, que no usan los módulos de la aplicación
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+    
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+    
+}
@@ -0,0 +1,100 @@
+package com.example.clientesapi.config;
+
+import com.example.clientesapi.cache.ClienteCache;
+import com.example.clientesapi.cache.SingleFlight;
+import com.example.clientesapi.cache.TipoClienteCache;
+import com.example.clientesapi.service.ClienteWritePipeline;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Métricas propias de la aplicación. Las de HTTP, repositorios Spring Data, HikariCP y JVM
+ * las registra Spring Boot Actuator; se exponen en /actuator/prometheus.
+ */
+@Configuration
+public class MetricsConfig {
+    
+    // Habilita @Timed en los servicios
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+    
+    @Bean
+    public MeterBinder cacheMetrics(ClienteCache clienteCache, TipoClienteCache tipoClienteCache) {
+        return registry -> {
+            CaffeineCacheMetrics.monitor(registry, clienteCache.getNativeCache(), "clientes");
+            CaffeineCacheMetrics.monitor(registry, clienteCache.getNegativeCache(), "clientes-rut-inexistentes");
+            
+            // Mismos nombres y tags que CaffeineCacheMetrics, para calcular la tasa de aciertos de igual forma
+            FunctionCounter.builder("cache.gets", tipoClienteCache, TipoClienteCache::getHits)
+                    .tag("cache", "tipos-cliente")
+                    .tag("result", "hit")
+                    .description("Lecturas del catálogo de tipos de cliente resueltas en caché")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", tipoClienteCache, TipoClienteCache::getMisses)
+                    .tag("cache", "tipos-cliente")
+                    .tag("result", "miss")
+                    .description("Lecturas de códigos que no están en el catálogo de tipos de cliente")
+                    .register(registry);
+            
+            // Proporción de coalescencia: shared / (load + shared)
+            singleFlight(registry, clienteCache.getLoadsById(), "clientes-id");
+            singleFlight(registry, clienteCache.getLoadsByRut(), "clientes-rut");
+            singleFlight(registry, tipoClienteCache.getCatalogLoads(), "tipos-cliente-catalogo");
+            singleFlight(registry, tipoClienteCache.getLoadsByCodigo(), "tipos-cliente-codigo");
+        };
+    }
+    
+    @Bean
+    @ConditionalOnProperty(name = "clientes.write-pipeline.enabled", havingValue = "true")
+    public MeterBinder writePipelineMetrics(ClienteWritePipeline pipeline) {
+        return registry -> {
+            // Tamaño medio de los lotes: operaciones completadas y con error sobre lotes confirmados
+            FunctionCounter.builder("clientes.escrituras.lotes", pipeline, ClienteWritePipeline::getLotes)
+                    .description("Lotes confirmados por el pipeline de escrituras")
+                    .register(registry);
+            FunctionCounter.builder("clientes.escrituras.operaciones", pipeline, ClienteWritePipeline::getCompletadas)
+                    .tag("resultado", "completada")
+                    .description("Operaciones finalizadas por el pipeline de escrituras")
+                    .register(registry);
+            FunctionCounter.builder("clientes.escrituras.operaciones", pipeline, ClienteWritePipeline::getFallidas)
+                    .tag("resultado", "error")
+                    .description("Operaciones finalizadas por el pipeline de escrituras")
+                    .register(registry);
+            FunctionCounter.builder("clientes.escrituras.operaciones", pipeline, ClienteWritePipeline::getRechazadas)
+                    .tag("resultado", "cola_llena")
+                    .description("Operaciones finalizadas por el pipeline de escrituras")
+                    .register(registry);
+            Gauge.builder("clientes.escrituras.en_cola", pipeline, ClienteWritePipeline::getEnCola)
+                    .description("Operaciones esperando su lote en el pipeline de escrituras")
+                    .register(registry);
+        };
+    }
+    
+    private static void singleFlight(MeterRegistry registry, SingleFlight<?, ?> cargas, String nombre) {
+        FunctionCounter.builder("singleflight.calls", cargas, SingleFlight::getLoads)
+                .tag("flight", nombre)
+                .tag("result", "load")
+                .description("Lecturas tras un fallo de caché que consultaron la base de datos")
+                .register(registry);
+        FunctionCounter.builder("singleflight.calls", cargas, SingleFlight::getShared)
+                .tag("flight", nombre)
+                .tag("result", "shared")
+                .description("Lecturas tras un fallo de caché que esperaron la consulta en curso de la misma clave")
+                .register(registry);
+        FunctionCounter.builder("singleflight.calls", cargas, SingleFlight::getTimedOut)
+                .tag("flight", nombre)
+                .tag("result", "timeout")
+                .description("Lecturas tras un fallo de caché que dejaron de esperar una consulta demorada y consultaron por su cuenta")
+                .register(registry);
+    }
+    
+}
@@ -0,0 +1,145 @@
+package com.example.clientesapi.config;
+
+import com.example.clientesapi.datasource.ReadYourWritesFilter;
+import com.example.clientesapi.datasource.ReplicaRoutingDataSource;
+import com.example.clientesapi.datasource.ReplicaRoutingDataSource.ReplicaEndpoint;
+import com.example.clientesapi.datasource.ReplicaRoutingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Enrutamiento de lecturas a réplicas ({@code clientes.datasource.replica-routing=true}, perfil {@code replicas}).
+ * <p>
+ * Las transacciones de solo lectura ({@code @Transactional(readOnly = true)}) obtienen sus conexiones
+ * de una réplica; las demás, de la primaria configurada en {@code spring.datasource.*}. Las réplicas se
+ * verifican periódicamente y salen de la rotación si no responden o superan el retraso máximo.
+ */
+@Configuration
+@ConditionalOnProperty(name = "clientes.datasource.replica-routing", havingValue = "true")
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+@Slf4j
+public class ReplicaRoutingConfig {
+    
+    // Pool de la primaria con la misma configuración que crearía Spring Boot (spring.datasource.hikari.*)
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primaria");
+        return dataSource;
+    }
+    
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             ReplicaRoutingProperties properties,
+                                                             ObjectProvider<MeterRegistry> meterRegistry) {
+        List<ReplicaEndpoint> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            ReplicaRoutingProperties.Replica replica = properties.getReplicas().get(i);
+            String name = replica.getName() != null ? replica.getName() : "replica-" + (i + 1);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName(name);
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername());
+            dataSource.setPassword(replica.getPassword());
+            dataSource.setMaximumPoolSize(properties.getReplicaPoolSize());
+            dataSource.setReadOnly(true);
+            // Una réplica caída no debe impedir el arranque ni retener lecturas esperando conexión
+            dataSource.setInitializationFailTimeout(-1);
+            dataSource.setConnectionTimeout(2000);
+            meterRegistry.ifAvailable(dataSource::setMetricRegistry);
+            replicas.add(new ReplicaEndpoint(name, dataSource));
+        }
+        log.info("Lecturas de solo lectura enrutadas a {} réplicas (política {})", replicas.size(), properties.getPolicy());
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, properties.getPolicy());
+    }
+    
+    // La conexión física se pide en la primera sentencia, cuando ya se sabe si la transacción es de solo lectura
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+    
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReplicaRoutingProperties properties) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(properties.getReadYourWritesWindow()));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+    
+    @Bean
+    public ReplicaHealthCheck replicaHealthCheck(ReplicaRoutingDataSource replicaRoutingDataSource,
+                                                 ReplicaRoutingProperties properties) {
+        return new ReplicaHealthCheck(replicaRoutingDataSource, properties);
+    }
+    
+    @Bean
+    public MeterBinder replicaRoutingMetrics(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return registry -> {
+            for (ReplicaEndpoint replica : replicaRoutingDataSource.getReplicas()) {
+                Gauge.builder("clientes.datasource.replica.disponible", replica, r -> r.isDisponible() ? 1 : 0)
+                        .tag("replica", replica.getName())
+                        .description("1 si la réplica recibe lecturas, 0 si está fuera de servicio o atrasada")
+                        .register(registry);
+                Gauge.builder("clientes.datasource.replica.lag", replica, ReplicaEndpoint::getLagSegundos)
+                        .tag("replica", replica.getName())
+                        .baseUnit("seconds")
+                        .description("Retraso de la réplica en la última verificación (-1 si no se conoce)")
+                        .register(registry);
+                FunctionCounter.builder("clientes.datasource.lecturas", replica, ReplicaEndpoint::getLecturas)
+                        .tag("destino", replica.getName())
+                        .description("Conexiones de solo lectura entregadas por destino")
+                        .register(registry);
+            }
+            FunctionCounter.builder("clientes.datasource.lecturas", replicaRoutingDataSource,
+                            ReplicaRoutingDataSource::getLecturasPrimaria)
+                    .tag("destino", "primaria")
+                    .description("Conexiones de solo lectura entregadas por destino")
+                    .register(registry);
+        };
+    }
+    
+    /**
+     * Verificación periódica de disponibilidad y retraso de las réplicas.
+     */
+    public static class ReplicaHealthCheck {
+        
+        private final ReplicaRoutingDataSource replicaRoutingDataSource;
+        private final ReplicaRoutingProperties properties;
+        
+        public ReplicaHealthCheck(ReplicaRoutingDataSource replicaRoutingDataSource, ReplicaRoutingProperties properties) {
+            this.replicaRoutingDataSource = replicaRoutingDataSource;
+            this.properties = properties;
+        }
+        
+        @Scheduled(fixedDelayString = "${clientes.datasource.health-check-interval:PT5S}")
+        public void check() {
+            replicaRoutingDataSource.checkReplicas(properties.getLagQuery(), properties.getMaxLag());
+        }
+        
+    }
+    
+}
@@ -0,0 +1,29 @@
+package com.example.clientesapi.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Verifica el modo de hilos virtuales ({@code spring.threads.virtual.enabled=true}).
+ * Spring Boot ignora la propiedad en runtimes anteriores a Java 21, así que se advierte explícitamente.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadsConfig {
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkRuntime() {
+        int version = Runtime.version().feature();
+        if (version < 21) {
+            log.warn("spring.threads.virtual.enabled=true requiere Java 21 o superior (runtime actual: {}); " +
+                     "se usarán hilos de plataforma", version);
+        } else {
+            log.info("Modo de hilos virtuales activo: requests HTTP y tareas asíncronas en hilos virtuales");
+        }
+    }
+    
+}
@@ -1,7 +1,29 @@
 package com.example.clientesapi.controller;
 
+import com.example.clientesapi.admission.AdmissionControlFilter;
+import com.example.clientesapi.config.JacksonConfig;
+import com.example.clientesapi.dto.BulkResultDTO;
+import com.example.clientesapi.dto.ChangeFeedDTO;
 import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.dto.ClienteDetalleDTO;
+import com.example.clientesapi.dto.ClienteFindResultDTO;
+import com.example.clientesapi.dto.ClienteMgetRequestDTO;
+import com.example.clientesapi.dto.ClienteMgetResultDTO;
+import com.example.clientesapi.dto.ClienteSearchCriteria;
+import com.example.clientesapi.dto.ClienteSearchResultDTO;
+import com.example.clientesapi.dto.ClienteStatsDTO;
+import com.example.clientesapi.dto.OperacionEscrituraDTO;
+import com.example.clientesapi.exception.BusinessLogicException;
+import com.example.clientesapi.service.ChangeFeedService;
+import com.example.clientesapi.service.ClienteBulkService;
+import com.example.clientesapi.service.ClienteExportService;
 import com.example.clientesapi.service.ClienteService;
+import com.example.clientesapi.service.ClienteWritePipeline;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -9,103 +31,476 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/api/clientes")
 @Tag(name = "Clientes", description = "API para gestión de clientes")
 public class ClienteController {
     
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    
+    private static final String PREFER_HEADER = "Prefer";
+    private static final String PREFERENCE_APPLIED_HEADER = "Preference-Applied";
+    private static final String RESPOND_ASYNC = "respond-async";
+    
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_CHANGES_WAIT_SECONDS = 30;
+    private static final int DEFAULT_FIND_LIMIT = 20;
+    private static final int MAX_FIND_LIMIT = 100;
+    
     @Autowired
     private ClienteService clienteService;
     
-    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @Autowired
+    private ClienteBulkService clienteBulkService;
+    
+    @Autowired
+    private ClienteExportService clienteExportService;
+    
+    @Autowired
+    private ChangeFeedService changeFeedService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
     @Operation(summary = "Listar todos los clientes", 
-               description = "Retorna una lista de todos los clientes del sistema")
+               description = "Retorna una lista de todos los clientes del sistema. Si se indica 'after' o 'limit' " +
+                             "se activa el modo cursor: se retorna una página ordenada por ID y, si hay más " +
+                             "resultados, el cursor de la siguiente página en el header " + NEXT_CURSOR_HEADER)
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Lista de clientes obtenida exitosamente",
                     content = @Content(mediaType = "application/json", 
+                                     schema = @Schema(implementation = ClienteDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Parámetros de paginación inválidos")
+    })
+    public ResponseEntity<List<ClienteDTO>> getAllClientes(
+            @Parameter(description = "Cursor: ID del último cliente de la página anterior")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Cantidad máxima de clientes por página (1-" + MAX_PAGE_SIZE + ")")
+            @RequestParam(required = false) Integer limit) {
+        if (after == null && limit == null) {
+            List<ClienteDTO> clientes = clienteService.findAll();
+            return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(clientes);
+        }
+        
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new BusinessLogicException("El parámetro limit debe estar entre 1 y " + MAX_PAGE_SIZE);
+        }
+        
+        // Se pide una fila extra: el cursor solo se envía si existe una página siguiente, de modo que un
+        // total múltiplo del tamaño de página no termina con una página vacía
+        List<ClienteDTO> clientes = clienteService.findPage(after, pageSize + 1);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT);
+        if (clientes.size() > pageSize) {
+            clientes = clientes.subList(0, pageSize);
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(clientes.get(pageSize - 1).getId()));
+        }
+        return response.body(clientes);
+    }
+    
+    @GetMapping(value = "/search", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
+    @Operation(summary = "Buscar clientes", 
+               description = "Filtra clientes por prefijo de nombre y apellido, tipo de cliente y rango de edad, " +
+                             "ordenados por id, nombre o edad. Si hay más resultados, el cursor de la siguiente " +
+                             "página se retorna en el header " + NEXT_CURSOR_HEADER)
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Clientes encontrados",
+                    content = @Content(mediaType = "application/json", 
+                                     schema = @Schema(implementation = ClienteDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Filtros, cursor o parámetros de paginación inválidos")
+    })
+    public ResponseEntity<List<ClienteDTO>> searchClientes(
+            @ParameterObject @Valid ClienteSearchCriteria criteria,
+            @Parameter(description = "Cursor retornado en el header " + NEXT_CURSOR_HEADER + " de la página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Cantidad máxima de clientes por página (1-" + MAX_PAGE_SIZE + ")")
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BusinessLogicException("El parámetro limit debe estar entre 1 y " + MAX_PAGE_SIZE);
+        }
+        
+        ClienteSearchResultDTO resultado = clienteService.search(criteria, cursor, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT);
+        if (resultado.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, resultado.getNextCursor());
+        }
+        return response.body(resultado.getClientes());
+    }
+    
+    @GetMapping(value = "/find", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
+    @Operation(summary = "Buscar clientes por nombre aproximado", 
+               description = "Busca las palabras de 'q' en el nombre, el apellido y el email de los clientes, sin " +
+                             "distinguir mayúsculas ni acentos y tolerando errores de escritura y palabras " +
+                             "incompletas ('gonzales' encuentra 'González', 'rodr' encuentra 'Rodríguez'). Cada " +
+                             "palabra debe coincidir; los resultados se ordenan por puntaje descendente")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Clientes encontrados, de mayor a menor puntaje",
+                    content = @Content(mediaType = "application/json", 
+                                     schema = @Schema(implementation = ClienteFindResultDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Búsqueda vacía o límite inválido")
+    })
+    public ResponseEntity<List<ClienteFindResultDTO>> findClientes(
+            @Parameter(description = "Palabras a buscar", required = true, example = "juan gonzales")
+            @RequestParam(required = false) String q,
+            @Parameter(description = "Cantidad máxima de resultados (1-" + MAX_FIND_LIMIT + ")")
+            @RequestParam(defaultValue = "" + DEFAULT_FIND_LIMIT) int limit) {
+        if (limit < 1 || limit > MAX_FIND_LIMIT) {
+            throw new BusinessLogicException("El parámetro limit debe estar entre 1 y " + MAX_FIND_LIMIT);
+        }
+        
+        List<ClienteFindResultDTO> resultado = clienteService.find(q, limit);
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(resultado);
+    }
+    
+    @GetMapping(value = "/stats", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
+    @Operation(summary = "Obtener estadísticas de clientes", 
+               description = "Retorna la cantidad total de clientes y su distribución de edades, en total y por " +
+                             "tipo de cliente. Se calculan desde contadores en memoria, sin recorrer la tabla")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Estadísticas de clientes",
+                    content = @Content(mediaType = "application/json", 
+                                     schema = @Schema(implementation = ClienteStatsDTO.class)))
+    })
+    public ResponseEntity<ClienteStatsDTO> getClientesStats() {
+        ClienteStatsDTO stats = clienteService.getStats();
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(stats);
+    }
+    
+    @GetMapping(value = "/changes", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Obtener cambios de clientes y tipos de cliente", 
+               description = "Retorna los cambios (altas, modificaciones y bajas) posteriores a la posición 'since', " +
+                             "en orden. Si no hay cambios, la respuesta espera hasta 'wait' segundos a que ocurra " +
+                             "alguno (long-poll). La siguiente consulta debe usar 'ultimoSeq' como 'since'")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Cambios posteriores a 'since' (vacío si no hubo en la espera)",
+                    content = @Content(mediaType = "application/json", 
+                                     schema = @Schema(implementation = ChangeFeedDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Parámetros inválidos"),
+        @ApiResponse(responseCode = "410", description = "Los cambios posteriores a 'since' ya se eliminaron por antigüedad")
+    })
+    public DeferredResult<ChangeFeedDTO> getChanges(
+            @Parameter(description = "Última posición recibida (0 para leer desde el inicio)")
+            @RequestParam(defaultValue = "0") long since,
+            @Parameter(description = "Cantidad máxima de cambios (1-" + MAX_PAGE_SIZE + ")")
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+            @Parameter(description = "Segundos de espera si no hay cambios (0-" + MAX_CHANGES_WAIT_SECONDS + ")")
+            @RequestParam(defaultValue = "" + MAX_CHANGES_WAIT_SECONDS) int wait) {
+        if (since < 0) {
+            throw new BusinessLogicException("El parámetro since no puede ser negativo");
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BusinessLogicException("El parámetro limit debe estar entre 1 y " + MAX_PAGE_SIZE);
+        }
+        if (wait < 0 || wait > MAX_CHANGES_WAIT_SECONDS) {
+            throw new BusinessLogicException("El parámetro wait debe estar entre 0 y " + MAX_CHANGES_WAIT_SECONDS);
+        }
+        return changeFeedService.poll(since, limit, Duration.ofSeconds(wait));
+    }
+    
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Exportar clientes como NDJSON", 
+               description = "Escribe todos los clientes, uno por línea, directamente desde un cursor de base de datos. " +
+                             "El uso de memoria es constante sin importar el tamaño de la tabla")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stream de clientes en formato NDJSON",
+                    content = @Content(mediaType = "application/x-ndjson", 
                                      schema = @Schema(implementation = ClienteDTO.class)))
     })
-    public ResponseEntity<List<ClienteDTO>> getAllClientes() {
-        List<ClienteDTO> clientes = clienteService.findAll();
-        return ResponseEntity.ok(clientes);
+    public ResponseEntity<StreamingResponseBody> streamClientes() {
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter writer = objectMapper.writerFor(ClienteDTO.class)
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .withRootValueSeparator("\n")
+                    .writeValues(outputStream)) {
+                clienteService.streamAll(cliente -> {
+                    try {
+                        writer.write(cliente);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+    
+    @GetMapping("/export")
+    @Operation(summary = "Exportar la tabla de clientes", 
+               description = "Escribe todos los clientes en CSV o NDJSON desde un cursor de base de datos, " +
+                             "comprimidos con gzip si el cliente envía Accept-Encoding: gzip. " +
+                             "El uso de memoria es constante sin importar el tamaño de la tabla")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Archivo con todos los clientes",
+                    content = {@Content(mediaType = "text/csv"), @Content(mediaType = "application/x-ndjson")}),
+        @ApiResponse(responseCode = "400", description = "Formato no soportado")
+    })
+    public ResponseEntity<StreamingResponseBody> exportClientes(
+            @Parameter(description = "Formato de salida: csv o ndjson")
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ClienteExportService.Formato formato = ClienteExportService.Formato.from(format);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = outputStream -> clienteExportService.export(formato, gzip, outputStream);
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(formato == ClienteExportService.Formato.CSV
+                        ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("clientes." + formato.name().toLowerCase(Locale.ROOT))
+                        .build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+    
+    @PostMapping(value = "/import", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Importar clientes", 
+               description = "Lee clientes en CSV (con cabecera) o NDJSON, opcionalmente comprimidos con gzip " +
+                             "(Content-Encoding: gzip), y los escribe por lotes de chunkSize filas, cada uno en su " +
+                             "propia transacción. La entrada se procesa a medida que llega, sin cargarla completa en memoria")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Importación procesada; revisar las filas rechazadas",
+                    content = @Content(mediaType = "application/json", 
+                                     schema = @Schema(implementation = BulkResultDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Formato no soportado o contenido inválido")
+    })
+    public ResponseEntity<BulkResultDTO> importClientes(
+            @Parameter(description = "Formato de entrada: csv o ndjson")
+            @RequestParam(defaultValue = "csv") String format,
+            @Parameter(description = "Actualizar los clientes cuyo RUT ya existe en lugar de rechazarlos")
+            @RequestParam(defaultValue = "false") boolean upsert,
+            @Parameter(description = "Filas por lote y por transacción (por defecto clientes.bulk.chunk-size)")
+            @RequestParam(required = false) Integer chunkSize,
+            @Parameter(description = "Detallar solo las filas rechazadas (las demás solo se cuentan)")
+            @RequestParam(defaultValue = "true") boolean soloErrores,
+            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+            HttpServletRequest request) throws IOException {
+        BulkResultDTO resultado = clienteExportService.importClientes(
+                ClienteExportService.Formato.from(format),
+                "gzip".equalsIgnoreCase(contentEncoding != null ? contentEncoding.trim() : null),
+                request.getInputStream(),
+                upsert,
+                chunkSize != null ? chunkSize : clienteBulkService.getChunkSize(),
+                soloErrores);
+        return ResponseEntity.ok(resultado);
     }
     
-    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(value = "/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
     @Operation(summary = "Obtener cliente por ID", 
                description = "Retorna un cliente específico basado en su ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Cliente encontrado",
                     content = @Content(mediaType = "application/json", 
                                      schema = @Schema(implementation = ClienteDTO.class))),
+        @ApiResponse(responseCode = "304", description = "El cliente no cambió desde el ETag indicado en If-None-Match"),
         @ApiResponse(responseCode = "404", description = "Cliente no encontrado")
     })
     public ResponseEntity<ClienteDTO> getClienteById(
             @Parameter(description = "ID único del cliente", required = true)
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            @Parameter(hidden = true)
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         ClienteDTO cliente = clienteService.findById(id);
-        return ResponseEntity.ok(cliente);
+        return ETags.ok(cliente.getVersion(), cliente.getUpdatedAt(), accept).body(cliente);
+    }
+    
+    @GetMapping(value = "/{id}/detalle", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
+    @Operation(summary = "Obtener cliente con su tipo", 
+               description = "Retorna un cliente junto con la descripción de su tipo de cliente")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Cliente encontrado",
+                    content = @Content(mediaType = "application/json", 
+                                     schema = @Schema(implementation = ClienteDetalleDTO.class))),
+        @ApiResponse(responseCode = "404", description = "Cliente no encontrado")
+    })
+    public ResponseEntity<ClienteDetalleDTO> getClienteDetalleById(
+            @Parameter(description = "ID único del cliente", required = true)
+            @PathVariable Long id) {
+        ClienteDetalleDTO cliente = clienteService.findDetalleById(id);
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(cliente);
     }
     
-    @GetMapping(value = "/rut/{rut}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(value = "/rut/{rut}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
     @Operation(summary = "Obtener cliente por RUT", 
-               description = "Retorna un cliente específico basado en su RUT")
+               description = "Retorna un cliente específico basado en su RUT, con o sin puntos y guion "
+                           + "(12.345.678-5, 12345678-5 o 123456785)")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Cliente encontrado",
                     content = @Content(mediaType = "application/json", 
                                      schema = @Schema(implementation = ClienteDTO.class))),
+        @ApiResponse(responseCode = "304", description = "El cliente no cambió desde el ETag indicado en If-None-Match"),
+        @ApiResponse(responseCode = "400", description = "RUT sin formato válido"),
         @ApiResponse(responseCode = "404", description = "Cliente no encontrado")
     })
     public ResponseEntity<ClienteDTO> getClienteByRut(
             @Parameter(description = "RUT del cliente", required = true)
-            @PathVariable String rut) {
+            @PathVariable String rut,
+            @Parameter(hidden = true)
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         ClienteDTO cliente = clienteService.findByRut(rut);
-        return ResponseEntity.ok(cliente);
+        return ETags.ok(cliente.getVersion(), cliente.getUpdatedAt(), accept).body(cliente);
     }
     
-    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @PostMapping(consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
     @Operation(summary = "Crear nuevo cliente", 
-               description = "Crea un nuevo cliente en el sistema")
+               description = "Crea un nuevo cliente en el sistema. Con el pipeline de escrituras " +
+                             "(clientes.write-pipeline.enabled=true) la creación se confirma en un lote junto con " +
+                             "otras; con 'Prefer: respond-async' se responde 202 sin esperar el lote")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "Cliente creado exitosamente",
                     content = @Content(mediaType = "application/json", 
                                      schema = @Schema(implementation = ClienteDTO.class))),
+        @ApiResponse(responseCode = "202", description = "Creación encolada en el pipeline de escrituras; el estado " +
+                                                         "se consulta en la URL de Location",
+                    content = @Content(mediaType = "application/json", 
+                                     schema = @Schema(implementation = OperacionEscrituraDTO.class))),
         @ApiResponse(responseCode = "400", description = "Datos de entrada inválidos"),
-        @ApiResponse(responseCode = "409", description = "Ya existe un cliente con ese RUT o email")
+        @ApiResponse(responseCode = "409", description = "Ya existe un cliente con ese RUT o email"),
+        @ApiResponse(responseCode = "503", description = "La cola del pipeline de escrituras está llena")
     })
-    public ResponseEntity<ClienteDTO> createCliente(
+    public ResponseEntity<?> createCliente(
             @Parameter(description = "Datos del cliente a crear", required = true)
-            @Valid @RequestBody ClienteDTO clienteDTO) {
+            @Valid @RequestBody ClienteDTO clienteDTO,
+            @Parameter(description = "respond-async para responder 202 sin esperar la confirmación (solo con el pipeline de escrituras)")
+            @RequestHeader(value = PREFER_HEADER, required = false) String prefer,
+            HttpServletRequest request) {
+        if (clienteService.isWritePipelineEnabled()) {
+            return pipelined(clienteService.submitCreate(clienteDTO), HttpStatus.CREATED, prefer, request);
+        }
         ClienteDTO createdCliente = clienteService.create(clienteDTO);
-        return new ResponseEntity<>(createdCliente, HttpStatus.CREATED);
+        return ETags.withValidators(ResponseEntity.status(HttpStatus.CREATED), createdCliente.getVersion(),
+                createdCliente.getUpdatedAt(), request.getHeader(HttpHeaders.ACCEPT)).body(createdCliente);
+    }
+    
+    @PostMapping(value = "/_bulk",
+                 consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+                 produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Carga masiva de clientes", 
+               description = "Crea (o con upsert=true, crea o actualiza por RUT) clientes a partir de un arreglo JSON " +
+                             "o un stream NDJSON. La entrada se procesa por lotes, cada uno en su propia transacción, " +
+                             "y se retorna el resultado de cada fila")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Carga procesada; revisar el resultado de cada fila",
+                    content = @Content(mediaType = "application/json", 
+                                     schema = @Schema(implementation = BulkResultDTO.class))),
+        @ApiResponse(responseCode = "400", description = "El contenido no es JSON/NDJSON válido")
+    })
+    public ResponseEntity<BulkResultDTO> bulkClientes(
+            @Parameter(description = "Actualizar los clientes cuyo RUT ya existe en lugar de rechazarlos")
+            @RequestParam(defaultValue = "false") boolean upsert,
+            HttpServletRequest request) throws IOException {
+        try (MappingIterator<ClienteDTO> clientes = objectMapper.readerFor(ClienteDTO.class)
+                .readValues(request.getInputStream())) {
+            BulkResultDTO resultado = clienteBulkService.process(clientes, upsert);
+            return ResponseEntity.ok(resultado);
+        } catch (RuntimeException e) {
+            // MappingIterator envuelve los errores de parseo en excepciones no chequeadas
+            if (e.getCause() instanceof JsonProcessingException) {
+                throw new BusinessLogicException("El contenido de la carga masiva no es válido: "
+                        + e.getCause().getMessage(), e);
+            }
+            throw e;
+        }
+    }
+    
+    @PostMapping(value = "/_mget", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
+    @Operation(summary = "Obtener varios clientes por ID y/o RUT", 
+               description = "Retorna en una sola llamada los clientes pedidos (hasta " + ClienteService.MAX_MGET_KEYS +
+                             " claves en total), en el orden de la petición, y las claves que no existen")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Clientes encontrados y claves inexistentes",
+                    content = @Content(mediaType = "application/json", 
+                                     schema = @Schema(implementation = ClienteMgetResultDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Claves inválidas o demasiadas claves")
+    })
+    public ResponseEntity<ClienteMgetResultDTO> mgetClientes(
+            @Parameter(description = "IDs y/o RUT de los clientes", required = true)
+            @Valid @RequestBody ClienteMgetRequestDTO request) {
+        ClienteMgetResultDTO resultado = clienteService.findAllByIdsAndRuts(request.getIds(), request.getRuts());
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(resultado);
     }
     
-    @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @PutMapping(value = "/{id}", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
     @Operation(summary = "Actualizar cliente", 
-               description = "Actualiza los datos de un cliente existente")
+               description = "Actualiza los datos de un cliente existente. Con el pipeline de escrituras " +
+                             "(clientes.write-pipeline.enabled=true) la modificación se confirma en un lote junto " +
+                             "con otras; con 'Prefer: respond-async' se responde 202 sin esperar el lote")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Cliente actualizado exitosamente",
                     content = @Content(mediaType = "application/json", 
                                      schema = @Schema(implementation = ClienteDTO.class))),
         @ApiResponse(responseCode = "400", description = "Datos de entrada inválidos"),
         @ApiResponse(responseCode = "404", description = "Cliente no encontrado"),
-        @ApiResponse(responseCode = "409", description = "Ya existe otro cliente con ese RUT o email")
+        @ApiResponse(responseCode = "202", description = "Modificación encolada en el pipeline de escrituras; el estado " +
+                                                         "se consulta en la URL de Location",
+                    content = @Content(mediaType = "application/json", 
+                                     schema = @Schema(implementation = OperacionEscrituraDTO.class))),
+        @ApiResponse(responseCode = "409", description = "Ya existe otro cliente con ese RUT o email"),
+        @ApiResponse(responseCode = "412", description = "El cliente fue modificado desde el ETag indicado en If-Match"),
+        @ApiResponse(responseCode = "503", description = "La cola del pipeline de escrituras está llena")
     })
-    public ResponseEntity<ClienteDTO> updateCliente(
+    public ResponseEntity<?> updateCliente(
             @Parameter(description = "ID único del cliente", required = true)
             @PathVariable Long id,
             @Parameter(description = "Datos actualizados del cliente", required = true)
-            @Valid @RequestBody ClienteDTO clienteDTO) {
-        ClienteDTO updatedCliente = clienteService.update(id, clienteDTO);
-        return ResponseEntity.ok(updatedCliente);
+            @Valid @RequestBody ClienteDTO clienteDTO,
+            @Parameter(description = "ETag de la versión que se modifica (uno solo, o * para no verificarla); si cambió, se responde 412")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Parameter(description = "respond-async para responder 202 sin esperar la confirmación (solo con el pipeline de escrituras)")
+            @RequestHeader(value = PREFER_HEADER, required = false) String prefer,
+            HttpServletRequest request) {
+        Long expectedVersion = ETags.expectedVersion(ifMatch);
+        if (clienteService.isWritePipelineEnabled()) {
+            return pipelined(clienteService.submitUpdate(id, clienteDTO, expectedVersion), HttpStatus.OK, prefer, request);
+        }
+        ClienteDTO updatedCliente = clienteService.update(id, clienteDTO, expectedVersion);
+        return ETags.ok(updatedCliente.getVersion(), updatedCliente.getUpdatedAt(), request.getHeader(HttpHeaders.ACCEPT))
+                .body(updatedCliente);
+    }
+    
+    @GetMapping(value = "/operaciones/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Consultar una escritura encolada", 
+               description = "Retorna el estado de una creación o modificación encolada en el pipeline de escrituras " +
+                             "(clientes.write-pipeline.enabled=true): pendiente, completada con el cliente confirmado, " +
+                             "o con error y el código que habría tenido la respuesta síncrona")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Estado de la operación",
+                    content = @Content(mediaType = "application/json", 
+                                     schema = @Schema(implementation = OperacionEscrituraDTO.class))),
+        @ApiResponse(responseCode = "404", description = "Operación inexistente o finalizada hace más de clientes.write-pipeline.retention")
+    })
+    public ResponseEntity<OperacionEscrituraDTO> getOperacion(
+            @Parameter(description = "ID de la operación", required = true)
+            @PathVariable String id) {
+        return ResponseEntity.ok(clienteService.findOperacion(id));
     }
     
     @DeleteMapping("/{id}")
@@ -122,4 +517,51 @@ public class ClienteController {
         return ResponseEntity.noContent().build();
     }
     
+    // Con Prefer: respond-async se responde 202 de inmediato; si no, se espera el commit del lote y se responde
+    // como la escritura síncrona, o 202 si la espera supera clientes.write-pipeline.wait-timeout. Ya encolada,
+    // la operación no ocupa un lugar del control de admisión: la cola del pipeline acota las pendientes
+    private static ResponseEntity<?> pipelined(ClienteWritePipeline.Operacion operacion, HttpStatus status, String prefer,
+                                               HttpServletRequest request) {
+        AdmissionControlFilter.releaseEarly(request);
+        boolean respondAsync = prefersAsync(prefer);
+        ClienteDTO cliente = respondAsync ? null : operacion.await();
+        if (cliente != null) {
+            return ETags.withValidators(ResponseEntity.status(status), cliente.getVersion(), cliente.getUpdatedAt(),
+                    request.getHeader(HttpHeaders.ACCEPT)).body(cliente);
+        }
+        ResponseEntity.BodyBuilder accepted = ResponseEntity.accepted()
+                .varyBy(HttpHeaders.ACCEPT)
+                .location(URI.create("/api/clientes/operaciones/" + operacion.getId()));
+        if (respondAsync) {
+            accepted.header(PREFERENCE_APPLIED_HEADER, RESPOND_ASYNC);
+        }
+        return accepted.body(operacion.toDTO());
+    }
+    
+    private static boolean prefersAsync(String prefer) {
+        if (prefer == null) {
+            return false;
+        }
+        for (String preferencia : prefer.split(",")) {
+            if (preferencia.split(";")[0].trim().equalsIgnoreCase(RESPOND_ASYNC)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    // gzip salvo que el cliente lo rechace explícitamente con q=0
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String encoding : acceptEncoding.split(",")) {
+            String[] partes = encoding.trim().split(";");
+            if (partes[0].trim().equalsIgnoreCase("gzip")) {
+                return partes.length < 2 || !partes[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+    
 }
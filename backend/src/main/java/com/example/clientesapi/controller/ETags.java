@@ -0,0 +1,178 @@
+package com.example.clientesapi.controller;
+
+import com.example.clientesapi.config.JacksonConfig;
+import com.example.clientesapi.exception.BusinessLogicException;
+import com.example.clientesapi.exception.PreconditionFailedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ETags fuertes derivados de la versión ({@code @Version}) y la fecha de modificación de una entidad.
+ * <p>
+ * Como el ETag sale de datos que ya están en el DTO (y en la caché), las peticiones condicionales se
+ * resuelven sin serializar la respuesta: {@code ResponseEntity} con ETag y Last-Modified hace que Spring
+ * compare {@code If-None-Match}/{@code If-Modified-Since} y responda 304 sin cuerpo.
+ * <p>
+ * Los endpoints que negocian JSON, CBOR o Smile retornan bytes distintos para la misma versión: su ETag
+ * lleva el formato ({@code "3-18b2-cbor"}; JSON sin sufijo) y la respuesta, {@code Vary: Accept}, para
+ * que ni un 304 ni una caché compartida mezclen formatos. If-Match acepta el ETag de cualquier formato,
+ * porque solo compara la versión.
+ */
+final class ETags {
+    
+    static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(JacksonConfig.APPLICATION_SMILE_VALUE);
+    
+    // En el orden de los 'produces' de los endpoints: con Accept */* o sin Accept se responde JSON
+    private static final List<MediaType> FORMATOS = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+    
+    private ETags() {
+    }
+    
+    static String of(Long version, Instant updatedAt) {
+        return of(version, updatedAt, MediaType.APPLICATION_JSON);
+    }
+    
+    static String of(Long version, Instant updatedAt, MediaType formato) {
+        String sufijo = MediaType.APPLICATION_CBOR.equalsTypeAndSubtype(formato) ? "-cbor"
+                : APPLICATION_SMILE.equalsTypeAndSubtype(formato) ? "-smile" : "";
+        return "\"" + version + "-" + Long.toHexString(updatedAt != null ? updatedAt.toEpochMilli() : 0) + sufijo + "\"";
+    }
+    
+    /**
+     * Formato en que se escribirá la respuesta de un endpoint que produce JSON, CBOR y Smile, con la misma
+     * preferencia que la negociación de Spring: el tipo aceptado más específico y de mayor calidad, y entre
+     * los que coinciden con un comodín, el primero de los producidos. Un Accept inválido o sin coincidencias
+     * da JSON; en ese caso Spring responde 400 o 406 y el ETag no se usa.
+     */
+    static MediaType representation(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> aceptados;
+        try {
+            aceptados = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        MimeTypeUtils.sortBySpecificity(aceptados);
+        for (MediaType aceptado : aceptados) {
+            if (aceptado.getQualityValue() == 0) {
+                continue;
+            }
+            for (MediaType formato : FORMATOS) {
+                if (aceptado.isCompatibleWith(formato)) {
+                    return formato;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+    
+    /**
+     * Respuesta 200 de un endpoint con negociación de formato: ETag del formato elegido por {@code accept},
+     * Last-Modified y {@code Vary: Accept}.
+     */
+    static ResponseEntity.BodyBuilder ok(Long version, Instant updatedAt, String accept) {
+        return withValidators(ResponseEntity.ok(), version, updatedAt, accept);
+    }
+    
+    static ResponseEntity.BodyBuilder withValidators(ResponseEntity.BodyBuilder response, Long version, Instant updatedAt,
+                                                     String accept) {
+        response.varyBy(HttpHeaders.ACCEPT);
+        if (version == null) {
+            return response;
+        }
+        response.eTag(of(version, updatedAt, representation(accept)));
+        if (updatedAt != null) {
+            response.lastModified(updatedAt);
+        }
+        return response;
+    }
+    
+    /**
+     * Respuesta 200 con ETag y Last-Modified; si la versión no se conoce, sin cabeceras de validación.
+     */
+    static ResponseEntity.BodyBuilder ok(Long version, Instant updatedAt) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        return version != null ? withValidators(response, version, updatedAt) : response;
+    }
+    
+    static ResponseEntity.BodyBuilder withValidators(ResponseEntity.BodyBuilder response, Long version, Instant updatedAt) {
+        if (version == null) {
+            return response;
+        }
+        response.eTag(of(version, updatedAt));
+        if (updatedAt != null) {
+            response.lastModified(updatedAt);
+        }
+        return response;
+    }
+    
+    /**
+     * Obtiene la versión esperada desde la cabecera If-Match, o {@code null} si la cabecera no viene o es {@code *}.
+     * If-Match exige comparación fuerte, por lo que un ETag débil o mal formado nunca coincide.
+     * <p>
+     * Un recurso tiene un solo ETag vigente, así que una lista de ETags (en una cabecera o en varias, que
+     * llegan unidas por comas) se rechaza con 400 en lugar de compararse solo el primero. {@code *} no
+     * verifica la versión: la modificación de un recurso inexistente responde 404 igual que sin la cabecera,
+     * porque las precondiciones se ignoran cuando la respuesta sin ellas no sería 2xx (RFC 9110, 13.2.1).
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        List<String> etags = split(ifMatch);
+        if (etags.size() != 1) {
+            throw new BusinessLogicException("If-Match debe indicar un único ETag o *: " + ifMatch);
+        }
+        String etag = etags.get(0);
+        if (etag.equals("*")) {
+            return null;
+        }
+        if (etag.startsWith("W/") || etag.length() < 2 || !etag.startsWith("\"") || !etag.endsWith("\"")) {
+            throw new PreconditionFailedException("If-Match debe indicar un ETag fuerte: " + ifMatch);
+        }
+        String value = etag.substring(1, etag.length() - 1);
+        int separator = value.indexOf('-');
+        try {
+            return Long.parseLong(separator >= 0 ? value.substring(0, separator) : value);
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("If-Match no corresponde a una versión del recurso: " + ifMatch);
+        }
+    }
+    
+    // Elementos no vacíos de la lista; una coma entre comillas es parte del ETag
+    private static List<String> split(String header) {
+        List<String> elementos = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+        for (char c : header.toCharArray()) {
+            if (c == '"') {
+                entreComillas = !entreComillas;
+            }
+            if (c == ',' && !entreComillas) {
+                addIfNotBlank(elementos, actual);
+            } else {
+                actual.append(c);
+            }
+        }
+        addIfNotBlank(elementos, actual);
+        return elementos;
+    }
+    
+    private static void addIfNotBlank(List<String> elementos, StringBuilder actual) {
+        String elemento = actual.toString().trim();
+        if (!elemento.isEmpty()) {
+            elementos.add(elemento);
+        }
+        actual.setLength(0);
+    }
+    
+}
@@ -1,5 +1,6 @@
 package com.example.clientesapi.controller;
 
+import com.example.clientesapi.dto.ClienteStatsDTO;
 import com.example.clientesapi.dto.TipoClienteDTO;
 import com.example.clientesapi.service.TipoClienteService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -12,6 +13,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -34,12 +36,22 @@ public class TipoClienteController {
         @ApiResponse(responseCode = "200", 
                     description = "Lista de tipos de cliente obtenida exitosamente",
                     content = @Content(mediaType = "application/json",
-                                     schema = @Schema(implementation = TipoClienteDTO.class)))
+                                     schema = @Schema(implementation = TipoClienteDTO.class))),
+        @ApiResponse(responseCode = "304", 
+                    description = "El catálogo no cambió desde el ETag indicado en If-None-Match")
     })
     public ResponseEntity<List<TipoClienteDTO>> getAllTiposCliente() {
-        log.info("GET /api/tipos-cliente - Obteniendo todos los tipos de cliente");
+        log.debug("GET /api/tipos-cliente - Obteniendo todos los tipos de cliente");
+        // El ETag se lee antes que el listado: si el catálogo cambia entre ambas lecturas, el cliente
+        // guarda el listado nuevo con el ETag anterior y la siguiente consulta lo vuelve a descargar
+        String etag = tipoClienteService.getCatalogEtag();
+        long lastModified = tipoClienteService.getCatalogLastModified();
         List<TipoClienteDTO> tipos = tipoClienteService.findAll();
-        return ResponseEntity.ok(tipos);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag);
+        if (lastModified > 0) {
+            response.lastModified(lastModified);
+        }
+        return response.body(tipos);
     }
     
     @GetMapping("/{codigo}")
@@ -50,15 +62,37 @@ public class TipoClienteController {
                     description = "Tipo de cliente encontrado",
                     content = @Content(mediaType = "application/json",
                                      schema = @Schema(implementation = TipoClienteDTO.class))),
+        @ApiResponse(responseCode = "304", 
+                    description = "El tipo de cliente no cambió desde el ETag indicado en If-None-Match"),
         @ApiResponse(responseCode = "404", 
                     description = "Tipo de cliente no encontrado")
     })
     public ResponseEntity<TipoClienteDTO> getTipoClienteByCodigo(
             @Parameter(description = "Código del tipo de cliente", required = true)
             @PathVariable String codigo) {
-        log.info("GET /api/tipos-cliente/{} - Obteniendo tipo de cliente por código", codigo);
+        log.debug("GET /api/tipos-cliente/{} - Obteniendo tipo de cliente por código", codigo);
         TipoClienteDTO tipo = tipoClienteService.findById(codigo);
-        return ResponseEntity.ok(tipo);
+        return ETags.ok(tipo.getVersion(), tipo.getUpdatedAt()).body(tipo);
+    }
+    
+    @GetMapping("/{codigo}/stats")
+    @Operation(summary = "Obtener estadísticas de un tipo de cliente", 
+               description = "Retorna la cantidad de clientes del tipo y su distribución de edades " +
+                             "(promedio, mínima, máxima e histograma por tramos de 10 años)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", 
+                    description = "Estadísticas del tipo de cliente",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = ClienteStatsDTO.class))),
+        @ApiResponse(responseCode = "404", 
+                    description = "Tipo de cliente no encontrado")
+    })
+    public ResponseEntity<ClienteStatsDTO> getTipoClienteStats(
+            @Parameter(description = "Código del tipo de cliente", required = true)
+            @PathVariable String codigo) {
+        log.debug("GET /api/tipos-cliente/{}/stats - Obteniendo estadísticas del tipo de cliente", codigo);
+        ClienteStatsDTO stats = tipoClienteService.getStats(codigo);
+        return ResponseEntity.ok(stats);
     }
     
     @PostMapping
@@ -79,7 +113,8 @@ public class TipoClienteController {
             @Valid @RequestBody TipoClienteDTO tipoClienteDTO) {
         log.info("POST /api/tipos-cliente - Creando tipo de cliente: {}", tipoClienteDTO.getCodigo());
         TipoClienteDTO savedTipo = tipoClienteService.save(tipoClienteDTO);
-        return ResponseEntity.status(HttpStatus.CREATED).body(savedTipo);
+        return ETags.withValidators(ResponseEntity.status(HttpStatus.CREATED),
+                savedTipo.getVersion(), savedTipo.getUpdatedAt()).body(savedTipo);
     }
     
     @PutMapping("/{codigo}")
@@ -93,16 +128,20 @@ public class TipoClienteController {
         @ApiResponse(responseCode = "400", 
                     description = "Datos de entrada inválidos"),
         @ApiResponse(responseCode = "404", 
-                    description = "Tipo de cliente no encontrado")
+                    description = "Tipo de cliente no encontrado"),
+        @ApiResponse(responseCode = "412", 
+                    description = "El tipo de cliente fue modificado desde el ETag indicado en If-Match")
     })
     public ResponseEntity<TipoClienteDTO> updateTipoCliente(
             @Parameter(description = "Código del tipo de cliente", required = true)
             @PathVariable String codigo,
             @Parameter(description = "Datos actualizados del tipo de cliente", required = true)
-            @Valid @RequestBody TipoClienteDTO tipoClienteDTO) {
+            @Valid @RequestBody TipoClienteDTO tipoClienteDTO,
+            @Parameter(description = "ETag de la versión que se modifica (uno solo, o * para no verificarla); si cambió, se responde 412")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("PUT /api/tipos-cliente/{} - Actualizando tipo de cliente", codigo);
-        TipoClienteDTO updatedTipo = tipoClienteService.update(codigo, tipoClienteDTO);
-        return ResponseEntity.ok(updatedTipo);
+        TipoClienteDTO updatedTipo = tipoClienteService.update(codigo, tipoClienteDTO, ETags.expectedVersion(ifMatch));
+        return ETags.ok(updatedTipo.getVersion(), updatedTipo.getUpdatedAt()).body(updatedTipo);
     }
     
     @DeleteMapping("/{codigo}")
@@ -111,6 +150,8 @@ public class TipoClienteController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "204", 
                     description = "Tipo de cliente eliminado exitosamente"),
+        @ApiResponse(responseCode = "400", 
+                    description = "El tipo de cliente tiene clientes asociados"),
         @ApiResponse(responseCode = "404", 
                     description = "Tipo de cliente no encontrado")
     })
@@ -0,0 +1,46 @@
+package com.example.clientesapi.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Permite forzar que las lecturas del hilo actual vayan a la base de datos primaria, aunque la
+ * transacción sea de solo lectura. Sin enrutamiento a réplicas configurado no tiene efecto.
+ */
+public final class ReadRoutingContext {
+    
+    private static final ThreadLocal<Boolean> PRIMARIA = new ThreadLocal<>();
+    
+    private ReadRoutingContext() {
+    }
+    
+    public static boolean isPrimaryForced() {
+        return Boolean.TRUE.equals(PRIMARIA.get());
+    }
+    
+    /**
+     * Ejecuta la acción leyendo desde la primaria, para lecturas que no toleran el retraso de una réplica.
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        Boolean previo = forcePrimary();
+        try {
+            return action.get();
+        } finally {
+            restore(previo);
+        }
+    }
+    
+    static Boolean forcePrimary() {
+        Boolean previo = PRIMARIA.get();
+        PRIMARIA.set(Boolean.TRUE);
+        return previo;
+    }
+    
+    static void restore(Boolean previo) {
+        if (previo == null) {
+            PRIMARIA.remove();
+        } else {
+            PRIMARIA.set(previo);
+        }
+    }
+    
+}
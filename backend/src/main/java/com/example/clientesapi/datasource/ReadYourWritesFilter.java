@@ -0,0 +1,74 @@
+package com.example.clientesapi.datasource;
+
+import com.example.clientesapi.admission.EndpointClass;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Lectura de las propias escrituras: después de una escritura, las lecturas del mismo cliente HTTP
+ * van a la primaria durante una ventana corta, para no leer desde una réplica que aún no la recibe.
+ * <p>
+ * La sesión se sigue con una cookie que expira al terminar la ventana, de modo que el estado
+ * vive en el cliente y sirve con varias instancias de la aplicación. Qué es una escritura lo decide
+ * {@link EndpointClass}, igual que para el control de admisión: {@code POST /api/clientes/_mget} es una lectura.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    
+    public static final String COOKIE_NAME = "clientes-rw";
+    
+    private final Duration window;
+    
+    public ReadYourWritesFilter(Duration window) {
+        this.window = window;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        boolean escritura = EndpointClass.isWrite(request.getMethod(), path);
+        if (escritura) {
+            // Se agrega antes de procesar la request: después la respuesta puede estar ya confirmada
+            ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, "1")
+                    .path("/")
+                    .maxAge(Math.max(window.toSeconds(), 1))
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .build();
+            response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+        }
+        if (!escritura && !hasCookie(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        Boolean previo = ReadRoutingContext.forcePrimary();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadRoutingContext.restore(previo);
+        }
+    }
+    
+    private static boolean hasCookie(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+}
@@ -0,0 +1,195 @@
+package com.example.clientesapi.datasource;
+
+import com.example.clientesapi.datasource.ReplicaRoutingProperties.Policy;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * DataSource que entrega conexiones de una réplica a las transacciones de solo lectura y de la
+ * primaria a todo lo demás.
+ * <p>
+ * La decisión se toma al pedir la conexión física, por lo que debe usarse detrás de un
+ * {@code LazyConnectionDataSourceProxy}: así la conexión se obtiene en la primera sentencia, cuando
+ * el indicador de solo lectura de la transacción ya está establecido. Si no hay réplicas disponibles,
+ * o la elegida no entrega una conexión, la lectura va a la primaria.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+    
+    private final DataSource primary;
+    private final List<ReplicaEndpoint> replicas;
+    private final Policy policy;
+    private final AtomicInteger siguiente = new AtomicInteger();
+    private final LongAdder lecturasPrimaria = new LongAdder();
+    
+    public ReplicaRoutingDataSource(DataSource primary, List<ReplicaEndpoint> replicas, Policy policy) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.policy = policy;
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || ReadRoutingContext.isPrimaryForced()) {
+            return primary.getConnection();
+        }
+        ReplicaEndpoint replica = select();
+        if (replica != null) {
+            try {
+                Connection connection = replica.getDataSource().getConnection();
+                replica.lecturas.increment();
+                return connection;
+            } catch (SQLException e) {
+                // La réplica queda fuera hasta que la siguiente verificación la encuentre disponible
+                replica.markDown(e.getMessage());
+            }
+        }
+        lecturasPrimaria.increment();
+        return primary.getConnection();
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+    
+    private ReplicaEndpoint select() {
+        if (policy == Policy.LEAST_CONNECTIONS) {
+            return replicas.stream()
+                    .filter(ReplicaEndpoint::isDisponible)
+                    .min(Comparator.comparingInt(ReplicaEndpoint::getActiveConnections))
+                    .orElse(null);
+        }
+        int inicio = Math.floorMod(siguiente.getAndIncrement(), Math.max(replicas.size(), 1));
+        for (int i = 0; i < replicas.size(); i++) {
+            ReplicaEndpoint replica = replicas.get((inicio + i) % replicas.size());
+            if (replica.isDisponible()) {
+                return replica;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Verifica cada réplica: que responda y, si hay consulta de retraso, que no supere {@code maxLag}.
+     */
+    public void checkReplicas(String lagQuery, Duration maxLag) {
+        for (ReplicaEndpoint replica : replicas) {
+            replica.check(lagQuery, maxLag);
+        }
+    }
+    
+    public List<ReplicaEndpoint> getReplicas() {
+        return replicas;
+    }
+    
+    /**
+     * Lecturas que fueron a la primaria por no haber una réplica disponible.
+     */
+    public long getLecturasPrimaria() {
+        return lecturasPrimaria.sum();
+    }
+    
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.getDataSource().close());
+    }
+    
+    /**
+     * Una réplica con su pool de conexiones y el resultado de la última verificación.
+     */
+    public static class ReplicaEndpoint {
+        
+        private final String name;
+        private final HikariDataSource dataSource;
+        private final LongAdder lecturas = new LongAdder();
+        private volatile boolean disponible = true;
+        private volatile long lagSegundos = -1;
+        
+        public ReplicaEndpoint(String name, HikariDataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        public HikariDataSource getDataSource() {
+            return dataSource;
+        }
+        
+        public boolean isDisponible() {
+            return disponible;
+        }
+        
+        /**
+         * Retraso informado en la última verificación, en segundos, o -1 si no se conoce.
+         */
+        public long getLagSegundos() {
+            return lagSegundos;
+        }
+        
+        public long getLecturas() {
+            return lecturas.sum();
+        }
+        
+        int getActiveConnections() {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            return pool != null ? pool.getActiveConnections() : 0;
+        }
+        
+        void check(String lagQuery, Duration maxLag) {
+            try (Connection connection = dataSource.getConnection()) {
+                if (!StringUtils.hasText(lagQuery)) {
+                    setDisponible(connection.isValid(2), "no responde");
+                    return;
+                }
+                try (Statement statement = connection.createStatement();
+                     ResultSet rs = statement.executeQuery(lagQuery)) {
+                    // Sin filas o con NULL (replicación detenida) el retraso es desconocido
+                    long lag = -1;
+                    if (rs.next()) {
+                        lag = rs.getLong(1);
+                        lag = rs.wasNull() ? -1 : lag;
+                    }
+                    lagSegundos = lag;
+                }
+                boolean atrasada = lagSegundos < 0 || lagSegundos > maxLag.toSeconds();
+                setDisponible(!atrasada, "retraso de " + (lagSegundos < 0 ? "desconocido" : lagSegundos + " s"));
+            } catch (SQLException e) {
+                markDown(e.getMessage());
+            }
+        }
+        
+        void markDown(String motivo) {
+            lagSegundos = -1;
+            setDisponible(false, motivo);
+        }
+        
+        private void setDisponible(boolean disponible, String motivo) {
+            if (this.disponible && !disponible) {
+                log.warn("Réplica {} fuera de servicio ({}): sus lecturas van a la primaria", name, motivo);
+            } else if (!this.disponible && disponible) {
+                log.info("Réplica {} disponible nuevamente", name);
+            }
+            this.disponible = disponible;
+        }
+    }
+    
+}
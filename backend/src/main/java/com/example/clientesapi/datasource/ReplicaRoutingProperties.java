@@ -0,0 +1,57 @@
+package com.example.clientesapi.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuración del enrutamiento de lecturas a réplicas ({@code clientes.datasource.*}).
+ */
+@ConfigurationProperties(prefix = "clientes.datasource")
+@Data
+public class ReplicaRoutingProperties {
+    
+    public enum Policy { ROUND_ROBIN, LEAST_CONNECTIONS }
+    
+    /** Réplicas de solo lectura. */
+    private List<Replica> replicas = new ArrayList<>();
+    
+    /** Cómo se elige la réplica de cada conexión de lectura. */
+    private Policy policy = Policy.ROUND_ROBIN;
+    
+    /** Tamaño máximo del pool de conexiones de cada réplica. */
+    private int replicaPoolSize = 10;
+    
+    /** Intervalo de verificación de disponibilidad y retraso de las réplicas. */
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+    
+    /**
+     * Consulta que retorna el retraso de la réplica en segundos (primera columna de la primera fila).
+     * Si no se indica, solo se verifica que la réplica responda.
+     */
+    private String lagQuery;
+    
+    /** Retraso máximo tolerado; una réplica más atrasada deja de recibir lecturas hasta ponerse al día. */
+    private Duration maxLag = Duration.ofSeconds(5);
+    
+    /** Tiempo durante el cual las lecturas de un cliente HTTP van a la primaria después de una escritura suya. */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+    
+    @Data
+    public static class Replica {
+        
+        /** Nombre de la réplica en logs, métricas y el nombre del pool. */
+        private String name;
+        
+        private String url;
+        
+        private String username;
+        
+        private String password;
+        
+    }
+    
+}
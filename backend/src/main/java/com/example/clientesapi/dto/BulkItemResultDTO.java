@@ -0,0 +1,31 @@
+package com.example.clientesapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(description = "Resultado de una fila de la carga masiva")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkItemResultDTO {
+    
+    public enum Estado { CREADO, ACTUALIZADO, ERROR }
+    
+    @Schema(description = "Posición de la fila en la entrada (base 0)", example = "0")
+    private int indice;
+    
+    @Schema(description = "Resultado de la operación", example = "CREADO")
+    private Estado estado;
+    
+    @Schema(description = "ID del cliente creado o actualizado", example = "1")
+    private Long id;
+    
+    @Schema(description = "RUT informado en la fila", example = "12345678-5")
+    private String rut;
+    
+    @Schema(description = "Detalle del error, si lo hubo")
+    private String mensaje;
+    
+}
@@ -0,0 +1,49 @@
+package com.example.clientesapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Schema(description = "Resumen de una carga masiva de clientes")
+@Data
+@NoArgsConstructor
+public class BulkResultDTO {
+    
+    @Schema(description = "Cantidad de filas procesadas", example = "1000")
+    private int total;
+    
+    @Schema(description = "Cantidad de clientes creados", example = "990")
+    private int creados;
+    
+    @Schema(description = "Cantidad de clientes actualizados (solo con upsert)", example = "0")
+    private int actualizados;
+    
+    @Schema(description = "Cantidad de filas rechazadas", example = "10")
+    private int fallidos;
+    
+    @Schema(description = "Resultado de cada fila (o solo de las rechazadas, si así se pidió), en el orden de la entrada")
+    private List<BulkItemResultDTO> resultados = new ArrayList<>();
+    
+    public void add(BulkItemResultDTO resultado) {
+        add(resultado, true);
+    }
+    
+    /**
+     * Cuenta el resultado y, si {@code detalle} es {@code true}, lo agrega a la lista de resultados.
+     */
+    public void add(BulkItemResultDTO resultado, boolean detalle) {
+        total++;
+        switch (resultado.getEstado()) {
+            case CREADO -> creados++;
+            case ACTUALIZADO -> actualizados++;
+            case ERROR -> fallidos++;
+        }
+        if (detalle) {
+            resultados.add(resultado);
+        }
+    }
+    
+}
@@ -0,0 +1,40 @@
+package com.example.clientesapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Schema(description = "Cambio sobre un cliente o un tipo de cliente")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeEventDTO {
+    
+    public static final String ENTIDAD_CLIENTE = "cliente";
+    public static final String ENTIDAD_TIPO_CLIENTE = "tipo_cliente";
+    
+    @Schema(description = "Posición del cambio en el stream; usar la última recibida como 'since'", example = "1024")
+    private long seq;
+    
+    @Schema(description = "Entidad modificada", allowableValues = {ENTIDAD_CLIENTE, ENTIDAD_TIPO_CLIENTE})
+    private String entidad;
+    
+    @Schema(description = "Tipo de cambio", allowableValues = {"CREATED", "UPDATED", "DELETED"})
+    private String tipo;
+    
+    @Schema(description = "ID del cliente o código del tipo de cliente", example = "42")
+    private String clave;
+    
+    // JSON ya serializado al registrar el cambio: se retorna tal cual, sin volver a parsearlo
+    @Schema(description = "Estado resultante (ClienteDTO o TipoClienteDTO); null si fue eliminado", type = "object")
+    @JsonRawValue
+    private String datos;
+    
+    @Schema(description = "Fecha del cambio")
+    private Instant fecha;
+    
+}
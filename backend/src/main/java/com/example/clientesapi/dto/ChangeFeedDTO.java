@@ -0,0 +1,20 @@
+package com.example.clientesapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Schema(description = "Cambios posteriores a una posición del stream")
+@Data
+@AllArgsConstructor
+public class ChangeFeedDTO {
+    
+    @Schema(description = "Cambios en orden de seq")
+    private List<ChangeEventDTO> eventos;
+    
+    @Schema(description = "Posición a usar como 'since' en la siguiente consulta", example = "1024")
+    private long ultimoSeq;
+    
+}
@@ -1,11 +1,14 @@
 package com.example.clientesapi.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
+
 @Schema(description = "DTO para crear/actualizar cliente")
 @Data
 @NoArgsConstructor
@@ -15,7 +18,8 @@ public class ClienteDTO {
     @Schema(description = "ID único del cliente (solo lectura)", example = "1", accessMode = Schema.AccessMode.READ_ONLY)
     private Long id;
     
-    @Schema(description = "RUT del cliente", example = "12.345.678-9", required = true)
+    @Schema(description = "RUT del cliente, con o sin puntos y guion; se valida el dígito verificador y se guarda "
+            + "en forma canónica (12345678-5)", example = "12.345.678-5", required = true)
     @NotBlank(message = "El RUT es obligatorio")
     @Size(max = 12, message = "El RUT no puede tener más de 12 caracteres")
     private String rut;
@@ -46,4 +50,15 @@ public class ClienteDTO {
     @Size(max = 10, message = "El código del tipo de cliente no puede tener más de 10 caracteres")
     private String codTipoCliente;
     
+    // Versión y fecha de última modificación: se exponen como headers ETag y Last-Modified, no en el JSON
+    @JsonIgnore
+    private Long version;
+    
+    @JsonIgnore
+    private Instant updatedAt;
+    
+    public ClienteDTO(Long id, String rut, String nombre, String apellido, Integer edad, String email, String codTipoCliente) {
+        this(id, rut, nombre, apellido, edad, email, codTipoCliente, null, null);
+    }
+    
 }
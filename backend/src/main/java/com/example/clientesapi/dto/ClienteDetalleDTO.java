@@ -0,0 +1,38 @@
+package com.example.clientesapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(description = "Cliente con la descripción de su tipo de cliente")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClienteDetalleDTO {
+    
+    @Schema(description = "ID único del cliente", example = "1")
+    private Long id;
+    
+    @Schema(description = "RUT del cliente", example = "12345678-5")
+    private String rut;
+    
+    @Schema(description = "Nombre del cliente", example = "Juan")
+    private String nombre;
+    
+    @Schema(description = "Apellido del cliente", example = "Pérez")
+    private String apellido;
+    
+    @Schema(description = "Edad del cliente", example = "30")
+    private Integer edad;
+    
+    @Schema(description = "Email del cliente", example = "juan.perez@email.com")
+    private String email;
+    
+    @Schema(description = "Código del tipo de cliente", example = "VIP")
+    private String codTipoCliente;
+    
+    @Schema(description = "Descripción del tipo de cliente", example = "Cliente VIP - Servicio premium con beneficios especiales")
+    private String descripcionTipoCliente;
+    
+}
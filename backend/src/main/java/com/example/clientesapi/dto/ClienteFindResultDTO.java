@@ -0,0 +1,19 @@
+package com.example.clientesapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(description = "Cliente encontrado por la búsqueda aproximada y su puntaje")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClienteFindResultDTO {
+    
+    private ClienteDTO cliente;
+    
+    @Schema(description = "Similitud con la búsqueda, de 0 a 1 (1: todas las palabras coinciden exactamente)", example = "0.89")
+    private double puntaje;
+    
+}
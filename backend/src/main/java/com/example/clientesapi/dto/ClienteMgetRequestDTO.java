@@ -0,0 +1,25 @@
+package com.example.clientesapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Schema(description = "Clientes a obtener por ID y/o por RUT")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClienteMgetRequestDTO {
+    
+    @Schema(description = "IDs de los clientes", example = "[1, 2, 3]")
+    private List<@NotNull(message = "Los IDs no pueden ser nulos") Long> ids = new ArrayList<>();
+    
+    @Schema(description = "RUT de los clientes, con o sin puntos y guion", example = "[\"12345678-5\", \"98.765.432-5\"]")
+    private List<@NotBlank(message = "Los RUT no pueden estar vacíos") String> ruts = new ArrayList<>();
+    
+}
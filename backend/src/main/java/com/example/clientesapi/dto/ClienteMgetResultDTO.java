@@ -0,0 +1,24 @@
+package com.example.clientesapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Schema(description = "Resultado de una consulta de varios clientes por ID y/o RUT")
+@Data
+@AllArgsConstructor
+public class ClienteMgetResultDTO {
+    
+    @Schema(description = "Clientes encontrados: primero los pedidos por ID y luego los pedidos por RUT, " +
+                          "cada grupo en el orden de la petición y sin repetidos")
+    private List<ClienteDTO> clientes;
+    
+    @Schema(description = "IDs pedidos que no existen", example = "[3]")
+    private List<Long> idsNoEncontrados;
+    
+    @Schema(description = "RUT pedidos que no existen o sin formato válido, tal como se pidieron", example = "[\"98.765.432-5\"]")
+    private List<String> rutsNoEncontrados;
+    
+}
@@ -0,0 +1,59 @@
+package com.example.clientesapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Filtros y orden de la búsqueda de clientes. Cada filtro es opcional; los indicados se combinan con AND.
+ */
+@Schema(description = "Filtros de búsqueda de clientes")
+@Data
+@NoArgsConstructor
+public class ClienteSearchCriteria {
+    
+    public static final String ORDEN_ID = "id";
+    public static final String ORDEN_NOMBRE = "nombre";
+    public static final String ORDEN_EDAD = "edad";
+    
+    @Schema(description = "Prefijo del nombre", example = "Ma")
+    @Size(max = 50, message = "El nombre no puede tener más de 50 caracteres")
+    private String nombre;
+    
+    @Schema(description = "Prefijo del apellido", example = "Gon")
+    @Size(max = 50, message = "El apellido no puede tener más de 50 caracteres")
+    private String apellido;
+    
+    @Schema(description = "Código del tipo de cliente", example = "VIP")
+    @Size(max = 10, message = "El código del tipo de cliente no puede tener más de 10 caracteres")
+    private String codTipoCliente;
+    
+    @Schema(description = "Edad mínima (inclusive)", example = "18")
+    @Min(value = 0, message = "La edad mínima debe ser mayor o igual a 0")
+    @Max(value = 150, message = "La edad mínima debe ser menor o igual a 150")
+    private Integer edadMin;
+    
+    @Schema(description = "Edad máxima (inclusive)", example = "65")
+    @Min(value = 0, message = "La edad máxima debe ser mayor o igual a 0")
+    @Max(value = 150, message = "La edad máxima debe ser menor o igual a 150")
+    private Integer edadMax;
+    
+    @Schema(description = "Campo de orden: id, nombre (nombre, apellido) o edad", example = "nombre",
+            allowableValues = {ORDEN_ID, ORDEN_NOMBRE, ORDEN_EDAD}, defaultValue = ORDEN_ID)
+    @Pattern(regexp = ORDEN_ID + "|" + ORDEN_NOMBRE + "|" + ORDEN_EDAD,
+             message = "El orden debe ser id, nombre o edad")
+    private String orden = ORDEN_ID;
+    
+    @Schema(description = "Dirección del orden", example = "asc", allowableValues = {"asc", "desc"}, defaultValue = "asc")
+    @Pattern(regexp = "asc|desc", message = "La dirección debe ser asc o desc")
+    private String direccion = "asc";
+    
+    public boolean isDescendente() {
+        return "desc".equals(direccion);
+    }
+    
+}
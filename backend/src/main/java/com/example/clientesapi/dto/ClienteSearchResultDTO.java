@@ -0,0 +1,20 @@
+package com.example.clientesapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Página de resultados de la búsqueda de clientes.
+ */
+@Data
+@AllArgsConstructor
+public class ClienteSearchResultDTO {
+    
+    private List<ClienteDTO> clientes;
+    
+    // Cursor opaco de la página siguiente; null si no hay más resultados
+    private String nextCursor;
+    
+}
@@ -0,0 +1,41 @@
+package com.example.clientesapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Schema(description = "Cantidad de clientes y distribución de edades")
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ClienteStatsDTO {
+    
+    @Schema(description = "Código del tipo de cliente (ausente en las estadísticas globales)", example = "VIP")
+    private String codTipoCliente;
+    
+    @Schema(description = "Cantidad de clientes", example = "1250")
+    private long total;
+    
+    @Schema(description = "Cantidad de clientes sin edad registrada", example = "12")
+    private long sinEdad;
+    
+    @Schema(description = "Edad promedio de los clientes con edad registrada", example = "37.4")
+    private Double edadPromedio;
+    
+    @Schema(description = "Edad mínima", example = "18")
+    private Integer edadMinima;
+    
+    @Schema(description = "Edad máxima", example = "92")
+    private Integer edadMaxima;
+    
+    @Schema(description = "Cantidad de clientes por tramo de edad de 10 años (\"0-9\", \"10-19\", ...)")
+    private Map<String, Long> histograma;
+    
+    @Schema(description = "Estadísticas de cada tipo de cliente (solo en las estadísticas globales)")
+    private List<ClienteStatsDTO> porTipo;
+    
+}
@@ -0,0 +1,45 @@
+package com.example.clientesapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Schema(description = "Estado de una creación o modificación de cliente encolada en el pipeline de escrituras")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OperacionEscrituraDTO {
+    
+    public enum Tipo { CREAR, ACTUALIZAR }
+    
+    public enum Estado { PENDIENTE, COMPLETADA, ERROR }
+    
+    @Schema(description = "ID de la operación", example = "5f0c6f1e-2d7a-4c1b-9d43-0e6a7b1f9a21")
+    private String id;
+    
+    @Schema(description = "Tipo de operación", example = "CREAR")
+    private Tipo tipo;
+    
+    @Schema(description = "Estado de la operación", example = "COMPLETADA")
+    private Estado estado;
+    
+    @Schema(description = "Código HTTP que habría tenido la respuesta síncrona (201, 200, 400, 404, 409, 412...); " +
+                          "vacío mientras está pendiente", example = "201")
+    private Integer status;
+    
+    @Schema(description = "Detalle del error, si lo hubo")
+    private String mensaje;
+    
+    @Schema(description = "Cliente creado o actualizado, una vez confirmada la operación")
+    private ClienteDTO cliente;
+    
+    @Schema(description = "Fecha de recepción de la operación")
+    private Instant recibida;
+    
+    @Schema(description = "Fecha de confirmación o rechazo de la operación")
+    private Instant finalizada;
+    
+}
@@ -1,11 +1,14 @@
 package com.example.clientesapi.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
+
 @Schema(description = "DTO para Tipo de Cliente")
 @Data
 @NoArgsConstructor
@@ -21,4 +24,15 @@ public class TipoClienteDTO {
     @NotBlank(message = "La descripción es obligatoria")
     @Size(max = 100, message = "La descripción no puede tener más de 100 caracteres")
     private String descripcion;
+    
+    // Versión y fecha de última modificación: se exponen como headers ETag y Last-Modified, no en el JSON
+    @JsonIgnore
+    private Long version;
+    
+    @JsonIgnore
+    private Instant updatedAt;
+    
+    public TipoClienteDTO(String codigo, String descripcion) {
+        this(codigo, descripcion, null, null);
+    }
 }
\ No newline at end of file
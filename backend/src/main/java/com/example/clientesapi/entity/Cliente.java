@@ -2,16 +2,32 @@ package com.example.clientesapi.entity;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 
 @Entity
 @Table(name = "cliente", 
+       uniqueConstraints = {
+           @UniqueConstraint(name = "uk_cliente_rut_numero", columnNames = "rut_numero"),
+           @UniqueConstraint(name = "uk_cliente_email", columnNames = "email")
+       },
        indexes = {
-           @Index(name = "idx_cliente_rut", columnList = "rut")
+           @Index(name = "idx_cliente_nombre_apellido", columnList = "nombre, apellido"),
+           @Index(name = "idx_cliente_apellido_nombre", columnList = "apellido, nombre"),
+           @Index(name = "idx_cliente_tipo", columnList = "cod_tipo_cliente"),
+           @Index(name = "idx_cliente_edad", columnList = "edad")
        })
-@Data
+@Getter
+@Setter
+@ToString
 @NoArgsConstructor
 @AllArgsConstructor
 public class Cliente {
@@ -21,11 +37,21 @@ public class Cliente {
     @Column(name = "id")
     private Long id;
     
-    @Column(name = "rut", length = 12, unique = true, nullable = false)
+    @Column(name = "rut", length = 12, nullable = false)
     @NotBlank(message = "El RUT es obligatorio")
     @Size(max = 12, message = "El RUT no puede tener más de 12 caracteres")
     private String rut;
     
+    // Cuerpo numérico y dígito verificador del RUT, derivados de rut al asignarlo. Las búsquedas por RUT
+    // usan el índice único entero de rut_numero en lugar de comparar cadenas
+    @Column(name = "rut_numero", nullable = false)
+    @Setter(AccessLevel.NONE)
+    private Integer rutNumero;
+    
+    @Column(name = "rut_dv", nullable = false, columnDefinition = "char(1)")
+    @Setter(AccessLevel.NONE)
+    private String rutDv;
+    
     @Column(name = "nombre", length = 50, nullable = false)
     @NotBlank(message = "El nombre es obligatorio")
     @Size(max = 50, message = "El nombre no puede tener más de 50 caracteres")
@@ -41,7 +67,7 @@ public class Cliente {
     @Max(value = 150, message = "La edad debe ser menor o igual a 150")
     private Integer edad;
     
-    @Column(name = "email", length = 100, unique = true, nullable = false)
+    @Column(name = "email", length = 100, nullable = false)
     @NotBlank(message = "El email es obligatorio")
     @Email(message = "El formato del email no es válido")
     @Size(max = 100, message = "El email no puede tener más de 100 caracteres")
@@ -52,9 +78,56 @@ public class Cliente {
     @Size(max = 10, message = "El código del tipo de cliente no puede tener más de 10 caracteres")
     private String codTipoCliente;
     
+    // Control de concurrencia optimista y base del ETag. El DEFAULT permite agregar la columna a
+    // tablas existentes y que las inserciones JDBC/R2DBC no tengan que indicarla
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+    
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+    
+    // Solo lectura: el tipo se asigna por codTipoCliente. No se incluye en toString para no inicializar el proxy
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cod_tipo_cliente", referencedColumnName = "codigo", insertable = false, updatable = false,
                 foreignKey = @ForeignKey(name = "fk_cliente_tipo_cliente"))
+    @ToString.Exclude
     private TipoCliente tipoCliente;
     
+    // Un RUT sin formato válido deja rutNumero en null y la escritura falla por NOT NULL; el servicio
+    // valida el RUT antes de asignarlo
+    public void setRut(String rut) {
+        this.rut = rut;
+        String canonico = Rut.normalize(rut);
+        this.rutNumero = canonico != null ? Rut.numero(canonico) : null;
+        this.rutDv = canonico != null ? String.valueOf(Rut.dv(canonico)) : null;
+    }
+    
+    // Se trunca a milisegundos, la precisión de la columna, para que el valor retornado tras la escritura
+    // y el que se relee después produzcan el mismo ETag
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+    
+    // Igualdad por identidad de base de datos: no depende de campos mutables ni de asociaciones lazy
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) {
+            return false;
+        }
+        Cliente other = (Cliente) o;
+        return id != null && id.equals(other.getId());
+    }
+    
+    // Constante por clase: el ID se asigna al insertar y el hash no debe cambiar en ese momento
+    @Override
+    public int hashCode() {
+        return Hibernate.getClass(this).hashCode();
+    }
+    
 }
@@ -0,0 +1,54 @@
+package com.example.clientesapi.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.Instant;
+
+/**
+ * Cambio sobre un cliente o tipo de cliente, registrado en la misma transacción que lo produce.
+ * <p>
+ * Se escribe y se lee con JDBC ({@code OutboxRepository}); la entidad solo define la tabla. El {@code id}
+ * se asigna al insertar, pero las transacciones pueden confirmarse en otro orden: el {@code seq} que ven
+ * los consumidores lo asigna después el publicador, en el orden en que los cambios quedan visibles.
+ */
+@Entity
+@Table(name = "outbox_evento",
+       uniqueConstraints = @UniqueConstraint(name = "uk_outbox_evento_seq", columnNames = "seq"),
+       indexes = @Index(name = "idx_outbox_evento_created_at", columnList = "created_at"))
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class OutboxEvento {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+    
+    // Posición en el stream de cambios; null hasta que el publicador la asigna
+    @Column(name = "seq")
+    private Long seq;
+    
+    @Column(name = "entidad", length = 20, nullable = false)
+    private String entidad;
+    
+    @Column(name = "tipo", length = 10, nullable = false)
+    private String tipo;
+    
+    // ID del cliente o código del tipo de cliente
+    @Column(name = "clave", length = 20, nullable = false)
+    private String clave;
+    
+    // Estado resultante en JSON; null cuando el registro fue eliminado
+    @Column(name = "datos", columnDefinition = "text")
+    private String datos;
+    
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+    
+}
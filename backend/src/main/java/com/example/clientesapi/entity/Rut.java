@@ -0,0 +1,115 @@
+package com.example.clientesapi.entity;
+
+import com.example.clientesapi.exception.BusinessLogicException;
+
+/**
+ * Forma canónica del RUT y su descomposición en cuerpo numérico y dígito verificador.
+ * <p>
+ * Se aceptan las formas habituales ("12.345.678-5", "12345678-5", "123456785", con "k" o "K") y todas
+ * se normalizan a la canónica: cuerpo sin puntos ni ceros a la izquierda, guion y dígito verificador en
+ * mayúscula ("12345678-5"). Las escrituras guardan la forma canónica en {@code rut} y el cuerpo en
+ * {@code rut_numero}, cuyo índice único entero es el que usan las búsquedas por RUT.
+ */
+public final class Rut {
+    
+    /** Cuerpo máximo: ocho dígitos. */
+    public static final int MAX_NUMERO = 99_999_999;
+    
+    private Rut() {
+    }
+    
+    /**
+     * Forma canónica del RUT sin verificar el dígito verificador, o {@code null} si no tiene formato de RUT.
+     * Es la que usan las búsquedas, que no deben rechazar los RUT guardados antes de validarlos.
+     */
+    public static String normalize(String rut) {
+        if (rut == null) {
+            return null;
+        }
+        String valor = rut.strip();
+        int largo = valor.length();
+        if (largo < 2) {
+            return null;
+        }
+        char dv = Character.toUpperCase(valor.charAt(largo - 1));
+        if ((dv < '0' || dv > '9') && dv != 'K') {
+            return null;
+        }
+        int fin = valor.charAt(largo - 2) == '-' ? largo - 2 : largo - 1;
+        
+        // Cuerpo: dígitos, opcionalmente agrupados de a tres con puntos ("12.345.678")
+        long numero = 0;
+        int digitos = 0;
+        int grupo = 0;
+        boolean conPuntos = false;
+        for (int i = 0; i < fin; i++) {
+            char c = valor.charAt(i);
+            if (c == '.') {
+                if (grupo == 0 || (conPuntos && grupo != 3) || (!conPuntos && grupo > 3)) {
+                    return null;
+                }
+                conPuntos = true;
+                grupo = 0;
+            } else if (c >= '0' && c <= '9') {
+                numero = numero * 10 + (c - '0');
+                digitos++;
+                grupo++;
+                if (numero > MAX_NUMERO) {
+                    return null;
+                }
+            } else {
+                return null;
+            }
+        }
+        if (digitos == 0 || (conPuntos && grupo != 3) || numero == 0) {
+            return null;
+        }
+        return numero + "-" + dv;
+    }
+    
+    /**
+     * Forma canónica de un RUT que se va a guardar: debe tener formato de RUT y dígito verificador correcto.
+     *
+     * @throws BusinessLogicException si no cumple alguna de las dos condiciones
+     */
+    public static String validate(String rut) {
+        String canonico = normalize(rut);
+        if (canonico == null) {
+            throw new BusinessLogicException("El RUT no tiene un formato válido: " + rut);
+        }
+        if (dv(canonico) != digitoVerificador(numero(canonico))) {
+            throw new BusinessLogicException("El dígito verificador del RUT no es válido: " + rut);
+        }
+        return canonico;
+    }
+    
+    /**
+     * Cuerpo numérico de un RUT en forma canónica.
+     */
+    public static int numero(String canonico) {
+        return Integer.parseInt(canonico, 0, canonico.length() - 2, 10);
+    }
+    
+    /**
+     * Dígito verificador de un RUT en forma canónica.
+     */
+    public static char dv(String canonico) {
+        return canonico.charAt(canonico.length() - 1);
+    }
+    
+    /**
+     * Dígito verificador del cuerpo, por módulo 11: los dígitos de derecha a izquierda se multiplican por
+     * 2, 3, ..., 7, 2, 3, ...; el resto de la suma se resta de 11 (11 es "0" y 10 es "K").
+     */
+    public static char digitoVerificador(int numero) {
+        int suma = 0;
+        int factor = 2;
+        for (int resto = numero; resto > 0; resto /= 10) {
+            suma += (resto % 10) * factor;
+            factor = factor == 7 ? 2 : factor + 1;
+        }
+        int dv = 11 - suma % 11;
+        return dv == 11 ? '0' : dv == 10 ? 'K' : (char) ('0' + dv);
+    }
+    
+}
@@ -4,14 +4,21 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
 
-import java.util.Set;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
 
 @Entity
 @Table(name = "tipo_cliente")
-@Data
+@Getter
+@Setter
+@ToString
 @NoArgsConstructor
 @AllArgsConstructor
 public class TipoCliente {
@@ -27,7 +34,38 @@ public class TipoCliente {
     @Size(max = 100, message = "La descripción no puede tener más de 100 caracteres")
     private String descripcion;
     
-    @OneToMany(mappedBy = "tipoCliente", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    private Set<Cliente> clientes;
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+    
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+    
+    // Sin colección de clientes: un tipo puede tener miles, y recorrerla (o propagar operaciones en
+    // cascada) cargaría cada cliente por separado. Se consultan con ClienteRepository.
+    
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+    
+    // El código es asignado por la aplicación, por lo que es estable desde antes de persistir
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) {
+            return false;
+        }
+        TipoCliente other = (TipoCliente) o;
+        return codigo != null && codigo.equals(other.getCodigo());
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(codigo);
+    }
     
 }
\ No newline at end of file
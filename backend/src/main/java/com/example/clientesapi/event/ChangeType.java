@@ -0,0 +1,7 @@
+package com.example.clientesapi.event;
+
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
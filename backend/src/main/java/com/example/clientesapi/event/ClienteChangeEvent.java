@@ -0,0 +1,29 @@
+package com.example.clientesapi.event;
+
+import com.example.clientesapi.dto.ClienteDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Cambio sobre un cliente, publicado dentro de la transacción que lo produce.
+ * Los listeners que deben actuar solo sobre datos confirmados usan {@code @TransactionalEventListener}.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class ClienteChangeEvent {
+    
+    private final ChangeType type;
+    
+    /** Estado anterior del cliente; {@code null} cuando fue creado. */
+    private final ClienteDTO before;
+    
+    /** Estado resultante del cliente; {@code null} cuando fue eliminado. */
+    private final ClienteDTO after;
+    
+    public Long getId() {
+        return after != null ? after.getId() : before.getId();
+    }
+    
+}
@@ -0,0 +1,24 @@
+package com.example.clientesapi.event;
+
+import com.example.clientesapi.dto.TipoClienteDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Cambio sobre un tipo de cliente, publicado por {@code TipoClienteService} dentro de la transacción
+ * que lo produce.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class TipoClienteChangeEvent {
+    
+    private final ChangeType type;
+    
+    private final String codigo;
+    
+    /** Estado resultante del tipo de cliente; {@code null} cuando fue eliminado. */
+    private final TipoClienteDTO tipoCliente;
+    
+}
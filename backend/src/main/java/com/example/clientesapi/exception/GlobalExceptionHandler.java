@@ -1,15 +1,23 @@
 package com.example.clientesapi.exception;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -17,7 +25,6 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleResourceNotFoundException(ResourceNotFoundException ex) {
         ErrorResponse errorResponse = new ErrorResponse(
-                LocalDateTime.now(),
                 HttpStatus.NOT_FOUND.value(),
                 "Recurso no encontrado",
                 ex.getMessage()
@@ -28,7 +35,6 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(DuplicateResourceException.class)
     public ResponseEntity<ErrorResponse> handleDuplicateResourceException(DuplicateResourceException ex) {
         ErrorResponse errorResponse = new ErrorResponse(
-                LocalDateTime.now(),
                 HttpStatus.CONFLICT.value(),
                 "Recurso duplicado",
                 ex.getMessage()
@@ -39,7 +45,6 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(BusinessLogicException.class)
     public ResponseEntity<ErrorResponse> handleBusinessLogicException(BusinessLogicException ex) {
         ErrorResponse errorResponse = new ErrorResponse(
-                LocalDateTime.now(),
                 HttpStatus.BAD_REQUEST.value(),
                 "Error de lógica de negocio",
                 ex.getMessage()
@@ -47,21 +52,55 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
     
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorResponse> handlePreconditionFailedException(PreconditionFailedException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.PRECONDITION_FAILED.value(),
+                "Precondición fallida",
+                ex.getMessage()
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.PRECONDITION_FAILED);
+    }
+    
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.PRECONDITION_FAILED.value(),
+                "Precondición fallida",
+                "El recurso fue modificado por otra operación"
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.PRECONDITION_FAILED);
+    }
+    
+    @ExceptionHandler(ChangesExpiredException.class)
+    public ResponseEntity<ErrorResponse> handleChangesExpiredException(ChangesExpiredException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.GONE.value(),
+                "Cambios no disponibles",
+                ex.getMessage()
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.GONE);
+    }
+    
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleServiceUnavailableException(ServiceUnavailableException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Servicio sobrecargado",
+                ex.getMessage()
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
+    
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ValidationErrorResponse> handleValidationExceptions(MethodArgumentNotValidException ex) {
-        Map<String, String> errors = new HashMap<>();
-        ex.getBindingResult().getAllErrors().forEach((error) -> {
-            String fieldName = ((FieldError) error).getField();
-            String errorMessage = error.getDefaultMessage();
-            errors.put(fieldName, errorMessage);
-        });
-        
         ValidationErrorResponse errorResponse = new ValidationErrorResponse(
-                LocalDateTime.now(),
                 HttpStatus.BAD_REQUEST.value(),
                 "Error de validación",
                 "Los datos proporcionados no son válidos",
-                errors
+                ex.getBindingResult().getAllErrors()
         );
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
@@ -69,7 +108,6 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(Exception ex) {
         ErrorResponse errorResponse = new ErrorResponse(
-                LocalDateTime.now(),
                 HttpStatus.INTERNAL_SERVER_ERROR.value(),
                 "Error interno del servidor",
                 "Ha ocurrido un error inesperado"
@@ -77,13 +115,25 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
     }
     
+    /**
+     * Cuerpo de las respuestas de error. La fecha se guarda como milisegundos y se convierte solo al leerla
+     * o serializarla ({@code ErrorResponseSerializer}).
+     */
     public static class ErrorResponse {
-        private LocalDateTime timestamp;
-        private int status;
-        private String error;
-        private String message;
+        private final long timestamp;
+        private final int status;
+        private final String error;
+        private final String message;
+        
+        public ErrorResponse(int status, String error, String message) {
+            this(System.currentTimeMillis(), status, error, message);
+        }
         
         public ErrorResponse(LocalDateTime timestamp, int status, String error, String message) {
+            this(timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), status, error, message);
+        }
+        
+        private ErrorResponse(long timestamp, int status, String error, String message) {
             this.timestamp = timestamp;
             this.status = status;
             this.error = error;
@@ -91,21 +141,66 @@ public class GlobalExceptionHandler {
         }
         
         // Getters
-        public LocalDateTime getTimestamp() { return timestamp; }
+        public LocalDateTime getTimestamp() { return LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault()); }
+        @JsonIgnore
+        public long getTimestampMillis() { return timestamp; }
         public int getStatus() { return status; }
         public String getError() { return error; }
         public String getMessage() { return message; }
     }
     
+    /**
+     * Error de validación con el mensaje de cada campo inválido. Se puede crear directamente con los
+     * errores del binding, sin copiarlos a un mapa: si un campo tiene varios errores vale el último.
+     */
     public static class ValidationErrorResponse extends ErrorResponse {
+        private final List<? extends ObjectError> errores;
         private Map<String, String> validationErrors;
         
+        public ValidationErrorResponse(int status, String error, String message, List<? extends ObjectError> errores) {
+            super(status, error, message);
+            this.errores = errores;
+        }
+        
         public ValidationErrorResponse(LocalDateTime timestamp, int status, String error, String message, Map<String, String> validationErrors) {
             super(timestamp, status, error, message);
+            this.errores = List.of();
             this.validationErrors = validationErrors;
         }
         
-        public Map<String, String> getValidationErrors() { return validationErrors; }
+        public Map<String, String> getValidationErrors() {
+            if (validationErrors == null) {
+                Map<String, String> mapa = new LinkedHashMap<>();
+                forEachError(mapa::put);
+                validationErrors = mapa;
+            }
+            return validationErrors;
+        }
+        
+        /**
+         * Recorre los errores por campo, una vez por campo, sin armar el mapa.
+         */
+        public void forEachError(BiConsumer<String, String> accion) {
+            if (validationErrors != null) {
+                validationErrors.forEach(accion);
+                return;
+            }
+            for (int i = 0; i < errores.size(); i++) {
+                if (errores.get(i) instanceof FieldError fieldError && isLastFor(fieldError.getField(), i)) {
+                    accion.accept(fieldError.getField(), fieldError.getDefaultMessage());
+                }
+            }
+        }
+        
+        // Los errores de un request son pocos: buscar hacia adelante es más barato que armar un conjunto
+        private boolean isLastFor(String campo, int indice) {
+            for (int i = indice + 1; i < errores.size(); i++) {
+                if (errores.get(i) instanceof FieldError siguiente && campo.equals(siguiente.getField())) {
+                    return false;
+                }
+            }
+            return true;
+        }
     }
     
 }
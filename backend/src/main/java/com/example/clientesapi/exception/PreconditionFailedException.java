@@ -0,0 +1,13 @@
+package com.example.clientesapi.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+    
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+    
+    public PreconditionFailedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+    
+}
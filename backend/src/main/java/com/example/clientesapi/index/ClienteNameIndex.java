@@ -0,0 +1,559 @@
+package com.example.clientesapi.index;
+
+import com.example.clientesapi.datasource.ReadRoutingContext;
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.event.ClienteChangeEvent;
+import com.example.clientesapi.repository.ClienteBulkRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido en memoria para la búsqueda aproximada de clientes por nombre, apellido y email
+ * ({@code GET /api/clientes/find}).
+ * <p>
+ * Tiene dos niveles. Cada palabra distinta (ver {@link NameTokenizer}) tiene la lista ordenada de IDs de
+ * los clientes que la contienen; y cada trigrama, la lista de palabras que lo contienen. Un término de
+ * búsqueda se compara primero contra el vocabulario, que crece con la variedad de nombres y no con la
+ * cantidad de clientes: sus variantes son las palabras con coeficiente de Dice sobre trigramas mayor o
+ * igual a {@code clientes.find.min-similarity}, o que empiezan con el término. Luego se recorren los
+ * clientes del término con menos coincidencias y se busca cada uno en las listas de los demás términos
+ * avanzando por saltos, sin recorrerlas completas. Un cliente aparece en el resultado si todos los
+ * términos coinciden con alguna de sus palabras; su puntaje es el promedio de la mejor similitud de cada
+ * término. Las variantes se recorren de la más a la menos similar y el recorrido se detiene apenas ningún
+ * cliente restante puede entrar entre los K mejores, así que un apellido común no obliga a recorrer a
+ * todos sus clientes.
+ * <p>
+ * Se construye al iniciar recorriendo la tabla en streaming y se mantiene con los cambios confirmados de
+ * clientes. Periódicamente se reconstruye, para incorporar cambios hechos fuera de esta instancia; los
+ * cambios confirmados mientras se reconstruye se vuelven a aplicar antes de reemplazar el índice. Los
+ * listeners de transacciones distintas pueden ejecutarse en otro orden que sus commits, así que el índice
+ * recuerda la última versión aplicada de cada cliente y descarta un cambio más antiguo.
+ */
+@Component
+@Slf4j
+public class ClienteNameIndex {
+    
+    /** Términos considerados por búsqueda; los siguientes se ignoran. */
+    public static final int MAX_TERMINOS = 8;
+    
+    private final ClienteBulkRepository clienteBulkRepository;
+    private final int fetchSize;
+    private final double minSimilarity;
+    private final int maxVariants;
+    
+    // Las búsquedas leen con el lock de lectura; los cambios y el reemplazo del índice toman el de escritura
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Indice indice = new Indice();
+    
+    // Cambios recibidos durante una reconstrucción en curso (null si no hay ninguna); protegido por lock
+    private List<ClienteChangeEvent> pendientes;
+    
+    public ClienteNameIndex(ClienteBulkRepository clienteBulkRepository,
+                            @Value("${clientes.export.fetch-size:" + Integer.MIN_VALUE + "}") int fetchSize,
+                            @Value("${clientes.find.min-similarity:0.5}") double minSimilarity,
+                            @Value("${clientes.find.max-variants:32}") int maxVariants) {
+        this.clienteBulkRepository = clienteBulkRepository;
+        this.fetchSize = fetchSize;
+        this.minSimilarity = minSimilarity;
+        this.maxVariants = maxVariants;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+    
+    /**
+     * Reconstruye el índice desde la base de datos y reemplaza el actual.
+     */
+    @Scheduled(fixedDelayString = "${clientes.find.rebuild-interval:PT1H}",
+               initialDelayString = "${clientes.find.rebuild-interval:PT1H}")
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendientes = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        
+        long inicio = System.nanoTime();
+        Indice nuevo = new Indice();
+        long clientes;
+        try {
+            // Se lee de la primaria: los cambios que se vuelven a aplicar ya están confirmados allí
+            Set<String> tokens = new HashSet<>();
+            clientes = ReadRoutingContext.onPrimary(() -> clienteBulkRepository.forEach(fetchSize, cliente -> {
+                tokens.clear();
+                NameTokenizer.tokens(cliente, tokens);
+                nuevo.add(cliente.getId(), tokens);
+            }));
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendientes = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        
+        lock.writeLock().lock();
+        try {
+            pendientes.forEach(nuevo::apply);
+            pendientes = null;
+            indice = nuevo;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Índice de búsqueda de clientes construido: {} clientes, {} palabras distintas, {} ms",
+                clientes, nuevo.palabras, (System.nanoTime() - inicio) / 1_000_000);
+    }
+    
+    /**
+     * Retorna hasta {@code limit} clientes que coinciden con todos los términos de la búsqueda, ordenados
+     * por puntaje descendente y luego por ID. Sin términos de al menos {@value NameTokenizer#MIN_LARGO}
+     * letras el resultado es vacío.
+     */
+    public List<Coincidencia> find(String query, int limit) {
+        List<String> terminos = NameTokenizer.tokens(query);
+        if (terminos.isEmpty()) {
+            return List.of();
+        }
+        if (terminos.size() > MAX_TERMINOS) {
+            terminos = terminos.subList(0, MAX_TERMINOS);
+        }
+        lock.readLock().lock();
+        try {
+            return indice.find(terminos, limit, minSimilarity, maxVariants);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClienteChange(ClienteChangeEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (pendientes != null) {
+                pendientes.add(event);
+            }
+            indice.apply(event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Cliente encontrado y su puntaje (0-1): el promedio de la mejor similitud de cada término.
+     */
+    public record Coincidencia(long id, double puntaje) {
+    }
+    
+    /**
+     * Variante de un término: una palabra del vocabulario y su similitud con el término.
+     */
+    private record Variante(Postings postings, double similitud) {
+    }
+    
+    private static final class Indice {
+        
+        // El peor resultado queda a la cabeza del heap de los mejores K
+        private static final Comparator<Coincidencia> PEOR_PRIMERO = Comparator
+                .comparingDouble(Coincidencia::puntaje)
+                .thenComparing(Comparator.comparingLong(Coincidencia::id).reversed());
+        
+        private final Map<String, Integer> idPorPalabra = new HashMap<>();
+        private String[] palabrasPorId = new String[1024];
+        private int[] trigramasPorPalabra = new int[1024];
+        private Postings[] postings = new Postings[1024];
+        private final IntList[] palabrasPorTrigrama = new IntList[NameTokenizer.TRIGRAMAS];
+        private int palabras;
+        
+        // Último cambio aplicado de cada cliente que cambió desde que se construyó el índice
+        private final Map<Long, ClienteChangeEvent> aplicados = new HashMap<>();
+        
+        private void apply(ClienteChangeEvent event) {
+            ClienteChangeEvent ultimo = aplicados.get(event.getId());
+            if (ultimo != null && anterior(event, ultimo)) {
+                // Cambio atrasado: sus palabras pueden haber quedado de un estado intermedio que nunca se
+                // quitó, salvo las que el cliente sigue teniendo
+                Set<String> vigentes = new HashSet<>();
+                if (ultimo.getAfter() != null) {
+                    NameTokenizer.tokens(ultimo.getAfter(), vigentes);
+                }
+                Set<String> atrasadas = new HashSet<>();
+                if (event.getBefore() != null) {
+                    NameTokenizer.tokens(event.getBefore(), atrasadas);
+                }
+                if (event.getAfter() != null) {
+                    NameTokenizer.tokens(event.getAfter(), atrasadas);
+                }
+                atrasadas.removeAll(vigentes);
+                remove(event.getId(), atrasadas);
+                return;
+            }
+            aplicados.put(event.getId(), event);
+            
+            Set<String> tokens = new HashSet<>();
+            if (event.getBefore() != null) {
+                NameTokenizer.tokens(event.getBefore(), tokens);
+                remove(event.getId(), tokens);
+            }
+            if (event.getAfter() != null) {
+                tokens.clear();
+                NameTokenizer.tokens(event.getAfter(), tokens);
+                add(event.getId(), tokens);
+            }
+        }
+        
+        // Una baja es definitiva; entre dos modificaciones vale la de versión mayor. Sin versión no se
+        // puede ordenar y se aplica en el orden de llegada
+        private static boolean anterior(ClienteChangeEvent event, ClienteChangeEvent ultimo) {
+            if (ultimo.getAfter() == null) {
+                return true;
+            }
+            if (event.getAfter() == null) {
+                return false;
+            }
+            Long version = event.getAfter().getVersion();
+            Long versionUltima = ultimo.getAfter().getVersion();
+            return version != null && versionUltima != null && version < versionUltima;
+        }
+        
+        private void remove(long clienteId, Set<String> tokens) {
+            for (String token : tokens) {
+                Integer id = idPorPalabra.get(token);
+                if (id != null) {
+                    postings[id].remove(clienteId);
+                }
+            }
+        }
+        
+        private void add(long clienteId, Set<String> tokens) {
+            for (String token : tokens) {
+                // palabraId puede reemplazar el arreglo: se lee después
+                int palabra = palabraId(token);
+                postings[palabra].add(clienteId);
+            }
+        }
+        
+        private int palabraId(String palabra) {
+            Integer existente = idPorPalabra.get(palabra);
+            if (existente != null) {
+                return existente;
+            }
+            int id = palabras++;
+            if (id == palabrasPorId.length) {
+                palabrasPorId = Arrays.copyOf(palabrasPorId, id * 2);
+                trigramasPorPalabra = Arrays.copyOf(trigramasPorPalabra, id * 2);
+                postings = Arrays.copyOf(postings, id * 2);
+            }
+            idPorPalabra.put(palabra, id);
+            palabrasPorId[id] = palabra;
+            postings[id] = new Postings();
+            int[] trigramas = NameTokenizer.trigramas(palabra);
+            trigramasPorPalabra[id] = trigramas.length;
+            for (int trigrama : trigramas) {
+                IntList lista = palabrasPorTrigrama[trigrama];
+                if (lista == null) {
+                    lista = palabrasPorTrigrama[trigrama] = new IntList();
+                }
+                lista.add(id);
+            }
+            return id;
+        }
+        
+        private List<Coincidencia> find(List<String> terminos, int limit, double minSimilarity, int maxVariants) {
+            List<Variante[]> porTermino = new ArrayList<>(terminos.size());
+            for (String termino : terminos) {
+                Variante[] variantes = variantes(termino, minSimilarity, maxVariants);
+                if (variantes.length == 0) {
+                    return List.of();
+                }
+                porTermino.add(variantes);
+            }
+            // Se recorren los clientes de un término (el guía) y se buscan en las variantes de los demás, del
+            // de menos clientes al de más: la mayoría se descarta en el primero. El guía es el de menor costo
+            // estimado, sus clientes por las variantes consultadas para cada uno
+            porTermino.sort(Comparator.comparingLong(Indice::clientes));
+            int cantidad = porTermino.size();
+            int elegido = 0;
+            long menorCosto = Long.MAX_VALUE;
+            for (int t = 0; t < cantidad; t++) {
+                int consultadas = cantidad == 1 ? 1 : porTermino.get(t == 0 ? 1 : 0).length;
+                long costo = clientes(porTermino.get(t)) * consultadas;
+                if (costo < menorCosto) {
+                    menorCosto = costo;
+                    elegido = t;
+                }
+            }
+            Variante[] guia = porTermino.remove(elegido);
+            List<Variante[]> resto = porTermino;
+            
+            // Las variantes del término guía se recorren de mayor a menor similitud, cada una en orden de
+            // ID. Un cliente de la variante v puntúa a lo más la similitud de v más la mejor de cada uno de
+            // los demás términos: cuando los K mejores ya superan esa cota (o la igualan con IDs menores,
+            // que ganan el desempate), el resto de la variante y las siguientes no pueden entrar.
+            PriorityQueue<Coincidencia> mejores = new PriorityQueue<>(limit + 1, PEOR_PRIMERO);
+            for (int v = 0; v < guia.length; v++) {
+                // Se suma en el mismo orden que el puntaje de cada cliente, para que la igualdad sea exacta
+                double maximo = guia[v].similitud();
+                for (Variante[] variantes : resto) {
+                    maximo += variantes[0].similitud();
+                }
+                double cota = maximo / cantidad;
+                if (mejores.size() == limit && mejores.peek().puntaje() > cota) {
+                    break;
+                }
+                
+                int[] anteriores = new int[v];
+                int[][] cursores = new int[resto.size()][];
+                int[] hasta = new int[resto.size()];
+                for (int t = 0; t < resto.size(); t++) {
+                    cursores[t] = new int[resto.get(t).length];
+                    hasta[t] = resto.get(t).length;
+                }
+                if (mejores.size() == limit) {
+                    acotar(resto, hasta, maximo, mejores.peek().puntaje() * cantidad);
+                }
+                Postings lista = guia[v].postings();
+                for (int i = 0; i < lista.size; i++) {
+                    long clienteId = lista.ids[i];
+                    if (mejores.size() == limit) {
+                        Coincidencia peor = mejores.peek();
+                        if (peor.puntaje() > cota || (peor.puntaje() == cota && clienteId > peor.id())) {
+                            break;
+                        }
+                    }
+                    double suma = guia[v].similitud();
+                    int sinCoincidencia = -1;
+                    for (int t = 0; t < resto.size() && sinCoincidencia < 0; t++) {
+                        double similitud = similitud(resto.get(t), hasta[t], cursores[t], clienteId);
+                        if (similitud >= 0) {
+                            suma += similitud;
+                        } else {
+                            sinCoincidencia = t;
+                        }
+                    }
+                    if (sinCoincidencia >= 0) {
+                        // Ningún cliente anterior al siguiente de ese término puede coincidir: se salta hasta él
+                        long siguiente = siguiente(resto.get(sinCoincidencia), hasta[sinCoincidencia],
+                                cursores[sinCoincidencia]);
+                        i = lista.seek(i + 1, siguiente) - 1;
+                        continue;
+                    }
+                    Coincidencia coincidencia = new Coincidencia(clienteId, suma / cantidad);
+                    boolean entra = mejores.size() < limit || PEOR_PRIMERO.compare(coincidencia, mejores.peek()) > 0;
+                    // Si también está en una variante anterior ya se consideró, con similitud mayor o igual;
+                    // se verifica solo al entrar para no buscar cada cliente en esas listas
+                    if (!entra || similitud(guia, v, anteriores, clienteId) >= 0) {
+                        continue;
+                    }
+                    if (mejores.size() == limit) {
+                        mejores.poll();
+                    }
+                    mejores.add(coincidencia);
+                    if (mejores.size() == limit) {
+                        acotar(resto, hasta, maximo, mejores.peek().puntaje() * cantidad);
+                    }
+                }
+            }
+            
+            List<Coincidencia> resultado = new ArrayList<>(mejores);
+            resultado.sort(PEOR_PRIMERO.reversed());
+            return resultado;
+        }
+        
+        /**
+         * Palabras del vocabulario similares al término, de mayor a menor similitud (y entre iguales, las
+         * de más clientes primero), hasta {@code maxVariants}.
+         */
+        private Variante[] variantes(String termino, double minSimilarity, int maxVariants) {
+            // Cada palabra aparece una vez por trigrama que comparte con el término: ordenadas, sus
+            // repeticiones son los trigramas comunes. El trabajo es proporcional a las palabras que
+            // comparten algún trigrama, no al tamaño del vocabulario
+            int[] trigramas = NameTokenizer.trigramas(termino);
+            IntList tocadas = new IntList();
+            for (int trigrama : trigramas) {
+                IntList lista = palabrasPorTrigrama[trigrama];
+                if (lista != null) {
+                    tocadas.addAll(lista);
+                }
+            }
+            Arrays.sort(tocadas.valores, 0, tocadas.size);
+            
+            List<Variante> variantes = new ArrayList<>();
+            for (int i = 0; i < tocadas.size; ) {
+                int palabra = tocadas.valores[i];
+                int comunes = 0;
+                while (i < tocadas.size && tocadas.valores[i] == palabra) {
+                    comunes++;
+                    i++;
+                }
+                if (postings[palabra].size == 0) {
+                    continue;
+                }
+                double similitud = 2.0 * comunes / (trigramas.length + trigramasPorPalabra[palabra]);
+                // Un prefijo comparte todos los trigramas del término salvo el final ("ez ")
+                if (similitud < minSimilarity) {
+                    if (comunes < trigramas.length - 1 || !palabrasPorId[palabra].startsWith(termino)) {
+                        continue;
+                    }
+                    similitud = minSimilarity;
+                }
+                variantes.add(new Variante(postings[palabra], similitud));
+            }
+            variantes.sort(Comparator.comparingDouble(Variante::similitud).reversed()
+                    .thenComparing(variante -> variante.postings().size, Comparator.reverseOrder()));
+            return variantes.subList(0, Math.min(maxVariants, variantes.size())).toArray(new Variante[0]);
+        }
+        
+        /**
+         * Descarta las variantes de los demás términos que ya no alcanzan: con la variante guía y la mejor
+         * similitud de los otros términos ({@code maximo} en total), un cliente que coincida con ellas no
+         * llega a la suma {@code minimo} del peor de los K mejores. Como las variantes están ordenadas por
+         * similitud, basta con acortar cada lista. Los empates se conservan (pueden ganar por ID), con un
+         * margen para el redondeo.
+         */
+        private static void acotar(List<Variante[]> resto, int[] hasta, double maximo, double minimo) {
+            for (int t = 0; t < resto.size(); t++) {
+                Variante[] variantes = resto.get(t);
+                double necesaria = minimo - (maximo - variantes[0].similitud()) - 1e-9;
+                while (hasta[t] > 0 && variantes[hasta[t] - 1].similitud() < necesaria) {
+                    hasta[t]--;
+                }
+            }
+        }
+        
+        // Mejor similitud de las primeras variantes que contienen al cliente, o -1 si ninguna. Los clientes
+        // se consultan en orden de ID, así que cada cursor solo avanza
+        private static double similitud(Variante[] variantes, int hasta, int[] cursores, long clienteId) {
+            for (int v = 0; v < hasta; v++) {
+                Postings lista = variantes[v].postings();
+                int posicion = lista.seek(cursores[v], clienteId);
+                cursores[v] = posicion;
+                if (posicion < lista.size && lista.ids[posicion] == clienteId) {
+                    return variantes[v].similitud();
+                }
+            }
+            return -1;
+        }
+        
+        // Menor ID en la posición actual de los cursores de las primeras variantes, o Long.MAX_VALUE si se
+        // agotaron todas
+        private static long siguiente(Variante[] variantes, int hasta, int[] cursores) {
+            long siguiente = Long.MAX_VALUE;
+            for (int v = 0; v < hasta; v++) {
+                Postings lista = variantes[v].postings();
+                if (cursores[v] < lista.size) {
+                    siguiente = Math.min(siguiente, lista.ids[cursores[v]]);
+                }
+            }
+            return siguiente;
+        }
+        
+        private static long clientes(Variante[] variantes) {
+            long total = 0;
+            for (Variante variante : variantes) {
+                total += variante.postings().size;
+            }
+            return total;
+        }
+    }
+    
+    /**
+     * IDs de clientes ordenados de una palabra. Los IDs nuevos suelen ser los mayores y se agregan al final.
+     */
+    private static final class Postings {
+        
+        private long[] ids = new long[2];
+        private int size;
+        
+        private void add(long id) {
+            int posicion = size > 0 && ids[size - 1] < id ? size : Arrays.binarySearch(ids, 0, size, id);
+            if (posicion >= 0 && posicion < size) {
+                return;
+            }
+            if (posicion < 0) {
+                posicion = -posicion - 1;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, posicion, ids, posicion + 1, size - posicion);
+            ids[posicion] = id;
+            size++;
+        }
+        
+        private void remove(long id) {
+            int posicion = Arrays.binarySearch(ids, 0, size, id);
+            if (posicion >= 0) {
+                System.arraycopy(ids, posicion + 1, ids, posicion, size - posicion - 1);
+                size--;
+            }
+        }
+        
+        /**
+         * Primera posición desde {@code desde} con un ID mayor o igual a {@code id}: avanza por saltos que
+         * se duplican y termina con una búsqueda binaria en el último tramo.
+         */
+        private int seek(int desde, long id) {
+            int bajo = desde;
+            int alto = desde;
+            int salto = 1;
+            while (alto < size && ids[alto] < id) {
+                bajo = alto + 1;
+                alto = bajo + salto;
+                salto <<= 1;
+            }
+            alto = Math.min(alto, size);
+            while (bajo < alto) {
+                int medio = (bajo + alto) >>> 1;
+                if (ids[medio] < id) {
+                    bajo = medio + 1;
+                } else {
+                    alto = medio;
+                }
+            }
+            return bajo;
+        }
+    }
+    
+    private static final class IntList {
+        
+        private int[] valores = new int[4];
+        private int size;
+        
+        private void add(int valor) {
+            if (size == valores.length) {
+                valores = Arrays.copyOf(valores, size * 2);
+            }
+            valores[size++] = valor;
+        }
+        
+        private void addAll(IntList otra) {
+            if (size + otra.size > valores.length) {
+                valores = Arrays.copyOf(valores, Math.max(size * 2, size + otra.size));
+            }
+            System.arraycopy(otra.valores, 0, valores, size, otra.size);
+            size += otra.size;
+        }
+    }
+    
+}
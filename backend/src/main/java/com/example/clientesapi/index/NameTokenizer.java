@@ -0,0 +1,116 @@
+package com.example.clientesapi.index;
+
+import com.example.clientesapi.dto.ClienteDTO;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Normalización y tokenización de nombres para el índice de búsqueda aproximada.
+ * <p>
+ * El texto se pasa a minúsculas sin acentos ("González" → "gonzalez", "Ñuñoa" → "nunoa") y se separa en
+ * palabras de letras; los dígitos y demás caracteres son separadores. Del email solo se indexa la parte
+ * local: el dominio lo comparten miles de clientes y no identifica a nadie. Cada palabra se representa
+ * por sus trigramas con relleno ("  g", " go", "gon", ..., "ez "), codificados como enteros.
+ */
+final class NameTokenizer {
+    
+    /** Largo mínimo de una palabra indexada o buscada: una sola letra coincidiría con todo. */
+    static final int MIN_LARGO = 2;
+    
+    // Espacio (relleno) y las 26 letras: cada trigrama es un número en base 27
+    private static final int ALFABETO = 27;
+    static final int TRIGRAMAS = ALFABETO * ALFABETO * ALFABETO;
+    
+    private NameTokenizer() {
+    }
+    
+    /**
+     * Palabras distintas del texto, normalizadas, en orden de aparición.
+     */
+    static List<String> tokens(String texto) {
+        Set<String> tokens = new LinkedHashSet<>();
+        addTokens(texto, tokens);
+        return new ArrayList<>(tokens);
+    }
+    
+    /**
+     * Palabras distintas del nombre, el apellido y la parte local del email del cliente.
+     */
+    static void tokens(ClienteDTO cliente, Collection<String> destino) {
+        addTokens(cliente.getNombre(), destino);
+        addTokens(cliente.getApellido(), destino);
+        String email = cliente.getEmail();
+        if (email != null) {
+            int arroba = email.indexOf('@');
+            addTokens(arroba >= 0 ? email.substring(0, arroba) : email, destino);
+        }
+    }
+    
+    /**
+     * Trigramas distintos de la palabra (ya normalizada), ordenados.
+     */
+    static int[] trigramas(String token) {
+        int[] codigos = new int[token.length() + 1];
+        int anterior2 = 0;
+        int anterior1 = 0;
+        for (int i = 0; i <= token.length(); i++) {
+            int actual = i < token.length() ? token.charAt(i) - 'a' + 1 : 0;
+            codigos[i] = (anterior2 * ALFABETO + anterior1) * ALFABETO + actual;
+            anterior2 = anterior1;
+            anterior1 = actual;
+        }
+        Arrays.sort(codigos);
+        int distintos = 0;
+        for (int i = 0; i < codigos.length; i++) {
+            if (i == 0 || codigos[i] != codigos[i - 1]) {
+                codigos[distintos++] = codigos[i];
+            }
+        }
+        return distintos == codigos.length ? codigos : Arrays.copyOf(codigos, distintos);
+    }
+    
+    private static void addTokens(String texto, Collection<String> destino) {
+        if (texto == null || texto.isEmpty()) {
+            return;
+        }
+        String plano = fold(texto);
+        int inicio = -1;
+        for (int i = 0; i <= plano.length(); i++) {
+            boolean letra = i < plano.length() && plano.charAt(i) >= 'a' && plano.charAt(i) <= 'z';
+            if (letra && inicio < 0) {
+                inicio = i;
+            } else if (!letra && inicio >= 0) {
+                if (i - inicio >= MIN_LARGO) {
+                    destino.add(plano.substring(inicio, i));
+                }
+                inicio = -1;
+            }
+        }
+    }
+    
+    // Minúsculas sin marcas diacríticas; la descomposición NFD solo hace falta si hay caracteres no ASCII
+    private static String fold(String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) >= 0x80) {
+                String descompuesto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+                StringBuilder plano = new StringBuilder(descompuesto.length());
+                for (int j = 0; j < descompuesto.length(); j++) {
+                    char c = descompuesto.charAt(j);
+                    if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                        plano.append(Character.toLowerCase(c));
+                    }
+                }
+                return plano.toString();
+            }
+        }
+        return texto.toLowerCase(Locale.ROOT);
+    }
+    
+}
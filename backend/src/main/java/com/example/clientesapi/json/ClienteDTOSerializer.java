@@ -0,0 +1,64 @@
+package com.example.clientesapi.json;
+
+import com.example.clientesapi.dto.ClienteDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Serialización de {@link ClienteDTO} sin introspección: mismos campos y orden que la serialización por
+ * reflexión, con los nombres de campo ya codificados.
+ */
+public class ClienteDTOSerializer extends StdSerializer<ClienteDTO> {
+    
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString RUT = new SerializedString("rut");
+    private static final SerializedString NOMBRE = new SerializedString("nombre");
+    private static final SerializedString APELLIDO = new SerializedString("apellido");
+    private static final SerializedString EDAD = new SerializedString("edad");
+    private static final SerializedString EMAIL = new SerializedString("email");
+    private static final SerializedString COD_TIPO_CLIENTE = new SerializedString("codTipoCliente");
+    
+    public ClienteDTOSerializer() {
+        super(ClienteDTO.class);
+    }
+    
+    @Override
+    public void serialize(ClienteDTO cliente, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        write(generator, cliente);
+    }
+    
+    /**
+     * Escribe el cliente como objeto JSON; también lo usan las exportaciones, que escriben directo al generador.
+     */
+    public static void write(JsonGenerator generator, ClienteDTO cliente) throws IOException {
+        generator.writeStartObject(cliente);
+        generator.writeFieldName(ID);
+        if (cliente.getId() != null) {
+            generator.writeNumber(cliente.getId());
+        } else {
+            generator.writeNull();
+        }
+        generator.writeFieldName(RUT);
+        generator.writeString(cliente.getRut());
+        generator.writeFieldName(NOMBRE);
+        generator.writeString(cliente.getNombre());
+        generator.writeFieldName(APELLIDO);
+        generator.writeString(cliente.getApellido());
+        generator.writeFieldName(EDAD);
+        if (cliente.getEdad() != null) {
+            generator.writeNumber(cliente.getEdad());
+        } else {
+            generator.writeNull();
+        }
+        generator.writeFieldName(EMAIL);
+        generator.writeString(cliente.getEmail());
+        generator.writeFieldName(COD_TIPO_CLIENTE);
+        generator.writeString(cliente.getCodTipoCliente());
+        generator.writeEndObject();
+    }
+    
+}
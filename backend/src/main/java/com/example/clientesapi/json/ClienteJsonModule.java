@@ -0,0 +1,22 @@
+package com.example.clientesapi.json;
+
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.dto.TipoClienteDTO;
+import com.example.clientesapi.exception.GlobalExceptionHandler.ErrorResponse;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+/**
+ * Serializadores escritos a mano para las respuestas más frecuentes: clientes, tipos de cliente y errores.
+ * Producen el mismo JSON que la serialización por reflexión, y sirven también para CBOR y Smile.
+ */
+public class ClienteJsonModule extends SimpleModule {
+    
+    public ClienteJsonModule() {
+        super("ClienteJsonModule");
+        addSerializer(ClienteDTO.class, new ClienteDTOSerializer());
+        addSerializer(TipoClienteDTO.class, new TipoClienteDTOSerializer());
+        // También cubre ValidationErrorResponse, que es subclase
+        addSerializer(ErrorResponse.class, new ErrorResponseSerializer());
+    }
+    
+}
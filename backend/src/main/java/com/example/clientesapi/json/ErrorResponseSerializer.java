@@ -0,0 +1,87 @@
+package com.example.clientesapi.json;
+
+import com.example.clientesapi.exception.GlobalExceptionHandler.ErrorResponse;
+import com.example.clientesapi.exception.GlobalExceptionHandler.ValidationErrorResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Serialización de {@link ErrorResponse} y {@link ValidationErrorResponse} sin introspección.
+ * <p>
+ * La fecha se escribe como {@code yyyy-MM-ddTHH:mm:ss.SSS} en la zona del sistema, igual que un
+ * {@link LocalDateTime} serializado por Jackson. El texto hasta los segundos se reutiliza mientras no
+ * cambie el segundo, de modo que una ráfaga de errores no arma un {@code LocalDateTime} por respuesta.
+ */
+public class ErrorResponseSerializer extends StdSerializer<ErrorResponse> {
+    
+    private static final SerializedString TIMESTAMP = new SerializedString("timestamp");
+    private static final SerializedString STATUS = new SerializedString("status");
+    private static final SerializedString ERROR = new SerializedString("error");
+    private static final SerializedString MESSAGE = new SerializedString("message");
+    private static final SerializedString VALIDATION_ERRORS = new SerializedString("validationErrors");
+    private static final DateTimeFormatter SEGUNDOS = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    
+    private volatile Segundo ultimoSegundo = new Segundo(Long.MIN_VALUE, null);
+    
+    public ErrorResponseSerializer() {
+        super(ErrorResponse.class);
+    }
+    
+    @Override
+    public void serialize(ErrorResponse errorResponse, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(errorResponse);
+        generator.writeFieldName(TIMESTAMP);
+        writeTimestamp(generator, errorResponse.getTimestampMillis());
+        generator.writeFieldName(STATUS);
+        generator.writeNumber(errorResponse.getStatus());
+        generator.writeFieldName(ERROR);
+        generator.writeString(errorResponse.getError());
+        generator.writeFieldName(MESSAGE);
+        generator.writeString(errorResponse.getMessage());
+        if (errorResponse instanceof ValidationErrorResponse validacion) {
+            generator.writeFieldName(VALIDATION_ERRORS);
+            generator.writeStartObject();
+            validacion.forEachError((campo, mensaje) -> {
+                try {
+                    generator.writeStringField(campo, mensaje);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+    }
+    
+    private void writeTimestamp(JsonGenerator generator, long millis) throws IOException {
+        long epochSecond = Math.floorDiv(millis, 1000);
+        Segundo segundo = ultimoSegundo;
+        if (segundo.epochSecond() != epochSecond) {
+            String texto = SEGUNDOS.format(LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneId.systemDefault()));
+            segundo = new Segundo(epochSecond, texto.toCharArray());
+            ultimoSegundo = segundo;
+        }
+        char[] prefijo = segundo.texto();
+        char[] texto = new char[prefijo.length + 4];
+        System.arraycopy(prefijo, 0, texto, 0, prefijo.length);
+        int ms = (int) Math.floorMod(millis, 1000);
+        texto[prefijo.length] = '.';
+        texto[prefijo.length + 1] = (char) ('0' + ms / 100);
+        texto[prefijo.length + 2] = (char) ('0' + ms / 10 % 10);
+        texto[prefijo.length + 3] = (char) ('0' + ms % 10);
+        generator.writeString(texto, 0, texto.length);
+    }
+    
+    private record Segundo(long epochSecond, char[] texto) {
+    }
+    
+}
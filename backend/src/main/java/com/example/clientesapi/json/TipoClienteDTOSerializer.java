@@ -0,0 +1,33 @@
+package com.example.clientesapi.json;
+
+import com.example.clientesapi.dto.TipoClienteDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Serialización de {@link TipoClienteDTO} sin introspección, con los nombres de campo ya codificados.
+ */
+public class TipoClienteDTOSerializer extends StdSerializer<TipoClienteDTO> {
+    
+    private static final SerializedString CODIGO = new SerializedString("codigo");
+    private static final SerializedString DESCRIPCION = new SerializedString("descripcion");
+    
+    public TipoClienteDTOSerializer() {
+        super(TipoClienteDTO.class);
+    }
+    
+    @Override
+    public void serialize(TipoClienteDTO tipo, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(tipo);
+        generator.writeFieldName(CODIGO);
+        generator.writeString(tipo.getCodigo());
+        generator.writeFieldName(DESCRIPCION);
+        generator.writeString(tipo.getDescripcion());
+        generator.writeEndObject();
+    }
+    
+}
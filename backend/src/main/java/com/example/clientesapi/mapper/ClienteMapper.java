@@ -0,0 +1,59 @@
+package com.example.clientesapi.mapper;
+
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.dto.ClienteDetalleDTO;
+import com.example.clientesapi.entity.Cliente;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ClienteMapper {
+    
+    public ClienteDTO toDTO(Cliente entity) {
+        return new ClienteDTO(
+            entity.getId(),
+            entity.getRut(),
+            entity.getNombre(),
+            entity.getApellido(),
+            entity.getEdad(),
+            entity.getEmail(),
+            entity.getCodTipoCliente(),
+            entity.getVersion(),
+            entity.getUpdatedAt()
+        );
+    }
+    
+    public ClienteDetalleDTO toDetalleDTO(ClienteDTO dto, String descripcionTipoCliente) {
+        return new ClienteDetalleDTO(
+            dto.getId(),
+            dto.getRut(),
+            dto.getNombre(),
+            dto.getApellido(),
+            dto.getEdad(),
+            dto.getEmail(),
+            dto.getCodTipoCliente(),
+            descripcionTipoCliente
+        );
+    }
+    
+    public Cliente toEntity(ClienteDTO dto) {
+        Cliente cliente = new Cliente();
+        cliente.setId(dto.getId());
+        cliente.setRut(dto.getRut());
+        cliente.setNombre(dto.getNombre());
+        cliente.setApellido(dto.getApellido());
+        cliente.setEdad(dto.getEdad());
+        cliente.setEmail(dto.getEmail());
+        cliente.setCodTipoCliente(dto.getCodTipoCliente());
+        return cliente;
+    }
+    
+    public void updateEntityFromDTO(ClienteDTO dto, Cliente entity) {
+        entity.setRut(dto.getRut());
+        entity.setNombre(dto.getNombre());
+        entity.setApellido(dto.getApellido());
+        entity.setEdad(dto.getEdad());
+        entity.setEmail(dto.getEmail());
+        entity.setCodTipoCliente(dto.getCodTipoCliente());
+    }
+    
+}
@@ -0,0 +1,376 @@
+package com.example.clientesapi.memory;
+
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.data.support.ExampleMatcherAccessor;
+
+import java.beans.PropertyDescriptor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Base de los repositorios del almacenamiento en memoria: implementa las operaciones de
+ * {@link JpaRepository} a partir de unas pocas primitivas. Las consultas con orden, paginadas o por
+ * ejemplo recorren todas las entidades y ordenan en memoria: sirven para los mismos usos que con JPA,
+ * pero sin índices.
+ */
+abstract class AbstractInMemoryRepository<T, ID> implements JpaRepository<T, ID> {
+    
+    protected abstract ID getId(T entity);
+    
+    @Override
+    public <S extends T> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        entities.forEach(entity -> saved.add(save(entity)));
+        return saved;
+    }
+    
+    @Override
+    public <S extends T> S saveAndFlush(S entity) {
+        return save(entity);
+    }
+    
+    @Override
+    public <S extends T> List<S> saveAllAndFlush(Iterable<S> entities) {
+        return saveAll(entities);
+    }
+    
+    // Las escrituras se aplican al ejecutarse: no hay nada pendiente
+    @Override
+    public void flush() {
+    }
+    
+    @Override
+    public boolean existsById(ID id) {
+        return findById(id).isPresent();
+    }
+    
+    @Override
+    public List<T> findAllById(Iterable<ID> ids) {
+        List<T> entities = new ArrayList<>();
+        ids.forEach(id -> findById(id).ifPresent(entities::add));
+        return entities;
+    }
+    
+    @Override
+    public void delete(T entity) {
+        deleteById(getId(entity));
+    }
+    
+    @Override
+    public void deleteAllById(Iterable<? extends ID> ids) {
+        ids.forEach(this::deleteById);
+    }
+    
+    @Override
+    public void deleteAll(Iterable<? extends T> entities) {
+        entities.forEach(this::delete);
+    }
+    
+    @Override
+    public void deleteAll() {
+        findAll().forEach(this::delete);
+    }
+    
+    @Override
+    public void deleteAllInBatch(Iterable<T> entities) {
+        deleteAll(entities);
+    }
+    
+    @Override
+    public void deleteAllByIdInBatch(Iterable<ID> ids) {
+        deleteAllById(ids);
+    }
+    
+    @Override
+    public void deleteAllInBatch() {
+        deleteAll();
+    }
+    
+    @Override
+    public T getReferenceById(ID id) {
+        return findById(id).orElseThrow(() -> new EntityNotFoundException(
+                "No existe la entidad con ID: " + id));
+    }
+    
+    @Override
+    @Deprecated
+    public T getOne(ID id) {
+        return getReferenceById(id);
+    }
+    
+    @Override
+    @Deprecated
+    public T getById(ID id) {
+        return getReferenceById(id);
+    }
+    
+    @Override
+    public List<T> findAll(Sort sort) {
+        return sorted(findAll(), sort);
+    }
+    
+    @Override
+    public Page<T> findAll(Pageable pageable) {
+        return page(findAll(), pageable);
+    }
+    
+    @Override
+    public <S extends T> Optional<S> findOne(Example<S> example) {
+        return single(findAll(example));
+    }
+    
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example) {
+        ExampleMatcherAccessor accessor = new ExampleMatcherAccessor(example.getMatcher());
+        BeanWrapper probe = PropertyAccessorFactory.forBeanPropertyAccess(example.getProbe());
+        List<S> matches = new ArrayList<>();
+        for (T entity : findAll()) {
+            if (example.getProbeType().isInstance(entity) && matches(probe, entity, example.getMatcher(), accessor)) {
+                matches.add(example.getProbeType().cast(entity));
+            }
+        }
+        return matches;
+    }
+    
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example, Sort sort) {
+        return sorted(findAll(example), sort);
+    }
+    
+    @Override
+    public <S extends T> Page<S> findAll(Example<S> example, Pageable pageable) {
+        return page(findAll(example), pageable);
+    }
+    
+    @Override
+    public <S extends T> long count(Example<S> example) {
+        return findAll(example).size();
+    }
+    
+    @Override
+    public <S extends T> boolean exists(Example<S> example) {
+        return !findAll(example).isEmpty();
+    }
+    
+    @Override
+    public <S extends T, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        return queryFunction.apply(new ConsultaPorEjemplo<>(findAll(example), Sort.unsorted(), 0));
+    }
+    
+    /**
+     * Si la entidad coincide con las propiedades del ejemplo. Se comparan las propiedades de primer nivel
+     * con las reglas del {@link ExampleMatcher}: propiedades ignoradas, manejo de nulos, comparación de
+     * cadenas (exacta, prefijo, sufijo, contenido o expresión regular, con o sin mayúsculas) y todas o
+     * alguna de las propiedades. Sin propiedades que comparar, toda entidad coincide.
+     */
+    private static boolean matches(BeanWrapper probe, Object entity, ExampleMatcher matcher, ExampleMatcherAccessor accessor) {
+        BeanWrapper candidate = PropertyAccessorFactory.forBeanPropertyAccess(entity);
+        boolean comparada = false;
+        for (PropertyDescriptor property : probe.getPropertyDescriptors()) {
+            String path = property.getName();
+            if (property.getReadMethod() == null || path.equals("class") || accessor.isIgnoredPath(path)) {
+                continue;
+            }
+            Object value = accessor.getValueTransformerForPath(path)
+                    .apply(Optional.ofNullable(probe.getPropertyValue(path)))
+                    .orElse(null);
+            if (value == null && accessor.getNullHandler() == ExampleMatcher.NullHandler.IGNORE) {
+                continue;
+            }
+            boolean coincide = matchesValue(value, candidate.getPropertyValue(path), accessor, path);
+            if (matcher.isAllMatching() && !coincide) {
+                return false;
+            }
+            if (matcher.isAnyMatching() && coincide) {
+                return true;
+            }
+            comparada = true;
+        }
+        return matcher.isAllMatching() || !comparada;
+    }
+    
+    private static boolean matchesValue(Object expected, Object actual, ExampleMatcherAccessor accessor, String path) {
+        if (expected == null || actual == null) {
+            return expected == actual;
+        }
+        if (!(expected instanceof String esperado) || !(actual instanceof String valor)) {
+            return expected.equals(actual);
+        }
+        if (accessor.isIgnoreCaseForPath(path)) {
+            esperado = esperado.toLowerCase(Locale.ROOT);
+            valor = valor.toLowerCase(Locale.ROOT);
+        }
+        return switch (accessor.getStringMatcherForPath(path)) {
+            case STARTING -> valor.startsWith(esperado);
+            case ENDING -> valor.endsWith(esperado);
+            case CONTAINING -> valor.contains(esperado);
+            case REGEX -> Pattern.compile(esperado).matcher(valor).matches();
+            case DEFAULT, EXACT -> valor.equals(esperado);
+        };
+    }
+    
+    /**
+     * Copia ordenada de las entidades. Los {@code null} van primero en orden ascendente y al final en
+     * descendente, como en MySQL, salvo que el orden indique otra cosa.
+     */
+    static <S> List<S> sorted(List<S> entities, Sort sort) {
+        List<S> ordenadas = new ArrayList<>(entities);
+        if (sort.isSorted()) {
+            ordenadas.sort(comparator(sort));
+        }
+        return ordenadas;
+    }
+    
+    private static Comparator<Object> comparator(Sort sort) {
+        Comparator<Object> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            comparator = comparator.thenComparing((a, b) -> compare(
+                    PropertyAccessorFactory.forBeanPropertyAccess(a).getPropertyValue(order.getProperty()),
+                    PropertyAccessorFactory.forBeanPropertyAccess(b).getPropertyValue(order.getProperty()),
+                    order));
+        }
+        return comparator;
+    }
+    
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compare(Object a, Object b, Sort.Order order) {
+        if (a == null || b == null) {
+            if (a == b) {
+                return 0;
+            }
+            boolean nullPrimero = switch (order.getNullHandling()) {
+                case NULLS_FIRST -> true;
+                case NULLS_LAST -> false;
+                case NATIVE -> order.isAscending();
+            };
+            return (a == null) == nullPrimero ? -1 : 1;
+        }
+        int resultado = order.isIgnoreCase() && a instanceof String x && b instanceof String y
+                ? x.compareToIgnoreCase(y)
+                : ((Comparable) a).compareTo(b);
+        return order.isAscending() ? resultado : -resultado;
+    }
+    
+    static <S> Page<S> page(List<S> entities, Pageable pageable) {
+        List<S> ordenadas = sorted(entities, pageable.getSort());
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(ordenadas);
+        }
+        int desde = (int) Math.min(pageable.getOffset(), ordenadas.size());
+        int hasta = Math.min(desde + pageable.getPageSize(), ordenadas.size());
+        return new PageImpl<>(new ArrayList<>(ordenadas.subList(desde, hasta)), pageable, ordenadas.size());
+    }
+    
+    private static <S> Optional<S> single(List<S> matches) {
+        if (matches.size() > 1) {
+            throw new IncorrectResultSizeDataAccessException(1, matches.size());
+        }
+        return matches.stream().findFirst();
+    }
+    
+    /**
+     * {@link FluentQuery.FetchableFluentQuery} sobre las entidades que coinciden con un ejemplo. Las
+     * proyecciones por propiedades no cambian el resultado; {@link #as} solo admite la propia entidad o uno
+     * de sus supertipos.
+     */
+    private static final class ConsultaPorEjemplo<E> implements FluentQuery.FetchableFluentQuery<E> {
+        
+        private final List<E> coincidencias;
+        private final Sort sort;
+        private final int limit;
+        
+        private ConsultaPorEjemplo(List<E> coincidencias, Sort sort, int limit) {
+            this.coincidencias = coincidencias;
+            this.sort = sort;
+            this.limit = limit;
+        }
+        
+        @Override
+        public FluentQuery.FetchableFluentQuery<E> sortBy(Sort sort) {
+            return new ConsultaPorEjemplo<>(coincidencias, this.sort.and(sort), limit);
+        }
+        
+        @Override
+        public FluentQuery.FetchableFluentQuery<E> limit(int limit) {
+            return new ConsultaPorEjemplo<>(coincidencias, sort, limit);
+        }
+        
+        @Override
+        public <R> FluentQuery.FetchableFluentQuery<R> as(Class<R> resultType) {
+            List<R> convertidas = new ArrayList<>(coincidencias.size());
+            for (E entity : coincidencias) {
+                if (!resultType.isInstance(entity)) {
+                    throw unsupported();
+                }
+                convertidas.add(resultType.cast(entity));
+            }
+            return new ConsultaPorEjemplo<>(convertidas, sort, limit);
+        }
+        
+        @Override
+        public FluentQuery.FetchableFluentQuery<E> project(Collection<String> properties) {
+            return this;
+        }
+        
+        @Override
+        public E oneValue() {
+            return single(all()).orElse(null);
+        }
+        
+        @Override
+        public E firstValue() {
+            List<E> ordenadas = sorted(coincidencias, sort);
+            return ordenadas.isEmpty() ? null : ordenadas.get(0);
+        }
+        
+        @Override
+        public List<E> all() {
+            List<E> ordenadas = sorted(coincidencias, sort);
+            return limit > 0 && ordenadas.size() > limit ? new ArrayList<>(ordenadas.subList(0, limit)) : ordenadas;
+        }
+        
+        @Override
+        public Page<E> page(Pageable pageable) {
+            return AbstractInMemoryRepository.page(sorted(coincidencias, sort), pageable);
+        }
+        
+        @Override
+        public Stream<E> stream() {
+            return all().stream();
+        }
+        
+        @Override
+        public long count() {
+            return coincidencias.size();
+        }
+        
+        @Override
+        public boolean exists() {
+            return !coincidencias.isEmpty();
+        }
+        
+    }
+    
+    private static UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("Operación no soportada por el almacenamiento en memoria");
+    }
+    
+}
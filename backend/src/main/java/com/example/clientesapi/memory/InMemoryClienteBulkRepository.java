@@ -0,0 +1,110 @@
+package com.example.clientesapi.memory;
+
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.memory.InMemoryStore.ClienteFila;
+import com.example.clientesapi.repository.ClienteBulkRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * {@link ClienteBulkRepository} sobre el almacenamiento en memoria (perfil {@code memory}). Cada lote se
+ * escribe en una sola operación atómica, como el INSERT/UPDATE multi-fila de la implementación JDBC.
+ */
+@Repository
+@Profile("memory")
+@Timed(value = "clientes.repository.memory", histogram = true)
+@RequiredArgsConstructor
+public class InMemoryClienteBulkRepository implements ClienteBulkRepository {
+    
+    private final InMemoryStore store;
+    
+    @Override
+    public Map<String, ClienteDTO> findByRuts(Collection<String> ruts) {
+        Map<String, ClienteDTO> clientes = new HashMap<>();
+        for (String rut : ruts) {
+            ClienteFila fila = store.clienteByRut(rut);
+            if (fila != null) {
+                ClienteDTO cliente = new ClienteDTO(fila.id(), fila.rut(), fila.nombre(), fila.apellido(),
+                        fila.edad(), fila.email(), fila.codTipoCliente());
+                cliente.setVersion(fila.version());
+                clientes.put(fila.rut(), cliente);
+            }
+        }
+        return clientes;
+    }
+    
+    // El fetchSize no aplica: las filas se leen directamente del índice primario
+    @Override
+    public long forEach(int fetchSize, Consumer<ClienteDTO> consumer) {
+        ClienteDTO cliente = new ClienteDTO();
+        long filas = 0;
+        for (ClienteFila fila : store.clientes().values()) {
+            cliente.setId(fila.id());
+            cliente.setRut(fila.rut());
+            cliente.setNombre(fila.nombre());
+            cliente.setApellido(fila.apellido());
+            cliente.setEdad(fila.edad());
+            cliente.setEmail(fila.email());
+            cliente.setCodTipoCliente(fila.codTipoCliente());
+            consumer.accept(cliente);
+            filas++;
+        }
+        return filas;
+    }
+    
+    @Override
+    public Map<String, String> findRutsByEmail(Collection<String> emails) {
+        Map<String, String> ruts = new HashMap<>();
+        for (String email : emails) {
+            ClienteFila fila = store.clienteByEmail(email);
+            if (fila != null) {
+                ruts.put(ClienteBulkRepository.emailKey(email), fila.rut());
+            }
+        }
+        return ruts;
+    }
+    
+    @Override
+    public List<Long> insertBatch(List<ClienteDTO> clientes) {
+        if (clientes.isEmpty()) {
+            return List.of();
+        }
+        List<ClienteFila> filas = store.saveClientes(clientes, false);
+        List<Long> ids = new ArrayList<>(filas.size());
+        for (int i = 0; i < filas.size(); i++) {
+            ClienteFila fila = filas.get(i);
+            clientes.get(i).setVersion(fila.version());
+            clientes.get(i).setUpdatedAt(fila.updatedAt());
+            ids.add(fila.id());
+        }
+        return ids;
+    }
+    
+    @Override
+    public List<Boolean> updateBatch(List<ClienteDTO> clientes) {
+        if (clientes.isEmpty()) {
+            return List.of();
+        }
+        List<ClienteFila> filas = store.saveClientes(clientes, false);
+        List<Boolean> actualizados = new ArrayList<>(filas.size());
+        for (int i = 0; i < filas.size(); i++) {
+            ClienteFila fila = filas.get(i);
+            if (fila != null) {
+                clientes.get(i).setVersion(fila.version());
+                clientes.get(i).setUpdatedAt(fila.updatedAt());
+            }
+            actualizados.add(fila != null);
+        }
+        return actualizados;
+    }
+    
+}
@@ -0,0 +1,307 @@
+package com.example.clientesapi.memory;
+
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.dto.ClienteDetalleDTO;
+import com.example.clientesapi.dto.ClienteSearchCriteria;
+import com.example.clientesapi.entity.Cliente;
+import com.example.clientesapi.memory.InMemoryStore.ClienteFila;
+import com.example.clientesapi.memory.InMemoryStore.EdadKey;
+import com.example.clientesapi.memory.InMemoryStore.TextoKey;
+import com.example.clientesapi.memory.InMemoryStore.TipoFila;
+import com.example.clientesapi.repository.ClienteRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * {@link ClienteRepository} sobre el almacenamiento en memoria (perfil {@code memory}).
+ * <p>
+ * Las entidades retornadas son copias: modificarlas no cambia el almacenamiento hasta guardarlas, y al
+ * guardarlas se verifica la versión como con {@code @Version}. La búsqueda elige un índice igual que lo
+ * haría MySQL con los índices de la tabla: si el orden pedido tiene índice, lo recorre desde el cursor y
+ * se detiene al completar la página; si hay un filtro de prefijo sobre otro índice, recorre solo ese
+ * rango y ordena las filas encontradas.
+ */
+@Repository
+@Profile("memory")
+@Timed(value = "clientes.repository.memory", histogram = true)
+@RequiredArgsConstructor
+public class InMemoryClienteRepository extends AbstractInMemoryRepository<Cliente, Long> implements ClienteRepository {
+    
+    private final InMemoryStore store;
+    
+    @Override
+    protected Long getId(Cliente entity) {
+        return entity.getId();
+    }
+    
+    @Override
+    public Optional<Cliente> findById(Long id) {
+        return Optional.ofNullable(store.cliente(id)).map(ClienteFila::toEntity);
+    }
+    
+    @Override
+    public List<Cliente> findAll() {
+        return store.clientes().values().stream().map(ClienteFila::toEntity).collect(Collectors.toList());
+    }
+    
+    @Override
+    public long count() {
+        return store.clientes().size();
+    }
+    
+    /**
+     * Inserta el cliente si no tiene versión (entidad nueva) o lo actualiza si la versión coincide con la
+     * almacenada. Como {@code persist}/{@code flush}, asigna ID, versión y fecha de modificación a la entidad.
+     */
+    @Override
+    public <S extends Cliente> S save(S entity) {
+        ClienteDTO datos = new ClienteDTO(entity.getVersion() != null ? entity.getId() : null, entity.getRut(),
+                entity.getNombre(), entity.getApellido(), entity.getEdad(), entity.getEmail(),
+                entity.getCodTipoCliente(), entity.getVersion(), null);
+        ClienteFila fila = store.saveClientes(List.of(datos), true).get(0);
+        entity.setId(fila.id());
+        entity.setVersion(fila.version());
+        entity.setUpdatedAt(fila.updatedAt());
+        return entity;
+    }
+    
+    @Override
+    public void deleteById(Long id) {
+        store.deleteCliente(id, null);
+    }
+    
+    @Override
+    public void delete(Cliente entity) {
+        store.deleteCliente(entity.getId(), entity.getVersion());
+    }
+    
+    @Override
+    public Optional<Cliente> findByRutNumeroAndRutDv(Integer rutNumero, String rutDv) {
+        return Optional.ofNullable(store.clienteByRutNumero(rutNumero))
+                .map(ClienteFila::toEntity)
+                .filter(cliente -> rutDv.equals(cliente.getRutDv()));
+    }
+    
+    @Override
+    public boolean existsByRutNumeroAndRutDv(Integer rutNumero, String rutDv) {
+        return findByRutNumeroAndRutDv(rutNumero, rutDv).isPresent();
+    }
+    
+    @Override
+    public List<Cliente> findByRutNumeroIn(Collection<Integer> rutNumeros) {
+        List<Cliente> clientes = new ArrayList<>(rutNumeros.size());
+        for (Integer rutNumero : rutNumeros) {
+            ClienteFila fila = store.clienteByRutNumero(rutNumero);
+            if (fila != null) {
+                clientes.add(fila.toEntity());
+            }
+        }
+        return clientes;
+    }
+    
+    @Override
+    public Optional<ClienteDetalleDTO> findDetalleById(Long id) {
+        ClienteFila fila = store.cliente(id);
+        TipoFila tipo = fila != null ? store.tipo(fila.codTipoCliente()) : null;
+        if (tipo == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new ClienteDetalleDTO(fila.id(), fila.rut(), fila.nombre(), fila.apellido(), fila.edad(),
+                fila.email(), fila.codTipoCliente(), tipo.descripcion()));
+    }
+    
+    @Override
+    public boolean existsByCodTipoCliente(String codTipoCliente) {
+        return !store.porTipo(codTipoCliente).isEmpty();
+    }
+    
+    @Override
+    public List<Cliente> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable) {
+        return store.clientes().tailMap(id, false).values().stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .map(ClienteFila::toEntity)
+                .collect(Collectors.toList());
+    }
+    
+    // El fetchSize no aplica: las filas se leen directamente del índice primario
+    @Override
+    public Stream<Cliente> streamAllByOrderByIdAsc(int fetchSize) {
+        return store.clientes().values().stream().map(ClienteFila::toEntity);
+    }
+    
+    @Override
+    public List<Object[]> countGroupByTipoAndEdad() {
+        record Grupo(String codTipoCliente, Integer edad) {
+        }
+        Map<Grupo, Long> cantidades = new HashMap<>();
+        for (ClienteFila fila : store.clientes().values()) {
+            cantidades.merge(new Grupo(fila.codTipoCliente(), fila.edad()), 1L, Long::sum);
+        }
+        List<Object[]> filas = new ArrayList<>(cantidades.size());
+        cantidades.forEach((grupo, cantidad) -> filas.add(new Object[]{grupo.codTipoCliente(), grupo.edad(), cantidad}));
+        return filas;
+    }
+    
+    @Override
+    public List<ClienteDTO> search(ClienteSearchCriteria criteria, ClienteDTO after, int limit) {
+        String orden = criteria.getOrden() != null ? criteria.getOrden() : ClienteSearchCriteria.ORDEN_ID;
+        boolean desc = criteria.isDescendente();
+        String nombre = hasText(criteria.getNombre()) ? InMemoryStore.prefijo(criteria.getNombre()) : null;
+        String apellido = hasText(criteria.getApellido()) ? InMemoryStore.prefijo(criteria.getApellido()) : null;
+        String tipo = hasText(criteria.getCodTipoCliente()) ? InMemoryStore.clave(criteria.getCodTipoCliente()) : null;
+        Integer edadMin = criteria.getEdadMin();
+        Integer edadMax = criteria.getEdadMax();
+        
+        Predicate<ClienteFila> filtro = fila ->
+                (nombre == null || InMemoryStore.clave(fila.nombre()).startsWith(nombre))
+                && (apellido == null || InMemoryStore.clave(fila.apellido()).startsWith(apellido))
+                && (tipo == null || InMemoryStore.clave(fila.codTipoCliente()).equals(tipo))
+                && (edadMin == null || (fila.edad() != null && fila.edad() >= edadMin))
+                && (edadMax == null || (fila.edad() != null && fila.edad() <= edadMax));
+                
+        // Sin índice para el orden pedido pero con un prefijo: rango del prefijo y orden en memoria
+        boolean ordenNombre = ClienteSearchCriteria.ORDEN_NOMBRE.equals(orden);
+        if (apellido != null && !(ordenNombre && nombre != null)) {
+            return sorted(prefixRange(store.porApellidoNombre(), apellido), orden, desc, after, filtro, limit);
+        }
+        if (nombre != null && !ordenNombre) {
+            return sorted(prefixRange(store.porNombreApellido(), nombre), orden, desc, after, filtro, limit);
+        }
+        
+        // Recorrido del índice del orden pedido a partir del cursor
+        Iterable<Long> ids = switch (orden) {
+            case ClienteSearchCriteria.ORDEN_NOMBRE -> ids(range(store.porNombreApellido(),
+                    nombre != null ? new TextoKey(nombre, "", Long.MIN_VALUE) : null,
+                    nombre != null ? new TextoKey(nombre + Character.MAX_VALUE, "", Long.MIN_VALUE) : null,
+                    after != null ? nombreKey(after) : null, desc), TextoKey::id);
+            case ClienteSearchCriteria.ORDEN_EDAD -> ids(range(store.porEdad(),
+                    edadMin != null ? new EdadKey(edadMin, Long.MIN_VALUE) : null,
+                    edadMax != null ? new EdadKey(edadMax, Long.MAX_VALUE) : null,
+                    after != null ? new EdadKey(after.getEdad(), after.getId()) : null, desc), EdadKey::id);
+            default -> range(tipo != null ? store.porTipo(tipo) : store.clientes().navigableKeySet(),
+                    null, null, after != null ? after.getId() : null, desc);
+        };
+        List<ClienteDTO> clientes = new ArrayList<>(Math.min(limit, 1024));
+        for (Long id : ids) {
+            ClienteFila fila = store.cliente(id);
+            // Una fila eliminada o modificada durante el recorrido puede no cumplir ya los filtros
+            if (fila != null && filtro.test(fila)) {
+                clientes.add(toSearchDTO(fila));
+                if (clientes.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return clientes;
+    }
+    
+    private List<ClienteFila> prefixRange(NavigableSet<TextoKey> indice, String prefijo) {
+        List<ClienteFila> filas = new ArrayList<>();
+        for (TextoKey key : range(indice, new TextoKey(prefijo, "", Long.MIN_VALUE),
+                new TextoKey(prefijo + Character.MAX_VALUE, "", Long.MIN_VALUE), null, false)) {
+            ClienteFila fila = store.cliente(key.id());
+            if (fila != null) {
+                filas.add(fila);
+            }
+        }
+        return filas;
+    }
+    
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static List<ClienteDTO> sorted(List<ClienteFila> filas, String orden, boolean desc, ClienteDTO after,
+                                           Predicate<ClienteFila> filtro, int limit) {
+        Function<ClienteFila, Comparable> clave = switch (orden) {
+            case ClienteSearchCriteria.ORDEN_NOMBRE -> InMemoryStore::nombreApellido;
+            case ClienteSearchCriteria.ORDEN_EDAD -> fila -> new EdadKey(fila.edad(), fila.id());
+            default -> ClienteFila::id;
+        };
+        Comparable cursor = null;
+        if (after != null) {
+            cursor = switch (orden) {
+                case ClienteSearchCriteria.ORDEN_NOMBRE -> nombreKey(after);
+                case ClienteSearchCriteria.ORDEN_EDAD -> new EdadKey(after.getEdad(), after.getId());
+                default -> after.getId();
+            };
+        }
+        Comparator<ClienteFila> comparator = Comparator.comparing(clave);
+        Comparable desde = cursor;
+        return filas.stream()
+                .filter(filtro)
+                .filter(fila -> desde == null || Integer.signum(clave.apply(fila).compareTo(desde)) == (desc ? -1 : 1))
+                .sorted(desc ? comparator.reversed() : comparator)
+                .limit(limit)
+                .map(InMemoryClienteRepository::toSearchDTO)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Rango {@code [desde, hasta]} del índice (límites opcionales), a continuación de {@code after} en el
+     * orden pedido.
+     */
+    private static <K extends Comparable<K>> NavigableSet<K> range(NavigableSet<K> indice, K desde, K hasta,
+                                                                   K after, boolean desc) {
+        K inferior = desde;
+        boolean inferiorIncluido = true;
+        K superior = hasta;
+        boolean superiorIncluido = true;
+        if (after != null && !desc && (inferior == null || after.compareTo(inferior) >= 0)) {
+            inferior = after;
+            inferiorIncluido = false;
+        }
+        if (after != null && desc && (superior == null || after.compareTo(superior) <= 0)) {
+            superior = after;
+            superiorIncluido = false;
+        }
+        if (inferior != null && superior != null) {
+            int c = inferior.compareTo(superior);
+            if (c > 0 || (c == 0 && !(inferiorIncluido && superiorIncluido))) {
+                return Collections.emptyNavigableSet();
+            }
+        }
+        NavigableSet<K> rango = indice;
+        if (inferior != null) {
+            rango = rango.tailSet(inferior, inferiorIncluido);
+        }
+        if (superior != null) {
+            rango = rango.headSet(superior, superiorIncluido);
+        }
+        return desc ? rango.descendingSet() : rango;
+    }
+    
+    private static <K> Iterable<Long> ids(NavigableSet<K> keys, Function<K, Long> id) {
+        return () -> keys.stream().map(id).iterator();
+    }
+    
+    private static TextoKey nombreKey(ClienteDTO after) {
+        return new TextoKey(InMemoryStore.clave(after.getNombre()), InMemoryStore.clave(after.getApellido()), after.getId());
+    }
+    
+    // Misma proyección que la búsqueda con Criteria API: sin versión ni fecha de modificación
+    private static ClienteDTO toSearchDTO(ClienteFila fila) {
+        return new ClienteDTO(fila.id(), fila.rut(), fila.nombre(), fila.apellido(), fila.edad(), fila.email(),
+                fila.codTipoCliente());
+    }
+    
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+    
+}
@@ -0,0 +1,64 @@
+package com.example.clientesapi.memory;
+
+import com.example.clientesapi.dto.ChangeEventDTO;
+import com.example.clientesapi.entity.OutboxEvento;
+import com.example.clientesapi.repository.OutboxRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * {@link OutboxRepository} sobre el almacenamiento en memoria (perfil {@code memory}).
+ */
+@Repository
+@Profile("memory")
+@Timed(value = "clientes.repository.memory", histogram = true)
+@RequiredArgsConstructor
+public class InMemoryOutboxRepository implements OutboxRepository {
+    
+    private final InMemoryStore store;
+    
+    @Override
+    public void insertAll(List<OutboxEvento> eventos) {
+        store.outbox().insert(eventos);
+    }
+    
+    @Override
+    public List<Long> findUnsequencedIds(int limit) {
+        return store.outbox().unsequencedIds(limit);
+    }
+    
+    @Override
+    public void assignSeq(List<Long> ids, long firstSeq) {
+        store.outbox().assignSeq(ids, firstSeq);
+    }
+    
+    @Override
+    public long findMaxSeq() {
+        return store.outbox().maxSeq();
+    }
+    
+    @Override
+    public Long findMinSeq() {
+        return store.outbox().minSeq();
+    }
+    
+    @Override
+    public List<ChangeEventDTO> findSince(long since, int limit) {
+        return store.outbox().since(since, limit).stream()
+                .map(evento -> new ChangeEventDTO(evento.getSeq(), evento.getEntidad(), evento.getTipo(),
+                        evento.getClave(), evento.getDatos(), evento.getCreatedAt()))
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    public int deletePublishedBefore(Instant before, int limit) {
+        return store.outbox().deletePublishedBefore(before, limit);
+    }
+    
+}
@@ -0,0 +1,164 @@
+package com.example.clientesapi.memory;
+
+import com.example.clientesapi.entity.OutboxEvento;
+import com.example.clientesapi.memory.InMemoryStore.ClienteFila;
+import com.example.clientesapi.memory.InMemoryStore.TipoFila;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Instantánea binaria del almacenamiento en memoria: tipos, clientes y eventos del outbox.
+ * <p>
+ * La lectura mapea el archivo en memoria ({@link FileChannel#map}) y decodifica las filas directamente
+ * desde las páginas del archivo, sin copiarlo a buffers intermedios: restaurar millones de clientes toma
+ * lo que tarda reconstruir los índices. La escritura va a un archivo temporal que luego reemplaza al
+ * anterior de forma atómica, para que una detención a mitad de camino no deje una instantánea corrupta.
+ */
+final class InMemorySnapshot {
+    
+    private static final int MAGIC = 0x434C4D53;
+    private static final int FORMATO = 1;
+    private static final long SIN_FECHA = Long.MIN_VALUE;
+    
+    private InMemorySnapshot() {
+    }
+    
+    static void write(Path archivo, InMemoryStore store) throws IOException {
+        Path directorio = archivo.toAbsolutePath().getParent();
+        Files.createDirectories(directorio);
+        Path temporal = Files.createTempFile(directorio, archivo.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporal), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMATO);
+            
+            List<TipoFila> tipos = new ArrayList<>(store.tipos());
+            out.writeInt(tipos.size());
+            for (TipoFila tipo : tipos) {
+                writeString(out, tipo.codigo());
+                writeString(out, tipo.descripcion());
+                out.writeLong(tipo.version());
+                writeInstant(out, tipo.updatedAt());
+            }
+            
+            List<ClienteFila> clientes = new ArrayList<>(store.clientes().values());
+            out.writeInt(clientes.size());
+            for (ClienteFila cliente : clientes) {
+                out.writeLong(cliente.id());
+                writeString(out, cliente.rut());
+                writeString(out, cliente.nombre());
+                writeString(out, cliente.apellido());
+                out.writeInt(cliente.edad() != null ? cliente.edad() : -1);
+                writeString(out, cliente.email());
+                writeString(out, cliente.codTipoCliente());
+                out.writeLong(cliente.version());
+                writeInstant(out, cliente.updatedAt());
+            }
+            
+            List<OutboxEvento> eventos = new ArrayList<>(store.outbox().eventos());
+            out.writeInt(eventos.size());
+            for (OutboxEvento evento : eventos) {
+                out.writeLong(evento.getId());
+                out.writeLong(evento.getSeq() != null ? evento.getSeq() : -1);
+                writeString(out, evento.getEntidad());
+                writeString(out, evento.getTipo());
+                writeString(out, evento.getClave());
+                writeString(out, evento.getDatos());
+                writeInstant(out, evento.getCreatedAt());
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temporal);
+            throw e;
+        }
+        Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    static void read(Path archivo, InMemoryStore store) throws IOException {
+        MappedByteBuffer in;
+        try (FileChannel channel = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (in.remaining() < 8 || in.getInt() != MAGIC || in.getInt() != FORMATO) {
+            throw new IOException("El archivo no es una instantánea del almacenamiento en memoria: " + archivo);
+        }
+        
+        int cantidad = in.getInt();
+        List<TipoFila> tipos = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            tipos.add(new TipoFila(readString(in), readString(in), in.getLong(), readInstant(in)));
+        }
+        
+        cantidad = in.getInt();
+        List<ClienteFila> clientes = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            long id = in.getLong();
+            String rut = readString(in);
+            String nombre = readString(in);
+            String apellido = readString(in);
+            int edad = in.getInt();
+            clientes.add(new ClienteFila(id, rut, nombre, apellido, edad >= 0 ? edad : null,
+                    readString(in), readString(in), in.getLong(), readInstant(in)));
+        }
+        
+        cantidad = in.getInt();
+        Collection<OutboxEvento> eventos = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            OutboxEvento evento = new OutboxEvento();
+            evento.setId(in.getLong());
+            long seq = in.getLong();
+            evento.setSeq(seq >= 0 ? seq : null);
+            evento.setEntidad(readString(in));
+            evento.setTipo(readString(in));
+            evento.setClave(readString(in));
+            evento.setDatos(readString(in));
+            evento.setCreatedAt(readInstant(in));
+            eventos.add(evento);
+        }
+        
+        store.restore(tipos, clientes);
+        store.outbox().restore(eventos);
+    }
+    
+    // Longitud en bytes (-1 para null) seguida del texto en UTF-8
+    private static void writeString(DataOutputStream out, String valor) throws IOException {
+        if (valor == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = valor.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+    
+    private static String readString(MappedByteBuffer in) {
+        int largo = in.getInt();
+        if (largo < 0) {
+            return null;
+        }
+        String valor = StandardCharsets.UTF_8.decode(in.slice(in.position(), largo)).toString();
+        in.position(in.position() + largo);
+        return valor;
+    }
+    
+    private static void writeInstant(DataOutputStream out, Instant valor) throws IOException {
+        out.writeLong(valor != null ? valor.toEpochMilli() : SIN_FECHA);
+    }
+    
+    private static Instant readInstant(MappedByteBuffer in) {
+        long millis = in.getLong();
+        return millis != SIN_FECHA ? Instant.ofEpochMilli(millis) : null;
+    }
+    
+}
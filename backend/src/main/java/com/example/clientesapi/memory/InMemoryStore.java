@@ -0,0 +1,626 @@
+package com.example.clientesapi.memory;
+
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.entity.Cliente;
+import com.example.clientesapi.entity.Rut;
+import com.example.clientesapi.entity.TipoCliente;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.text.Normalizer;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Almacenamiento en memoria de las tablas {@code cliente}, {@code tipo_cliente} y {@code outbox_evento}
+ * (perfil {@code memory}), con los mismos índices y restricciones que el esquema de MySQL:
+ * <ul>
+ *   <li>clave primaria de clientes: mapa ordenado por ID</li>
+ *   <li>{@code uk_cliente_rut_numero} y {@code uk_cliente_email}: índices hash únicos, el primero por el
+ *       cuerpo numérico del RUT</li>
+ *   <li>{@code idx_cliente_nombre_apellido}, {@code idx_cliente_apellido_nombre} e {@code idx_cliente_edad}:
+ *       conjuntos ordenados cuya última componente es el ID, como en InnoDB</li>
+ *   <li>{@code idx_cliente_tipo} y {@code fk_cliente_tipo_cliente}: IDs de clientes por tipo</li>
+ * </ul>
+ * Las filas son inmutables y los índices se leen sin bloqueos. Las escrituras toman, en orden creciente,
+ * los locks de un arreglo fijo ({@value #STRIPES}) que corresponden a sus claves (ID, RUT, email y tipo):
+ * así la verificación de unicidad y la escritura son atómicas sin serializar escrituras no relacionadas.
+ * <p>
+ * Las claves de texto se comparan como la colación {@code utf8mb4_unicode_ci}: sin distinguir mayúsculas,
+ * acentos ni espacios finales. Si se indica {@code clientes.memory.snapshot-file}, el contenido se carga
+ * desde ese archivo al iniciar y se guarda en él al detener la aplicación.
+ */
+@Component
+@Profile("memory")
+@Slf4j
+public class InMemoryStore {
+    
+    private static final int STRIPES = 256;
+    
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    
+    /**
+     * Fila de la tabla {@code cliente}.
+     */
+    record ClienteFila(long id, String rut, String nombre, String apellido, Integer edad, String email,
+                       String codTipoCliente, long version, Instant updatedAt) {
+                       
+        ClienteDTO toDTO() {
+            return new ClienteDTO(id, rut, nombre, apellido, edad, email, codTipoCliente, version, updatedAt);
+        }
+        
+        Cliente toEntity() {
+            Cliente cliente = new Cliente();
+            cliente.setId(id);
+            cliente.setRut(rut);
+            cliente.setNombre(nombre);
+            cliente.setApellido(apellido);
+            cliente.setEdad(edad);
+            cliente.setEmail(email);
+            cliente.setCodTipoCliente(codTipoCliente);
+            cliente.setVersion(version);
+            cliente.setUpdatedAt(updatedAt);
+            return cliente;
+        }
+        
+        private boolean sameData(ClienteDTO dto) {
+            return rut.equals(dto.getRut()) && nombre.equals(dto.getNombre()) && apellido.equals(dto.getApellido())
+                    && Objects.equals(edad, dto.getEdad()) && email.equals(dto.getEmail())
+                    && codTipoCliente.equals(dto.getCodTipoCliente());
+        }
+    }
+    
+    /**
+     * Fila de la tabla {@code tipo_cliente}.
+     */
+    record TipoFila(String codigo, String descripcion, long version, Instant updatedAt) {
+        
+        TipoCliente toEntity() {
+            return new TipoCliente(codigo, descripcion, version, updatedAt);
+        }
+    }
+    
+    /**
+     * Entrada de un índice de dos columnas de texto, con las claves ya normalizadas.
+     */
+    record TextoKey(String k1, String k2, long id) implements Comparable<TextoKey> {
+        
+        @Override
+        public int compareTo(TextoKey o) {
+            int c = k1.compareTo(o.k1);
+            if (c == 0) {
+                c = k2.compareTo(o.k2);
+            }
+            return c != 0 ? c : Long.compare(id, o.id);
+        }
+    }
+    
+    /**
+     * Entrada del índice de edad. Los NULL van primero, como en el ORDER BY de MySQL.
+     */
+    record EdadKey(Integer edad, long id) implements Comparable<EdadKey> {
+        
+        private static final Comparator<EdadKey> ORDEN = Comparator
+                .comparing(EdadKey::edad, Comparator.nullsFirst(Comparator.<Integer>naturalOrder()))
+                .thenComparingLong(EdadKey::id);
+                
+        @Override
+        public int compareTo(EdadKey o) {
+            return ORDEN.compare(this, o);
+        }
+    }
+    
+    private final ConcurrentSkipListMap<Long, ClienteFila> clientes = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<Integer, Long> porRut = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> porEmail = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<TextoKey> porNombreApellido = new ConcurrentSkipListSet<>();
+    private final ConcurrentSkipListSet<TextoKey> porApellidoNombre = new ConcurrentSkipListSet<>();
+    private final ConcurrentSkipListSet<EdadKey> porEdad = new ConcurrentSkipListSet<>();
+    private final ConcurrentHashMap<String, ConcurrentSkipListSet<Long>> porTipo = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, TipoFila> tipos = new ConcurrentSkipListMap<>();
+    private final AtomicLong ultimoId = new AtomicLong();
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    private final OutboxTable outbox = new OutboxTable();
+    private final InMemoryStoreProperties properties;
+    
+    public InMemoryStore(InMemoryStoreProperties properties) {
+        this.properties = properties;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+    
+    @PostConstruct
+    void load() throws IOException {
+        if (properties.getSnapshotFile() != null && Files.exists(properties.getSnapshotFile())) {
+            long inicio = System.nanoTime();
+            InMemorySnapshot.read(properties.getSnapshotFile(), this);
+            log.info("Almacenamiento en memoria restaurado desde {}: {} clientes, {} tipos, {} eventos en {} ms",
+                    properties.getSnapshotFile(), clientes.size(), tipos.size(), outbox.size(),
+                    (System.nanoTime() - inicio) / 1_000_000);
+        } else if (tipos.isEmpty()) {
+            Instant ahora = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+            properties.getTipos().forEach((codigo, descripcion) ->
+                    tipos.put(clave(codigo), new TipoFila(codigo, descripcion, 0, ahora)));
+            log.info("Almacenamiento en memoria iniciado vacío con {} tipos de cliente", tipos.size());
+        }
+    }
+    
+    @PreDestroy
+    void save() {
+        if (properties.getSnapshotFile() == null) {
+            return;
+        }
+        try {
+            InMemorySnapshot.write(properties.getSnapshotFile(), this);
+            log.info("Almacenamiento en memoria guardado en {}: {} clientes", properties.getSnapshotFile(), clientes.size());
+        } catch (IOException e) {
+            log.error("No se pudo guardar el almacenamiento en memoria en {}", properties.getSnapshotFile(), e);
+        }
+    }
+    
+    // ---- Lecturas: sin bloqueos, sobre filas inmutables ----
+    
+    ClienteFila cliente(long id) {
+        return clientes.get(id);
+    }
+    
+    ClienteFila clienteByRutNumero(int rutNumero) {
+        Long id = porRut.get(rutNumero);
+        return id != null ? clientes.get(id) : null;
+    }
+    
+    // Por el cuerpo numérico del RUT; el dígito verificador se compara en la fila
+    ClienteFila clienteByRut(String rut) {
+        String canonico = Rut.normalize(rut);
+        ClienteFila fila = canonico != null ? clienteByRutNumero(Rut.numero(canonico)) : null;
+        return fila != null && canonico.equals(Rut.normalize(fila.rut())) ? fila : null;
+    }
+    
+    ClienteFila clienteByEmail(String email) {
+        Long id = email != null ? porEmail.get(clave(email)) : null;
+        return id != null ? clientes.get(id) : null;
+    }
+    
+    NavigableMap<Long, ClienteFila> clientes() {
+        return clientes;
+    }
+    
+    NavigableSet<TextoKey> porNombreApellido() {
+        return porNombreApellido;
+    }
+    
+    NavigableSet<TextoKey> porApellidoNombre() {
+        return porApellidoNombre;
+    }
+    
+    NavigableSet<EdadKey> porEdad() {
+        return porEdad;
+    }
+    
+    NavigableSet<Long> porTipo(String codTipoCliente) {
+        NavigableSet<Long> ids = porTipo.get(clave(codTipoCliente));
+        return ids != null ? ids : new TreeSet<>();
+    }
+    
+    TipoFila tipo(String codigo) {
+        return codigo != null ? tipos.get(clave(codigo)) : null;
+    }
+    
+    Collection<TipoFila> tipos() {
+        return tipos.values();
+    }
+    
+    OutboxTable outbox() {
+        return outbox;
+    }
+    
+    // ---- Escrituras de clientes ----
+    
+    /**
+     * Inserta (ID {@code null}) o actualiza los clientes en una sola operación atómica: si alguno viola
+     * una restricción no se aplica ninguno, como una sentencia multi-fila de MySQL. Las filas se verifican
+     * en orden, por lo que un cliente no puede tomar el RUT o email que otro del mismo lote deja libre.
+     * <p>
+     * Con {@code verificarVersion} una actualización cuya versión no coincide con la almacenada, o de un
+     * cliente inexistente, falla como en JPA; sin ella, se omiten los clientes inexistentes y aquellos cuya
+     * versión, si se indica, ya no es la almacenada (como un UPDATE ... WHERE version = ? que no encuentra
+     * filas). Un cliente sin cambios conserva su versión.
+     *
+     * @return la fila resultante de cada cliente, o {@code null} para los omitidos
+     */
+    List<ClienteFila> saveClientes(List<ClienteDTO> datos, boolean verificarVersion) {
+        TreeSet<Integer> stripes = stripesFor(datos);
+        return locked(stripes, () -> {
+            // Con los locks tomados se relee cada fila: otra escritura pudo cambiar sus claves antes
+            if (!stripesFor(datos).equals(stripes)) {
+                return null;
+            }
+            return writeClientes(datos, verificarVersion);
+        }, () -> saveClientes(datos, verificarVersion));
+    }
+    
+    private List<ClienteFila> writeClientes(List<ClienteDTO> datos, boolean verificarVersion) {
+        List<ClienteFila> anteriores = new ArrayList<>(datos.size());
+        List<ClienteDTO> cambios = new ArrayList<>(datos.size());
+        Map<Integer, Long> rutsLote = new HashMap<>();
+        Map<String, Long> emailsLote = new HashMap<>();
+        
+        // Verificación de todas las filas antes de aplicar la primera
+        for (ClienteDTO dto : datos) {
+            ClienteFila actual = dto.getId() != null ? clientes.get(dto.getId()) : null;
+            if (dto.getId() != null) {
+                boolean otraVersion = verificarVersion ? !Objects.equals(dto.getVersion(), actual != null ? actual.version() : null)
+                        : dto.getVersion() != null && actual != null && !dto.getVersion().equals(actual.version());
+                if (actual == null || otraVersion) {
+                    if (verificarVersion) {
+                        throw new ObjectOptimisticLockingFailureException(Cliente.class, dto.getId());
+                    }
+                    anteriores.add(null);
+                    cambios.add(null);
+                    continue;
+                }
+                if (actual.sameData(dto)) {
+                    anteriores.add(actual);
+                    cambios.add(null);
+                    continue;
+                }
+            }
+            if (!tipos.containsKey(clave(dto.getCodTipoCliente()))) {
+                throw foreignKeyViolation(dto.getCodTipoCliente());
+            }
+            Long id = dto.getId() != null ? dto.getId() : -1L - cambios.size();
+            Integer rutNumero = rutNumero(dto.getRut());
+            if (rutNumero == null) {
+                throw notNullViolation("rut_numero");
+            }
+            checkUnique(porRut, rutsLote, rutNumero, id, rutNumero, "uk_cliente_rut_numero");
+            checkUnique(porEmail, emailsLote, clave(dto.getEmail()), id, dto.getEmail(), "uk_cliente_email");
+            anteriores.add(actual);
+            cambios.add(dto);
+        }
+        
+        Instant updatedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        List<ClienteFila> resultado = new ArrayList<>(datos.size());
+        for (int i = 0; i < datos.size(); i++) {
+            ClienteDTO dto = cambios.get(i);
+            ClienteFila anterior = anteriores.get(i);
+            if (dto == null) {
+                resultado.add(anterior);
+                continue;
+            }
+            ClienteFila nueva = new ClienteFila(
+                    anterior != null ? anterior.id() : ultimoId.incrementAndGet(),
+                    dto.getRut(), dto.getNombre(), dto.getApellido(), dto.getEdad(), dto.getEmail(),
+                    dto.getCodTipoCliente(), anterior != null ? anterior.version() + 1 : 0, updatedAt);
+            replace(anterior, nueva);
+            InMemoryTransactionManager.onRollback(() -> restoreCliente(nueva.id(), anterior));
+            resultado.add(nueva);
+        }
+        return resultado;
+    }
+    
+    /**
+     * Elimina el cliente. Con {@code versionEsperada} distinta de la almacenada falla como en JPA.
+     *
+     * @return {@code false} si el cliente no existe
+     */
+    boolean deleteCliente(long id, Long versionEsperada) {
+        ClienteFila actual = clientes.get(id);
+        if (actual == null) {
+            return false;
+        }
+        TreeSet<Integer> stripes = stripesFor(actual);
+        Boolean eliminado = locked(stripes, () -> {
+            ClienteFila fila = clientes.get(id);
+            if (fila == null) {
+                return false;
+            }
+            if (!stripesFor(fila).equals(stripes)) {
+                return null;
+            }
+            if (versionEsperada != null && versionEsperada != fila.version()) {
+                throw new ObjectOptimisticLockingFailureException(Cliente.class, id);
+            }
+            replace(fila, null);
+            InMemoryTransactionManager.onRollback(() -> restoreCliente(id, fila));
+            return true;
+        }, () -> deleteCliente(id, versionEsperada));
+        return eliminado;
+    }
+    
+    // Revierte una escritura: vuelve el cliente al estado anterior (null si no existía)
+    private void restoreCliente(long id, ClienteFila anterior) {
+        ClienteFila actual = clientes.get(id);
+        TreeSet<Integer> stripes = stripesFor(actual);
+        stripes.addAll(stripesFor(anterior));
+        stripes.add(stripe("i", id));
+        locked(stripes, () -> {
+            ClienteFila fila = clientes.get(id);
+            if (fila != actual) {
+                return null;
+            }
+            if (fila == null && anterior == null) {
+                return Boolean.TRUE;
+            }
+            // Sin aislamiento, otra transacción pudo tomar el RUT o email liberado por la escritura revertida
+            if (anterior != null && (owner(porRut, rutNumero(anterior.rut()), id)
+                    || owner(porEmail, clave(anterior.email()), id))) {
+                log.warn("No se puede revertir el cliente {}: su RUT o email ya pertenece a otro cliente", id);
+                return Boolean.TRUE;
+            }
+            replace(fila, anterior);
+            return Boolean.TRUE;
+        }, () -> {
+            restoreCliente(id, anterior);
+            return Boolean.TRUE;
+        });
+    }
+    
+    private static <K> boolean owner(Map<K, Long> indice, K clave, long id) {
+        Long propietario = clave != null ? indice.get(clave) : null;
+        return propietario != null && propietario != id;
+    }
+    
+    // Reemplaza la fila en la tabla y en todos los índices; se llama con los locks de ambas filas tomados
+    private void replace(ClienteFila anterior, ClienteFila nueva) {
+        if (anterior != null) {
+            Integer rutNumero = rutNumero(anterior.rut());
+            if (rutNumero != null) {
+                porRut.remove(rutNumero, anterior.id());
+            }
+            porEmail.remove(clave(anterior.email()), anterior.id());
+            porNombreApellido.remove(nombreApellido(anterior));
+            porApellidoNombre.remove(apellidoNombre(anterior));
+            porEdad.remove(new EdadKey(anterior.edad(), anterior.id()));
+            NavigableSet<Long> delTipo = porTipo.get(clave(anterior.codTipoCliente()));
+            if (delTipo != null) {
+                delTipo.remove(anterior.id());
+            }
+        }
+        if (nueva == null) {
+            clientes.remove(anterior.id());
+            return;
+        }
+        clientes.put(nueva.id(), nueva);
+        // Solo una instantánea anterior a la validación del RUT puede traer uno sin formato válido
+        Integer rutNumero = rutNumero(nueva.rut());
+        if (rutNumero != null) {
+            porRut.put(rutNumero, nueva.id());
+        }
+        porEmail.put(clave(nueva.email()), nueva.id());
+        porNombreApellido.add(nombreApellido(nueva));
+        porApellidoNombre.add(apellidoNombre(nueva));
+        porEdad.add(new EdadKey(nueva.edad(), nueva.id()));
+        porTipo.computeIfAbsent(clave(nueva.codTipoCliente()), k -> new ConcurrentSkipListSet<>()).add(nueva.id());
+    }
+    
+    private static <K> void checkUnique(Map<K, Long> indice, Map<K, Long> lote, K clave, Long id,
+                                        Object valor, String constraint) {
+        Long propietario = indice.get(clave);
+        Long propietarioLote = lote.putIfAbsent(clave, id);
+        if ((propietario != null && !propietario.equals(id)) || (propietarioLote != null && !propietarioLote.equals(id))) {
+            String mensaje = "Duplicate entry '" + valor + "' for key 'cliente." + constraint + "'";
+            throw new DuplicateKeyException(mensaje, new ConstraintViolationException(mensaje, null, constraint));
+        }
+    }
+    
+    private static DataIntegrityViolationException notNullViolation(String columna) {
+        String mensaje = "Column '" + columna + "' cannot be null";
+        return new DataIntegrityViolationException(mensaje, new ConstraintViolationException(mensaje, null, null));
+    }
+    
+    private static DataIntegrityViolationException foreignKeyViolation(String codTipoCliente) {
+        String mensaje = "Cannot add or update a child row: a foreign key constraint fails "
+                + "(CONSTRAINT `fk_cliente_tipo_cliente` FOREIGN KEY (`cod_tipo_cliente`) REFERENCES `tipo_cliente` (`codigo`)): "
+                + codTipoCliente;
+        return new DataIntegrityViolationException(mensaje,
+                new ConstraintViolationException(mensaje, null, "fk_cliente_tipo_cliente"));
+    }
+    
+    // ---- Escrituras de tipos de cliente ----
+    
+    /**
+     * Inserta (versión {@code null}) o actualiza el tipo de cliente.
+     */
+    TipoFila saveTipo(TipoCliente tipoCliente) {
+        String clave = clave(tipoCliente.getCodigo());
+        return locked(stripes(stripe("t", clave)), () -> {
+            TipoFila actual = tipos.get(clave);
+            Instant updatedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+            TipoFila nueva;
+            if (tipoCliente.getVersion() == null) {
+                if (actual != null) {
+                    String mensaje = "Duplicate entry '" + tipoCliente.getCodigo() + "' for key 'tipo_cliente.PRIMARY'";
+                    throw new DuplicateKeyException(mensaje, new ConstraintViolationException(mensaje, null, "PRIMARY"));
+                }
+                nueva = new TipoFila(tipoCliente.getCodigo(), tipoCliente.getDescripcion(), 0, updatedAt);
+            } else if (actual == null || actual.version() != tipoCliente.getVersion()) {
+                throw new ObjectOptimisticLockingFailureException(TipoCliente.class, tipoCliente.getCodigo());
+            } else if (actual.descripcion().equals(tipoCliente.getDescripcion())) {
+                return actual;
+            } else {
+                nueva = new TipoFila(actual.codigo(), tipoCliente.getDescripcion(), actual.version() + 1, updatedAt);
+            }
+            tipos.put(clave, nueva);
+            InMemoryTransactionManager.onRollback(() -> restoreTipo(clave, actual));
+            return nueva;
+        }, null);
+    }
+    
+    /**
+     * Elimina el tipo de cliente; falla como {@code ON DELETE RESTRICT} si tiene clientes.
+     *
+     * @return la cantidad de filas eliminadas (0 o 1)
+     */
+    int deleteTipo(String codigo) {
+        String clave = clave(codigo);
+        return locked(stripes(stripe("t", clave)), () -> {
+            TipoFila actual = tipos.get(clave);
+            if (actual == null) {
+                return 0;
+            }
+            NavigableSet<Long> delTipo = porTipo.get(clave);
+            if (delTipo != null && !delTipo.isEmpty()) {
+                String mensaje = "Cannot delete or update a parent row: a foreign key constraint fails "
+                        + "(CONSTRAINT `fk_cliente_tipo_cliente`): " + codigo;
+                throw new DataIntegrityViolationException(mensaje,
+                        new ConstraintViolationException(mensaje, null, "fk_cliente_tipo_cliente"));
+            }
+            tipos.remove(clave);
+            InMemoryTransactionManager.onRollback(() -> restoreTipo(clave, actual));
+            return 1;
+        }, null);
+    }
+    
+    private void restoreTipo(String clave, TipoFila anterior) {
+        locked(stripes(stripe("t", clave)), () -> {
+            if (anterior != null) {
+                tipos.put(clave, anterior);
+            } else {
+                tipos.remove(clave);
+            }
+            return Boolean.TRUE;
+        }, null);
+    }
+    
+    // ---- Restauración desde una instantánea (antes de atender peticiones, sin transacción) ----
+    
+    void restore(Collection<TipoFila> tiposGuardados, Collection<ClienteFila> clientesGuardados) {
+        tiposGuardados.forEach(tipo -> tipos.put(clave(tipo.codigo()), tipo));
+        long maxId = 0;
+        for (ClienteFila cliente : clientesGuardados) {
+            replace(null, cliente);
+            maxId = Math.max(maxId, cliente.id());
+        }
+        ultimoId.set(maxId);
+    }
+    
+    // ---- Claves, locks ----
+    
+    /**
+     * Normaliza un valor de texto como la colación {@code utf8mb4_unicode_ci}: sin acentos, en minúsculas
+     * y sin espacios finales.
+     */
+    static String clave(String valor) {
+        return valor != null ? fold(valor.stripTrailing()) : "";
+    }
+    
+    /**
+     * Normaliza el prefijo de un filtro {@code LIKE 'x%'}: igual que {@link #clave}, pero conservando los
+     * espacios finales, que en el patrón sí son significativos.
+     */
+    static String prefijo(String valor) {
+        return fold(valor);
+    }
+    
+    private static String fold(String valor) {
+        for (int i = 0; i < valor.length(); i++) {
+            if (valor.charAt(i) > 0x7F) {
+                valor = MARCAS.matcher(Normalizer.normalize(valor, Normalizer.Form.NFD)).replaceAll("");
+                break;
+            }
+        }
+        return valor.toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * Clave de {@code uk_cliente_rut_numero}: el cuerpo numérico del RUT, o {@code null} si no tiene formato de RUT.
+     */
+    static Integer rutNumero(String rut) {
+        String canonico = Rut.normalize(rut);
+        return canonico != null ? Rut.numero(canonico) : null;
+    }
+    
+    static TextoKey nombreApellido(ClienteFila fila) {
+        return new TextoKey(clave(fila.nombre()), clave(fila.apellido()), fila.id());
+    }
+    
+    static TextoKey apellidoNombre(ClienteFila fila) {
+        return new TextoKey(clave(fila.apellido()), clave(fila.nombre()), fila.id());
+    }
+    
+    private TreeSet<Integer> stripesFor(List<ClienteDTO> datos) {
+        TreeSet<Integer> stripes = new TreeSet<>();
+        for (ClienteDTO dto : datos) {
+            stripes.add(stripe("r", rutNumero(dto.getRut())));
+            stripes.add(stripe("e", clave(dto.getEmail())));
+            stripes.add(stripe("t", clave(dto.getCodTipoCliente())));
+            if (dto.getId() != null) {
+                stripes.add(stripe("i", dto.getId()));
+                stripes.addAll(stripesFor(clientes.get(dto.getId())));
+            }
+        }
+        return stripes;
+    }
+    
+    private static TreeSet<Integer> stripesFor(ClienteFila fila) {
+        TreeSet<Integer> stripes = new TreeSet<>();
+        if (fila != null) {
+            stripes.add(stripe("i", fila.id()));
+            stripes.add(stripe("r", rutNumero(fila.rut())));
+            stripes.add(stripe("e", clave(fila.email())));
+            stripes.add(stripe("t", clave(fila.codTipoCliente())));
+        }
+        return stripes;
+    }
+    
+    private static TreeSet<Integer> stripes(int stripe) {
+        TreeSet<Integer> stripes = new TreeSet<>();
+        stripes.add(stripe);
+        return stripes;
+    }
+    
+    private static int stripe(String espacio, Object clave) {
+        int h = espacio.hashCode() * 31 + Objects.hashCode(clave);
+        return Math.floorMod(h ^ (h >>> 16), STRIPES);
+    }
+    
+    /**
+     * Ejecuta la acción con los locks indicados, tomados en orden creciente para evitar interbloqueos.
+     * Si la acción retorna {@code null}, las claves de la fila cambiaron antes de tomar los locks y se
+     * reintenta con {@code reintento}, que vuelve a calcular los locks necesarios.
+     */
+    private <T> T locked(TreeSet<Integer> stripes, Supplier<T> accion, Supplier<T> reintento) {
+        for (int stripe : stripes) {
+            locks[stripe].lock();
+        }
+        T resultado;
+        try {
+            resultado = accion.get();
+        } finally {
+            for (int stripe : stripes.descendingSet()) {
+                locks[stripe].unlock();
+            }
+        }
+        return resultado != null || reintento == null ? resultado : reintento.get();
+    }
+    
+}
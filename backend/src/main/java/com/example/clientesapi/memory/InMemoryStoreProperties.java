@@ -0,0 +1,26 @@
+package com.example.clientesapi.memory;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuración del almacenamiento en memoria ({@code clientes.memory.*}, perfil {@code memory}).
+ */
+@ConfigurationProperties(prefix = "clientes.memory")
+@Data
+public class InMemoryStoreProperties {
+    
+    /**
+     * Archivo de la instantánea: si existe se carga al iniciar, y se reescribe al detener la aplicación.
+     * Sin archivo el contenido se pierde al detenerla.
+     */
+    private Path snapshotFile;
+    
+    /** Catálogo de tipos de cliente (código y descripción) con el que se inicia un almacenamiento vacío. */
+    private Map<String, String> tipos = new LinkedHashMap<>();
+    
+}
@@ -0,0 +1,70 @@
+package com.example.clientesapi.memory;
+
+import com.example.clientesapi.entity.TipoCliente;
+import com.example.clientesapi.memory.InMemoryStore.TipoFila;
+import com.example.clientesapi.repository.TipoClienteRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * {@link TipoClienteRepository} sobre el almacenamiento en memoria (perfil {@code memory}).
+ */
+@Repository
+@Profile("memory")
+@Timed(value = "clientes.repository.memory", histogram = true)
+@RequiredArgsConstructor
+public class InMemoryTipoClienteRepository extends AbstractInMemoryRepository<TipoCliente, String>
+        implements TipoClienteRepository {
+        
+    private final InMemoryStore store;
+    
+    @Override
+    protected String getId(TipoCliente entity) {
+        return entity.getCodigo();
+    }
+    
+    @Override
+    public Optional<TipoCliente> findById(String codigo) {
+        return Optional.ofNullable(store.tipo(codigo)).map(TipoFila::toEntity);
+    }
+    
+    @Override
+    public List<TipoCliente> findAll() {
+        return store.tipos().stream().map(TipoFila::toEntity).collect(Collectors.toList());
+    }
+    
+    @Override
+    public long count() {
+        return store.tipos().size();
+    }
+    
+    @Override
+    public <S extends TipoCliente> S save(S entity) {
+        TipoFila fila = store.saveTipo(entity);
+        entity.setVersion(fila.version());
+        entity.setUpdatedAt(fila.updatedAt());
+        return entity;
+    }
+    
+    @Override
+    public void deleteById(String codigo) {
+        store.deleteTipo(codigo);
+    }
+    
+    @Override
+    public boolean existsByCodigo(String codigo) {
+        return store.tipo(codigo) != null;
+    }
+    
+    @Override
+    public int deleteByCodigo(String codigo) {
+        return store.deleteTipo(codigo);
+    }
+    
+}
@@ -0,0 +1,131 @@
+package com.example.clientesapi.memory;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.SmartTransactionObject;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transacciones del almacenamiento en memoria: propagación, suspensión y sincronizaciones de Spring,
+ * con un registro de deshacer por transacción.
+ * <p>
+ * No hay aislamiento: cada escritura es visible para las demás transacciones apenas se aplica, y el
+ * rollback la revierte aplicando las operaciones inversas en orden contrario. Las escrituras que se
+ * registran con {@link #onCommit(Runnable)} (el outbox) quedan visibles solo al confirmar. Fuera de una
+ * transacción las escrituras se confirman de inmediato.
+ */
+@Slf4j
+public class InMemoryTransactionManager extends AbstractPlatformTransactionManager {
+    
+    private static final Object RECURSO = InMemoryTransactionManager.class;
+    
+    /**
+     * Registra cómo revertir una escritura ya aplicada si la transacción actual termina en rollback.
+     */
+    public static void onRollback(Runnable deshacer) {
+        Registro registro = (Registro) TransactionSynchronizationManager.getResource(RECURSO);
+        if (registro != null) {
+            registro.deshacer.add(deshacer);
+        }
+    }
+    
+    /**
+     * Ejecuta la escritura al confirmar la transacción actual, o de inmediato si no hay transacción.
+     */
+    public static void onCommit(Runnable escritura) {
+        Registro registro = (Registro) TransactionSynchronizationManager.getResource(RECURSO);
+        if (registro != null) {
+            registro.alConfirmar.add(escritura);
+        } else {
+            escritura.run();
+        }
+    }
+    
+    @Override
+    protected Object doGetTransaction() {
+        return new Transaccion((Registro) TransactionSynchronizationManager.getResource(RECURSO));
+    }
+    
+    @Override
+    protected boolean isExistingTransaction(Object transaction) {
+        return ((Transaccion) transaction).registro != null;
+    }
+    
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        Registro registro = new Registro();
+        TransactionSynchronizationManager.bindResource(RECURSO, registro);
+        ((Transaccion) transaction).registro = registro;
+    }
+    
+    @Override
+    protected Object doSuspend(Object transaction) {
+        ((Transaccion) transaction).registro = null;
+        return TransactionSynchronizationManager.unbindResource(RECURSO);
+    }
+    
+    @Override
+    protected void doResume(Object transaction, Object suspendedResources) {
+        TransactionSynchronizationManager.bindResource(RECURSO, suspendedResources);
+    }
+    
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {
+        Registro registro = ((Transaccion) status.getTransaction()).registro;
+        registro.alConfirmar.forEach(Runnable::run);
+    }
+    
+    @Override
+    protected void doRollback(DefaultTransactionStatus status) {
+        List<Runnable> deshacer = ((Transaccion) status.getTransaction()).registro.deshacer;
+        for (int i = deshacer.size() - 1; i >= 0; i--) {
+            try {
+                deshacer.get(i).run();
+            } catch (RuntimeException e) {
+                // Se continúa con las demás: una reversión fallida no debe dejar las anteriores sin aplicar
+                log.error("No se pudo revertir una escritura en memoria", e);
+            }
+        }
+    }
+    
+    @Override
+    protected void doSetRollbackOnly(DefaultTransactionStatus status) {
+        ((Transaccion) status.getTransaction()).registro.rollbackOnly = true;
+    }
+    
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        TransactionSynchronizationManager.unbindResourceIfPossible(RECURSO);
+    }
+    
+    private static final class Registro {
+        
+        private final List<Runnable> deshacer = new ArrayList<>();
+        private final List<Runnable> alConfirmar = new ArrayList<>();
+        private boolean rollbackOnly;
+    }
+    
+    private static final class Transaccion implements SmartTransactionObject {
+        
+        private Registro registro;
+        
+        private Transaccion(Registro registro) {
+            this.registro = registro;
+        }
+        
+        @Override
+        public boolean isRollbackOnly() {
+            return registro != null && registro.rollbackOnly;
+        }
+        
+        @Override
+        public void flush() {
+        }
+    }
+    
+}
@@ -0,0 +1,130 @@
+package com.example.clientesapi.memory;
+
+import com.example.clientesapi.entity.OutboxEvento;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tabla {@code outbox_evento} del almacenamiento en memoria. Los eventos insertados en una transacción
+ * quedan visibles para el publicador recién al confirmarla, igual que en la tabla de MySQL.
+ */
+final class OutboxTable {
+    
+    private final ConcurrentSkipListMap<Long, OutboxEvento> porId = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListSet<Long> sinSeq = new ConcurrentSkipListSet<>();
+    private final ConcurrentSkipListMap<Long, OutboxEvento> porSeq = new ConcurrentSkipListMap<>();
+    private final AtomicLong ultimoId = new AtomicLong();
+    
+    void insert(List<OutboxEvento> eventos) {
+        List<OutboxEvento> copias = new ArrayList<>(eventos.size());
+        for (OutboxEvento evento : eventos) {
+            OutboxEvento copia = new OutboxEvento();
+            copia.setId(ultimoId.incrementAndGet());
+            copia.setEntidad(evento.getEntidad());
+            copia.setTipo(evento.getTipo());
+            copia.setClave(evento.getClave());
+            copia.setDatos(evento.getDatos());
+            copia.setCreatedAt(evento.getCreatedAt());
+            copias.add(copia);
+        }
+        InMemoryTransactionManager.onCommit(() -> copias.forEach(this::add));
+    }
+    
+    private void add(OutboxEvento evento) {
+        porId.put(evento.getId(), evento);
+        if (evento.getSeq() != null) {
+            porSeq.put(evento.getSeq(), evento);
+        } else {
+            sinSeq.add(evento.getId());
+        }
+    }
+    
+    List<Long> unsequencedIds(int limit) {
+        List<Long> ids = new ArrayList<>(Math.min(limit, 1024));
+        for (Iterator<Long> it = sinSeq.iterator(); it.hasNext() && ids.size() < limit; ) {
+            ids.add(it.next());
+        }
+        return ids;
+    }
+    
+    // Un solo publicador por instancia: la sincronización solo protege de un uso concurrente accidental
+    synchronized void assignSeq(List<Long> ids, long firstSeq) {
+        for (int i = 0; i < ids.size(); i++) {
+            OutboxEvento evento = porId.get(ids.get(i));
+            long seq = firstSeq + i;
+            if (evento == null || evento.getSeq() != null) {
+                throw new ConcurrencyFailureException("El evento " + ids.get(i) + " ya tiene seq o no existe");
+            }
+            if (porSeq.putIfAbsent(seq, evento) != null) {
+                String mensaje = "Duplicate entry '" + seq + "' for key 'outbox_evento.uk_outbox_evento_seq'";
+                throw new DuplicateKeyException(mensaje, new ConstraintViolationException(mensaje, null, "uk_outbox_evento_seq"));
+            }
+            evento.setSeq(seq);
+            sinSeq.remove(evento.getId());
+            InMemoryTransactionManager.onRollback(() -> {
+                porSeq.remove(seq, evento);
+                evento.setSeq(null);
+                sinSeq.add(evento.getId());
+            });
+        }
+    }
+    
+    long maxSeq() {
+        return porSeq.isEmpty() ? 0 : porSeq.lastKey();
+    }
+    
+    Long minSeq() {
+        return porSeq.isEmpty() ? null : porSeq.firstKey();
+    }
+    
+    Collection<OutboxEvento> since(long since, int limit) {
+        List<OutboxEvento> eventos = new ArrayList<>();
+        for (Iterator<OutboxEvento> it = porSeq.tailMap(since, false).values().iterator(); it.hasNext() && eventos.size() < limit; ) {
+            eventos.add(it.next());
+        }
+        return eventos;
+    }
+    
+    // Los seq se asignan en el orden de confirmación, por lo que los eventos más antiguos están al inicio
+    int deletePublishedBefore(Instant before, int limit) {
+        int eliminados = 0;
+        for (Iterator<OutboxEvento> it = porSeq.values().iterator(); it.hasNext() && eliminados < limit; ) {
+            OutboxEvento evento = it.next();
+            if (!evento.getCreatedAt().isBefore(before)) {
+                break;
+            }
+            it.remove();
+            porId.remove(evento.getId());
+            eliminados++;
+        }
+        return eliminados;
+    }
+    
+    int size() {
+        return porId.size();
+    }
+    
+    Collection<OutboxEvento> eventos() {
+        return porId.values();
+    }
+    
+    void restore(Collection<OutboxEvento> eventos) {
+        long maxId = 0;
+        for (OutboxEvento evento : eventos) {
+            add(evento);
+            maxId = Math.max(maxId, evento.getId());
+        }
+        ultimoId.set(maxId);
+    }
+    
+}
@@ -0,0 +1,86 @@
+package com.example.clientesapi.outbox;
+
+import com.example.clientesapi.repository.OutboxRepository;
+import com.example.clientesapi.service.ChangeFeedService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Publica los eventos del outbox: les asigna {@code seq} por lotes, en el orden en que quedan confirmados,
+ * y avisa a los consumidores que esperan cambios. También elimina los eventos más antiguos que la retención.
+ * <p>
+ * Con varias instancias, dos publicadores pueden intentar asignar el mismo {@code seq}, o asignar
+ * {@code seq} a los mismos eventos; el índice único o la condición {@code seq IS NULL} rechazan al segundo,
+ * que revierte su lote y reintenta en la siguiente ejecución. Cada instancia avisa a sus propios
+ * consumidores al ver que el último {@code seq} avanzó, lo haya asignado ella u otra instancia.
+ */
+@Component
+@Slf4j
+public class OutboxPublisher {
+    
+    private static final int DELETE_BATCH_SIZE = 5000;
+    
+    private final OutboxRepository outboxRepository;
+    private final ChangeFeedService changeFeedService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration retention;
+    
+    public OutboxPublisher(OutboxRepository outboxRepository,
+                           ChangeFeedService changeFeedService,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${clientes.outbox.batch-size:1000}") int batchSize,
+                           @Value("${clientes.outbox.retention:P7D}") Duration retention) {
+        this.outboxRepository = outboxRepository;
+        this.changeFeedService = changeFeedService;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.retention = retention;
+    }
+    
+    @Scheduled(fixedDelayString = "${clientes.outbox.publish-interval:PT0.2S}")
+    public void publish() {
+        int publicados;
+        do {
+            try {
+                publicados = transactionTemplate.execute(status -> publishBatch());
+            } catch (DuplicateKeyException | ConcurrencyFailureException e) {
+                log.debug("Otra instancia asignó seq al mismo tiempo; se reintenta en la siguiente ejecución");
+                publicados = 0;
+            }
+        } while (publicados == batchSize);
+        changeFeedService.onPublished(outboxRepository.findMaxSeq());
+    }
+    
+    private int publishBatch() {
+        List<Long> ids = outboxRepository.findUnsequencedIds(batchSize);
+        if (!ids.isEmpty()) {
+            outboxRepository.assignSeq(ids, outboxRepository.findMaxSeq() + 1);
+        }
+        return ids.size();
+    }
+    
+    @Scheduled(fixedDelayString = "${clientes.outbox.cleanup-interval:PT1H}")
+    public void cleanup() {
+        Instant limite = Instant.now().minus(retention);
+        long eliminados = 0;
+        int lote;
+        do {
+            lote = outboxRepository.deletePublishedBefore(limite, DELETE_BATCH_SIZE);
+            eliminados += lote;
+        } while (lote == DELETE_BATCH_SIZE);
+        if (eliminados > 0) {
+            log.info("Outbox: {} eventos anteriores a {} eliminados", eliminados, limite);
+        }
+    }
+    
+}
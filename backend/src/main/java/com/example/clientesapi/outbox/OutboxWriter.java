@@ -0,0 +1,115 @@
+package com.example.clientesapi.outbox;
+
+import com.example.clientesapi.dto.ChangeEventDTO;
+import com.example.clientesapi.entity.OutboxEvento;
+import com.example.clientesapi.event.ClienteChangeEvent;
+import com.example.clientesapi.event.TipoClienteChangeEvent;
+import com.example.clientesapi.repository.OutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registra cada cambio de clientes y tipos de cliente en la tabla {@code outbox_evento}, dentro de la
+ * transacción que lo produce: el evento existe si y solo si el cambio se confirma.
+ * <p>
+ * Los eventos de una transacción se acumulan y se insertan en un solo lote justo antes del commit, de
+ * modo que una carga masiva de miles de filas agrega una sentencia por lote en lugar de una por fila.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+    
+    private final OutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+    
+    @EventListener
+    public void onClienteChange(ClienteChangeEvent event) {
+        append(ChangeEventDTO.ENTIDAD_CLIENTE, event.getType().name(), String.valueOf(event.getId()), event.getAfter());
+    }
+    
+    @EventListener
+    public void onTipoClienteChange(TipoClienteChangeEvent event) {
+        append(ChangeEventDTO.ENTIDAD_TIPO_CLIENTE, event.getType().name(), event.getCodigo(), event.getTipoCliente());
+    }
+    
+    private void append(String entidad, String tipo, String clave, Object datos) {
+        OutboxEvento evento = new OutboxEvento();
+        evento.setEntidad(entidad);
+        evento.setTipo(tipo);
+        evento.setClave(clave);
+        evento.setDatos(datos != null ? toJson(datos) : null);
+        evento.setCreatedAt(Instant.now().truncatedTo(ChronoUnit.MILLIS));
+        
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            outboxRepository.insertAll(List.of(evento));
+            return;
+        }
+        current().eventos.add(evento);
+    }
+    
+    // Se guarda como recurso del hilo para no recorrer las sincronizaciones por cada evento (Spring las
+    // ordena en cada consulta y una carga masiva registra una por fila). La sincronización se desliga al
+    // suspenderse la transacción: una transacción REQUIRES_NEW anidada acumula sus propios eventos
+    private Pendientes current() {
+        Pendientes pendientes = (Pendientes) TransactionSynchronizationManager.getResource(this);
+        if (pendientes == null) {
+            pendientes = new Pendientes();
+            TransactionSynchronizationManager.registerSynchronization(pendientes);
+            TransactionSynchronizationManager.bindResource(this, pendientes);
+        }
+        return pendientes;
+    }
+    
+    // Se serializa al registrar el cambio: el DTO del evento es el estado confirmado de esta transacción
+    private String toJson(Object datos) {
+        try {
+            return objectMapper.writeValueAsString(datos);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Eventos de la transacción actual, insertados en {@code beforeCommit}.
+     */
+    private final class Pendientes implements TransactionSynchronization {
+        
+        private final List<OutboxEvento> eventos = new ArrayList<>();
+        
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (!eventos.isEmpty()) {
+                outboxRepository.insertAll(eventos);
+                eventos.clear();
+            }
+        }
+        
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(OutboxWriter.this);
+        }
+        
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(OutboxWriter.this, this);
+        }
+        
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(OutboxWriter.this);
+        }
+    }
+    
+}
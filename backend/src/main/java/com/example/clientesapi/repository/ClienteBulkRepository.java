@@ -0,0 +1,60 @@
+package com.example.clientesapi.repository;
+
+import com.example.clientesapi.dto.ClienteDTO;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Acceso para cargas masivas, exportación e importación de clientes: lecturas y escrituras por conjuntos,
+ * sin entidades JPA. Implementado con JDBC ({@link JdbcClienteBulkRepository}) o en memoria (perfil {@code memory}).
+ */
+public interface ClienteBulkRepository {
+    
+    /**
+     * Retorna los clientes existentes cuyos RUT, en forma canónica, están en la colección, indexados por RUT,
+     * en una sola consulta. Cada DTO lleva la versión leída, para {@link #updateBatch(List)}.
+     */
+    Map<String, ClienteDTO> findByRuts(Collection<String> ruts);
+    
+    /**
+     * Recorre todos los clientes ordenados por ID y retorna la cantidad de filas. Cada fila se copia
+     * sobre la misma instancia de {@code ClienteDTO}, por lo que el consumidor no debe retenerla.
+     */
+    long forEach(int fetchSize, Consumer<ClienteDTO> consumer);
+    
+    /**
+     * Retorna el RUT del dueño de cada email de la colección que ya existe, en una sola consulta, indexado
+     * por {@link #emailKey(String)}.
+     */
+    Map<String, String> findRutsByEmail(Collection<String> emails);
+    
+    /**
+     * Inserta los clientes en un solo lote y retorna los IDs generados, en el mismo orden.
+     * Los DTO quedan con la versión inicial y la fecha de modificación asignadas.
+     */
+    List<Long> insertBatch(List<ClienteDTO> clientes);
+    
+    /**
+     * Actualiza los clientes (identificados por su ID) en un solo lote e incrementa su versión. Un cliente
+     * solo se actualiza si su versión sigue siendo la del DTO; si otro escritor lo modificó o eliminó desde
+     * que se leyó, no se escribe. Los DTO actualizados quedan con la versión y la fecha de modificación
+     * resultantes.
+     *
+     * @return si cada cliente se actualizó, en el mismo orden
+     */
+    List<Boolean> updateBatch(List<ClienteDTO> clientes);
+    
+    /**
+     * Clave de comparación de un email: en minúsculas, porque el índice único {@code uk_cliente_email} usa la
+     * collation de MySQL, que no distingue mayúsculas. Así dos emails que solo difieren en mayúsculas se
+     * detectan antes de escribir y no al insertar.
+     */
+    static String emailKey(String email) {
+        return email != null ? email.toLowerCase(Locale.ROOT) : null;
+    }
+    
+}
@@ -1,22 +1,75 @@
 package com.example.clientesapi.repository;
 
+import com.example.clientesapi.dto.ClienteDetalleDTO;
 import com.example.clientesapi.entity.Cliente;
+import com.example.clientesapi.entity.Rut;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Repository
-public interface ClienteRepository extends JpaRepository<Cliente, Long> {
+public interface ClienteRepository extends JpaRepository<Cliente, Long>, ClienteSearchRepository, ClienteStreamRepository {
     
-    Optional<Cliente> findByRut(String rut);
+    // WHERE rut_numero = ? sobre el índice único entero; el dígito verificador se compara en la fila
+    Optional<Cliente> findByRutNumeroAndRutDv(Integer rutNumero, String rutDv);
     
-    boolean existsByRut(String rut);
+    boolean existsByRutNumeroAndRutDv(Integer rutNumero, String rutDv);
     
-    boolean existsByRutAndIdNot(String rut, Long id);
+    // WHERE rut_numero IN (...); el llamador acota la cantidad de valores y compara el dígito verificador
+    List<Cliente> findByRutNumeroIn(Collection<Integer> rutNumeros);
     
-    boolean existsByEmail(String email);
+    /**
+     * Búsqueda por RUT en cualquiera de sus formatos ("12.345.678-5", "12345678-5", "123456785").
+     */
+    default Optional<Cliente> findByRut(String rut) {
+        String canonico = Rut.normalize(rut);
+        if (canonico == null) {
+            return Optional.empty();
+        }
+        return findByRutNumeroAndRutDv(Rut.numero(canonico), String.valueOf(Rut.dv(canonico)));
+    }
     
-    boolean existsByEmailAndIdNot(String email, Long id);
+    default boolean existsByRut(String rut) {
+        String canonico = Rut.normalize(rut);
+        return canonico != null && existsByRutNumeroAndRutDv(Rut.numero(canonico), String.valueOf(Rut.dv(canonico)));
+    }
+    
+    /**
+     * Clientes de los RUT en forma canónica indicados; los que no existen se omiten.
+     */
+    default List<Cliente> findByRutIn(Collection<String> ruts) {
+        Map<Integer, String> dvPorNumero = new HashMap<>();
+        for (String rut : ruts) {
+            dvPorNumero.put(Rut.numero(rut), String.valueOf(Rut.dv(rut)));
+        }
+        List<Cliente> clientes = new ArrayList<>(findByRutNumeroIn(dvPorNumero.keySet()));
+        clientes.removeIf(cliente -> !cliente.getRutDv().equals(dvPorNumero.get(cliente.getRutNumero())));
+        return clientes;
+    }
+    
+    // Cliente y descripción de su tipo en una sola consulta (JOIN), proyectados directamente al DTO
+    @Query("SELECT new com.example.clientesapi.dto.ClienteDetalleDTO(" +
+           "c.id, c.rut, c.nombre, c.apellido, c.edad, c.email, c.codTipoCliente, t.descripcion) " +
+           "FROM Cliente c JOIN c.tipoCliente t WHERE c.id = :id")
+    Optional<ClienteDetalleDTO> findDetalleById(@Param("id") Long id);
+    
+    // Usa idx_cliente_tipo y se detiene en la primera fila
+    boolean existsByCodTipoCliente(String codTipoCliente);
+    
+    // Paginación keyset sobre la clave primaria: WHERE id > :after ORDER BY id LIMIT :limit
+    List<Cliente> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    
+    // Cantidad de clientes por tipo y edad, para reconciliar las estadísticas: filas [codTipoCliente, edad, cantidad]
+    @Query("SELECT c.codTipoCliente, c.edad, COUNT(c) FROM Cliente c GROUP BY c.codTipoCliente, c.edad")
+    List<Object[]> countGroupByTipoAndEdad();
     
 }
@@ -0,0 +1,20 @@
+package com.example.clientesapi.repository;
+
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.dto.ClienteSearchCriteria;
+
+import java.util.List;
+
+/**
+ * Búsqueda de clientes por filtros con paginación keyset. Implementada en {@link ClienteSearchRepositoryImpl}.
+ */
+public interface ClienteSearchRepository {
+    
+    /**
+     * Retorna hasta {@code limit} clientes que cumplen los filtros, en el orden pedido, a continuación de
+     * {@code after} (el último cliente de la página anterior, o {@code null} para la primera página).
+     * De {@code after} solo se usan los campos de la clave de orden y el ID.
+     */
+    List<ClienteDTO> search(ClienteSearchCriteria criteria, ClienteDTO after, int limit);
+    
+}
@@ -0,0 +1,173 @@
+package com.example.clientesapi.repository;
+
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.dto.ClienteSearchCriteria;
+import com.example.clientesapi.entity.Cliente;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Búsqueda con Criteria API que proyecta directamente a {@link ClienteDTO} (sin hidratar entidades).
+ * <p>
+ * Cada orden corresponde a un índice, cuya última columna implícita es la clave primaria:
+ * <ul>
+ *   <li>{@code id}: clave primaria (o {@code idx_cliente_tipo} si se filtra por tipo)</li>
+ *   <li>{@code nombre}: {@code idx_cliente_nombre_apellido} (nombre, apellido, id)</li>
+ *   <li>{@code edad}: {@code idx_cliente_edad} (edad, id)</li>
+ * </ul>
+ * Los filtros de prefijo usan {@code LIKE 'x%'}, que MySQL resuelve como rango sobre
+ * {@code idx_cliente_nombre_apellido} o {@code idx_cliente_apellido_nombre}. La página siguiente se
+ * obtiene con una condición keyset sobre la clave de orden, nunca con OFFSET.
+ */
+public class ClienteSearchRepositoryImpl implements ClienteSearchRepository {
+    
+    private static final char LIKE_ESCAPE = '\\';
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<ClienteDTO> search(ClienteSearchCriteria criteria, ClienteDTO after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ClienteDTO> query = cb.createQuery(ClienteDTO.class);
+        Root<Cliente> root = query.from(Cliente.class);
+        
+        query.select(cb.construct(ClienteDTO.class,
+                root.get("id"),
+                root.get("rut"),
+                root.get("nombre"),
+                root.get("apellido"),
+                root.get("edad"),
+                root.get("email"),
+                root.get("codTipoCliente")));
+        
+        List<Predicate> predicates = new ArrayList<>();
+        if (hasText(criteria.getNombre())) {
+            predicates.add(cb.like(root.get("nombre"), likePrefix(criteria.getNombre()), LIKE_ESCAPE));
+        }
+        if (hasText(criteria.getApellido())) {
+            predicates.add(cb.like(root.get("apellido"), likePrefix(criteria.getApellido()), LIKE_ESCAPE));
+        }
+        if (hasText(criteria.getCodTipoCliente())) {
+            predicates.add(cb.equal(root.get("codTipoCliente"), criteria.getCodTipoCliente()));
+        }
+        if (criteria.getEdadMin() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get("edad"), criteria.getEdadMin()));
+        }
+        if (criteria.getEdadMax() != null) {
+            predicates.add(cb.lessThanOrEqualTo(root.get("edad"), criteria.getEdadMax()));
+        }
+        
+        List<SortKey> keys = sortKeys(criteria.getOrden());
+        boolean desc = criteria.isDescendente();
+        if (after != null) {
+            predicates.add(keyset(cb, root, keys, after, desc));
+        }
+        
+        List<Order> orders = new ArrayList<>();
+        for (SortKey key : keys) {
+            Path<?> path = root.get(key.attribute());
+            orders.add(desc ? cb.desc(path) : cb.asc(path));
+        }
+        
+        query.where(predicates.toArray(new Predicate[0])).orderBy(orders);
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+    
+    private static List<SortKey> sortKeys(String orden) {
+        SortKey id = new SortKey("id", false, ClienteDTO::getId);
+        return switch (orden != null ? orden : ClienteSearchCriteria.ORDEN_ID) {
+            case ClienteSearchCriteria.ORDEN_NOMBRE -> List.of(
+                    new SortKey("nombre", false, ClienteDTO::getNombre),
+                    new SortKey("apellido", false, ClienteDTO::getApellido),
+                    id);
+            case ClienteSearchCriteria.ORDEN_EDAD -> List.of(
+                    new SortKey("edad", true, ClienteDTO::getEdad),
+                    id);
+            default -> List.of(id);
+        };
+    }
+    
+    /**
+     * Condición "posterior a {@code after}" para un orden compuesto (k1, k2, ..., id):
+     * {@code k1 > v1 OR (k1 = v1 AND k2 > v2) OR ...}. Los NULL se consideran menores que cualquier
+     * valor, igual que en el ORDER BY de MySQL.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate keyset(CriteriaBuilder cb, Root<Cliente> root, List<SortKey> keys, ClienteDTO after, boolean desc) {
+        List<Predicate> alternatives = new ArrayList<>();
+        List<Predicate> equalPrefix = new ArrayList<>();
+        for (SortKey key : keys) {
+            Path<Comparable> path = root.get(key.attribute());
+            Comparable value = (Comparable) key.value().apply(after);
+            
+            Predicate beyond = beyond(cb, path, value, key.nullable(), desc);
+            if (beyond != null) {
+                List<Predicate> alternative = new ArrayList<>(equalPrefix);
+                alternative.add(beyond);
+                alternatives.add(cb.and(alternative.toArray(new Predicate[0])));
+            }
+            equalPrefix.add(value == null ? cb.isNull(path) : cb.equal(path, value));
+        }
+        
+        Predicate keyset = cb.or(alternatives.toArray(new Predicate[0]));
+        
+        // Cota redundante sobre la primera columna: permite al optimizador usar un rango del índice
+        SortKey first = keys.get(0);
+        Comparable firstValue = (Comparable) first.value().apply(after);
+        if (firstValue != null) {
+            Path<Comparable> path = root.get(first.attribute());
+            Predicate bound = desc ? cb.lessThanOrEqualTo(path, firstValue) : cb.greaterThanOrEqualTo(path, firstValue);
+            if (desc && first.nullable()) {
+                bound = cb.or(bound, cb.isNull(path));
+            }
+            keyset = cb.and(bound, keyset);
+        }
+        return keyset;
+    }
+    
+    // Valores estrictamente posteriores a value en el orden pedido; null si no hay ninguno
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate beyond(CriteriaBuilder cb, Path<Comparable> path, Comparable value, boolean nullable, boolean desc) {
+        if (value == null) {
+            // Tras un NULL: en orden ascendente vienen todos los no nulos; en descendente, ninguno
+            return desc ? null : cb.isNotNull(path);
+        }
+        if (!desc) {
+            return cb.greaterThan(path, value);
+        }
+        Predicate lower = cb.lessThan(path, value);
+        return nullable ? cb.or(lower, cb.isNull(path)) : lower;
+    }
+    
+    private static String likePrefix(String prefix) {
+        StringBuilder pattern = new StringBuilder(prefix.length() + 1);
+        for (char c : prefix.toCharArray()) {
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                pattern.append(LIKE_ESCAPE);
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+    
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+    
+    private record SortKey(String attribute, boolean nullable, Function<ClienteDTO, Object> value) {
+    }
+    
+}
@@ -0,0 +1,18 @@
+package com.example.clientesapi.repository;
+
+import com.example.clientesapi.entity.Cliente;
+
+import java.util.stream.Stream;
+
+/**
+ * Recorrido de todos los clientes para streaming. Implementado en {@link ClienteStreamRepositoryImpl}.
+ */
+public interface ClienteStreamRepository {
+    
+    /**
+     * Recorre todos los clientes en orden de ID con un cursor forward-only que trae {@code fetchSize} filas
+     * por ida a la base de datos ({@code clientes.export.fetch-size}). El stream debe cerrarse.
+     */
+    Stream<Cliente> streamAllByOrderByIdAsc(int fetchSize);
+    
+}
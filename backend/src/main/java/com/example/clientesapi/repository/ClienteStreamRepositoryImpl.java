@@ -0,0 +1,29 @@
+package com.example.clientesapi.repository;
+
+import com.example.clientesapi.entity.Cliente;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.stream.Stream;
+
+/**
+ * El tamaño de fetch viene de la configuración, no de un {@code @QueryHint} fijo: con MySQL Connector/J,
+ * {@code Integer.MIN_VALUE} hace que el driver entregue las filas una a una en lugar de cargar todo el
+ * ResultSet en memoria, pero otros drivers rechazan un valor negativo.
+ */
+public class ClienteStreamRepositoryImpl implements ClienteStreamRepository {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public Stream<Cliente> streamAllByOrderByIdAsc(int fetchSize) {
+        return entityManager.createQuery("SELECT c FROM Cliente c ORDER BY c.id", Cliente.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_CACHEABLE, false)
+                .getResultStream();
+    }
+    
+}
@@ -0,0 +1,204 @@
+package com.example.clientesapi.repository;
+
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.entity.Rut;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Implementación JDBC de {@link ClienteBulkRepository}.
+ * <p>
+ * La entidad {@code Cliente} usa {@code GenerationType.IDENTITY}, lo que impide que Hibernate agrupe
+ * los INSERT en lotes. Aquí se usan sentencias preparadas con {@code addBatch}/{@code executeBatch},
+ * que con {@code rewriteBatchedStatements=true} el driver de MySQL reescribe como un único INSERT multi-fila.
+ */
+@Repository
+@Profile("!memory")
+@Timed(value = "clientes.repository.jdbc", histogram = true)
+@RequiredArgsConstructor
+public class JdbcClienteBulkRepository implements ClienteBulkRepository {
+    
+    private static final String INSERT_SQL =
+            "INSERT INTO cliente (rut, nombre, apellido, edad, email, cod_tipo_cliente, updated_at, rut_numero, rut_dv, version) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+                    
+    private static final String UPDATE_BY_ID_SQL =
+            "UPDATE cliente SET rut = ?, nombre = ?, apellido = ?, edad = ?, email = ?, cod_tipo_cliente = ?, updated_at = ?, "
+                    + "rut_numero = ?, rut_dv = ?, version = version + 1 WHERE id = ? AND version = ?";
+                    
+    private static final String EXPORT_SQL =
+            "SELECT id, rut, nombre, apellido, edad, email, cod_tipo_cliente FROM cliente ORDER BY id";
+            
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    
+    // Por el índice único entero de rut_numero; el dígito verificador se compara en la fila
+    @Override
+    public Map<String, ClienteDTO> findByRuts(Collection<String> ruts) {
+        Map<String, ClienteDTO> clientes = new HashMap<>();
+        if (ruts.isEmpty()) {
+            return clientes;
+        }
+        Map<Integer, String> porNumero = new HashMap<>();
+        for (String rut : ruts) {
+            porNumero.put(Rut.numero(rut), rut);
+        }
+        namedParameterJdbcTemplate.query(
+                "SELECT id, rut, nombre, apellido, edad, email, cod_tipo_cliente, rut_numero, rut_dv, version FROM cliente "
+                        + "WHERE rut_numero IN (:numeros)",
+                Map.of("numeros", porNumero.keySet()),
+                (ResultSet rs) -> {
+                    String rut = porNumero.get(rs.getInt("rut_numero"));
+                    if (Rut.dv(rut) != rs.getString("rut_dv").charAt(0)) {
+                        return;
+                    }
+                    ClienteDTO cliente = new ClienteDTO(
+                            rs.getLong("id"),
+                            rs.getString("rut"),
+                            rs.getString("nombre"),
+                            rs.getString("apellido"),
+                            rs.getObject("edad", Integer.class),
+                            rs.getString("email"),
+                            rs.getString("cod_tipo_cliente"));
+                    cliente.setVersion(rs.getLong("version"));
+                    clientes.put(rut, cliente);
+                });
+        return clientes;
+    }
+    
+    @Override
+    public long forEach(int fetchSize, Consumer<ClienteDTO> consumer) {
+        ClienteDTO cliente = new ClienteDTO();
+        long[] filas = {0};
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(EXPORT_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            cliente.setId(rs.getLong(1));
+            cliente.setRut(rs.getString(2));
+            cliente.setNombre(rs.getString(3));
+            cliente.setApellido(rs.getString(4));
+            int edad = rs.getInt(5);
+            cliente.setEdad(rs.wasNull() ? null : edad);
+            cliente.setEmail(rs.getString(6));
+            cliente.setCodTipoCliente(rs.getString(7));
+            consumer.accept(cliente);
+            filas[0]++;
+        });
+        return filas[0];
+    }
+    
+    @Override
+    public Map<String, String> findRutsByEmail(Collection<String> emails) {
+        Map<String, String> ruts = new HashMap<>();
+        if (emails.isEmpty()) {
+            return ruts;
+        }
+        namedParameterJdbcTemplate.query("SELECT email, rut FROM cliente WHERE email IN (:emails)",
+                Map.of("emails", emails),
+                (ResultSet rs) -> {
+                    ruts.put(ClienteBulkRepository.emailKey(rs.getString("email")), rs.getString("rut"));
+                });
+        return ruts;
+    }
+    
+    @Override
+    public List<Long> insertBatch(List<ClienteDTO> clientes) {
+        if (clientes.isEmpty()) {
+            return List.of();
+        }
+        Instant updatedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        return jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (ClienteDTO cliente : clientes) {
+                    setClienteParameters(ps, cliente);
+                    ps.setTimestamp(7, Timestamp.from(updatedAt));
+                    setRutParameters(ps, 8, cliente);
+                    ps.addBatch();
+                    cliente.setVersion(0L);
+                    cliente.setUpdatedAt(updatedAt);
+                }
+                ps.executeBatch();
+                
+                List<Long> ids = new ArrayList<>(clientes.size());
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        ids.add(keys.getLong(1));
+                    }
+                }
+                return ids;
+            }
+        });
+    }
+    
+    // Una fila que no coincide con la versión leída actualiza 0 filas. Si el driver no informa la cantidad
+    // (SUCCESS_NO_INFO) se da por actualizada
+    @Override
+    public List<Boolean> updateBatch(List<ClienteDTO> clientes) {
+        if (clientes.isEmpty()) {
+            return List.of();
+        }
+        Timestamp updatedAt = Timestamp.from(Instant.now().truncatedTo(ChronoUnit.MILLIS));
+        int[] filas = jdbcTemplate.batchUpdate(UPDATE_BY_ID_SQL, clientes, clientes.size(), (ps, cliente) -> {
+            setClienteParameters(ps, cliente);
+            ps.setTimestamp(7, updatedAt);
+            setRutParameters(ps, 8, cliente);
+            ps.setLong(10, cliente.getId());
+            ps.setLong(11, cliente.getVersion());
+        })[0];
+        
+        List<Boolean> actualizados = new ArrayList<>(clientes.size());
+        for (int i = 0; i < clientes.size(); i++) {
+            boolean actualizado = filas[i] != 0;
+            if (actualizado) {
+                ClienteDTO cliente = clientes.get(i);
+                cliente.setVersion(cliente.getVersion() + 1);
+                cliente.setUpdatedAt(updatedAt.toInstant());
+            }
+            actualizados.add(actualizado);
+        }
+        return actualizados;
+    }
+    
+    private static void setClienteParameters(PreparedStatement ps, ClienteDTO cliente) throws SQLException {
+        ps.setString(1, cliente.getRut());
+        ps.setString(2, cliente.getNombre());
+        ps.setString(3, cliente.getApellido());
+        if (cliente.getEdad() != null) {
+            ps.setInt(4, cliente.getEdad());
+        } else {
+            ps.setNull(4, Types.INTEGER);
+        }
+        ps.setString(5, cliente.getEmail());
+        ps.setString(6, cliente.getCodTipoCliente());
+    }
+    
+    // El servicio deja el RUT en forma canónica antes de escribirlo
+    private static void setRutParameters(PreparedStatement ps, int indice, ClienteDTO cliente) throws SQLException {
+        ps.setInt(indice, Rut.numero(cliente.getRut()));
+        ps.setString(indice + 1, String.valueOf(Rut.dv(cliente.getRut())));
+    }
+    
+}
@@ -0,0 +1,118 @@
+package com.example.clientesapi.repository;
+
+import com.example.clientesapi.dto.ChangeEventDTO;
+import com.example.clientesapi.entity.OutboxEvento;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Implementación JDBC de {@link OutboxRepository} sobre la tabla {@code outbox_evento}.
+ */
+@Repository
+@Profile("!memory")
+@Timed(value = "clientes.repository.jdbc", histogram = true)
+@RequiredArgsConstructor
+public class JdbcOutboxRepository implements OutboxRepository {
+    
+    private static final String INSERT_SQL =
+            "INSERT INTO outbox_evento (entidad, tipo, clave, datos, created_at) VALUES (?, ?, ?, ?, ?)";
+            
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Override
+    public void insertAll(List<OutboxEvento> eventos) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, eventos, eventos.size(), (ps, evento) -> {
+            ps.setString(1, evento.getEntidad());
+            ps.setString(2, evento.getTipo());
+            ps.setString(3, evento.getClave());
+            ps.setString(4, evento.getDatos());
+            ps.setTimestamp(5, Timestamp.from(evento.getCreatedAt()));
+        });
+    }
+    
+    @Override
+    public List<Long> findUnsequencedIds(int limit) {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM outbox_evento WHERE seq IS NULL ORDER BY id LIMIT ?", Long.class, limit);
+    }
+    
+    // La condición seq IS NULL evita cambiar el seq de un evento que otra instancia publicó entre la
+    // lectura de los IDs y esta actualización; si alguna fila no se actualizó, se revierte todo el lote
+    @Override
+    public void assignSeq(List<Long> ids, long firstSeq) {
+        int[] filas = jdbcTemplate.batchUpdate("UPDATE outbox_evento SET seq = ? WHERE id = ? AND seq IS NULL",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ps.setLong(1, firstSeq + i);
+                        ps.setLong(2, ids.get(i));
+                    }
+                    
+                    @Override
+                    public int getBatchSize() {
+                        return ids.size();
+                    }
+                });
+        boolean sinInformacion = false;
+        for (int actualizadas : filas) {
+            if (actualizadas == 0) {
+                throw new ConcurrencyFailureException("Otra instancia asignó seq a eventos del lote a partir de " + firstSeq);
+            }
+            sinInformacion |= actualizadas == Statement.SUCCESS_NO_INFO;
+        }
+        // Si el driver no informa las filas por sentencia, se cuentan: ningún otro evento puede tener un
+        // seq del rango, porque el índice único habría rechazado la actualización
+        if (sinInformacion) {
+            Integer asignados = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_evento WHERE seq BETWEEN ? AND ?",
+                    Integer.class, firstSeq, firstSeq + ids.size() - 1);
+            if (asignados == null || asignados != ids.size()) {
+                throw new ConcurrencyFailureException("Otra instancia asignó seq a eventos del lote a partir de " + firstSeq);
+            }
+        }
+    }
+    
+    @Override
+    public long findMaxSeq() {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(seq) FROM outbox_evento", Long.class);
+        return max != null ? max : 0;
+    }
+    
+    @Override
+    public Long findMinSeq() {
+        return jdbcTemplate.queryForObject("SELECT MIN(seq) FROM outbox_evento", Long.class);
+    }
+    
+    @Override
+    public List<ChangeEventDTO> findSince(long since, int limit) {
+        return jdbcTemplate.query(
+                "SELECT seq, entidad, tipo, clave, datos, created_at FROM outbox_evento WHERE seq > ? ORDER BY seq LIMIT ?",
+                (rs, rowNum) -> new ChangeEventDTO(
+                        rs.getLong("seq"),
+                        rs.getString("entidad"),
+                        rs.getString("tipo"),
+                        rs.getString("clave"),
+                        rs.getString("datos"),
+                        rs.getTimestamp("created_at").toInstant()),
+                since, limit);
+    }
+    
+    @Override
+    public int deletePublishedBefore(Instant before, int limit) {
+        return jdbcTemplate.update(
+                "DELETE FROM outbox_evento WHERE seq IS NOT NULL AND created_at < ? LIMIT ?",
+                Timestamp.from(before), limit);
+    }
+    
+}
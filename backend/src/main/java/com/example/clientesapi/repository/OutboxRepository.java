@@ -0,0 +1,47 @@
+package com.example.clientesapi.repository;
+
+import com.example.clientesapi.dto.ChangeEventDTO;
+import com.example.clientesapi.entity.OutboxEvento;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Outbox de cambios: inserciones por lotes dentro de la transacción de cada cambio, asignación de
+ * {@code seq} y lectura del stream de cambios por rango de {@code seq}. Implementado con JDBC
+ * ({@link JdbcOutboxRepository}) o en memoria (perfil {@code memory}).
+ */
+public interface OutboxRepository {
+    
+    void insertAll(List<OutboxEvento> eventos);
+    
+    /**
+     * IDs de los eventos confirmados que aún no tienen {@code seq}, en orden de inserción.
+     */
+    List<Long> findUnsequencedIds(int limit);
+    
+    /**
+     * Asigna {@code seq} consecutivos a partir de {@code firstSeq}, en el orden de {@code ids}. Si alguno
+     * de los eventos ya tiene {@code seq} (otra instancia lo publicó) lanza {@code ConcurrencyFailureException}
+     * y la transacción debe revertirse.
+     */
+    void assignSeq(List<Long> ids, long firstSeq);
+    
+    long findMaxSeq();
+    
+    /**
+     * Menor {@code seq} conservado, o {@code null} si no hay eventos publicados.
+     */
+    Long findMinSeq();
+    
+    /**
+     * Eventos con {@code seq} mayor a {@code since}, en orden de {@code seq}.
+     */
+    List<ChangeEventDTO> findSince(long since, int limit);
+    
+    /**
+     * Elimina hasta {@code limit} eventos publicados antes de {@code before} y retorna la cantidad eliminada.
+     */
+    int deletePublishedBefore(Instant before, int limit);
+    
+}
@@ -2,6 +2,9 @@ package com.example.clientesapi.repository;
 
 import com.example.clientesapi.entity.TipoCliente;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -9,4 +12,9 @@ public interface TipoClienteRepository extends JpaRepository<TipoCliente, String
     
     boolean existsByCodigo(String codigo);
     
+    // Un único DELETE, sin cargar la entidad: retorna la cantidad de filas eliminadas (0 o 1)
+    @Modifying
+    @Query("DELETE FROM TipoCliente t WHERE t.codigo = :codigo")
+    int deleteByCodigo(@Param("codigo") String codigo);
+    
 }
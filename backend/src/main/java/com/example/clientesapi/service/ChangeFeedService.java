@@ -0,0 +1,121 @@
+package com.example.clientesapi.service;
+
+import com.example.clientesapi.dto.ChangeEventDTO;
+import com.example.clientesapi.dto.ChangeFeedDTO;
+import com.example.clientesapi.exception.ChangesExpiredException;
+import com.example.clientesapi.repository.OutboxRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Stream de cambios de clientes y tipos de cliente, leído desde el outbox por rango de {@code seq}.
+ * <p>
+ * Si no hay cambios posteriores a {@code since}, la consulta queda en espera (long-poll) sin ocupar un
+ * hilo del servidor, hasta que el publicador informe un {@code seq} mayor o venza el tiempo de espera.
+ */
+@Service
+@Timed(value = "clientes.service", histogram = true)
+@RequiredArgsConstructor
+@Slf4j
+public class ChangeFeedService {
+    
+    private final OutboxRepository outboxRepository;
+    
+    private final Queue<Espera> esperas = new ConcurrentLinkedQueue<>();
+    private volatile long ultimoSeq;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        ultimoSeq = outboxRepository.findMaxSeq();
+    }
+    
+    /**
+     * Cambios con {@code seq} mayor a {@code since}. Sin cambios disponibles espera hasta {@code wait}
+     * y retorna una lista vacía si no llega ninguno.
+     */
+    public DeferredResult<ChangeFeedDTO> poll(long since, int limit, Duration wait) {
+        DeferredResult<ChangeFeedDTO> result = new DeferredResult<>(wait.toMillis(), () -> new ChangeFeedDTO(List.of(), since));
+        if (ultimoSeq > since || wait.isZero()) {
+            result.setResult(findSince(since, limit));
+            return result;
+        }
+        Espera espera = new Espera(since, limit, result);
+        esperas.add(espera);
+        result.onCompletion(() -> esperas.remove(espera));
+        // Un aviso que llegó mientras se registraba la espera no se pierde
+        if (ultimoSeq > since) {
+            espera.complete();
+        }
+        return result;
+    }
+    
+    public ChangeFeedDTO findSince(long since, int limit) {
+        List<ChangeEventDTO> eventos = outboxRepository.findSince(since, limit);
+        // Los seq son consecutivos: un salto después de since significa que esos eventos ya se eliminaron
+        if (since > 0 && (eventos.isEmpty() || eventos.get(0).getSeq() > since + 1)) {
+            checkRetention(since);
+        }
+        long ultimo = eventos.isEmpty() ? since : eventos.get(eventos.size() - 1).getSeq();
+        return new ChangeFeedDTO(eventos, ultimo);
+    }
+    
+    /**
+     * Llamado por el publicador con el último {@code seq} asignado: responde las esperas que quedaron atrás.
+     */
+    public void onPublished(long seq) {
+        if (seq <= ultimoSeq) {
+            return;
+        }
+        ultimoSeq = seq;
+        for (Espera espera : esperas) {
+            if (espera.since < seq) {
+                espera.complete();
+            }
+        }
+    }
+    
+    // Un cursor anterior a los eventos conservados perdió cambios: el consumidor debe volver a sincronizar
+    private void checkRetention(long since) {
+        Long minSeq = outboxRepository.findMinSeq();
+        if (minSeq != null && since < minSeq - 1) {
+            throw new ChangesExpiredException("Los cambios posteriores a " + since
+                    + " ya no están disponibles; el más antiguo conservado es " + minSeq);
+        }
+    }
+    
+    private final class Espera {
+        
+        private final long since;
+        private final int limit;
+        private final DeferredResult<ChangeFeedDTO> result;
+        
+        private Espera(long since, int limit, DeferredResult<ChangeFeedDTO> result) {
+            this.since = since;
+            this.limit = limit;
+            this.result = result;
+        }
+        
+        private void complete() {
+            if (!esperas.remove(this)) {
+                return;
+            }
+            try {
+                result.setResult(findSince(since, limit));
+            } catch (RuntimeException e) {
+                log.warn("No se pudo responder una consulta de cambios en espera: {}", e.getMessage());
+                result.setErrorResult(e);
+            }
+        }
+    }
+    
+}
@@ -0,0 +1,233 @@
+package com.example.clientesapi.service;
+
+import com.example.clientesapi.cache.TipoClienteCache;
+import com.example.clientesapi.dto.BulkItemResultDTO;
+import com.example.clientesapi.dto.BulkItemResultDTO.Estado;
+import com.example.clientesapi.dto.BulkResultDTO;
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.entity.Rut;
+import com.example.clientesapi.event.ChangeType;
+import com.example.clientesapi.event.ClienteChangeEvent;
+import com.example.clientesapi.exception.BusinessLogicException;
+import com.example.clientesapi.repository.ClienteBulkRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Carga masiva de clientes por lotes.
+ * <p>
+ * La entrada se consume de forma incremental en lotes de {@code clientes.bulk.chunk-size} filas.
+ * Cada lote se valida con dos consultas {@code IN (...)} (RUT y email), se escribe con INSERT/UPDATE
+ * agrupados y se confirma en su propia transacción.
+ */
+@Service
+@Timed(value = "clientes.service", histogram = true)
+@RequiredArgsConstructor
+@Slf4j
+public class ClienteBulkService {
+    
+    private final ClienteBulkRepository clienteBulkRepository;
+    private final TipoClienteCache tipoClienteCache;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Value("${clientes.bulk.chunk-size:1000}")
+    private int chunkSize;
+    
+    public int getChunkSize() {
+        return chunkSize;
+    }
+    
+    /**
+     * Procesa todos los clientes del iterador. Con {@code upsert} los RUT existentes se actualizan
+     * en lugar de reportarse como duplicados.
+     */
+    public BulkResultDTO process(Iterator<ClienteDTO> clientes, boolean upsert) {
+        return process(clientes, upsert, chunkSize, false);
+    }
+    
+    /**
+     * Procesa todos los clientes del iterador en lotes de {@code chunkSize} filas, cada uno confirmado en
+     * su propia transacción. Con {@code soloErrores} el resultado cuenta todas las filas pero solo detalla
+     * las rechazadas, para que cargas de millones de filas no acumulen un resultado por fila.
+     */
+    public BulkResultDTO process(Iterator<ClienteDTO> clientes, boolean upsert, int chunkSize, boolean soloErrores) {
+        BulkResultDTO resultado = new BulkResultDTO();
+        Consumer<BulkItemResultDTO> registrar =
+                item -> resultado.add(item, !soloErrores || item.getEstado() == Estado.ERROR);
+        List<ClienteDTO> chunk = new ArrayList<>(chunkSize);
+        int baseIndex = 0;
+        
+        while (clientes.hasNext()) {
+            chunk.add(clientes.next());
+            if (chunk.size() == chunkSize) {
+                processChunk(chunk, baseIndex, upsert).forEach(registrar);
+                baseIndex += chunk.size();
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, baseIndex, upsert).forEach(registrar);
+        }
+        
+        log.info("Carga masiva finalizada: {} filas, {} creadas, {} actualizadas, {} con error",
+                resultado.getTotal(), resultado.getCreados(), resultado.getActualizados(), resultado.getFallidos());
+        return resultado;
+    }
+    
+    private List<BulkItemResultDTO> processChunk(List<ClienteDTO> chunk, int baseIndex, boolean upsert) {
+        try {
+            return transactionTemplate.execute(status -> writeChunk(chunk, baseIndex, upsert));
+        } catch (DataIntegrityViolationException e) {
+            // Otro escritor confirmó un RUT o email del lote entre la verificación y la escritura.
+            // Se reintenta fila por fila para aislar las filas en conflicto.
+            if (chunk.size() == 1) {
+                ClienteDTO cliente = chunk.get(0);
+                RuntimeException translated = ClienteConstraints.translate(e, cliente, false);
+                String mensaje = translated != e ? translated.getMessage()
+                        : "Conflicto de integridad al guardar el cliente con RUT: " + cliente.getRut();
+                return List.of(error(baseIndex, cliente, mensaje));
+            }
+            log.warn("Conflicto de unicidad en lote de {} filas desde la fila {}, reintentando fila por fila",
+                    chunk.size(), baseIndex);
+            List<BulkItemResultDTO> resultados = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                resultados.addAll(processChunk(List.of(chunk.get(i)), baseIndex + i, upsert));
+            }
+            return resultados;
+        }
+    }
+    
+    private List<BulkItemResultDTO> writeChunk(List<ClienteDTO> chunk, int baseIndex, boolean upsert) {
+        BulkItemResultDTO[] resultados = new BulkItemResultDTO[chunk.size()];
+        Set<String> ruts = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        
+        // Validaciones locales: Bean Validation y duplicados dentro del mismo lote
+        for (int i = 0; i < chunk.size(); i++) {
+            ClienteDTO cliente = chunk.get(i);
+            String mensaje = validate(cliente);
+            if (mensaje == null && ruts.contains(cliente.getRut())) {
+                mensaje = "RUT repetido en la carga: " + cliente.getRut();
+            }
+            if (mensaje == null && emails.contains(ClienteBulkRepository.emailKey(cliente.getEmail()))) {
+                mensaje = "Email repetido en la carga: " + cliente.getEmail();
+            }
+            if (mensaje != null) {
+                resultados[i] = error(baseIndex + i, cliente, mensaje);
+                continue;
+            }
+            ruts.add(cliente.getRut());
+            emails.add(ClienteBulkRepository.emailKey(cliente.getEmail()));
+        }
+        
+        // Validaciones contra la base de datos: una consulta por conjunto, no por fila.
+        // El tipo de cliente se valida contra el catálogo en memoria.
+        Map<String, ClienteDTO> existentesPorRut = clienteBulkRepository.findByRuts(ruts);
+        Map<String, String> rutsPorEmail = clienteBulkRepository.findRutsByEmail(emails);
+        
+        List<ClienteDTO> inserts = new ArrayList<>();
+        List<Integer> insertIndexes = new ArrayList<>();
+        List<ClienteDTO> updates = new ArrayList<>();
+        List<ClienteDTO> updatesBefore = new ArrayList<>();
+        List<Integer> updateIndexes = new ArrayList<>();
+        
+        for (int i = 0; i < chunk.size(); i++) {
+            if (resultados[i] != null) {
+                continue;
+            }
+            ClienteDTO cliente = chunk.get(i);
+            ClienteDTO existing = existentesPorRut.get(cliente.getRut());
+            String emailOwner = rutsPorEmail.get(ClienteBulkRepository.emailKey(cliente.getEmail()));
+            
+            if (!tipoClienteCache.contains(cliente.getCodTipoCliente())) {
+                resultados[i] = error(baseIndex + i, cliente, "No existe el tipo de cliente: " + cliente.getCodTipoCliente());
+            } else if (existing != null && !upsert) {
+                resultados[i] = error(baseIndex + i, cliente, "Ya existe un cliente con RUT: " + cliente.getRut());
+            } else if (emailOwner != null && !emailOwner.equals(cliente.getRut())) {
+                resultados[i] = error(baseIndex + i, cliente, "Ya existe un cliente con email: " + cliente.getEmail());
+            } else if (existing != null) {
+                cliente.setId(existing.getId());
+                cliente.setVersion(existing.getVersion());
+                updates.add(cliente);
+                updatesBefore.add(existing);
+                updateIndexes.add(i);
+            } else {
+                cliente.setId(null);
+                cliente.setVersion(null);
+                inserts.add(cliente);
+                insertIndexes.add(i);
+            }
+        }
+        
+        List<Long> generatedIds = clienteBulkRepository.insertBatch(inserts);
+        for (int j = 0; j < inserts.size(); j++) {
+            ClienteDTO cliente = inserts.get(j);
+            cliente.setId(generatedIds.get(j));
+            int i = insertIndexes.get(j);
+            resultados[i] = new BulkItemResultDTO(baseIndex + i, Estado.CREADO, cliente.getId(), cliente.getRut(), null);
+            eventPublisher.publishEvent(new ClienteChangeEvent(ChangeType.CREATED, null, cliente));
+        }
+        
+        // La actualización es condicional a la versión leída: si otro escritor modificó o eliminó el cliente
+        // desde la consulta por RUT, la fila se rechaza en lugar de sobrescribir su cambio
+        List<Boolean> actualizados = clienteBulkRepository.updateBatch(updates);
+        for (int j = 0; j < updates.size(); j++) {
+            ClienteDTO cliente = updates.get(j);
+            int i = updateIndexes.get(j);
+            if (!actualizados.get(j)) {
+                resultados[i] = error(baseIndex + i, cliente,
+                        "El cliente con RUT " + cliente.getRut() + " fue modificado por otra operación durante la carga");
+                continue;
+            }
+            resultados[i] = new BulkItemResultDTO(baseIndex + i, Estado.ACTUALIZADO, cliente.getId(), cliente.getRut(), null);
+            eventPublisher.publishEvent(new ClienteChangeEvent(ChangeType.UPDATED, updatesBefore.get(j), cliente));
+        }
+        
+        return Arrays.asList(resultados);
+    }
+    
+    private String validate(ClienteDTO cliente) {
+        if (cliente == null) {
+            return "La fila está vacía";
+        }
+        Set<ConstraintViolation<ClienteDTO>> violations = validator.validate(cliente);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        // Desde aquí la fila lleva el RUT en forma canónica: así se detectan repetidos en distinto formato
+        try {
+            cliente.setRut(Rut.validate(cliente.getRut()));
+        } catch (BusinessLogicException e) {
+            return e.getMessage();
+        }
+        return null;
+    }
+    
+    private static BulkItemResultDTO error(int indice, ClienteDTO cliente, String mensaje) {
+        return new BulkItemResultDTO(indice, Estado.ERROR, null, cliente != null ? cliente.getRut() : null, mensaje);
+    }
+    
+}
@@ -0,0 +1,63 @@
+package com.example.clientesapi.service;
+
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.exception.BusinessLogicException;
+import com.example.clientesapi.exception.DuplicateResourceException;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+/**
+ * Traduce las violaciones de restricciones de la tabla {@code cliente} a excepciones de negocio.
+ * <p>
+ * Las escrituras de clientes no verifican la unicidad de RUT y email con consultas previas: se apoyan
+ * en las restricciones {@code uk_cliente_rut_numero} y {@code uk_cliente_email} y traducen la violación aquí.
+ */
+final class ClienteConstraints {
+    
+    static final String UK_RUT = "uk_cliente_rut_numero";
+    static final String UK_EMAIL = "uk_cliente_email";
+    static final String FK_TIPO_CLIENTE = "fk_cliente_tipo_cliente";
+    
+    private ClienteConstraints() {
+    }
+    
+    /**
+     * @param otro {@code true} si la escritura es una actualización (el conflicto es con otro cliente)
+     */
+    static RuntimeException translate(DataIntegrityViolationException ex, ClienteDTO dto, boolean otro) {
+        String constraint = constraintName(ex);
+        String message = ex.getMostSpecificCause().getMessage();
+        String prefijo = otro ? "Ya existe otro cliente con " : "Ya existe un cliente con ";
+        
+        if (constraint.contains(UK_RUT) || mentions(message, dto.getRut())) {
+            return new DuplicateResourceException(prefijo + "RUT: " + dto.getRut(), ex);
+        }
+        if (constraint.contains(UK_EMAIL) || mentions(message, dto.getEmail())) {
+            return new DuplicateResourceException(prefijo + "email: " + dto.getEmail(), ex);
+        }
+        if (constraint.contains(FK_TIPO_CLIENTE)) {
+            return new BusinessLogicException("No existe el tipo de cliente: " + dto.getCodTipoCliente(), ex);
+        }
+        return ex;
+    }
+    
+    private static String constraintName(DataIntegrityViolationException ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName().toLowerCase(Locale.ROOT);
+            }
+        }
+        // Violaciones desde JDBC, sin la excepción de Hibernate: MySQL y H2 nombran el índice en el mensaje
+        String message = ex.getMostSpecificCause().getMessage();
+        return message != null ? message.toLowerCase(Locale.ROOT) : "";
+    }
+    
+    // MySQL informa el valor duplicado: "Duplicate entry '<valor>' for key '...'"
+    private static boolean mentions(String message, String value) {
+        return message != null && value != null
+                && message.toLowerCase(Locale.ROOT).contains("'" + value.toLowerCase(Locale.ROOT) + "'");
+    }
+    
+}
@@ -0,0 +1,221 @@
+package com.example.clientesapi.service;
+
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.exception.BusinessLogicException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Formato CSV de clientes (RFC 4180): una cabecera con los nombres de los campos de {@code ClienteDTO}
+ * y una fila por cliente. Los campos con coma, comillas o saltos de línea van entre comillas.
+ */
+final class ClienteCsv {
+    
+    static final String[] COLUMNAS = {"id", "rut", "nombre", "apellido", "edad", "email", "codTipoCliente"};
+    
+    private ClienteCsv() {
+    }
+    
+    static void writeHeader(Writer out) throws IOException {
+        out.write(String.join(",", COLUMNAS));
+        out.write('\n');
+    }
+    
+    static void writeRow(Writer out, ClienteDTO cliente) throws IOException {
+        if (cliente.getId() != null) {
+            out.write(Long.toString(cliente.getId()));
+        }
+        out.write(',');
+        writeField(out, cliente.getRut());
+        out.write(',');
+        writeField(out, cliente.getNombre());
+        out.write(',');
+        writeField(out, cliente.getApellido());
+        out.write(',');
+        if (cliente.getEdad() != null) {
+            out.write(Integer.toString(cliente.getEdad()));
+        }
+        out.write(',');
+        writeField(out, cliente.getEmail());
+        out.write(',');
+        writeField(out, cliente.getCodTipoCliente());
+        out.write('\n');
+    }
+    
+    private static void writeField(Writer out, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (!needsQuotes(value)) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.write('"');
+            }
+            out.write(c);
+        }
+        out.write('"');
+    }
+    
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Lee los clientes de forma incremental: solo se mantiene en memoria la fila en curso. La columna
+     * {@code id} se ignora; las columnas se ubican por nombre según la cabecera.
+     */
+    static Iterator<ClienteDTO> reader(Reader in) {
+        return new CsvIterator(in);
+    }
+    
+    private static final class CsvIterator implements Iterator<ClienteDTO> {
+        
+        private final Reader in;
+        private final List<String> campos = new ArrayList<>(COLUMNAS.length);
+        private final StringBuilder campo = new StringBuilder(64);
+        private final int[] indices = new int[COLUMNAS.length];
+        private int columnas;
+        private long linea;
+        private boolean fin;
+        private ClienteDTO siguiente;
+        
+        private CsvIterator(Reader in) {
+            this.in = in;
+            if (!readRecord()) {
+                throw new BusinessLogicException("El CSV está vacío: falta la cabecera");
+            }
+            // Excel agrega un BOM al inicio de los CSV en UTF-8
+            if (campos.get(0).startsWith("\uFEFF")) {
+                campos.set(0, campos.get(0).substring(1));
+            }
+            columnas = campos.size();
+            for (int i = 0; i < COLUMNAS.length; i++) {
+                indices[i] = campos.indexOf(COLUMNAS[i]);
+                if (indices[i] < 0 && i > 0) {
+                    throw new BusinessLogicException("El CSV no tiene la columna: " + COLUMNAS[i]);
+                }
+            }
+        }
+        
+        @Override
+        public boolean hasNext() {
+            if (siguiente == null && !fin) {
+                siguiente = nextCliente();
+            }
+            return siguiente != null;
+        }
+        
+        @Override
+        public ClienteDTO next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ClienteDTO cliente = siguiente;
+            siguiente = null;
+            return cliente;
+        }
+        
+        private ClienteDTO nextCliente() {
+            // Las líneas en blanco se ignoran
+            do {
+                if (!readRecord()) {
+                    fin = true;
+                    return null;
+                }
+            } while (campos.size() == 1 && campos.get(0).isEmpty());
+            
+            if (campos.size() != columnas) {
+                throw new BusinessLogicException("La línea " + linea + " del CSV tiene " + campos.size()
+                        + " columnas y la cabecera " + columnas);
+            }
+            ClienteDTO cliente = new ClienteDTO();
+            cliente.setRut(valor(1));
+            cliente.setNombre(valor(2));
+            cliente.setApellido(valor(3));
+            String edad = valor(4);
+            if (edad != null && !edad.isBlank()) {
+                try {
+                    cliente.setEdad(Integer.valueOf(edad.trim()));
+                } catch (NumberFormatException e) {
+                    throw new BusinessLogicException("La línea " + linea + " del CSV tiene una edad no numérica: " + edad);
+                }
+            }
+            cliente.setEmail(valor(5));
+            cliente.setCodTipoCliente(valor(6));
+            return cliente;
+        }
+        
+        private String valor(int columna) {
+            return campos.get(indices[columna]);
+        }
+        
+        /**
+         * Lee un registro completo (que puede ocupar varias líneas si tiene campos entre comillas).
+         * Retorna {@code false} al llegar al final de la entrada.
+         */
+        private boolean readRecord() {
+            campos.clear();
+            campo.setLength(0);
+            try {
+                int c = in.read();
+                if (c < 0) {
+                    return false;
+                }
+                linea++;
+                boolean entreComillas = false;
+                while (true) {
+                    if (entreComillas) {
+                        if (c < 0) {
+                            throw new BusinessLogicException("La línea " + linea + " del CSV tiene comillas sin cerrar");
+                        }
+                        if (c == '"') {
+                            int n = in.read();
+                            if (n == '"') {
+                                campo.append('"');
+                            } else {
+                                entreComillas = false;
+                                c = n;
+                                continue;
+                            }
+                        } else {
+                            campo.append((char) c);
+                        }
+                    } else if (c == '"' && campo.length() == 0) {
+                        entreComillas = true;
+                    } else if (c == ',') {
+                        campos.add(campo.toString());
+                        campo.setLength(0);
+                    } else if (c == '\n' || c < 0) {
+                        break;
+                    } else if (c != '\r') {
+                        campo.append((char) c);
+                    }
+                    c = in.read();
+                }
+                campos.add(campo.toString());
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+    
+}
@@ -0,0 +1,174 @@
+package com.example.clientesapi.service;
+
+import com.example.clientesapi.dto.BulkResultDTO;
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.exception.BusinessLogicException;
+import com.example.clientesapi.json.ClienteDTOSerializer;
+import com.example.clientesapi.repository.ClienteBulkRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Exportación e importación de la tabla cliente completa en CSV o NDJSON.
+ * <p>
+ * La exportación lee con un cursor JDBC forward-only y escribe cada fila directamente en un buffer
+ * de tamaño fijo (opcionalmente comprimido con gzip), sin armar listas ni entidades: la memoria usada
+ * no depende de la cantidad de filas. La importación lee la entrada fila a fila y la entrega a
+ * {@link ClienteBulkService}, que escribe y confirma por lotes.
+ */
+@Service
+@Timed(value = "clientes.service", histogram = true)
+@RequiredArgsConstructor
+@Slf4j
+public class ClienteExportService {
+    
+    public static final int MAX_CHUNK_SIZE = 10000;
+    
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    public enum Formato {
+        CSV, NDJSON;
+        
+        public static Formato from(String formato) {
+            try {
+                return valueOf(formato.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BusinessLogicException("Formato no soportado: " + formato + " (use csv o ndjson)");
+            }
+        }
+    }
+    
+    private final ClienteBulkRepository clienteBulkRepository;
+    private final ClienteBulkService clienteBulkService;
+    private final ObjectMapper objectMapper;
+    
+    @Value("${clientes.export.fetch-size:" + Integer.MIN_VALUE + "}")
+    private int fetchSize;
+    
+    /**
+     * Escribe todos los clientes en {@code out} y retorna la cantidad exportada. El stream de salida no se cierra.
+     */
+    public long export(Formato formato, boolean gzip, OutputStream out) throws IOException {
+        OutputStream target = StreamUtils.nonClosing(out);
+        if (gzip) {
+            // Nivel de compresión rápido: con volúmenes grandes el costo de CPU del nivel por defecto
+            // limita el throughput más que el tamaño de la salida
+            target = new GZIPOutputStream(target, BUFFER_SIZE) {
+                {
+                    def.setLevel(Deflater.BEST_SPEED);
+                }
+            };
+        }
+        long filas;
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            filas = formato == Formato.CSV ? exportCsv(writer) : exportNdjson(writer);
+        }
+        log.info("Exportación {} finalizada: {} clientes", formato, filas);
+        return filas;
+    }
+    
+    private long exportCsv(Writer writer) throws IOException {
+        ClienteCsv.writeHeader(writer);
+        return clienteBulkRepository.forEach(fetchSize, cliente -> {
+            try {
+                ClienteCsv.writeRow(writer, cliente);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+    
+    private long exportNdjson(Writer writer) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)) {
+            // Sin separador entre valores raíz: cada objeto termina con su propio salto de línea
+            generator.setPrettyPrinter(new MinimalPrettyPrinter(""));
+            return clienteBulkRepository.forEach(fetchSize, cliente -> {
+                try {
+                    writeNdjson(generator, cliente);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+    
+    private static void writeNdjson(JsonGenerator generator, ClienteDTO cliente) throws IOException {
+        ClienteDTOSerializer.write(generator, cliente);
+        generator.writeRaw('\n');
+    }
+    
+    /**
+     * Importa los clientes de {@code in} por lotes de {@code chunkSize} filas, cada uno en su propia transacción.
+     * Un error de formato detiene la importación; los lotes anteriores ya quedaron confirmados.
+     */
+    public BulkResultDTO importClientes(Formato formato, boolean gzip, InputStream in,
+                                       boolean upsert, int chunkSize, boolean soloErrores) throws IOException {
+        if (chunkSize < 1 || chunkSize > MAX_CHUNK_SIZE) {
+            throw new BusinessLogicException("El tamaño de lote debe estar entre 1 y " + MAX_CHUNK_SIZE);
+        }
+        BulkResultDTO resultado;
+        try (InputStream source = open(in, gzip)) {
+            if (formato == Formato.CSV) {
+                BufferedReader reader = new BufferedReader(new InputStreamReader(source, StandardCharsets.UTF_8), BUFFER_SIZE);
+                resultado = clienteBulkService.process(ClienteCsv.reader(reader), upsert, chunkSize, soloErrores);
+            } else {
+                resultado = importNdjson(source, upsert, chunkSize, soloErrores);
+            }
+        }
+        log.info("Importación {} finalizada: {} filas, {} creadas, {} actualizadas, {} con error",
+                formato, resultado.getTotal(), resultado.getCreados(), resultado.getActualizados(), resultado.getFallidos());
+        return resultado;
+    }
+    
+    private BulkResultDTO importNdjson(InputStream source, boolean upsert, int chunkSize, boolean soloErrores) throws IOException {
+        try (MappingIterator<ClienteDTO> clientes = objectMapper.readerFor(ClienteDTO.class).readValues(source)) {
+            return clienteBulkService.process(clientes, upsert, chunkSize, soloErrores);
+        } catch (RuntimeException e) {
+            // MappingIterator envuelve los errores de parseo en excepciones no chequeadas
+            if (e.getCause() instanceof JsonProcessingException) {
+                throw new BusinessLogicException("El contenido de la importación no es NDJSON válido: "
+                        + e.getCause().getMessage(), e);
+            }
+            throw e;
+        }
+    }
+    
+    // El stream de la petición lo cierra el contenedor; aquí solo se libera el descompresor
+    private static InputStream open(InputStream in, boolean gzip) throws IOException {
+        if (!gzip) {
+            return StreamUtils.nonClosing(in);
+        }
+        try {
+            return new GZIPInputStream(StreamUtils.nonClosing(in), BUFFER_SIZE);
+        } catch (ZipException | EOFException e) {
+            throw new BusinessLogicException("El contenido no está comprimido con gzip: " + e.getMessage(), e);
+        }
+    }
+    
+}
@@ -0,0 +1,59 @@
+package com.example.clientesapi.service;
+
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.exception.BusinessLogicException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Cursor opaco de la búsqueda de clientes: guarda las claves de orden (ID, nombre, apellido, edad) del
+ * último cliente de una página. Cada valor va en Base64 URL-safe, separados por '.'; un valor vacío es NULL.
+ */
+final class ClienteSearchCursor {
+    
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    
+    private ClienteSearchCursor() {
+    }
+    
+    static String encode(ClienteDTO last) {
+        return String.join(".",
+                encodeValue(String.valueOf(last.getId())),
+                encodeValue(last.getNombre()),
+                encodeValue(last.getApellido()),
+                encodeValue(last.getEdad() != null ? String.valueOf(last.getEdad()) : null));
+    }
+    
+    static ClienteDTO decode(String cursor) {
+        String[] parts = cursor.split("\\.", -1);
+        if (parts.length != 4) {
+            throw invalid(cursor, null);
+        }
+        try {
+            ClienteDTO after = new ClienteDTO();
+            after.setId(Long.valueOf(decodeValue(parts[0])));
+            after.setNombre(decodeValue(parts[1]));
+            after.setApellido(decodeValue(parts[2]));
+            String edad = decodeValue(parts[3]);
+            after.setEdad(edad != null ? Integer.valueOf(edad) : null);
+            return after;
+        } catch (IllegalArgumentException e) {
+            throw invalid(cursor, e);
+        }
+    }
+    
+    private static String encodeValue(String value) {
+        return value != null ? ENCODER.encodeToString(value.getBytes(StandardCharsets.UTF_8)) : "";
+    }
+    
+    private static String decodeValue(String value) {
+        return value.isEmpty() ? null : new String(DECODER.decode(value), StandardCharsets.UTF_8);
+    }
+    
+    private static BusinessLogicException invalid(String cursor, Throwable cause) {
+        return new BusinessLogicException("El cursor no es válido: " + cursor, cause);
+    }
+    
+}
@@ -1,120 +1,458 @@
 package com.example.clientesapi.service;
 
+import com.example.clientesapi.cache.ClienteCache;
+import com.example.clientesapi.cache.ClienteStatsCache;
+import com.example.clientesapi.cache.TipoClienteCache;
 import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.dto.ClienteDetalleDTO;
+import com.example.clientesapi.dto.ClienteFindResultDTO;
+import com.example.clientesapi.dto.ClienteMgetResultDTO;
+import com.example.clientesapi.dto.ClienteSearchCriteria;
+import com.example.clientesapi.dto.ClienteSearchResultDTO;
+import com.example.clientesapi.dto.ClienteStatsDTO;
+import com.example.clientesapi.dto.OperacionEscrituraDTO;
+import com.example.clientesapi.dto.TipoClienteDTO;
 import com.example.clientesapi.entity.Cliente;
+import com.example.clientesapi.entity.Rut;
+import com.example.clientesapi.event.ChangeType;
+import com.example.clientesapi.event.ClienteChangeEvent;
+import com.example.clientesapi.exception.BusinessLogicException;
+import com.example.clientesapi.exception.PreconditionFailedException;
 import com.example.clientesapi.exception.ResourceNotFoundException;
-import com.example.clientesapi.exception.DuplicateResourceException;
+import com.example.clientesapi.index.ClienteNameIndex;
+import com.example.clientesapi.mapper.ClienteMapper;
 import com.example.clientesapi.repository.ClienteRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "clientes.service", histogram = true)
 @Transactional
 public class ClienteService {
     
+    public static final int MAX_MGET_KEYS = 1000;
+    
+    // Valores por consulta IN: acota el tamaño de la sentencia y la cantidad de planes distintos
+    private static final int MGET_CHUNK_SIZE = 500;
+    
     @Autowired
     private ClienteRepository clienteRepository;
     
+    @Autowired
+    private ClienteMapper clienteMapper;
+    
+    @Autowired
+    private ClienteCache clienteCache;
+    
+    @Autowired
+    private TipoClienteCache tipoClienteCache;
+    
+    @Autowired
+    private ClienteStatsCache clienteStatsCache;
+    
+    @Autowired
+    private ClienteNameIndex clienteNameIndex;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    // Presente solo con clientes.write-pipeline.enabled=true
+    @Autowired(required = false)
+    private ClienteWritePipeline writePipeline;
+    
+    // Ausente con el almacenamiento en memoria (perfil memory), cuyas entidades ya son copias desacopladas
+    @Autowired(required = false)
+    private EntityManager entityManager;
+    
+    // Filas por ida a la base de datos de GET /stream, como en la exportación
+    @Value("${clientes.export.fetch-size:" + Integer.MIN_VALUE + "}")
+    private int fetchSize;
+    
     @Transactional(readOnly = true)
     public List<ClienteDTO> findAll() {
         return clienteRepository.findAll()
                 .stream()
-                .map(this::toDTO)
+                .map(clienteMapper::toDTO)
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Retorna hasta {@code limit} clientes con ID mayor a {@code after}, ordenados por ID.
+     * El último ID de la página sirve como cursor para la siguiente.
+     */
     @Transactional(readOnly = true)
+    public List<ClienteDTO> findPage(Long after, int limit) {
+        return clienteRepository.findByIdGreaterThanOrderByIdAsc(after != null ? after : 0L, PageRequest.of(0, limit))
+                .stream()
+                .map(clienteMapper::toDTO)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Recorre todos los clientes en orden de ID entregándolos uno a uno al consumidor.
+     * Cada entidad se desacopla del contexto de persistencia apenas se convierte, de modo
+     * que la memoria usada no crece con el tamaño de la tabla.
+     */
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<ClienteDTO> consumer) {
+        try (Stream<Cliente> clientes = clienteRepository.streamAllByOrderByIdAsc(fetchSize)) {
+            clientes.forEach(cliente -> {
+                ClienteDTO dto = clienteMapper.toDTO(cliente);
+                if (entityManager != null) {
+                    entityManager.detach(cliente);
+                }
+                consumer.accept(dto);
+            });
+        }
+    }
+    
+    /**
+     * Busca clientes por filtros, retornando hasta {@code limit} resultados a continuación del cursor
+     * (o desde el inicio si es {@code null}) y el cursor de la página siguiente si hay más resultados.
+     */
+    @Transactional(readOnly = true)
+    public ClienteSearchResultDTO search(ClienteSearchCriteria criteria, String cursor, int limit) {
+        if (criteria.getEdadMin() != null && criteria.getEdadMax() != null
+                && criteria.getEdadMin() > criteria.getEdadMax()) {
+            throw new BusinessLogicException("La edad mínima no puede ser mayor que la edad máxima");
+        }
+        
+        ClienteDTO after = cursor != null && !cursor.isBlank() ? ClienteSearchCursor.decode(cursor) : null;
+        
+        // Se pide una fila extra para saber si existe una página siguiente sin otra consulta
+        List<ClienteDTO> clientes = clienteRepository.search(criteria, after, limit + 1);
+        String nextCursor = null;
+        if (clientes.size() > limit) {
+            clientes = clientes.subList(0, limit);
+            nextCursor = ClienteSearchCursor.encode(clientes.get(limit - 1));
+        }
+        return new ClienteSearchResultDTO(clientes, nextCursor);
+    }
+    
+    /**
+     * Búsqueda aproximada por nombre, apellido y email en el índice en memoria ({@link ClienteNameIndex}):
+     * hasta {@code limit} clientes ordenados por puntaje. Solo se leen los clientes del resultado, desde la
+     * caché o con una consulta {@code IN}; los que ya no existen se omiten.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public List<ClienteFindResultDTO> find(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new BusinessLogicException("El parámetro q es obligatorio");
+        }
+        List<ClienteNameIndex.Coincidencia> coincidencias = clienteNameIndex.find(query, limit);
+        if (coincidencias.isEmpty()) {
+            return List.of();
+        }
+        
+        List<Long> ids = new ArrayList<>(coincidencias.size());
+        coincidencias.forEach(coincidencia -> ids.add(coincidencia.id()));
+        Map<Long, ClienteDTO> porId = new HashMap<>();
+        findAllByIdsAndRuts(ids, null).getClientes().forEach(cliente -> porId.put(cliente.getId(), cliente));
+        
+        List<ClienteFindResultDTO> resultado = new ArrayList<>(coincidencias.size());
+        for (ClienteNameIndex.Coincidencia coincidencia : coincidencias) {
+            ClienteDTO cliente = porId.get(coincidencia.id());
+            if (cliente != null) {
+                resultado.add(new ClienteFindResultDTO(cliente, coincidencia.puntaje()));
+            }
+        }
+        return resultado;
+    }
+    
+    // Estadísticas materializadas en memoria: no consultan la base de datos
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public ClienteStatsDTO getStats() {
+        return clienteStatsCache.getStats();
+    }
+    
+    // Las búsquedas puntuales se resuelven primero en la caché: en un acierto no se abre transacción
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public ClienteDTO findById(Long id) {
-        Cliente cliente = clienteRepository.findById(id)
+        ClienteDTO cached = clienteCache.getById(id);
+        if (cached != null) {
+            return cached;
+        }
+        
+        // Las lecturas concurrentes del mismo ID esperan una sola consulta
+        return clienteCache.loadById(id, () -> {
+            // Una carga que terminó justo antes pudo haberlo dejado en la caché
+            ClienteDTO recien = clienteCache.getById(id);
+            if (recien != null) {
+                return recien;
+            }
+            Cliente cliente = clienteRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Cliente no encontrado con ID: " + id));
+            ClienteDTO dto = clienteMapper.toDTO(cliente);
+            clienteCache.put(dto);
+            return dto;
+        });
+    }
+    
+    /**
+     * Cliente con la descripción de su tipo. Con el cliente en caché se arma desde las cachés sin
+     * consultar la base de datos; si no, se obtiene con una única consulta con JOIN al tipo.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public ClienteDetalleDTO findDetalleById(Long id) {
+        ClienteDTO cached = clienteCache.getById(id);
+        if (cached != null) {
+            TipoClienteDTO tipo = tipoClienteCache.get(cached.getCodTipoCliente());
+            if (tipo != null) {
+                return clienteMapper.toDetalleDTO(cached, tipo.getDescripcion());
+            }
+        }
+        
+        return clienteRepository.findDetalleById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Cliente no encontrado con ID: " + id));
-        return toDTO(cliente);
     }
     
-    @Transactional(readOnly = true)
+    /**
+     * Busca el cliente por RUT en cualquiera de sus formatos ("12.345.678-5", "12345678-5", "123456785"):
+     * la caché y la consulta usan la forma canónica.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public ClienteDTO findByRut(String rut) {
-        Cliente cliente = clienteRepository.findByRut(rut)
-                .orElseThrow(() -> new ResourceNotFoundException("Cliente no encontrado con RUT: " + rut));
-        return toDTO(cliente);
+        String canonico = Rut.normalize(rut);
+        if (canonico == null) {
+            throw new BusinessLogicException("El RUT no tiene un formato válido: " + rut);
+        }
+        ClienteDTO cached = clienteCache.getByRut(canonico);
+        if (cached != null) {
+            return cached;
+        }
+        if (clienteCache.isMissingRut(canonico)) {
+            throw new ResourceNotFoundException("Cliente no encontrado con RUT: " + rut);
+        }
+        
+        // Las lecturas concurrentes del mismo RUT esperan una sola consulta
+        return clienteCache.loadByRut(canonico, () -> {
+            ClienteDTO recien = clienteCache.getByRut(canonico);
+            if (recien != null) {
+                return recien;
+            }
+            if (clienteCache.isMissingRut(canonico)) {
+                throw new ResourceNotFoundException("Cliente no encontrado con RUT: " + rut);
+            }
+            Cliente cliente = clienteRepository.findByRut(canonico).orElse(null);
+            if (cliente == null) {
+                clienteCache.putMissingRut(canonico);
+                throw new ResourceNotFoundException("Cliente no encontrado con RUT: " + rut);
+            }
+            ClienteDTO dto = clienteMapper.toDTO(cliente);
+            clienteCache.put(dto);
+            return dto;
+        });
     }
     
-    public ClienteDTO create(ClienteDTO clienteDTO) {
-        // Validar que el RUT no exista
-        if (clienteRepository.existsByRut(clienteDTO.getRut())) {
-            throw new DuplicateResourceException("Ya existe un cliente con RUT: " + clienteDTO.getRut());
+    /**
+     * Obtiene varios clientes por ID y por RUT en una sola llamada. Las claves se buscan primero en la
+     * caché y las restantes con consultas {@code IN} de a {@value #MGET_CHUNK_SIZE} valores. Las claves
+     * inexistentes se informan en el resultado en lugar de lanzar una excepción. Los RUT se buscan por su
+     * forma canónica: un RUT pedido en dos formatos retorna el cliente una vez, y uno sin formato válido se
+     * informa como no encontrado.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public ClienteMgetResultDTO findAllByIdsAndRuts(List<Long> ids, List<String> ruts) {
+        Set<Long> idsUnicos = new LinkedHashSet<>(ids != null ? ids : List.of());
+        Set<String> rutsUnicos = new LinkedHashSet<>(ruts != null ? ruts : List.of());
+        if (idsUnicos.size() + rutsUnicos.size() > MAX_MGET_KEYS) {
+            throw new BusinessLogicException("No se pueden pedir más de " + MAX_MGET_KEYS + " clientes por consulta");
+        }
+        
+        Map<Long, ClienteDTO> porId = new HashMap<>();
+        List<Long> idsPendientes = new ArrayList<>();
+        for (Long id : idsUnicos) {
+            ClienteDTO cached = clienteCache.getById(id);
+            if (cached != null) {
+                porId.put(id, cached);
+            } else {
+                idsPendientes.add(id);
+            }
+        }
+        for (int i = 0; i < idsPendientes.size(); i += MGET_CHUNK_SIZE) {
+            List<Long> chunk = idsPendientes.subList(i, Math.min(i + MGET_CHUNK_SIZE, idsPendientes.size()));
+            for (Cliente cliente : clienteRepository.findAllById(chunk)) {
+                ClienteDTO dto = clienteMapper.toDTO(cliente);
+                clienteCache.put(dto);
+                porId.put(dto.getId(), dto);
+            }
+        }
+        
+        Map<String, String> canonicos = new HashMap<>();
+        Map<String, ClienteDTO> porRut = new HashMap<>();
+        Set<String> rutsPendientes = new LinkedHashSet<>();
+        for (String rut : rutsUnicos) {
+            String canonico = Rut.normalize(rut);
+            if (canonico == null) {
+                continue;
+            }
+            canonicos.put(rut, canonico);
+            ClienteDTO cached = clienteCache.getByRut(canonico);
+            if (cached != null) {
+                porRut.put(canonico, cached);
+            } else if (!clienteCache.isMissingRut(canonico)) {
+                rutsPendientes.add(canonico);
+            }
+        }
+        List<String> rutsPorConsultar = new ArrayList<>(rutsPendientes);
+        for (int i = 0; i < rutsPorConsultar.size(); i += MGET_CHUNK_SIZE) {
+            List<String> chunk = rutsPorConsultar.subList(i, Math.min(i + MGET_CHUNK_SIZE, rutsPorConsultar.size()));
+            for (Cliente cliente : clienteRepository.findByRutIn(chunk)) {
+                ClienteDTO dto = clienteMapper.toDTO(cliente);
+                clienteCache.put(dto);
+                porRut.put(dto.getRut(), dto);
+            }
+        }
+        for (String rut : rutsPendientes) {
+            if (!porRut.containsKey(rut)) {
+                clienteCache.putMissingRut(rut);
+            }
         }
         
-        // Validar que el email no exista
-        if (clienteRepository.existsByEmail(clienteDTO.getEmail())) {
-            throw new DuplicateResourceException("Ya existe un cliente con email: " + clienteDTO.getEmail());
+        List<ClienteDTO> clientes = new ArrayList<>(porId.size() + porRut.size());
+        List<Long> idsNoEncontrados = new ArrayList<>();
+        for (Long id : idsUnicos) {
+            ClienteDTO cliente = porId.get(id);
+            if (cliente != null) {
+                clientes.add(cliente);
+            } else {
+                idsNoEncontrados.add(id);
+            }
         }
+        List<String> rutsNoEncontrados = new ArrayList<>();
+        Set<String> rutsEntregados = new HashSet<>();
+        for (String rut : rutsUnicos) {
+            String canonico = canonicos.get(rut);
+            ClienteDTO cliente = canonico != null ? porRut.get(canonico) : null;
+            if (cliente != null) {
+                // El mismo RUT pedido en otro formato no repite el cliente
+                if (rutsEntregados.add(canonico)) {
+                    clientes.add(cliente);
+                }
+            } else {
+                rutsNoEncontrados.add(rut);
+            }
+        }
+        return new ClienteMgetResultDTO(clientes, idsNoEncontrados, rutsNoEncontrados);
+    }
+    
+    public ClienteDTO create(ClienteDTO clienteDTO) {
+        validateTipoCliente(clienteDTO);
+        clienteDTO.setRut(Rut.validate(clienteDTO.getRut()));
         
-        Cliente cliente = toEntity(clienteDTO);
-        Cliente savedCliente = clienteRepository.save(cliente);
-        return toDTO(savedCliente);
+        // La unicidad de RUT y email la garantizan las restricciones únicas de la tabla
+        Cliente cliente = clienteMapper.toEntity(clienteDTO);
+        Cliente savedCliente;
+        try {
+            savedCliente = clienteRepository.saveAndFlush(cliente);
+        } catch (DataIntegrityViolationException e) {
+            throw ClienteConstraints.translate(e, clienteDTO, false);
+        }
+        ClienteDTO created = clienteMapper.toDTO(savedCliente);
+        eventPublisher.publishEvent(new ClienteChangeEvent(ChangeType.CREATED, null, created));
+        return created;
     }
     
-    public ClienteDTO update(Long id, ClienteDTO clienteDTO) {
+    /**
+     * @param expectedVersion versión que el cliente HTTP dice modificar (If-Match), o {@code null} para no verificarla.
+     *                        Una modificación concurrente posterior a esta verificación la detecta {@code @Version}.
+     */
+    public ClienteDTO update(Long id, ClienteDTO clienteDTO, Long expectedVersion) {
         Cliente existingCliente = clienteRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Cliente no encontrado con ID: " + id));
         
-        // Validar que el RUT no exista en otro cliente
-        if (clienteRepository.existsByRutAndIdNot(clienteDTO.getRut(), id)) {
-            throw new DuplicateResourceException("Ya existe otro cliente con RUT: " + clienteDTO.getRut());
+        if (expectedVersion != null && !expectedVersion.equals(existingCliente.getVersion())) {
+            throw new PreconditionFailedException("El cliente " + id + " fue modificado: versión actual "
+                    + existingCliente.getVersion());
         }
         
-        // Validar que el email no exista en otro cliente
-        if (clienteRepository.existsByEmailAndIdNot(clienteDTO.getEmail(), id)) {
-            throw new DuplicateResourceException("Ya existe otro cliente con email: " + clienteDTO.getEmail());
-        }
+        validateTipoCliente(clienteDTO);
+        clienteDTO.setRut(Rut.validate(clienteDTO.getRut()));
         
-        updateEntityFromDTO(clienteDTO, existingCliente);
-        Cliente updatedCliente = clienteRepository.save(existingCliente);
-        return toDTO(updatedCliente);
+        ClienteDTO before = clienteMapper.toDTO(existingCliente);
+        clienteMapper.updateEntityFromDTO(clienteDTO, existingCliente);
+        Cliente updatedCliente;
+        try {
+            updatedCliente = clienteRepository.saveAndFlush(existingCliente);
+        } catch (DataIntegrityViolationException e) {
+            throw ClienteConstraints.translate(e, clienteDTO, true);
+        }
+        ClienteDTO updated = clienteMapper.toDTO(updatedCliente);
+        eventPublisher.publishEvent(new ClienteChangeEvent(ChangeType.UPDATED, before, updated));
+        return updated;
+    }
+    
+    /**
+     * Indica si las creaciones y modificaciones van por el pipeline de escrituras ({@link #submitCreate},
+     * {@link #submitUpdate}) en lugar de {@link #create} y {@link #update}.
+     */
+    public boolean isWritePipelineEnabled() {
+        return writePipeline != null;
+    }
+    
+    /**
+     * Valida el cliente y encola su creación en el pipeline de escrituras, que la confirma junto con las
+     * demás operaciones de su lote. Las validaciones que no consultan la base de datos fallan aquí mismo.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ClienteWritePipeline.Operacion submitCreate(ClienteDTO clienteDTO) {
+        validateTipoCliente(clienteDTO);
+        clienteDTO.setRut(Rut.validate(clienteDTO.getRut()));
+        return writePipeline.submitCreate(clienteDTO);
+    }
+    
+    /**
+     * Valida el cliente y encola su modificación en el pipeline de escrituras. La existencia del cliente y
+     * {@code expectedVersion} se verifican al escribir el lote.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ClienteWritePipeline.Operacion submitUpdate(Long id, ClienteDTO clienteDTO, Long expectedVersion) {
+        validateTipoCliente(clienteDTO);
+        clienteDTO.setRut(Rut.validate(clienteDTO.getRut()));
+        return writePipeline.submitUpdate(id, clienteDTO, expectedVersion);
+    }
+    
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public OperacionEscrituraDTO findOperacion(String id) {
+        return Optional.ofNullable(writePipeline)
+                .flatMap(pipeline -> pipeline.findOperacion(id))
+                .map(ClienteWritePipeline.Operacion::toDTO)
+                .orElseThrow(() -> new ResourceNotFoundException("Operación no encontrada: " + id));
     }
     
     public void delete(Long id) {
-        if (!clienteRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Cliente no encontrado con ID: " + id);
-        }
-        clienteRepository.deleteById(id);
-    }
-    
-    // Métodos de conversión privados
-    private ClienteDTO toDTO(Cliente entity) {
-        return new ClienteDTO(
-            entity.getId(),
-            entity.getRut(),
-            entity.getNombre(),
-            entity.getApellido(),
-            entity.getEdad(),
-            entity.getEmail(),
-            entity.getCodTipoCliente()
-        );
-    }
-    
-    private Cliente toEntity(ClienteDTO dto) {
-        Cliente cliente = new Cliente();
-        cliente.setId(dto.getId());
-        cliente.setRut(dto.getRut());
-        cliente.setNombre(dto.getNombre());
-        cliente.setApellido(dto.getApellido());
-        cliente.setEdad(dto.getEdad());
-        cliente.setEmail(dto.getEmail());
-        cliente.setCodTipoCliente(dto.getCodTipoCliente());
-        return cliente;
-    }
-    
-    private void updateEntityFromDTO(ClienteDTO dto, Cliente entity) {
-        entity.setRut(dto.getRut());
-        entity.setNombre(dto.getNombre());
-        entity.setApellido(dto.getApellido());
-        entity.setEdad(dto.getEdad());
-        entity.setEmail(dto.getEmail());
-        entity.setCodTipoCliente(dto.getCodTipoCliente());
+        Cliente cliente = clienteRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Cliente no encontrado con ID: " + id));
+        ClienteDTO before = clienteMapper.toDTO(cliente);
+        clienteRepository.delete(cliente);
+        eventPublisher.publishEvent(new ClienteChangeEvent(ChangeType.DELETED, before, null));
+    }
+    
+    // El catálogo de tipos está en memoria: esta validación no consulta la base de datos
+    private void validateTipoCliente(ClienteDTO dto) {
+        if (!tipoClienteCache.contains(dto.getCodTipoCliente())) {
+            throw new BusinessLogicException("No existe el tipo de cliente: " + dto.getCodTipoCliente());
+        }
     }
     
 }
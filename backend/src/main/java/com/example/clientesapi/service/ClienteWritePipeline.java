@@ -0,0 +1,500 @@
+package com.example.clientesapi.service;
+
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.dto.OperacionEscrituraDTO;
+import com.example.clientesapi.dto.OperacionEscrituraDTO.Estado;
+import com.example.clientesapi.dto.OperacionEscrituraDTO.Tipo;
+import com.example.clientesapi.entity.Cliente;
+import com.example.clientesapi.event.ChangeType;
+import com.example.clientesapi.event.ClienteChangeEvent;
+import com.example.clientesapi.exception.BusinessLogicException;
+import com.example.clientesapi.exception.DuplicateResourceException;
+import com.example.clientesapi.exception.PreconditionFailedException;
+import com.example.clientesapi.exception.ResourceNotFoundException;
+import com.example.clientesapi.exception.ServiceUnavailableException;
+import com.example.clientesapi.mapper.ClienteMapper;
+import com.example.clientesapi.repository.ClienteBulkRepository;
+import com.example.clientesapi.repository.ClienteRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pipeline de escrituras de clientes con commit agrupado ({@code clientes.write-pipeline.enabled=true}).
+ * <p>
+ * Las creaciones y modificaciones se encolan en una cola acotada y un único hilo escritor las toma en lotes
+ * de hasta {@code max-batch-size} operaciones, esperando como máximo {@code max-wait} desde la primera. Cada
+ * lote se valida con una consulta por conjunto, se escribe con sentencias agrupadas y se confirma en una sola
+ * transacción: una ráfaga de miles de altas paga un commit por lote en lugar de uno por request.
+ * <p>
+ * Las operaciones de un lote son independientes: la que repite el ID, RUT o email de otra anterior del mismo
+ * lote pasa al lote siguiente y se valida contra lo ya confirmado. Si el lote falla por una restricción única
+ * o una modificación concurrente de otro escritor, se reintenta operación por operación para informar el
+ * conflicto solo a la operación que lo causó.
+ */
+@Service
+@ConditionalOnProperty(name = "clientes.write-pipeline.enabled", havingValue = "true")
+@Slf4j
+public class ClienteWritePipeline {
+    
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(100);
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+    
+    private final ClienteRepository clienteRepository;
+    private final ClienteBulkRepository clienteBulkRepository;
+    private final ClienteMapper clienteMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final Duration waitTimeout;
+    
+    private final BlockingQueue<Operacion> cola;
+    // Solo las usa el hilo escritor: van al inicio del lote siguiente
+    private final Deque<Operacion> diferidas = new ArrayDeque<>();
+    private final Cache<String, Operacion> operaciones;
+    private final LongAdder lotes = new LongAdder();
+    private final LongAdder completadas = new LongAdder();
+    private final LongAdder fallidas = new LongAdder();
+    private final LongAdder rechazadas = new LongAdder();
+    private volatile boolean activo = true;
+    private Thread escritor;
+    
+    public ClienteWritePipeline(ClienteRepository clienteRepository,
+                                ClienteBulkRepository clienteBulkRepository,
+                                ClienteMapper clienteMapper,
+                                TransactionTemplate transactionTemplate,
+                                ApplicationEventPublisher eventPublisher,
+                                @Value("${clientes.write-pipeline.queue-capacity:10000}") int queueCapacity,
+                                @Value("${clientes.write-pipeline.max-batch-size:500}") int maxBatchSize,
+                                @Value("${clientes.write-pipeline.max-wait:5ms}") Duration maxWait,
+                                @Value("${clientes.write-pipeline.wait-timeout:5s}") Duration waitTimeout,
+                                @Value("${clientes.write-pipeline.retention:10m}") Duration retention,
+                                @Value("${clientes.write-pipeline.max-retained:100000}") long maxRetained) {
+        this.clienteRepository = clienteRepository;
+        this.clienteBulkRepository = clienteBulkRepository;
+        this.clienteMapper = clienteMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.waitTimeout = waitTimeout;
+        this.cola = new ArrayBlockingQueue<>(queueCapacity);
+        this.operaciones = Caffeine.newBuilder()
+                .maximumSize(maxRetained)
+                .expireAfterWrite(retention)
+                .build();
+    }
+    
+    @PostConstruct
+    void start() {
+        escritor = new Thread(this::run, "clientes-write-pipeline");
+        escritor.setDaemon(true);
+        escritor.start();
+        log.info("Pipeline de escrituras activo: lotes de hasta {} operaciones, ventana de {} µs",
+                maxBatchSize, maxWaitNanos / 1000);
+    }
+    
+    // Deja de recibir operaciones y espera a que el escritor confirme las encoladas
+    @PreDestroy
+    void stop() throws InterruptedException {
+        activo = false;
+        escritor.join(SHUTDOWN_TIMEOUT.toMillis());
+        List<Operacion> pendientes = new ArrayList<>();
+        cola.drainTo(pendientes);
+        if (escritor.isAlive() || !pendientes.isEmpty()) {
+            log.warn("Pipeline de escrituras detenido con {} operaciones sin confirmar", pendientes.size());
+        }
+        pendientes.forEach(operacion -> complete(operacion, null,
+                new ServiceUnavailableException("La aplicación se está deteniendo; reintentar la operación")));
+    }
+    
+    /**
+     * Encola la creación de un cliente ya validado (tipo de cliente existente y RUT en forma canónica).
+     *
+     * @throws ServiceUnavailableException si la cola está llena
+     */
+    public Operacion submitCreate(ClienteDTO cliente) {
+        return submit(new Operacion(Tipo.CREAR, null, null, cliente, waitTimeout));
+    }
+    
+    /**
+     * Encola la modificación de un cliente ya validado. La existencia del cliente y la versión esperada se
+     * verifican al escribir el lote.
+     *
+     * @throws ServiceUnavailableException si la cola está llena
+     */
+    public Operacion submitUpdate(Long id, ClienteDTO cliente, Long expectedVersion) {
+        return submit(new Operacion(Tipo.ACTUALIZAR, id, expectedVersion, cliente, waitTimeout));
+    }
+    
+    /**
+     * Operación pendiente o finalizada hace menos de {@code clientes.write-pipeline.retention}.
+     */
+    public Optional<Operacion> findOperacion(String id) {
+        return Optional.ofNullable(operaciones.getIfPresent(id));
+    }
+    
+    private Operacion submit(Operacion operacion) {
+        operaciones.put(operacion.getId(), operacion);
+        if (!activo || !cola.offer(operacion)) {
+            operaciones.invalidate(operacion.getId());
+            rechazadas.increment();
+            throw new ServiceUnavailableException("La cola de escrituras de clientes está llena; reintentar más tarde");
+        }
+        return operacion;
+    }
+    
+    private void run() {
+        while (activo || !cola.isEmpty() || !diferidas.isEmpty()) {
+            try {
+                List<Operacion> lote = nextBatch();
+                if (!lote.isEmpty()) {
+                    write(lote);
+                }
+            } catch (InterruptedException e) {
+                log.warn("Escritor del pipeline de escrituras interrumpido");
+                return;
+            } catch (RuntimeException e) {
+                log.error("Error inesperado en el escritor del pipeline de escrituras", e);
+            }
+        }
+    }
+    
+    // Lote: las diferidas del lote anterior y lo que llegue hasta completar el tamaño o agotar la ventana
+    private List<Operacion> nextBatch() throws InterruptedException {
+        List<Operacion> lote = new ArrayList<>(Math.min(maxBatchSize, cola.size() + diferidas.size() + 1));
+        while (!diferidas.isEmpty() && lote.size() < maxBatchSize) {
+            lote.add(diferidas.poll());
+        }
+        if (lote.isEmpty()) {
+            Operacion primera = cola.poll(POLL_INTERVAL.toNanos(), TimeUnit.NANOSECONDS);
+            if (primera == null) {
+                return lote;
+            }
+            lote.add(primera);
+        }
+        long limite = System.nanoTime() + maxWaitNanos;
+        while (lote.size() < maxBatchSize) {
+            cola.drainTo(lote, maxBatchSize - lote.size());
+            long restante = limite - System.nanoTime();
+            if (lote.size() == maxBatchSize || restante <= 0) {
+                break;
+            }
+            Operacion siguiente = cola.poll(restante, TimeUnit.NANOSECONDS);
+            if (siguiente == null) {
+                break;
+            }
+            lote.add(siguiente);
+        }
+        return lote;
+    }
+    
+    private void write(List<Operacion> lote) {
+        List<Resultado> resultados;
+        try {
+            resultados = transactionTemplate.execute(status -> writeBatch(lote));
+        } catch (DataIntegrityViolationException | OptimisticLockingFailureException e) {
+            // Otro escritor confirmó un RUT o email del lote, o modificó uno de sus clientes, entre la
+            // verificación y la escritura. Se reintenta operación por operación para aislar el conflicto.
+            if (lote.size() == 1) {
+                Operacion operacion = lote.get(0);
+                complete(operacion, null, e instanceof DataIntegrityViolationException violation
+                        ? ClienteConstraints.translate(violation, operacion.cliente, operacion.tipo == Tipo.ACTUALIZAR)
+                        : e);
+                return;
+            }
+            log.warn("Conflicto en un lote de {} escrituras, reintentando operación por operación", lote.size());
+            lote.forEach(operacion -> write(List.of(operacion)));
+            return;
+        } catch (RuntimeException e) {
+            log.error("No se pudo confirmar un lote de {} escrituras de clientes", lote.size(), e);
+            lote.forEach(operacion -> complete(operacion, null, e));
+            return;
+        }
+        
+        // Los resultados se entregan recién confirmada la transacción
+        lotes.increment();
+        for (Resultado resultado : resultados) {
+            if (resultado.cliente() == null && resultado.error() == null) {
+                diferidas.add(resultado.operacion());
+            } else {
+                complete(resultado.operacion(), resultado.cliente(), resultado.error());
+            }
+        }
+    }
+    
+    private List<Resultado> writeBatch(List<Operacion> lote) {
+        Resultado[] resultados = new Resultado[lote.size()];
+        Set<Long> ids = new HashSet<>();
+        Set<String> ruts = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        
+        for (int i = 0; i < lote.size(); i++) {
+            Operacion operacion = lote.get(i);
+            ClienteDTO cliente = operacion.cliente;
+            if ((operacion.clienteId != null && ids.contains(operacion.clienteId))
+                    || ruts.contains(cliente.getRut()) || emails.contains(ClienteBulkRepository.emailKey(cliente.getEmail()))) {
+                resultados[i] = new Resultado(operacion, null, null);
+                continue;
+            }
+            if (operacion.clienteId != null) {
+                ids.add(operacion.clienteId);
+            }
+            ruts.add(cliente.getRut());
+            emails.add(ClienteBulkRepository.emailKey(cliente.getEmail()));
+        }
+        
+        // Una consulta por conjunto: clientes a modificar, dueños de los RUT y dueños de los emails
+        Map<Long, Cliente> existentes = new HashMap<>();
+        if (!ids.isEmpty()) {
+            clienteRepository.findAllById(ids).forEach(cliente -> existentes.put(cliente.getId(), cliente));
+        }
+        Map<String, ClienteDTO> existentesPorRut = clienteBulkRepository.findByRuts(ruts);
+        Map<String, String> rutsPorEmail = clienteBulkRepository.findRutsByEmail(emails);
+        
+        List<ClienteDTO> inserts = new ArrayList<>();
+        List<Integer> insertIndexes = new ArrayList<>();
+        List<Cliente> updates = new ArrayList<>();
+        List<ClienteDTO> updatesBefore = new ArrayList<>();
+        List<Integer> updateIndexes = new ArrayList<>();
+        
+        for (int i = 0; i < lote.size(); i++) {
+            if (resultados[i] != null) {
+                continue;
+            }
+            Operacion operacion = lote.get(i);
+            ClienteDTO cliente = operacion.cliente;
+            ClienteDTO rutOwner = existentesPorRut.get(cliente.getRut());
+            String emailOwner = rutsPorEmail.get(ClienteBulkRepository.emailKey(cliente.getEmail()));
+            
+            if (operacion.tipo == Tipo.CREAR) {
+                if (rutOwner != null) {
+                    resultados[i] = error(operacion, new DuplicateResourceException("Ya existe un cliente con RUT: " + cliente.getRut()));
+                } else if (emailOwner != null) {
+                    resultados[i] = error(operacion, new DuplicateResourceException("Ya existe un cliente con email: " + cliente.getEmail()));
+                } else {
+                    cliente.setId(null);
+                    inserts.add(cliente);
+                    insertIndexes.add(i);
+                }
+                continue;
+            }
+            
+            Cliente existing = existentes.get(operacion.clienteId);
+            if (existing == null) {
+                resultados[i] = error(operacion, new ResourceNotFoundException("Cliente no encontrado con ID: " + operacion.clienteId));
+            } else if (operacion.expectedVersion != null && !operacion.expectedVersion.equals(existing.getVersion())) {
+                resultados[i] = error(operacion, new PreconditionFailedException("El cliente " + operacion.clienteId
+                        + " fue modificado: versión actual " + existing.getVersion()));
+            } else if (rutOwner != null && !rutOwner.getId().equals(operacion.clienteId)) {
+                resultados[i] = error(operacion, new DuplicateResourceException("Ya existe otro cliente con RUT: " + cliente.getRut()));
+            } else if (emailOwner != null && !emailOwner.equals(existing.getRut())) {
+                resultados[i] = error(operacion, new DuplicateResourceException("Ya existe otro cliente con email: " + cliente.getEmail()));
+            } else {
+                updatesBefore.add(clienteMapper.toDTO(existing));
+                clienteMapper.updateEntityFromDTO(cliente, existing);
+                updates.add(existing);
+                updateIndexes.add(i);
+            }
+        }
+        
+        List<Long> generatedIds = clienteBulkRepository.insertBatch(inserts);
+        for (int j = 0; j < inserts.size(); j++) {
+            ClienteDTO cliente = inserts.get(j);
+            cliente.setId(generatedIds.get(j));
+            int i = insertIndexes.get(j);
+            resultados[i] = new Resultado(lote.get(i), cliente, null);
+            eventPublisher.publishEvent(new ClienteChangeEvent(ChangeType.CREATED, null, cliente));
+        }
+        
+        // Las modificaciones pasan por JPA para que @Version detecte escrituras concurrentes fuera del
+        // pipeline; con hibernate.jdbc.batch_size el flush las envía agrupadas
+        if (!updates.isEmpty()) {
+            clienteRepository.saveAll(updates);
+            clienteRepository.flush();
+        }
+        for (int j = 0; j < updates.size(); j++) {
+            ClienteDTO updated = clienteMapper.toDTO(updates.get(j));
+            int i = updateIndexes.get(j);
+            resultados[i] = new Resultado(lote.get(i), updated, null);
+            eventPublisher.publishEvent(new ClienteChangeEvent(ChangeType.UPDATED, updatesBefore.get(j), updated));
+        }
+        
+        return Arrays.asList(resultados);
+    }
+    
+    private void complete(Operacion operacion, ClienteDTO cliente, RuntimeException error) {
+        operacion.finish(cliente, error);
+        // Renueva la retención: el estado se puede consultar durante toda la ventana desde que finaliza
+        operaciones.put(operacion.getId(), operacion);
+        (error == null ? completadas : fallidas).increment();
+    }
+    
+    private static Resultado error(Operacion operacion, RuntimeException error) {
+        return new Resultado(operacion, null, error);
+    }
+    
+    public int getEnCola() {
+        return cola.size();
+    }
+    
+    public long getLotes() {
+        return lotes.sum();
+    }
+    
+    public long getCompletadas() {
+        return completadas.sum();
+    }
+    
+    public long getFallidas() {
+        return fallidas.sum();
+    }
+    
+    public long getRechazadas() {
+        return rechazadas.sum();
+    }
+    
+    // Sin cliente ni error: la operación pasa al lote siguiente
+    private record Resultado(Operacion operacion, ClienteDTO cliente, RuntimeException error) {
+    }
+    
+    /**
+     * Creación o modificación encolada. El resultado es el mismo que el de la escritura síncrona: el cliente
+     * confirmado, o la excepción que esta habría lanzado.
+     */
+    public static final class Operacion {
+        
+        private final String id = UUID.randomUUID().toString();
+        private final Instant recibida = Instant.now();
+        private final Tipo tipo;
+        private final Long clienteId;
+        private final Long expectedVersion;
+        private final ClienteDTO cliente;
+        private final Duration waitTimeout;
+        private final CompletableFuture<ClienteDTO> resultado = new CompletableFuture<>();
+        private volatile ClienteDTO confirmado;
+        private volatile RuntimeException error;
+        private volatile Instant finalizada;
+        
+        private Operacion(Tipo tipo, Long clienteId, Long expectedVersion, ClienteDTO cliente, Duration waitTimeout) {
+            this.tipo = tipo;
+            this.clienteId = clienteId;
+            this.expectedVersion = expectedVersion;
+            this.cliente = cliente;
+            this.waitTimeout = waitTimeout;
+        }
+        
+        public String getId() {
+            return id;
+        }
+        
+        public CompletableFuture<ClienteDTO> getResultado() {
+            return resultado;
+        }
+        
+        /**
+         * Espera la confirmación del lote hasta {@code clientes.write-pipeline.wait-timeout}.
+         *
+         * @return el cliente confirmado, o {@code null} si la operación sigue pendiente
+         * @throws RuntimeException el error de la operación, el mismo que lanzaría la escritura síncrona
+         */
+        public ClienteDTO await() {
+            try {
+                return resultado.get(waitTimeout.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                return null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (ExecutionException e) {
+                throw (RuntimeException) e.getCause();
+            }
+        }
+        
+        public OperacionEscrituraDTO toDTO() {
+            RuntimeException fallo = error;
+            ClienteDTO confirmadoActual = confirmado;
+            if (fallo != null) {
+                return new OperacionEscrituraDTO(id, tipo, Estado.ERROR, status(fallo), mensaje(fallo), null, recibida, finalizada);
+            }
+            if (confirmadoActual != null) {
+                int status = tipo == Tipo.CREAR ? 201 : 200;
+                return new OperacionEscrituraDTO(id, tipo, Estado.COMPLETADA, status, null, confirmadoActual, recibida, finalizada);
+            }
+            return new OperacionEscrituraDTO(id, tipo, Estado.PENDIENTE, null, null, null, recibida, null);
+        }
+        
+        private void finish(ClienteDTO confirmado, RuntimeException error) {
+            this.finalizada = Instant.now();
+            this.error = error;
+            this.confirmado = confirmado;
+            if (error != null) {
+                resultado.completeExceptionally(error);
+            } else {
+                resultado.complete(confirmado);
+            }
+        }
+        
+        // Mismos códigos que GlobalExceptionHandler asigna a la escritura síncrona
+        private static int status(RuntimeException error) {
+            if (error instanceof DuplicateResourceException) {
+                return 409;
+            }
+            if (error instanceof BusinessLogicException) {
+                return 400;
+            }
+            if (error instanceof ResourceNotFoundException) {
+                return 404;
+            }
+            if (error instanceof PreconditionFailedException || error instanceof OptimisticLockingFailureException) {
+                return 412;
+            }
+            if (error instanceof ServiceUnavailableException) {
+                return 503;
+            }
+            return 500;
+        }
+        
+        private static String mensaje(RuntimeException error) {
+            return switch (status(error)) {
+                case 412 -> error instanceof PreconditionFailedException ? error.getMessage()
+                        : "El recurso fue modificado por otra operación";
+                case 500 -> "Ha ocurrido un error inesperado";
+                default -> error.getMessage();
+            };
+        }
+        
+    }
+    
+}
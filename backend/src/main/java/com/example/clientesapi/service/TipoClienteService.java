@@ -1,41 +1,89 @@
 package com.example.clientesapi.service;
 
+import com.example.clientesapi.cache.ClienteStatsCache;
+import com.example.clientesapi.cache.TipoClienteCache;
+import com.example.clientesapi.dto.ClienteStatsDTO;
 import com.example.clientesapi.dto.TipoClienteDTO;
 import com.example.clientesapi.entity.TipoCliente;
+import com.example.clientesapi.event.ChangeType;
+import com.example.clientesapi.event.TipoClienteChangeEvent;
+import com.example.clientesapi.exception.BusinessLogicException;
 import com.example.clientesapi.exception.DuplicateResourceException;
+import com.example.clientesapi.exception.PreconditionFailedException;
 import com.example.clientesapi.exception.ResourceNotFoundException;
+import com.example.clientesapi.repository.ClienteRepository;
 import com.example.clientesapi.repository.TipoClienteRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "clientes.service", histogram = true)
 @RequiredArgsConstructor
 @Slf4j
 @Transactional
 public class TipoClienteService {
     
     private final TipoClienteRepository tipoClienteRepository;
+    private final ClienteRepository clienteRepository;
+    private final TipoClienteCache tipoClienteCache;
+    private final ClienteStatsCache clienteStatsCache;
+    private final ApplicationEventPublisher eventPublisher;
     
-    @Transactional(readOnly = true)
+    // Las lecturas se resuelven desde la caché del catálogo: no abren transacción propia
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<TipoClienteDTO> findAll() {
-        log.info("Buscando todos los tipos de cliente");
-        List<TipoCliente> tipos = tipoClienteRepository.findAll();
-        return tipos.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        log.debug("Buscando todos los tipos de cliente");
+        return tipoClienteCache.findAll();
     }
     
-    @Transactional(readOnly = true)
+    /**
+     * ETag del catálogo completo, calculado al armar la instantánea de la caché.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public String getCatalogEtag() {
+        return tipoClienteCache.getEtag();
+    }
+    
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public long getCatalogLastModified() {
+        return tipoClienteCache.getLastModified();
+    }
+    
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public TipoClienteDTO findById(String codigo) {
-        log.info("Buscando tipo de cliente por código: {}", codigo);
-        TipoCliente tipoCliente = tipoClienteRepository.findById(codigo)
-                .orElseThrow(() -> new ResourceNotFoundException("Tipo de cliente no encontrado con código: " + codigo));
-        return convertToDTO(tipoCliente);
+        log.debug("Buscando tipo de cliente por código: {}", codigo);
+        TipoClienteDTO cached = tipoClienteCache.get(codigo);
+        if (cached != null) {
+            return cached;
+        }
+        
+        // Lectura directa por si el tipo fue creado desde otra instancia después de cargar la caché; las
+        // lecturas concurrentes del mismo código esperan una sola consulta
+        return tipoClienteCache.load(codigo, () -> {
+            TipoCliente tipoCliente = tipoClienteRepository.findById(codigo)
+                    .orElseThrow(() -> new ResourceNotFoundException("Tipo de cliente no encontrado con código: " + codigo));
+            TipoClienteDTO dto = convertToDTO(tipoCliente);
+            tipoClienteCache.put(dto);
+            return dto;
+        });
+    }
+    
+    /**
+     * Estadísticas de los clientes del tipo indicado, desde los contadores en memoria.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public ClienteStatsDTO getStats(String codigo) {
+        log.debug("Obteniendo estadísticas del tipo de cliente: {}", codigo);
+        findById(codigo);
+        return clienteStatsCache.getStats(codigo);
     }
     
     public TipoClienteDTO save(TipoClienteDTO tipoClienteDTO) {
@@ -46,30 +94,55 @@ public class TipoClienteService {
         }
         
         TipoCliente tipoCliente = convertToEntity(tipoClienteDTO);
-        TipoCliente savedTipoCliente = tipoClienteRepository.save(tipoCliente);
-        return convertToDTO(savedTipoCliente);
+        TipoCliente savedTipoCliente = tipoClienteRepository.saveAndFlush(tipoCliente);
+        TipoClienteDTO dto = convertToDTO(savedTipoCliente);
+        eventPublisher.publishEvent(new TipoClienteChangeEvent(ChangeType.CREATED, dto.getCodigo(), dto));
+        return dto;
     }
     
-    public TipoClienteDTO update(String codigo, TipoClienteDTO tipoClienteDTO) {
+    /**
+     * @param expectedVersion versión que el cliente HTTP dice modificar (If-Match), o {@code null} para no verificarla
+     */
+    public TipoClienteDTO update(String codigo, TipoClienteDTO tipoClienteDTO, Long expectedVersion) {
         log.info("Actualizando tipo de cliente: {}", codigo);
         
         TipoCliente existingTipoCliente = tipoClienteRepository.findById(codigo)
                 .orElseThrow(() -> new ResourceNotFoundException("Tipo de cliente no encontrado con código: " + codigo));
         
+        if (expectedVersion != null && !expectedVersion.equals(existingTipoCliente.getVersion())) {
+            throw new PreconditionFailedException("El tipo de cliente " + codigo + " fue modificado: versión actual "
+                    + existingTipoCliente.getVersion());
+        }
+        
         existingTipoCliente.setDescripcion(tipoClienteDTO.getDescripcion());
         
-        TipoCliente updatedTipoCliente = tipoClienteRepository.save(existingTipoCliente);
-        return convertToDTO(updatedTipoCliente);
+        // El flush incrementa la versión y la fecha de modificación antes de convertir a DTO
+        TipoCliente updatedTipoCliente = tipoClienteRepository.saveAndFlush(existingTipoCliente);
+        TipoClienteDTO dto = convertToDTO(updatedTipoCliente);
+        eventPublisher.publishEvent(new TipoClienteChangeEvent(ChangeType.UPDATED, codigo, dto));
+        return dto;
     }
     
     public void deleteById(String codigo) {
         log.info("Eliminando tipo de cliente: {}", codigo);
         
-        if (!tipoClienteRepository.existsById(codigo)) {
-            throw new ResourceNotFoundException("Tipo de cliente no encontrado con código: " + codigo);
+        // Un tipo con clientes no se elimina (la FK es ON DELETE RESTRICT): se verifica con una sola
+        // consulta en lugar de cargar y eliminar sus clientes uno a uno
+        if (clienteRepository.existsByCodTipoCliente(codigo)) {
+            throw new BusinessLogicException("El tipo de cliente tiene clientes asociados: " + codigo);
         }
         
-        tipoClienteRepository.deleteById(codigo);
+        int eliminados;
+        try {
+            eliminados = tipoClienteRepository.deleteByCodigo(codigo);
+        } catch (DataIntegrityViolationException e) {
+            // Un cliente del tipo fue creado en paralelo
+            throw new BusinessLogicException("El tipo de cliente tiene clientes asociados: " + codigo, e);
+        }
+        if (eliminados == 0) {
+            throw new ResourceNotFoundException("Tipo de cliente no encontrado con código: " + codigo);
+        }
+        eventPublisher.publishEvent(new TipoClienteChangeEvent(ChangeType.DELETED, codigo, null));
     }
     
     // Métodos de conversión usando Lombok
@@ -77,6 +150,8 @@ public class TipoClienteService {
         TipoClienteDTO dto = new TipoClienteDTO();
         dto.setCodigo(tipoCliente.getCodigo());
         dto.setDescripcion(tipoCliente.getDescripcion());
+        dto.setVersion(tipoCliente.getVersion());
+        dto.setUpdatedAt(tipoCliente.getUpdatedAt());
         return dto;
     }
     
@@ -0,0 +1,81 @@
+-- Migración de una base existente al índice numérico del RUT
+-- MySQL 8.0+
+--
+-- Agrega rut_numero (cuerpo del RUT) y rut_dv (dígito verificador), los completa desde rut, deja rut en
+-- forma canónica (12345678-5) y reemplaza el índice único de la columna de texto por uno sobre el entero.
+-- Es necesaria antes de iniciar la aplicación con spring.jpa.hibernate.ddl-auto=validate (perfil prod).
+-- Los índices se eliminan solo si existen (MySQL no tiene DROP INDEX IF EXISTS): ver @drop_index.
+
+USE clientes_db;
+
+-- Tamaño de los índices de cliente antes de migrar, para comparar al final (páginas de 16 KB por defecto)
+ANALYZE TABLE cliente;
+SELECT index_name, ROUND(stat_value * @@innodb_page_size / 1024 / 1024, 2) AS tamano_mb
+FROM mysql.innodb_index_stats
+WHERE database_name = 'clientes_db' AND table_name = 'cliente' AND stat_name = 'size';
+
+-- 1. Columnas nuevas, aún opcionales
+ALTER TABLE cliente
+    ADD COLUMN rut_numero INT NULL COMMENT 'Cuerpo numérico del RUT' AFTER rut,
+    ADD COLUMN rut_dv CHAR(1) NULL COMMENT 'Dígito verificador del RUT (0-9 o K)' AFTER rut_numero;
+
+-- 2. Cuerpo y dígito verificador desde el RUT guardado, sin puntos, espacios ni guion
+UPDATE cliente c
+JOIN (SELECT id, REGEXP_REPLACE(rut, '[^0-9kK]', '') AS limpio FROM cliente) r ON r.id = c.id
+SET c.rut_numero = CAST(LEFT(r.limpio, CHAR_LENGTH(r.limpio) - 1) AS UNSIGNED),
+    c.rut_dv = UPPER(RIGHT(r.limpio, 1))
+WHERE r.limpio REGEXP '^[0-9]{1,8}[0-9kK]$' AND CAST(LEFT(r.limpio, CHAR_LENGTH(r.limpio) - 1) AS UNSIGNED) > 0;
+
+UPDATE cliente SET rut = CONCAT(rut_numero, '-', rut_dv) WHERE rut_numero IS NOT NULL;
+
+-- 3. Revisión: las tres consultas deben retornar vacío antes de continuar. La primera lista los RUT sin
+-- formato válido; la segunda, los RUT guardados más de una vez en distinto formato; la tercera, los RUT
+-- cuyo dígito verificador no corresponde al cuerpo (módulo 11, como Rut.digitoVerificador), que la
+-- aplicación rechazaría al modificarlos
+SELECT id, rut FROM cliente WHERE rut_numero IS NULL;
+SELECT rut_numero, GROUP_CONCAT(id ORDER BY id) AS ids FROM cliente GROUP BY rut_numero HAVING COUNT(*) > 1;
+SELECT id, rut, esperado AS dv_esperado
+FROM (
+    SELECT id, rut, rut_dv,
+           ELT(11 - MOD(SUBSTRING(d, 8, 1) * 2 + SUBSTRING(d, 7, 1) * 3 + SUBSTRING(d, 6, 1) * 4
+                      + SUBSTRING(d, 5, 1) * 5 + SUBSTRING(d, 4, 1) * 6 + SUBSTRING(d, 3, 1) * 7
+                      + SUBSTRING(d, 2, 1) * 2 + SUBSTRING(d, 1, 1) * 3, 11),
+               '1', '2', '3', '4', '5', '6', '7', '8', '9', 'K', '0') AS esperado
+    FROM (SELECT id, rut, rut_dv, LPAD(rut_numero, 8, '0') AS d FROM cliente WHERE rut_numero IS NOT NULL) c
+) v
+WHERE rut_dv <> esperado;
+
+-- 4. Restricciones e índice único entero
+ALTER TABLE cliente
+    MODIFY rut_numero INT NOT NULL COMMENT 'Cuerpo numérico del RUT',
+    MODIFY rut_dv CHAR(1) NOT NULL COMMENT 'Dígito verificador del RUT (0-9 o K)',
+    MODIFY rut VARCHAR(12) NOT NULL COMMENT 'RUT del cliente en forma canónica (12345678-5)',
+    ADD CONSTRAINT uk_cliente_rut_numero UNIQUE (rut_numero);
+
+-- 5. Índices que dejan de usarse, si existen: el único de la columna de texto, el no único del RUT de las
+-- bases creadas con setup-complete.sql o simple-setup.sql, y el del email, redundante con uk_cliente_email
+SET @drop_index = 'SELECT IF(COUNT(*) > 0, CONCAT(''ALTER TABLE cliente DROP INDEX '', ?), ''DO 0'')
+                   FROM information_schema.statistics
+                   WHERE table_schema = DATABASE() AND table_name = ''cliente'' AND index_name = ?
+                   INTO @sentencia';
+PREPARE buscar_indice FROM @drop_index;
+
+SET @indice = 'uk_cliente_rut';
+EXECUTE buscar_indice USING @indice, @indice;
+PREPARE eliminar_indice FROM @sentencia; EXECUTE eliminar_indice; DEALLOCATE PREPARE eliminar_indice;
+
+SET @indice = 'idx_cliente_rut';
+EXECUTE buscar_indice USING @indice, @indice;
+PREPARE eliminar_indice FROM @sentencia; EXECUTE eliminar_indice; DEALLOCATE PREPARE eliminar_indice;
+
+SET @indice = 'idx_cliente_email';
+EXECUTE buscar_indice USING @indice, @indice;
+PREPARE eliminar_indice FROM @sentencia; EXECUTE eliminar_indice; DEALLOCATE PREPARE eliminar_indice;
+
+DEALLOCATE PREPARE buscar_indice;
+
+-- Tamaño de los índices después de migrar
+ANALYZE TABLE cliente;
+SELECT index_name, ROUND(stat_value * @@innodb_page_size / 1024 / 1024, 2) AS tamano_mb
+FROM mysql.innodb_index_stats
+WHERE database_name = 'clientes_db' AND table_name = 'cliente' AND stat_name = 'size';
@@ -10,6 +10,8 @@ USE clientes_db;
 CREATE TABLE tipo_cliente (
     codigo VARCHAR(10) NOT NULL PRIMARY KEY COMMENT 'Código único del tipo de cliente',
     descripcion VARCHAR(100) NOT NULL COMMENT 'Descripción del tipo de cliente',
+    updated_at TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3) COMMENT 'Fecha de última actualización',
+    version BIGINT NOT NULL DEFAULT 0 COMMENT 'Versión para control optimista de concurrencia y ETag',
     UNIQUE KEY uk_tipo_cliente_codigo (codigo),
     INDEX idx_tipo_cliente_descripcion (descripcion)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci 
@@ -18,17 +20,26 @@ COMMENT='Catálogo de tipos de cliente';
 -- Tabla cliente
 CREATE TABLE cliente (
     id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT 'ID único del cliente',
+    rut VARCHAR(12) NOT NULL COMMENT 'RUT del cliente en forma canónica (12345678-5)',
+    rut_numero INT NOT NULL COMMENT 'Cuerpo numérico del RUT',
+    rut_dv CHAR(1) NOT NULL COMMENT 'Dígito verificador del RUT (0-9 o K)',
     nombre VARCHAR(50) NOT NULL COMMENT 'Nombre del cliente',
     apellido VARCHAR(50) NOT NULL COMMENT 'Apellido del cliente',
     edad INT COMMENT 'Edad del cliente',
-    email VARCHAR(100) NOT NULL UNIQUE COMMENT 'Email único del cliente',
+    email VARCHAR(100) NOT NULL COMMENT 'Email único del cliente',
     cod_tipo_cliente VARCHAR(10) NOT NULL COMMENT 'Código del tipo de cliente (FK)',
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT 'Fecha de creación del registro',
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT 'Fecha de última actualización',
+    updated_at TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3) COMMENT 'Fecha de última actualización',
+    version BIGINT NOT NULL DEFAULT 0 COMMENT 'Versión para control optimista de concurrencia y ETag',
     
-    -- Índices
-    INDEX idx_cliente_email (email),
+    -- Unicidad de RUT y email: la aplicación traduce su violación a un error 409. La del RUT es por su
+    -- cuerpo numérico: un índice entero más compacto que el de la columna de texto, y el que usan las búsquedas
+    CONSTRAINT uk_cliente_rut_numero UNIQUE (rut_numero),
+    CONSTRAINT uk_cliente_email UNIQUE (email),
+    
+    -- Índices (el email ya tiene el de uk_cliente_email)
     INDEX idx_cliente_nombre_apellido (nombre, apellido),
+    INDEX idx_cliente_apellido_nombre (apellido, nombre),
     INDEX idx_cliente_tipo (cod_tipo_cliente),
     INDEX idx_cliente_edad (edad),
     
@@ -46,9 +57,26 @@ CREATE TABLE cliente (
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci 
 COMMENT='Tabla principal de clientes';
 
+-- Outbox de cambios (GET /api/clientes/changes): un evento por alta, modificación o baja, escrito en la
+-- misma transacción que el cambio. seq lo asigna el publicador en el orden en que los cambios se confirman
+CREATE TABLE outbox_evento (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT 'Orden de inserción',
+    seq BIGINT NULL COMMENT 'Posición en el stream de cambios (NULL hasta publicarse)',
+    entidad VARCHAR(20) NOT NULL COMMENT 'cliente o tipo_cliente',
+    tipo VARCHAR(10) NOT NULL COMMENT 'CREATED, UPDATED o DELETED',
+    clave VARCHAR(20) NOT NULL COMMENT 'ID del cliente o código del tipo',
+    datos TEXT NULL COMMENT 'Estado resultante en JSON (NULL si fue eliminado)',
+    created_at TIMESTAMP(3) NOT NULL COMMENT 'Fecha del cambio',
+    
+    CONSTRAINT uk_outbox_evento_seq UNIQUE (seq),
+    INDEX idx_outbox_evento_created_at (created_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci 
+COMMENT='Eventos de cambio de clientes y tipos de cliente';
+
 -- Verificar que las tablas se crearon correctamente
 SHOW TABLES;
 
 -- Mostrar la estructura de las tablas
 DESCRIBE tipo_cliente;
 DESCRIBE cliente;
+DESCRIBE outbox_evento;
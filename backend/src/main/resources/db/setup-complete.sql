@@ -23,7 +23,8 @@ CREATE TABLE tipo_cliente (
     codigo VARCHAR(10) NOT NULL PRIMARY KEY COMMENT 'Código único del tipo de cliente',
     descripcion VARCHAR(100) NOT NULL COMMENT 'Descripción del tipo de cliente',
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT 'Fecha de creación del registro',
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT 'Fecha de última actualización',
+    updated_at TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3) COMMENT 'Fecha de última actualización',
+    version BIGINT NOT NULL DEFAULT 0 COMMENT 'Versión para control optimista de concurrencia y ETag',
     
     UNIQUE KEY uk_tipo_cliente_codigo (codigo),
     INDEX idx_tipo_cliente_descripcion (descripcion)
@@ -33,19 +34,31 @@ COMMENT='Catálogo de tipos de cliente';
 -- Tabla cliente
 CREATE TABLE cliente (
     id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT 'ID único del cliente',
-    rut VARCHAR(12) NOT NULL UNIQUE COMMENT 'RUT único del cliente',
+    rut VARCHAR(12) NOT NULL COMMENT 'RUT del cliente en forma canónica (12345678-5)',
+    rut_numero INT NOT NULL COMMENT 'Cuerpo numérico del RUT',
+    rut_dv CHAR(1) NOT NULL COMMENT 'Dígito verificador del RUT (0-9 o K)',
     nombre VARCHAR(50) NOT NULL COMMENT 'Nombre del cliente',
     apellido VARCHAR(50) NOT NULL COMMENT 'Apellido del cliente',
     edad INT COMMENT 'Edad del cliente',
-    email VARCHAR(100) NOT NULL UNIQUE COMMENT 'Email único del cliente',
+    email VARCHAR(100) NOT NULL COMMENT 'Email único del cliente',
     cod_tipo_cliente VARCHAR(10) NOT NULL COMMENT 'Código del tipo de cliente',
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT 'Fecha de creación del registro',
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT 'Fecha de última actualización',
+    updated_at TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3) COMMENT 'Fecha de última actualización',
+    version BIGINT NOT NULL DEFAULT 0 COMMENT 'Versión para control optimista de concurrencia y ETag',
+    
+    -- Unicidad de RUT y email: la aplicación traduce su violación a un error 409. La del RUT es por su
+    -- cuerpo numérico: un índice entero más compacto que el de la columna de texto, y el que usan las búsquedas
+    CONSTRAINT uk_cliente_rut_numero UNIQUE (rut_numero),
+    CONSTRAINT uk_cliente_email UNIQUE (email),
     
-    -- Índice principal por RUT
-    INDEX idx_cliente_rut (rut),
     INDEX idx_cliente_email (email),
     
+    -- Índices de la búsqueda (GET /api/clientes/search)
+    INDEX idx_cliente_nombre_apellido (nombre, apellido),
+    INDEX idx_cliente_apellido_nombre (apellido, nombre),
+    INDEX idx_cliente_tipo (cod_tipo_cliente),
+    INDEX idx_cliente_edad (edad),
+    
     -- Restricciones de integridad
     CONSTRAINT chk_cliente_edad CHECK (edad >= 0 AND edad <= 150),
     CONSTRAINT chk_cliente_email_format CHECK (email REGEXP '^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\.[a-zA-Z]{2,}$'),
@@ -59,23 +72,39 @@ CREATE TABLE cliente (
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci 
 COMMENT='Tabla principal de clientes';
 
+-- Outbox de cambios (GET /api/clientes/changes): un evento por alta, modificación o baja, escrito en la
+-- misma transacción que el cambio. seq lo asigna el publicador en el orden en que los cambios se confirman
+CREATE TABLE outbox_evento (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT 'Orden de inserción',
+    seq BIGINT NULL COMMENT 'Posición en el stream de cambios (NULL hasta publicarse)',
+    entidad VARCHAR(20) NOT NULL COMMENT 'cliente o tipo_cliente',
+    tipo VARCHAR(10) NOT NULL COMMENT 'CREATED, UPDATED o DELETED',
+    clave VARCHAR(20) NOT NULL COMMENT 'ID del cliente o código del tipo',
+    datos TEXT NULL COMMENT 'Estado resultante en JSON (NULL si fue eliminado)',
+    created_at TIMESTAMP(3) NOT NULL COMMENT 'Fecha del cambio',
+    
+    CONSTRAINT uk_outbox_evento_seq UNIQUE (seq),
+    INDEX idx_outbox_evento_created_at (created_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci 
+COMMENT='Eventos de cambio de clientes y tipos de cliente';
+
 -- Insertar clientes con datos aleatorios (15 registros)
-INSERT INTO cliente (rut, nombre, apellido, edad, email, cod_tipo_cliente) VALUES
-('12345678-9', 'María', 'González', 28, 'maria.gonzalez@email.com', 'VIP'),
-('23456789-0', 'Carlos', 'Rodríguez', 35, 'carlos.rodriguez@empresa.com', 'CORPORATIVO'),
-('34567890-1', 'Ana', 'López', 22, 'ana.lopez@estudiante.edu', 'ESTUDIANTE'),
-('45678901-2', 'Miguel', 'Fernández', 42, 'miguel.fernandez@gmail.com', 'REGULAR'),
-('56789012-3', 'Laura', 'Martínez', 31, 'laura.martinez@hotmail.com', 'VIP'),
-('67890123-4', 'Diego', 'Sánchez', 26, 'diego.sanchez@yahoo.com', 'NUEVO'),
-('78901234-5', 'Carmen', 'Ruiz', 39, 'carmen.ruiz@outlook.com', 'REGULAR'),
-('89012345-6', 'Antonio', 'Morales', 45, 'antonio.morales@corporativo.com', 'CORPORATIVO'),
-('90123456-7', 'Elena', 'Jiménez', 20, 'elena.jimenez@universidad.edu', 'ESTUDIANTE'),
-('01234567-8', 'Roberto', 'Torres', 33, 'roberto.torres@ejemplo.com', 'REGULAR'),
-('11223344-5', 'Patricia', 'Vega', 67, 'patricia.vega@senior.com', 'SENIOR'),
-('22334455-6', 'Fernando', 'Castro', 29, 'fernando.castro@premium.com', 'PREMIUM'),
-('33445566-7', 'Isabel', 'Ramos', 24, 'isabel.ramos@nuevo.com', 'NUEVO'),
-('44556677-8', 'Javier', 'Herrera', 38, 'javier.herrera@vip.com', 'VIP'),
-('55667788-9', 'Sofía', 'Mendoza', 19, 'sofia.mendoza@estudiante.edu', 'ESTUDIANTE');
+INSERT INTO cliente (rut, rut_numero, rut_dv, nombre, apellido, edad, email, cod_tipo_cliente) VALUES
+('12345678-5', 12345678, '5', 'María', 'González', 28, 'maria.gonzalez@email.com', 'VIP'),
+('23456789-6', 23456789, '6', 'Carlos', 'Rodríguez', 35, 'carlos.rodriguez@empresa.com', 'CORPORATIVO'),
+('34567890-5', 34567890, '5', 'Ana', 'López', 22, 'ana.lopez@estudiante.edu', 'ESTUDIANTE'),
+('45678901-3', 45678901, '3', 'Miguel', 'Fernández', 42, 'miguel.fernandez@gmail.com', 'REGULAR'),
+('56789012-0', 56789012, '0', 'Laura', 'Martínez', 31, 'laura.martinez@hotmail.com', 'VIP'),
+('67890123-7', 67890123, '7', 'Diego', 'Sánchez', 26, 'diego.sanchez@yahoo.com', 'NUEVO'),
+('78901234-2', 78901234, '2', 'Carmen', 'Ruiz', 39, 'carmen.ruiz@outlook.com', 'REGULAR'),
+('89012345-7', 89012345, '7', 'Antonio', 'Morales', 45, 'antonio.morales@corporativo.com', 'CORPORATIVO'),
+('90123456-6', 90123456, '6', 'Elena', 'Jiménez', 20, 'elena.jimenez@universidad.edu', 'ESTUDIANTE'),
+('1234567-4', 1234567, '4', 'Roberto', 'Torres', 33, 'roberto.torres@ejemplo.com', 'REGULAR'),
+('11223344-K', 11223344, 'K', 'Patricia', 'Vega', 67, 'patricia.vega@senior.com', 'SENIOR'),
+('22334455-0', 22334455, '0', 'Fernando', 'Castro', 29, 'fernando.castro@premium.com', 'PREMIUM'),
+('33445566-1', 33445566, '1', 'Isabel', 'Ramos', 24, 'isabel.ramos@nuevo.com', 'NUEVO'),
+('44556677-2', 44556677, '2', 'Javier', 'Herrera', 38, 'javier.herrera@vip.com', 'VIP'),
+('55667788-3', 55667788, '3', 'Sofía', 'Mendoza', 19, 'sofia.mendoza@estudiante.edu', 'ESTUDIANTE');
 
 -- Insertar tipos de cliente
 INSERT INTO tipo_cliente (codigo, descripcion) VALUES
@@ -6,29 +6,55 @@ CREATE DATABASE IF NOT EXISTS clientes_db CHARACTER SET utf8mb4 COLLATE utf8mb4_
 USE clientes_db;
 
 -- Limpiar tablas existentes
+DROP TABLE IF EXISTS outbox_evento;
 DROP TABLE IF EXISTS cliente;
 DROP TABLE IF EXISTS tipo_cliente;
 
 -- Crear tabla tipo_cliente
 CREATE TABLE tipo_cliente (
     codigo VARCHAR(10) NOT NULL PRIMARY KEY,
-    descripcion VARCHAR(100) NOT NULL
+    descripcion VARCHAR(100) NOT NULL,
+    updated_at TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+    version BIGINT NOT NULL DEFAULT 0
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 -- Crear tabla cliente
 CREATE TABLE cliente (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
-    rut VARCHAR(12) NOT NULL UNIQUE,
+    rut VARCHAR(12) NOT NULL,
+    rut_numero INT NOT NULL,
+    rut_dv CHAR(1) NOT NULL,
     nombre VARCHAR(50) NOT NULL,
     apellido VARCHAR(50) NOT NULL,
     edad INT,
-    email VARCHAR(100) NOT NULL UNIQUE,
+    email VARCHAR(100) NOT NULL,
     cod_tipo_cliente VARCHAR(10) NOT NULL,
+    updated_at TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+    version BIGINT NOT NULL DEFAULT 0,
     
-    INDEX idx_cliente_rut (rut),
+    CONSTRAINT uk_cliente_rut_numero UNIQUE (rut_numero),
+    CONSTRAINT uk_cliente_email UNIQUE (email),
+    INDEX idx_cliente_nombre_apellido (nombre, apellido),
+    INDEX idx_cliente_apellido_nombre (apellido, nombre),
+    INDEX idx_cliente_tipo (cod_tipo_cliente),
+    INDEX idx_cliente_edad (edad),
     CONSTRAINT fk_cliente_tipo_cliente FOREIGN KEY (cod_tipo_cliente) REFERENCES tipo_cliente(codigo)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+-- Crear tabla del outbox de cambios
+CREATE TABLE outbox_evento (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    seq BIGINT NULL,
+    entidad VARCHAR(20) NOT NULL,
+    tipo VARCHAR(10) NOT NULL,
+    clave VARCHAR(20) NOT NULL,
+    datos TEXT NULL,
+    created_at TIMESTAMP(3) NOT NULL,
+    
+    CONSTRAINT uk_outbox_evento_seq UNIQUE (seq),
+    INDEX idx_outbox_evento_created_at (created_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
 -- Insertar tipos de cliente básicos
 INSERT INTO tipo_cliente (codigo, descripcion) VALUES
 ('VIP', 'Cliente VIP - Servicio premium'),
@@ -37,11 +63,11 @@ INSERT INTO tipo_cliente (codigo, descripcion) VALUES
 ('CORP', 'Cliente Corporativo');
 
 -- Insertar algunos clientes de ejemplo
-INSERT INTO cliente (rut, nombre, apellido, edad, email, cod_tipo_cliente) VALUES
-('12345678-9', 'María', 'González', 28, 'maria.gonzalez@email.com', 'VIP'),
-('23456789-0', 'Carlos', 'Rodríguez', 35, 'carlos.rodriguez@empresa.com', 'CORP'),
-('34567890-1', 'Ana', 'López', 22, 'ana.lopez@estudiante.edu', 'NEW'),
-('45678901-2', 'Miguel', 'Fernández', 42, 'miguel.fernandez@gmail.com', 'REG');
+INSERT INTO cliente (rut, rut_numero, rut_dv, nombre, apellido, edad, email, cod_tipo_cliente) VALUES
+('12345678-5', 12345678, '5', 'María', 'González', 28, 'maria.gonzalez@email.com', 'VIP'),
+('23456789-6', 23456789, '6', 'Carlos', 'Rodríguez', 35, 'carlos.rodriguez@empresa.com', 'CORP'),
+('34567890-5', 34567890, '5', 'Ana', 'López', 22, 'ana.lopez@estudiante.edu', 'NEW'),
+('45678901-3', 45678901, '3', 'Miguel', 'Fernández', 42, 'miguel.fernandez@gmail.com', 'REG');
 
 -- Verificar datos
 SELECT 'Tipos de cliente creados:' as info;
@@ -0,0 +1,110 @@
+package com.example.clientesapi.admission;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControlFilterTest {
+    
+    @Test
+    void unHeaderDelClienteNoDaUnLimiteNuevo() throws Exception {
+        AdmissionControlFilter filter = filter(List.of());
+        
+        assertThat(status(filter, request("203.0.113.7", null, "clave-1"))).isEqualTo(200);
+        assertThat(status(filter, request("203.0.113.7", null, "clave-2"))).isEqualTo(200);
+        assertThat(status(filter, request("203.0.113.7", null, "clave-3"))).isEqualTo(429);
+    }
+    
+    @Test
+    void xForwardedForSeIgnoraSiLaDireccionRemotaNoEsUnProxyDeConfianza() throws Exception {
+        AdmissionControlFilter filter = filter(List.of("10.0.0.0/8"));
+        
+        assertThat(status(filter, request("203.0.113.7", "198.51.100.1", null))).isEqualTo(200);
+        assertThat(status(filter, request("203.0.113.7", "198.51.100.2", null))).isEqualTo(200);
+        assertThat(status(filter, request("203.0.113.7", "198.51.100.3", null))).isEqualTo(429);
+    }
+    
+    @Test
+    void detrasDeUnProxyDeConfianzaCadaClienteTieneSuLimite() throws Exception {
+        AdmissionControlFilter filter = filter(List.of("10.0.0.0/8"));
+        
+        // La entrada de la izquierda la escribe el cliente; vale la última que no es un proxy de confianza
+        for (int i = 0; i < 2; i++) {
+            assertThat(status(filter, request("10.0.0.5", "1.2.3.4, 198.51.100.1, 10.0.0.9", null))).isEqualTo(200);
+            assertThat(status(filter, request("10.0.0.5", "1.2.3.5, 198.51.100.2", null))).isEqualTo(200);
+        }
+        assertThat(status(filter, request("10.0.0.5", "5.6.7.8, 198.51.100.1", null))).isEqualTo(429);
+        assertThat(status(filter, request("10.0.0.6", "not-an-ip, 198.51.100.2", null))).isEqualTo(429);
+    }
+    
+    @Test
+    void unaRedDeOrigenNoDaDeAltaClientesSinLimite() throws Exception {
+        AdmissionControlFilter filter = filter(List.of());
+        
+        for (int i = 1; i <= 3; i++) {
+            assertThat(status(filter, request("198.51.100." + i, null, null))).isEqualTo(200);
+        }
+        assertThat(status(filter, request("198.51.100.4", null, null))).isEqualTo(429);
+        // Los clientes ya dados de alta conservan su límite, y otras redes no se ven afectadas
+        assertThat(status(filter, request("198.51.100.1", null, null))).isEqualTo(200);
+        assertThat(status(filter, request("192.0.2.1", null, null))).isEqualTo(200);
+    }
+    
+    @Test
+    void releaseEarlyLiberaElLugarAntesDeTerminarLaRequest() throws Exception {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setRate(0);
+        properties.setWrite(new AdmissionProperties.Limit(1, 0, Duration.ZERO));
+        AdmissionControlFilter filter = new AdmissionControlFilter(properties, JsonMapper.builder().findAndAddModules().build());
+        MockHttpServletResponse segunda = new MockHttpServletResponse();
+        MockHttpServletResponse tercera = new MockHttpServletResponse();
+        
+        // Mientras la primera escritura sigue en curso, la segunda no tiene lugar hasta que la primera lo libera
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/clientes"), new MockHttpServletResponse(), (request, response) -> {
+            filter.doFilter(new MockHttpServletRequest("POST", "/api/clientes"), segunda, new MockFilterChain());
+            AdmissionControlFilter.releaseEarly(request);
+            filter.doFilter(new MockHttpServletRequest("POST", "/api/clientes"), tercera, new MockFilterChain());
+        });
+        
+        assertThat(segunda.getStatus()).isEqualTo(503);
+        assertThat(tercera.getStatus()).isEqualTo(200);
+        // Liberado antes, el lugar no se libera otra vez al terminar
+        filter.getLimiters().forEach(limiter -> assertThat(limiter.getEnCurso()).isZero());
+    }
+    
+    private static AdmissionControlFilter filter(List<String> trustedProxies) {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setTrustedProxies(trustedProxies);
+        properties.setRate(0.001);
+        properties.setBurst(2);
+        properties.setNewClientRate(0.001);
+        properties.setNewClientBurst(3);
+        return new AdmissionControlFilter(properties, JsonMapper.builder().findAndAddModules().build());
+    }
+    
+    private static MockHttpServletRequest request(String remoteAddr, String forwardedFor, String apiKey) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/clientes/1");
+        request.setRemoteAddr(remoteAddr);
+        if (forwardedFor != null) {
+            request.addHeader(ClientAddress.X_FORWARDED_FOR, forwardedFor);
+        }
+        if (apiKey != null) {
+            request.addHeader("X-Api-Key", apiKey);
+        }
+        return request;
+    }
+    
+    private static int status(AdmissionControlFilter filter, MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+    
+}
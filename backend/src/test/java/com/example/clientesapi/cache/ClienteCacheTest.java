@@ -0,0 +1,116 @@
+package com.example.clientesapi.cache;
+
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.event.ChangeType;
+import com.example.clientesapi.event.ClienteChangeEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClienteCacheTest {
+    
+    @Test
+    void unaActualizacionReemplazaElClienteYSuRut() {
+        ClienteCache cache = cache();
+        ClienteDTO antes = cliente(1L, "11111111-1", 0L);
+        cache.put(antes);
+        ClienteDTO despues = cliente(1L, "22222222-2", 1L);
+        
+        cache.afterClienteChange(new ClienteChangeEvent(ChangeType.UPDATED, antes, despues));
+        
+        assertThat(cache.getById(1L)).isSameAs(despues);
+        assertThat(cache.getByRut("22222222-2")).isSameAs(despues);
+        assertThat(cache.getByRut("11111111-1")).isNull();
+    }
+    
+    @Test
+    void unaCargaAnteriorAUnaActualizacionNoVuelveACachearse() {
+        ClienteCache cache = cache();
+        ClienteDTO antes = cliente(1L, "11111111-1", 0L);
+        cache.afterClienteChange(new ClienteChangeEvent(ChangeType.UPDATED, antes, cliente(1L, "11111111-1", 1L)));
+        // Aunque la entrada nueva ya no esté en la caché, la lectura de la versión anterior no la reemplaza
+        cache.invalidate(1L);
+        
+        cache.put(antes);
+        
+        assertThat(cache.getById(1L)).isNull();
+        assertThat(cache.getByRut("11111111-1")).isNull();
+    }
+    
+    @Test
+    void unaCargaAnteriorAUnaEliminacionNoVuelveACachearse() throws Exception {
+        ClienteCache cache = cache();
+        ClienteDTO leido = cliente(1L, "11111111-1", 3L);
+        cache.put(leido);
+        CountDownLatch leyo = new CountDownLatch(1);
+        CountDownLatch eliminado = new CountDownLatch(1);
+        CompletableFuture<ClienteDTO> carga = CompletableFuture.supplyAsync(() -> cache.loadById(1L, () -> {
+            leyo.countDown();
+            await(eliminado);
+            cache.put(leido);
+            return leido;
+        }));
+        assertThat(leyo.await(5, TimeUnit.SECONDS)).isTrue();
+        
+        cache.onClienteChange(new ClienteChangeEvent(ChangeType.DELETED, leido, null));
+        cache.afterClienteChange(new ClienteChangeEvent(ChangeType.DELETED, leido, null));
+        eliminado.countDown();
+        carga.get(5, TimeUnit.SECONDS);
+        
+        assertThat(cache.getById(1L)).isNull();
+        assertThat(cache.getByRut("11111111-1")).isNull();
+    }
+    
+    @Test
+    void unCambioRevertidoNoImpideCachearElEstadoAnterior() {
+        ClienteCache cache = cache();
+        ClienteDTO antes = cliente(1L, "11111111-1", 0L);
+        cache.put(antes);
+        
+        // Solo la invalidación dentro de la transacción: el commit no llegó
+        cache.onClienteChange(new ClienteChangeEvent(ChangeType.DELETED, antes, null));
+        assertThat(cache.getById(1L)).isNull();
+        
+        cache.put(antes);
+        assertThat(cache.getById(1L)).isSameAs(antes);
+    }
+    
+    @Test
+    void crearUnClienteOlvidaQueSuRutNoExistia() {
+        ClienteCache cache = cache();
+        cache.putMissingRut("11111111-1");
+        assertThat(cache.isMissingRut("11111111-1")).isTrue();
+        
+        cache.afterClienteChange(new ClienteChangeEvent(ChangeType.CREATED, null, cliente(1L, "11111111-1", 0L)));
+        assertThat(cache.isMissingRut("11111111-1")).isFalse();
+        
+        // Una consulta que no lo encontró antes de la creación no lo vuelve a marcar como inexistente
+        cache.putMissingRut("11111111-1");
+        assertThat(cache.isMissingRut("11111111-1")).isFalse();
+        assertThat(cache.getByRut("11111111-1")).isNotNull();
+    }
+    
+    private static ClienteCache cache() {
+        return new ClienteCache(100, Duration.ofMinutes(10), 100, Duration.ofSeconds(30),
+                Duration.ofSeconds(5), Duration.ofMinutes(1));
+    }
+    
+    private static ClienteDTO cliente(Long id, String rut, Long version) {
+        return new ClienteDTO(id, rut, "Ana", "Rojas", 30, "ana" + id + "@example.com", "VIP", version, Instant.now());
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+}
@@ -0,0 +1,191 @@
+package com.example.clientesapi.cache;
+
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.dto.ClienteStatsDTO;
+import com.example.clientesapi.dto.TipoClienteDTO;
+import com.example.clientesapi.entity.Rut;
+import com.example.clientesapi.repository.ClienteRepository;
+import com.example.clientesapi.service.ClienteService;
+import com.example.clientesapi.service.TipoClienteService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.reset;
+
+/**
+ * Los contadores se mantienen con cada alta, modificación y baja, y coinciden con los que calcula la
+ * reconciliación. Los tests parten de una reconciliación, porque otros contextos de Spring escriben en la
+ * misma base de datos sin actualizar estos contadores.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ClienteStatsCacheTest {
+    
+    private static final AtomicInteger SIGUIENTE = new AtomicInteger(60_000_000);
+    
+    private static final String CONTEO_SQL =
+            "SELECT cod_tipo_cliente, edad, COUNT(*) FROM cliente GROUP BY cod_tipo_cliente, edad";
+    
+    @SpyBean
+    private ClienteRepository clienteRepository;
+    
+    @Autowired
+    private ClienteStatsCache clienteStatsCache;
+    
+    @Autowired
+    private ClienteService clienteService;
+    
+    @Autowired
+    private TipoClienteService tipoClienteService;
+    
+    @Autowired
+    private TipoClienteCache tipoClienteCache;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @BeforeEach
+    void setUp() {
+        for (String codigo : List.of("VIP", "REGULAR")) {
+            if (!tipoClienteCache.contains(codigo)) {
+                tipoClienteService.save(new TipoClienteDTO(codigo, "Cliente " + codigo));
+            }
+        }
+        clienteStatsCache.reconcile();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        reset(clienteRepository);
+    }
+    
+    @Test
+    void altaSumaAlTipoYALaEdad() {
+        ClienteStatsDTO antes = clienteStatsCache.getStats("VIP");
+        
+        clienteService.create(cliente("VIP", 37));
+        
+        ClienteStatsDTO despues = clienteStatsCache.getStats("VIP");
+        assertThat(despues.getTotal()).isEqualTo(antes.getTotal() + 1);
+        assertThat(despues.getHistograma().get("30-39")).isEqualTo(antes.getHistograma().get("30-39") + 1);
+        assertCoincideConLaReconciliacion();
+    }
+    
+    @Test
+    void bajaRestaDelTipoYDeLaEdad() {
+        ClienteDTO creado = clienteService.create(cliente("VIP", 44));
+        ClienteStatsDTO antes = clienteStatsCache.getStats("VIP");
+        
+        clienteService.delete(creado.getId());
+        
+        ClienteStatsDTO despues = clienteStatsCache.getStats("VIP");
+        assertThat(despues.getTotal()).isEqualTo(antes.getTotal() - 1);
+        assertThat(despues.getHistograma().get("40-49")).isEqualTo(antes.getHistograma().get("40-49") - 1);
+        assertCoincideConLaReconciliacion();
+    }
+    
+    @Test
+    void cambioDeEdadMueveAlClienteDeTramo() {
+        ClienteDTO creado = clienteService.create(cliente("VIP", 25));
+        ClienteStatsDTO antes = clienteStatsCache.getStats("VIP");
+        
+        clienteService.update(creado.getId(), modificado(creado, "VIP", 71), null);
+        
+        ClienteStatsDTO despues = clienteStatsCache.getStats("VIP");
+        assertThat(despues.getTotal()).isEqualTo(antes.getTotal());
+        assertThat(despues.getHistograma().get("20-29")).isEqualTo(antes.getHistograma().get("20-29") - 1);
+        assertThat(despues.getHistograma().get("70-79")).isEqualTo(antes.getHistograma().get("70-79") + 1);
+        assertCoincideConLaReconciliacion();
+    }
+    
+    @Test
+    void cambioDeTipoMueveUnClienteEntreTipos() {
+        ClienteDTO creado = clienteService.create(cliente("REGULAR", 52));
+        ClienteStatsDTO regular = clienteStatsCache.getStats("REGULAR");
+        ClienteStatsDTO vip = clienteStatsCache.getStats("VIP");
+        long total = clienteStatsCache.getStats().getTotal();
+        
+        clienteService.update(creado.getId(), modificado(creado, "VIP", 52), null);
+        
+        assertThat(clienteStatsCache.getStats("REGULAR").getTotal()).isEqualTo(regular.getTotal() - 1);
+        assertThat(clienteStatsCache.getStats("VIP").getTotal()).isEqualTo(vip.getTotal() + 1);
+        assertThat(clienteStatsCache.getStats().getTotal()).isEqualTo(total);
+        assertCoincideConLaReconciliacion();
+    }
+    
+    @Test
+    void unCambioQueLaConsultaYaContoNoSeSumaDosVeces() {
+        ClienteDTO regular = clienteService.create(cliente("REGULAR", 33));
+        // Los cambios se confirman mientras corre la reconciliación y antes de la consulta GROUP BY, que
+        // se hace en la transacción de la reconciliación
+        doAnswer(invocation -> {
+            enOtraTransaccion(() -> {
+                clienteService.create(cliente("VIP", 61));
+                clienteService.update(regular.getId(), modificado(regular, "VIP", 34), null);
+            });
+            return jdbcTemplate.query(CONTEO_SQL, (rs, i) -> new Object[]{rs.getString(1), (Integer) rs.getObject(2), rs.getLong(3)});
+        }).when(clienteRepository).countGroupByTipoAndEdad();
+        
+        clienteStatsCache.reconcile();
+        
+        reset(clienteRepository);
+        assertCoincideConLaReconciliacion();
+    }
+    
+    @Test
+    void unCambioPosteriorALaConsultaSeAplicaSobreElResultado() {
+        ClienteDTO regular = clienteService.create(cliente("REGULAR", 33));
+        ClienteDTO eliminado = clienteService.create(cliente("VIP", 80));
+        // La consulta GROUP BY ya se hizo cuando se confirman los cambios: no los incluye
+        doAnswer(invocation -> {
+            List<Object[]> filas = jdbcTemplate.query(CONTEO_SQL, (rs, i) -> new Object[]{rs.getString(1), (Integer) rs.getObject(2), rs.getLong(3)});
+            enOtraTransaccion(() -> {
+                clienteService.create(cliente("VIP", 61));
+                clienteService.update(regular.getId(), modificado(regular, "VIP", 34), null);
+                clienteService.delete(eliminado.getId());
+            });
+            return filas;
+        }).when(clienteRepository).countGroupByTipoAndEdad();
+        
+        clienteStatsCache.reconcile();
+        
+        reset(clienteRepository);
+        assertCoincideConLaReconciliacion();
+    }
+    
+    private void assertCoincideConLaReconciliacion() {
+        ClienteStatsDTO incremental = clienteStatsCache.getStats();
+        clienteStatsCache.reconcile();
+        assertThat(incremental).isEqualTo(clienteStatsCache.getStats());
+    }
+    
+    // Las escrituras corren en otro hilo para no participar de la transacción de la reconciliación
+    private static void enOtraTransaccion(Runnable escrituras) throws Exception {
+        CompletableFuture.runAsync(escrituras).get(10, TimeUnit.SECONDS);
+    }
+    
+    private static ClienteDTO cliente(String codTipoCliente, int edad) {
+        int numero = SIGUIENTE.incrementAndGet();
+        return new ClienteDTO(null, numero + "-" + Rut.digitoVerificador(numero), "Ana", "Rojas", edad,
+                "stats" + numero + "@example.com", codTipoCliente);
+    }
+    
+    private static ClienteDTO modificado(ClienteDTO cliente, String codTipoCliente, int edad) {
+        return new ClienteDTO(null, cliente.getRut(), cliente.getNombre(), cliente.getApellido(), edad,
+                cliente.getEmail(), codTipoCliente);
+    }
+    
+}
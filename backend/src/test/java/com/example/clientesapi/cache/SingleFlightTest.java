@@ -0,0 +1,53 @@
+package com.example.clientesapi.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+    
+    @Test
+    void quienEsperaUnaCargaDemoradaCargaPorSuCuentaAlAgotarLaEspera() throws Exception {
+        SingleFlight<String, String> cargas = new SingleFlight<>(Duration.ofMillis(50));
+        CountDownLatch iniciada = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CompletableFuture<String> demorada = CompletableFuture.supplyAsync(() -> cargas.load("clave", () -> {
+            iniciada.countDown();
+            await(liberar);
+            return "demorada";
+        }));
+        assertThat(iniciada.await(5, TimeUnit.SECONDS)).isTrue();
+        
+        assertThat(cargas.load("clave", () -> "propia")).isEqualTo("propia");
+        assertThat(cargas.getTimedOut()).isEqualTo(1);
+        
+        liberar.countDown();
+        assertThat(demorada.get(5, TimeUnit.SECONDS)).isEqualTo("demorada");
+    }
+    
+    @Test
+    void unaCargaFallidaNoSeReutiliza() {
+        SingleFlight<String, String> cargas = new SingleFlight<>();
+        
+        assertThatThrownBy(() -> cargas.load("clave", () -> {
+            throw new IllegalStateException("falla");
+        })).hasMessage("falla");
+        assertThat(cargas.load("clave", () -> "valor")).isEqualTo("valor");
+        assertThat(cargas.getLoads()).isEqualTo(2);
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+}
@@ -0,0 +1,108 @@
+package com.example.clientesapi.controller;
+
+import com.example.clientesapi.cache.TipoClienteCache;
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.dto.TipoClienteDTO;
+import com.example.clientesapi.entity.Rut;
+import com.example.clientesapi.service.ClienteService;
+import com.example.clientesapi.service.TipoClienteService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Negociación de JSON, CBOR y Smile: cada formato tiene su ETag, y las respuestas indican
+ * {@code Vary: Accept} para que un 304 o una caché compartida no entreguen otro formato.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ClienteControllerNegotiationTest {
+    
+    private static final AtomicInteger SIGUIENTE = new AtomicInteger(50_000_000);
+    
+    @Autowired
+    private ClienteService clienteService;
+    
+    @Autowired
+    private TipoClienteService tipoClienteService;
+    
+    @Autowired
+    private TipoClienteCache tipoClienteCache;
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    private ClienteDTO cliente;
+    
+    @BeforeEach
+    void setUp() {
+        if (!tipoClienteCache.contains("VIP")) {
+            tipoClienteService.save(new TipoClienteDTO("VIP", "Cliente VIP"));
+        }
+        int numero = SIGUIENTE.incrementAndGet();
+        cliente = clienteService.create(new ClienteDTO(null, numero + "-" + Rut.digitoVerificador(numero), "Ana", "Rojas",
+                30, "negociacion" + numero + "@example.com", "VIP"));
+    }
+    
+    @Test
+    void cadaFormatoTieneSuEtag() throws Exception {
+        String json = etag(MediaType.APPLICATION_JSON);
+        String cbor = etag(MediaType.APPLICATION_CBOR);
+        String smile = etag(ETags.APPLICATION_SMILE);
+        
+        assertThat(json).isNotEqualTo(cbor).isNotEqualTo(smile);
+        assertThat(cbor).isNotEqualTo(smile);
+    }
+    
+    @Test
+    void unEtagDeOtroFormatoNoResponde304() throws Exception {
+        String json = etag(MediaType.APPLICATION_JSON);
+        
+        mockMvc.perform(get("/api/clientes/{id}", cliente.getId())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_NONE_MATCH, json))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/clientes/{id}", cliente.getId())
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, json))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string(HttpHeaders.ETAG, etag(MediaType.APPLICATION_CBOR)));
+    }
+    
+    @Test
+    void lasRespuestasNegociadasVarianSegunAccept() throws Exception {
+        for (String url : new String[]{"/api/clientes", "/api/clientes?limit=1", "/api/clientes/search",
+                "/api/clientes/find?q=rojas", "/api/clientes/stats", "/api/clientes/" + cliente.getId() + "/detalle",
+                "/api/clientes/rut/" + cliente.getRut()}) {
+            mockMvc.perform(get(url).accept(MediaType.APPLICATION_CBOR))
+                    .andExpect(status().isOk())
+                    .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)));
+        }
+    }
+    
+    private String etag(MediaType formato) throws Exception {
+        return mockMvc.perform(get("/api/clientes/{id}", cliente.getId()).accept(formato))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(formato))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+    
+}
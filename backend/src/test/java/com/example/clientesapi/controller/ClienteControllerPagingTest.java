@@ -0,0 +1,151 @@
+package com.example.clientesapi.controller;
+
+import com.example.clientesapi.cache.TipoClienteCache;
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.dto.TipoClienteDTO;
+import com.example.clientesapi.entity.Rut;
+import com.example.clientesapi.repository.ClienteRepository;
+import com.example.clientesapi.service.ClienteService;
+import com.example.clientesapi.service.TipoClienteService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Listado por cursor ({@code ?after&limit}) y exportación NDJSON ({@code /stream}).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ClienteControllerPagingTest {
+    
+    private static final AtomicInteger SIGUIENTE = new AtomicInteger(80_000_000);
+    
+    @SpyBean
+    private ClienteRepository clienteRepository;
+    
+    @Autowired
+    private ClienteService clienteService;
+    
+    @Autowired
+    private TipoClienteService tipoClienteService;
+    
+    @Autowired
+    private TipoClienteCache tipoClienteCache;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @BeforeEach
+    void setUpTipos() {
+        if (!tipoClienteCache.contains("VIP")) {
+            tipoClienteService.save(new TipoClienteDTO("VIP", "Cliente VIP"));
+        }
+    }
+    
+    @Test
+    void elCursorRecorreLasPaginasYNoSigueDespuesDeLaUltimaPaginaCompleta() throws Exception {
+        // Las páginas se piden desde el último ID existente, así que solo contienen los clientes del test
+        long desde = ultimoId();
+        List<Long> ids = crear(4);
+        
+        mockMvc.perform(get("/api/clientes").param("after", String.valueOf(desde)).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(ids.get(0).intValue(), ids.get(1).intValue())))
+                .andExpect(header().string(ClienteController.NEXT_CURSOR_HEADER, String.valueOf(ids.get(1))));
+        // El total es múltiplo del tamaño de página: la última página está completa y no tiene siguiente
+        mockMvc.perform(get("/api/clientes").param("after", String.valueOf(ids.get(1))).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(ids.get(2).intValue(), ids.get(3).intValue())))
+                .andExpect(header().doesNotExist(ClienteController.NEXT_CURSOR_HEADER));
+        mockMvc.perform(get("/api/clientes").param("after", String.valueOf(ids.get(3))).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0))
+                .andExpect(header().doesNotExist(ClienteController.NEXT_CURSOR_HEADER));
+    }
+    
+    @Test
+    void unaPaginaIncompletaNoTieneCursor() throws Exception {
+        long desde = ultimoId();
+        List<Long> ids = crear(3);
+        
+        mockMvc.perform(get("/api/clientes").param("after", String.valueOf(ids.get(1))).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(ids.get(2).intValue())))
+                .andExpect(header().doesNotExist(ClienteController.NEXT_CURSOR_HEADER));
+        mockMvc.perform(get("/api/clientes").param("after", String.valueOf(desde)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3));
+    }
+    
+    @Test
+    void unLimiteFueraDeRangoSeRechaza() throws Exception {
+        mockMvc.perform(get("/api/clientes").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/clientes").param("limit", "1001"))
+                .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    void streamEscribeTodosLosClientesEnOrdenConElFetchSizeConfigurado() throws Exception {
+        List<Long> ids = crear(3);
+        
+        MvcResult inicio = mockMvc.perform(get("/api/clientes/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String cuerpo = mockMvc.perform(asyncDispatch(inicio))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        
+        List<Long> escritos = new ArrayList<>();
+        for (String linea : cuerpo.split("\n")) {
+            escritos.add(objectMapper.readValue(linea, ClienteDTO.class).getId());
+        }
+        assertThat(escritos).hasSize((int) clienteRepository.count()).isSorted().containsAll(ids);
+        // clientes.export.fetch-size de application-test.properties
+        verify(clienteRepository).streamAllByOrderByIdAsc(100);
+    }
+    
+    private long ultimoId() {
+        List<ClienteDTO> clientes = clienteService.findAll();
+        return clientes.stream().mapToLong(ClienteDTO::getId).max().orElse(0);
+    }
+    
+    private List<Long> crear(int cantidad) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            int numero = SIGUIENTE.incrementAndGet();
+            ids.add(clienteService.create(new ClienteDTO(null, numero + "-" + Rut.digitoVerificador(numero), "Ana",
+                    "Rojas", 30, "paginas" + numero + "@example.com", "VIP")).getId());
+        }
+        return ids;
+    }
+    
+}
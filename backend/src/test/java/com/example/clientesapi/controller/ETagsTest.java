@@ -0,0 +1,78 @@
+package com.example.clientesapi.controller;
+
+import com.example.clientesapi.exception.BusinessLogicException;
+import com.example.clientesapi.exception.PreconditionFailedException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.time.Instant;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ETagsTest {
+    
+    @Test
+    void versionDelEtagFuerte() {
+        String etag = ETags.of(7L, Instant.ofEpochMilli(1_700_000_000_000L));
+        
+        assertThat(ETags.expectedVersion(etag)).isEqualTo(7L);
+        assertThat(ETags.expectedVersion("  " + etag + " ,")).isEqualTo(7L);
+    }
+    
+    @Test
+    void sinCabeceraOAsteriscoNoSeVerificaLaVersion() {
+        assertThat(ETags.expectedVersion(null)).isNull();
+        assertThat(ETags.expectedVersion(" ")).isNull();
+        assertThat(ETags.expectedVersion("*")).isNull();
+    }
+    
+    @Test
+    void variosEtagsSeRechazanCon400() {
+        assertThatThrownBy(() -> ETags.expectedVersion("\"3-a\", \"4-b\""))
+                .isInstanceOf(BusinessLogicException.class);
+        assertThatThrownBy(() -> ETags.expectedVersion("*, \"4-b\""))
+                .isInstanceOf(BusinessLogicException.class);
+    }
+    
+    @Test
+    void etagDebilOInvalidoNoCoincide() {
+        assertThatThrownBy(() -> ETags.expectedVersion("W/\"3-a\""))
+                .isInstanceOf(PreconditionFailedException.class);
+        assertThatThrownBy(() -> ETags.expectedVersion("\"x-a\""))
+                .isInstanceOf(PreconditionFailedException.class);
+        assertThatThrownBy(() -> ETags.expectedVersion("\"3,a\""))
+                .isInstanceOf(PreconditionFailedException.class);
+    }
+    
+    @Test
+    void cadaFormatoTieneSuEtagYTodosSirvenParaIfMatch() {
+        Instant updatedAt = Instant.ofEpochMilli(1_700_000_000_000L);
+        String json = ETags.of(7L, updatedAt, MediaType.APPLICATION_JSON);
+        String cbor = ETags.of(7L, updatedAt, MediaType.APPLICATION_CBOR);
+        String smile = ETags.of(7L, updatedAt, ETags.APPLICATION_SMILE);
+        
+        assertThat(json).isEqualTo(ETags.of(7L, updatedAt));
+        assertThat(cbor).endsWith("-cbor\"");
+        assertThat(smile).endsWith("-smile\"");
+        assertThat(Set.of(json, cbor, smile)).hasSize(3);
+        assertThat(ETags.expectedVersion(cbor)).isEqualTo(7L);
+        assertThat(ETags.expectedVersion(smile)).isEqualTo(7L);
+    }
+    
+    @Test
+    void formatoSegunAccept() {
+        assertThat(ETags.representation(null)).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(ETags.representation("*/*")).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(ETags.representation("application/*")).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(ETags.representation("no es un tipo")).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(ETags.representation("application/cbor")).isEqualTo(MediaType.APPLICATION_CBOR);
+        assertThat(ETags.representation("application/x-jackson-smile")).isEqualTo(ETags.APPLICATION_SMILE);
+        // El tipo concreto prevalece sobre el comodín, y la calidad decide entre tipos concretos
+        assertThat(ETags.representation("*/*, application/cbor")).isEqualTo(MediaType.APPLICATION_CBOR);
+        assertThat(ETags.representation("application/json;q=0.5, application/cbor")).isEqualTo(MediaType.APPLICATION_CBOR);
+        assertThat(ETags.representation("application/cbor;q=0, */*")).isEqualTo(MediaType.APPLICATION_JSON);
+    }
+    
+}
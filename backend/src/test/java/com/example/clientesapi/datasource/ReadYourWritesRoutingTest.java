@@ -0,0 +1,144 @@
+package com.example.clientesapi.datasource;
+
+import com.example.clientesapi.cache.TipoClienteCache;
+import com.example.clientesapi.dto.TipoClienteDTO;
+import com.example.clientesapi.entity.Rut;
+import com.example.clientesapi.service.TipoClienteService;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Enrutamiento entre una primaria y una réplica, ambas H2 en memoria. La réplica tiene las mismas tablas
+ * pero nunca recibe las escrituras, como una réplica atrasada: lo que se lee de ella indica a dónde fue la
+ * lectura.
+ */
+@SpringBootTest(properties = {
+        "clientes.datasource.replica-routing=true",
+        "clientes.datasource.replicas[0].name=replica-1",
+        "clientes.datasource.replicas[0].url=" + ReadYourWritesRoutingTest.REPLICA_URL,
+        "clientes.datasource.replicas[0].username=sa",
+        "clientes.datasource.replicas[0].password=",
+        "clientes.datasource.health-check-interval=PT1H",
+        "clientes.datasource.read-your-writes-window=PT1M"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReadYourWritesRoutingTest {
+    
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1";
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private HikariDataSource primaryDataSource;
+    
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+    
+    @Autowired
+    private TipoClienteService tipoClienteService;
+    
+    @Autowired
+    private TipoClienteCache tipoClienteCache;
+    
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+    
+    @BeforeEach
+    void setUp() {
+        JdbcTemplate primaria = new JdbcTemplate(primaryDataSource);
+        // Las tablas de la primaria, sin filas
+        if (replica.queryForObject("SELECT COUNT(*) FROM information_schema.tables WHERE table_name = 'cliente'", Integer.class) == 0) {
+            for (String sentencia : primaria.queryForList("SCRIPT NODATA NOPASSWORDS NOSETTINGS", String.class)) {
+                if (!sentencia.startsWith("CREATE USER")) {
+                    replica.execute(sentencia);
+                }
+            }
+        }
+        // El catálogo de tipos ya está replicado
+        if (replica.queryForObject("SELECT COUNT(*) FROM tipo_cliente WHERE codigo = 'VIP'", Integer.class) == 0) {
+            replica.update("INSERT INTO tipo_cliente (codigo, descripcion, version) VALUES ('VIP', 'Cliente VIP', 0)");
+        }
+        if (!tipoClienteCache.contains("VIP")) {
+            tipoClienteService.save(new TipoClienteDTO("VIP", "Cliente VIP"));
+        }
+    }
+    
+    @Test
+    void mgetSeLeeDesdeLaReplicaSinMarcarLaSesion() throws Exception {
+        long antes = lecturasReplica();
+        
+        mockMvc.perform(post("/api/clientes/_mget")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [987654321]}"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.SET_COOKIE));
+        
+        assertThat(lecturasReplica()).isGreaterThan(antes);
+    }
+    
+    @Test
+    void lecturasPosterioresAUnaEscrituraVanALaPrimaria() throws Exception {
+        MvcResult creado = mockMvc.perform(post("/api/clientes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(clienteJson(12_345_678)))
+                .andExpect(status().isCreated())
+                .andExpect(cookie().exists(ReadYourWritesFilter.COOKIE_NAME))
+                .andReturn();
+        Cookie cookie = creado.getResponse().getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        String nuevo = "$[?(@.rut == '" + rut(12_345_678) + "')]";
+        
+        // Sin la cookie la lectura va a la réplica, que no tiene el cliente
+        long antes = lecturasReplica();
+        mockMvc.perform(get("/api/clientes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(nuevo).isEmpty());
+        assertThat(lecturasReplica()).isGreaterThan(antes);
+        
+        // Con la cookie va a la primaria
+        antes = lecturasReplica();
+        mockMvc.perform(get("/api/clientes").cookie(cookie))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(nuevo).isNotEmpty());
+        mockMvc.perform(post("/api/clientes/_mget")
+                        .cookie(cookie)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [987654321]}"))
+                .andExpect(status().isOk());
+        assertThat(lecturasReplica()).isEqualTo(antes);
+    }
+    
+    private long lecturasReplica() {
+        return replicaRoutingDataSource.getReplicas().get(0).getLecturas();
+    }
+    
+    private static String rut(int numero) {
+        return numero + "-" + Rut.digitoVerificador(numero);
+    }
+    
+    private static String clienteJson(int numero) {
+        return "{\"rut\": \"" + rut(numero) + "\", \"nombre\": \"Ana\", \"apellido\": \"Rojas\", \"edad\": 30, "
+                + "\"email\": \"ana" + numero + "@example.com\", \"codTipoCliente\": \"VIP\"}";
+    }
+    
+}
@@ -0,0 +1,284 @@
+package com.example.clientesapi.index;
+
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.event.ChangeType;
+import com.example.clientesapi.event.ClienteChangeEvent;
+import com.example.clientesapi.index.ClienteNameIndex.Coincidencia;
+import com.example.clientesapi.repository.ClienteBulkRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * La búsqueda del índice, con sus atajos (variantes ordenadas, saltos en las listas y corte por cota),
+ * retorna lo mismo que puntuar a todos los clientes uno por uno.
+ */
+class ClienteNameIndexTest {
+    
+    private static final double MIN_SIMILARITY = 0.5;
+    
+    private static final String[] NOMBRES = {"Ana", "Juan", "José", "María", "Pedro", "Pablo", "Paula", "Camila",
+            "Javier", "Xavier", "Sofía", "Benjamín", "Martín", "Matías", "Valentina", "Ignacio", "Catalina"};
+    
+    private static final String[] APELLIDOS = {"González", "Gonzales", "Rodríguez", "Rodrigues", "Pérez", "Peres",
+            "Soto", "Sotomayor", "Rojas", "Muñoz", "Díaz", "Silva", "Contreras", "Morales", "Fuentes", "Fuenzalida",
+            "Araya", "Espinoza", "Valenzuela", "Tapia", "Castillo", "Castro"};
+    
+    private final ClienteBulkRepository clienteBulkRepository = mock(ClienteBulkRepository.class);
+    private final ClienteNameIndex index = new ClienteNameIndex(clienteBulkRepository, 100, MIN_SIMILARITY, Integer.MAX_VALUE);
+    private final Map<Long, ClienteDTO> clientes = new HashMap<>();
+    
+    @Test
+    void coincideConLaFuerzaBrutaEnDatosAleatorios() {
+        Random random = new Random(20_240_611);
+        int conResultados = 0;
+        for (long id = 1; id <= 1500; id++) {
+            crear(id, palabras(random, NOMBRES), palabras(random, APELLIDOS));
+        }
+        for (int consulta = 0; consulta < 300; consulta++) {
+            // Cambios entre búsquedas: modificaciones de nombre o apellido y bajas
+            for (int cambio = 0; cambio < 5; cambio++) {
+                List<Long> ids = new ArrayList<>(clientes.keySet());
+                long id = ids.get(random.nextInt(ids.size()));
+                if (random.nextInt(4) == 0) {
+                    eliminar(id);
+                } else {
+                    modificar(id, palabras(random, NOMBRES), palabras(random, APELLIDOS));
+                }
+            }
+            String query = consulta(random);
+            int limit = new int[]{1, 3, 10, 50}[random.nextInt(4)];
+            
+            if (assertCoincideConLaFuerzaBruta(query, limit) > 0) {
+                conResultados++;
+            }
+        }
+        assertThat(conResultados).isGreaterThan(150);
+    }
+    
+    @Test
+    void losEmpatesSeOrdenanPorId() {
+        crear(5, "Ana", "Rojas");
+        crear(2, "Pedro", "Rojas");
+        crear(9, "Juan", "Rojas");
+        
+        List<Coincidencia> resultado = index.find("rojas", 2);
+        assertThat(resultado).extracting(Coincidencia::id).containsExactly(2L, 5L);
+        assertThat(resultado).extracting(Coincidencia::puntaje).containsOnly(1.0);
+        assertThat(index.find("ROJAS", 1)).extracting(Coincidencia::id).containsExactly(2L);
+    }
+    
+    @Test
+    void todasLasPalabrasDebenCoincidir() {
+        crear(1, "Juan", "Pérez");
+        crear(2, "Juan", "Soto");
+        crear(3, "Pedro", "Pérez");
+        
+        assertThat(index.find("juan perez", 10)).extracting(Coincidencia::id).containsExactly(1L);
+        assertThat(index.find("perez juan", 10)).extracting(Coincidencia::id).containsExactly(1L);
+        assertThat(index.find("juan perez morales", 10)).isEmpty();
+    }
+    
+    @Test
+    void toleraErroresAcentosYPalabrasIncompletas() {
+        crear(1, "María", "González");
+        crear(2, "Rosa", "Rodríguez");
+        
+        assertThat(index.find("Gonzalez", 10)).singleElement().isEqualTo(new Coincidencia(1, 1.0));
+        assertThat(index.find("gonzales", 10)).singleElement()
+                .satisfies(coincidencia -> assertThat(coincidencia.puntaje()).isBetween(MIN_SIMILARITY, 1.0));
+        assertThat(index.find("rodr", 10)).extracting(Coincidencia::id).containsExactly(2L);
+        assertThat(index.find("xyz", 10)).isEmpty();
+        assertThat(index.find("a", 10)).isEmpty();
+    }
+    
+    @Test
+    void modificacionesYBajasActualizanElIndice() {
+        crear(1, "Ana", "Rojas");
+        modificar(1, "Ana", "Soto");
+        
+        assertThat(index.find("rojas", 10)).isEmpty();
+        assertThat(index.find("soto", 10)).extracting(Coincidencia::id).containsExactly(1L);
+        
+        eliminar(1);
+        assertThat(index.find("soto", 10)).isEmpty();
+        assertThat(index.find("ana", 10)).isEmpty();
+    }
+    
+    @Test
+    void unCambioAtrasadoSeDescarta() {
+        ClienteDTO v0 = cliente(1, "Ana", "Rojas", 0);
+        ClienteDTO v1 = cliente(1, "Ana", "Soto", 1);
+        ClienteDTO v2 = cliente(1, "Ana", "Vera", 2);
+        index.onClienteChange(new ClienteChangeEvent(ChangeType.CREATED, null, v0));
+        // Los listeners de las dos modificaciones se ejecutan en otro orden que sus commits
+        index.onClienteChange(new ClienteChangeEvent(ChangeType.UPDATED, v1, v2));
+        index.onClienteChange(new ClienteChangeEvent(ChangeType.UPDATED, v0, v1));
+        
+        assertThat(index.find("vera", 10)).extracting(Coincidencia::id).containsExactly(1L);
+        assertThat(index.find("soto", 10)).isEmpty();
+        assertThat(index.find("rojas", 10)).isEmpty();
+        
+        // Y una modificación que llega después de la baja no vuelve a agregar al cliente
+        ClienteDTO v3 = cliente(1, "Ana", "Lagos", 3);
+        index.onClienteChange(new ClienteChangeEvent(ChangeType.DELETED, v3, null));
+        index.onClienteChange(new ClienteChangeEvent(ChangeType.UPDATED, v2, v3));
+        assertThat(index.find("ana", 10)).isEmpty();
+        assertThat(index.find("lagos", 10)).isEmpty();
+    }
+    
+    @Test
+    void laReconstruccionLeeLaBaseDeDatos() {
+        List<ClienteDTO> filas = List.of(cliente(1, "Ana", "Rojas", 0), cliente(2, "Juan", "Soto", 0));
+        doAnswer(invocation -> {
+            Consumer<ClienteDTO> consumer = invocation.getArgument(1);
+            filas.forEach(consumer);
+            return (long) filas.size();
+        }).when(clienteBulkRepository).forEach(anyInt(), any());
+        crear(3, "Pedro", "Rojas");
+        
+        index.rebuild();
+        
+        assertThat(index.find("rojas", 10)).extracting(Coincidencia::id).containsExactly(1L);
+        assertThat(index.find("soto", 10)).extracting(Coincidencia::id).containsExactly(2L);
+    }
+    
+    private int assertCoincideConLaFuerzaBruta(String query, int limit) {
+        Map<Long, Double> puntajes = fuerzaBruta(query);
+        List<Map.Entry<Long, Double>> esperado = new ArrayList<>(puntajes.entrySet());
+        esperado.sort(Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        esperado = esperado.subList(0, Math.min(limit, esperado.size()));
+        
+        List<Coincidencia> resultado = index.find(query, limit);
+        
+        // Los puntajes se suman en otro orden: dos clientes empatados pueden diferir en el último bit, y
+        // entonces el desempate por ID no es exacto. Se comparan los puntajes, posición por posición
+        assertThat(resultado).as(query).hasSameSizeAs(esperado);
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < resultado.size(); i++) {
+            Coincidencia coincidencia = resultado.get(i);
+            assertThat(ids.add(coincidencia.id())).as(query).isTrue();
+            assertThat(coincidencia.puntaje()).as(query).isCloseTo(esperado.get(i).getValue(), within(1e-9));
+            assertThat(puntajes.get(coincidencia.id())).as(query).isCloseTo(coincidencia.puntaje(), within(1e-9));
+        }
+        return resultado.size();
+    }
+    
+    // Puntaje de cada cliente que coincide con todos los términos
+    private Map<Long, Double> fuerzaBruta(String query) {
+        List<String> terminos = NameTokenizer.tokens(query);
+        if (terminos.size() > ClienteNameIndex.MAX_TERMINOS) {
+            terminos = terminos.subList(0, ClienteNameIndex.MAX_TERMINOS);
+        }
+        Map<Long, Double> puntajes = new HashMap<>();
+        if (terminos.isEmpty()) {
+            return puntajes;
+        }
+        for (ClienteDTO cliente : clientes.values()) {
+            Set<String> palabras = new HashSet<>();
+            NameTokenizer.tokens(cliente, palabras);
+            double suma = 0;
+            for (String termino : terminos) {
+                double mejor = palabras.stream().mapToDouble(palabra -> similitud(termino, palabra)).max().orElse(-1);
+                if (mejor < 0) {
+                    suma = -1;
+                    break;
+                }
+                suma += mejor;
+            }
+            if (suma >= 0) {
+                puntajes.put(cliente.getId(), suma / terminos.size());
+            }
+        }
+        return puntajes;
+    }
+    
+    // Coeficiente de Dice sobre trigramas; un prefijo del que solo falta el trigrama final vale el mínimo
+    private static double similitud(String termino, String palabra) {
+        Set<Integer> trigramas = new HashSet<>();
+        for (int trigrama : NameTokenizer.trigramas(termino)) {
+            trigramas.add(trigrama);
+        }
+        int[] dePalabra = NameTokenizer.trigramas(palabra);
+        int comunes = 0;
+        for (int trigrama : dePalabra) {
+            if (trigramas.contains(trigrama)) {
+                comunes++;
+            }
+        }
+        if (comunes == 0) {
+            return -1;
+        }
+        double similitud = 2.0 * comunes / (trigramas.size() + dePalabra.length);
+        if (similitud >= MIN_SIMILARITY) {
+            return similitud;
+        }
+        return comunes >= trigramas.size() - 1 && palabra.startsWith(termino) ? MIN_SIMILARITY : -1;
+    }
+    
+    // Palabras del vocabulario, enteras, con una letra cambiada o recortadas, y a veces una que no existe
+    private static String consulta(Random random) {
+        StringBuilder query = new StringBuilder();
+        int terminos = 1 + random.nextInt(3);
+        for (int t = 0; t < terminos; t++) {
+            String[] vocabulario = random.nextBoolean() ? NOMBRES : APELLIDOS;
+            String palabra = vocabulario[random.nextInt(vocabulario.length)];
+            switch (random.nextInt(5)) {
+                case 0 -> {
+                    int posicion = random.nextInt(palabra.length());
+                    palabra = palabra.substring(0, posicion) + (char) ('a' + random.nextInt(26)) + palabra.substring(posicion + 1);
+                }
+                case 1 -> palabra = palabra.substring(0, Math.min(palabra.length(), 3 + random.nextInt(3)));
+                case 2 -> palabra = random.nextInt(10) == 0 ? "zzyzx" : palabra.toUpperCase();
+                default -> {
+                }
+            }
+            query.append(palabra).append(' ');
+        }
+        return query.toString();
+    }
+    
+    private static String palabras(Random random, String[] vocabulario) {
+        String palabra = vocabulario[random.nextInt(vocabulario.length)];
+        return random.nextInt(4) == 0 ? palabra + " " + vocabulario[random.nextInt(vocabulario.length)] : palabra;
+    }
+    
+    private void crear(long id, String nombre, String apellido) {
+        ClienteDTO cliente = cliente(id, nombre, apellido, 0);
+        clientes.put(id, cliente);
+        index.onClienteChange(new ClienteChangeEvent(ChangeType.CREATED, null, cliente));
+    }
+    
+    private void modificar(long id, String nombre, String apellido) {
+        ClienteDTO anterior = clientes.get(id);
+        ClienteDTO cliente = cliente(id, nombre, apellido, anterior.getVersion() + 1);
+        clientes.put(id, cliente);
+        index.onClienteChange(new ClienteChangeEvent(ChangeType.UPDATED, anterior, cliente));
+    }
+    
+    private void eliminar(long id) {
+        index.onClienteChange(new ClienteChangeEvent(ChangeType.DELETED, clientes.remove(id), null));
+    }
+    
+    private static ClienteDTO cliente(long id, String nombre, String apellido, long version) {
+        ClienteDTO cliente = new ClienteDTO(id, null, nombre, apellido, 30, "c" + id + "@example.com", "VIP");
+        cliente.setVersion(version);
+        return cliente;
+    }
+    
+}
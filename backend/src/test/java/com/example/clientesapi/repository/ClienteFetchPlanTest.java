@@ -0,0 +1,125 @@
+package com.example.clientesapi.repository;
+
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.dto.ClienteDetalleDTO;
+import com.example.clientesapi.dto.ClienteSearchCriteria;
+import com.example.clientesapi.mapper.ClienteMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cantidad de sentencias por operación, medida con las estadísticas de Hibernate: la lectura con la
+ * descripción del tipo y los listados son una sola consulta sin importar cuántos clientes retornan, y
+ * ninguno inicializa la asociación lazy con el tipo.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(ClienteMapper.class)
+class ClienteFetchPlanTest {
+    
+    private static final int CLIENTES = 30;
+    
+    @Autowired
+    private ClienteRepository clienteRepository;
+    
+    @Autowired
+    private TipoClienteRepository tipoClienteRepository;
+    
+    @Autowired
+    private ClienteMapper clienteMapper;
+    
+    @Autowired
+    private EntityManager entityManager;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private Statistics statistics;
+    
+    private Long primerId;
+    
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO tipo_cliente (codigo, descripcion, version) VALUES ('VIP', 'Cliente VIP', 0), ('REGULAR', 'Cliente Regular', 0), ('NUEVO', 'Cliente Nuevo', 0)");
+        List<Object[]> filas = new ArrayList<>();
+        for (int i = 1; i <= CLIENTES; i++) {
+            filas.add(new Object[] {i + "-0", i, "Nombre" + i, "Apellido" + i, 20 + i, "c" + i + "@example.com", i % 2 == 0 ? "VIP" : "REGULAR"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO cliente (rut, rut_numero, rut_dv, nombre, apellido, edad, email, cod_tipo_cliente, version) "
+                + "VALUES (?, ?, '0', ?, ?, ?, ?, ?, 0)", filas);
+        primerId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM cliente", Long.class);
+        
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        entityManager.clear();
+        statistics.clear();
+    }
+    
+    @Test
+    void detalleEsUnaConsultaConJoin() {
+        ClienteDetalleDTO detalle = clienteRepository.findDetalleById(primerId).orElseThrow();
+        
+        assertThat(detalle.getDescripcionTipoCliente()).isEqualTo("Cliente Regular");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+    
+    @Test
+    void paginaPorIdEsUnaConsulta() {
+        List<ClienteDTO> pagina = clienteRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 20))
+                .stream().map(clienteMapper::toDTO).toList();
+        
+        assertThat(pagina).hasSize(20);
+        assertSinCargasAdicionales();
+    }
+    
+    @Test
+    void listadoCompletoEsUnaConsulta() {
+        List<ClienteDTO> todos = clienteRepository.findAll().stream().map(clienteMapper::toDTO).toList();
+        
+        assertThat(todos).hasSize(CLIENTES);
+        assertSinCargasAdicionales();
+    }
+    
+    @Test
+    void busquedaEsUnaConsultaSinEntidades() {
+        ClienteSearchCriteria criteria = new ClienteSearchCriteria();
+        criteria.setCodTipoCliente("VIP");
+        
+        assertThat(clienteRepository.search(criteria, null, 10)).hasSize(10);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+    
+    @Test
+    void eliminarTipoSinClientesSonDosSentencias() {
+        assertThat(clienteRepository.existsByCodTipoCliente("NUEVO")).isFalse();
+        assertThat(tipoClienteRepository.deleteByCodigo("NUEVO")).isEqualTo(1);
+        
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+    
+    // Una consulta para la lista; ningún tipo ni colección cargados por cliente
+    private void assertSinCargasAdicionales() {
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityFetchCount()).isZero();
+        assertThat(statistics.getCollectionFetchCount()).isZero();
+    }
+    
+}
@@ -0,0 +1,60 @@
+package com.example.clientesapi.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * La tabla cliente que genera la entidad coincide con db/schema.sql en lo que valida
+ * {@code ddl-auto=validate} (perfil prod) y en los índices secundarios.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class ClienteSchemaTest {
+    
+    private static final Pattern INDICE = Pattern.compile("^\\s*INDEX (\\w+)", Pattern.MULTILINE);
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void rutDvEsChar1ComoEnSchemaSql() throws IOException {
+        assertThat(schemaSql()).containsPattern("(?m)^\\s*rut_dv CHAR\\(1\\) NOT NULL");
+        
+        Map<String, Object> columna = jdbcTemplate.queryForMap("SELECT data_type, character_maximum_length "
+                + "FROM information_schema.columns WHERE table_name = 'cliente' AND column_name = 'rut_dv'");
+        assertThat((String) columna.get("data_type")).isEqualToIgnoringCase("CHARACTER");
+        assertThat(((Number) columna.get("character_maximum_length")).intValue()).isEqualTo(1);
+    }
+    
+    @Test
+    void indicesSecundariosSonLosDeLaEntidad() throws IOException {
+        Matcher matcher = INDICE.matcher(schemaSql().substring(schemaSql().indexOf("CREATE TABLE cliente")));
+        List<String> enSchemaSql = matcher.results().map(resultado -> resultado.group(1))
+                .takeWhile(nombre -> nombre.startsWith("idx_cliente_")).toList();
+        
+        assertThat(enSchemaSql).doesNotContain("idx_cliente_email");
+        assertThat(jdbcTemplate.queryForList("SELECT index_name FROM information_schema.indexes "
+                + "WHERE table_name = 'cliente' AND index_name LIKE 'idx_cliente_%'", String.class))
+                .containsExactlyInAnyOrderElementsOf(enSchemaSql);
+    }
+    
+    private static String schemaSql() throws IOException {
+        return new ClassPathResource("db/schema.sql").getContentAsString(StandardCharsets.UTF_8);
+    }
+    
+}
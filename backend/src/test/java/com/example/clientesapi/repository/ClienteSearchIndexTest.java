@@ -0,0 +1,186 @@
+package com.example.clientesapi.repository;
+
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.dto.ClienteSearchCriteria;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica con EXPLAIN que cada forma de búsqueda de {@link ClienteSearchRepositoryImpl} usa el índice de
+ * db/schema.sql que documenta. Las tablas las crea Hibernate con los índices declarados en la entidad,
+ * que llevan los mismos nombres.
+ * <p>
+ * H2 no tiene en cuenta el LIMIT al elegir entre recorrer un índice en orden u ordenar la tabla, de modo
+ * que para los órdenes sin filtros (que MySQL resuelve recorriendo el índice) se verifica que el ORDER BY
+ * coincide con las columnas del índice seguidas de la clave primaria.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.clientesapi.repository.SqlCapture")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class ClienteSearchIndexTest {
+    
+    private static final Pattern SELECT = Pattern.compile("select (.+?) from", Pattern.CASE_INSENSITIVE);
+    
+    private static final Pattern ORDER_BY = Pattern.compile("order by (.+?) (fetch|offset|limit)", Pattern.CASE_INSENSITIVE);
+    
+    private static final ClienteDTO AFTER = new ClienteDTO(50L, "50-0", "Nombre50", "Apellido50", 50, "c50@example.com", "VIP");
+    
+    @Autowired
+    private ClienteRepository clienteRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO tipo_cliente (codigo, descripcion, version) VALUES ('VIP', 'Cliente VIP', 0)");
+        List<Object[]> filas = new ArrayList<>();
+        for (int i = 1; i <= 5000; i++) {
+            filas.add(new Object[] {i + "-0", i, "Nombre" + i, "Apellido" + i, i % 90, "c" + i + "@example.com"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO cliente (rut, rut_numero, rut_dv, nombre, apellido, edad, email, cod_tipo_cliente, version) "
+                + "VALUES (?, ?, '0', ?, ?, ?, ?, 'VIP', 0)", filas);
+    }
+    
+    @Test
+    void ordenPorIdRecorreLaClavePrimaria() {
+        assertThat(explain(criteria(null, null, null), null)).contains("PRIMARY_KEY").contains("index sorted");
+        assertThat(explain(criteria(null, null, null), AFTER)).containsPattern("PRIMARY_KEY_\\w+: id >=").contains("index sorted");
+    }
+    
+    @Test
+    void filtroPorTipoUsaIdxClienteTipo() {
+        ClienteSearchCriteria criteria = criteria(null, null, null);
+        criteria.setCodTipoCliente("VIP");
+        
+        assertThat(explain(criteria, null)).contains("idx_cliente_tipo: cod_tipo_cliente =");
+        assertThat(explain(criteria, AFTER)).contains("idx_cliente_tipo: cod_tipo_cliente =");
+    }
+    
+    @Test
+    void prefijoDeNombreUsaRangoDeIdxClienteNombreApellido() {
+        assertThat(explain(criteria("Nom", null, null), null)).contains("idx_cliente_nombre_apellido: nombre >=");
+    }
+    
+    @Test
+    void prefijoDeApellidoUsaRangoDeIdxClienteApellidoNombre() {
+        assertThat(explain(criteria(null, "Ape", null), null)).contains("idx_cliente_apellido_nombre: apellido >=");
+    }
+    
+    @Test
+    void rangoDeEdadUsaIdxClienteEdad() {
+        ClienteSearchCriteria criteria = criteria(null, null, null);
+        criteria.setEdadMin(18);
+        criteria.setEdadMax(30);
+        
+        assertThat(explain(criteria, null)).contains("idx_cliente_edad: edad >=");
+    }
+    
+    @Test
+    void paginaSiguientePorNombreEsRangoDeIdxClienteNombreApellido() {
+        ClienteSearchCriteria criteria = criteria(null, null, ClienteSearchCriteria.ORDEN_NOMBRE);
+        
+        assertThat(explain(criteria, AFTER)).contains("idx_cliente_nombre_apellido: nombre >=");
+        assertThat(orderBy(criteria)).isEqualTo(withId(indexColumns("idx_cliente_nombre_apellido")));
+    }
+    
+    @Test
+    void paginaSiguientePorEdadEsRangoDeIdxClienteEdad() {
+        ClienteSearchCriteria criteria = criteria(null, null, ClienteSearchCriteria.ORDEN_EDAD);
+        
+        assertThat(explain(criteria, AFTER)).contains("idx_cliente_edad: edad >=");
+        assertThat(orderBy(criteria)).isEqualTo(withId(indexColumns("idx_cliente_edad")));
+        
+        // En orden descendente la cota incluye los NULL (edad <= ? OR edad IS NULL): MySQL la resuelve como
+        // un solo rango del índice porque ordena los NULL al principio; H2 no, así que solo se verifica el orden
+        criteria.setDireccion("desc");
+        assertThat(orderBy(criteria)).isEqualTo(withId(indexColumns("idx_cliente_edad")));
+    }
+    
+    private static ClienteSearchCriteria criteria(String nombre, String apellido, String orden) {
+        ClienteSearchCriteria criteria = new ClienteSearchCriteria();
+        criteria.setNombre(nombre);
+        criteria.setApellido(apellido);
+        if (orden != null) {
+            criteria.setOrden(orden);
+        }
+        return criteria;
+    }
+    
+    // Plan de H2 para la consulta que genera la búsqueda. El plan no depende de los valores, salvo el del
+    // LIKE: un prefijo con comodín final, para que H2 lo convierta en un rango como lo hace MySQL
+    private String explain(ClienteSearchCriteria criteria, ClienteDTO after) {
+        String sql = capture(criteria, after);
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                ParameterMetaData parameters = statement.getParameterMetaData();
+                for (int i = 1; i <= parameters.getParameterCount(); i++) {
+                    if (parameters.getParameterType(i) == Types.VARCHAR) {
+                        statement.setString(i, "Nom%");
+                    } else {
+                        statement.setInt(i, 1);
+                    }
+                }
+                try (ResultSet rs = statement.executeQuery()) {
+                    rs.next();
+                    return rs.getString(1);
+                }
+            }
+        });
+    }
+    
+    // Columnas del ORDER BY; Hibernate puede referirse a ellas por su posición en el SELECT
+    private List<String> orderBy(ClienteSearchCriteria criteria) {
+        String sql = capture(criteria, null);
+        Matcher select = SELECT.matcher(sql);
+        Matcher orderBy = ORDER_BY.matcher(sql);
+        assertThat(select.find() && orderBy.find()).isTrue();
+        String[] seleccionadas = select.group(1).split(",");
+        List<String> columnas = new ArrayList<>();
+        for (String termino : orderBy.group(1).split(",")) {
+            String columna = termino.trim().split(" ")[0];
+            if (columna.chars().allMatch(Character::isDigit)) {
+                columna = seleccionadas[Integer.parseInt(columna) - 1].trim();
+            }
+            columnas.add(columna.substring(columna.indexOf('.') + 1).toLowerCase(Locale.ROOT));
+        }
+        return columnas;
+    }
+    
+    private String capture(ClienteSearchCriteria criteria, ClienteDTO after) {
+        SqlCapture.clear();
+        clienteRepository.search(criteria, after, 10);
+        return SqlCapture.last();
+    }
+    
+    private List<String> indexColumns(String index) {
+        return jdbcTemplate.queryForList("SELECT column_name FROM information_schema.index_columns "
+                + "WHERE table_name = 'cliente' AND index_name = ? ORDER BY ordinal_position", String.class, index);
+    }
+    
+    // Los índices secundarios de InnoDB terminan implícitamente en la clave primaria
+    private static List<String> withId(List<String> columnas) {
+        List<String> conId = new ArrayList<>(columnas);
+        conId.add("id");
+        return conId;
+    }
+    
+}
@@ -0,0 +1,90 @@
+package com.example.clientesapi.repository;
+
+import com.example.clientesapi.entity.OutboxEvento;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(JdbcOutboxRepository.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JdbcOutboxRepositoryTest {
+    
+    @Autowired
+    private JdbcOutboxRepository outboxRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private TransactionTemplate transactionTemplate;
+    
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        jdbcTemplate.update("DELETE FROM outbox_evento");
+        List<OutboxEvento> eventos = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            OutboxEvento evento = new OutboxEvento();
+            evento.setEntidad("cliente");
+            evento.setTipo("CREATED");
+            evento.setClave(String.valueOf(i));
+            evento.setCreatedAt(Instant.now());
+            eventos.add(evento);
+        }
+        outboxRepository.insertAll(eventos);
+    }
+    
+    @Test
+    void asignaSeqConsecutivosEnElOrdenDeLosIds() {
+        List<Long> ids = outboxRepository.findUnsequencedIds(10);
+        
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.assignSeq(ids, 1));
+        
+        assertThat(seqs(ids)).containsExactly(1L, 2L, 3L);
+        assertThat(outboxRepository.findUnsequencedIds(10)).isEmpty();
+    }
+    
+    @Test
+    void loteConEventosYaPublicadosSeRevierteSinCambiarSuSeq() {
+        // Dos publicadores leyeron los mismos IDs; el primero publicó dos de ellos
+        List<Long> leidos = outboxRepository.findUnsequencedIds(10);
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.assignSeq(leidos.subList(0, 2), 1));
+        
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> outboxRepository.assignSeq(leidos, 3)))
+                .isInstanceOf(ConcurrencyFailureException.class);
+        
+        assertThat(seqs(leidos)).containsExactly(1L, 2L, null);
+        assertThat(outboxRepository.findMaxSeq()).isEqualTo(2);
+    }
+    
+    private List<Long> seqs(List<Long> ids) {
+        List<Long> seqs = new ArrayList<>();
+        for (Long id : ids) {
+            seqs.add(jdbcTemplate.queryForObject("SELECT seq FROM outbox_evento WHERE id = ?", Long.class, id));
+        }
+        return seqs;
+    }
+    
+}
@@ -0,0 +1,36 @@
+package com.example.clientesapi.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registra el SQL que Hibernate prepara, para examinar su plan de ejecución en las pruebas. Se activa con
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}.
+ */
+public class SqlCapture implements StatementInspector {
+    
+    private static final List<String> SENTENCIAS = new ArrayList<>();
+    
+    @Override
+    public String inspect(String sql) {
+        synchronized (SENTENCIAS) {
+            SENTENCIAS.add(sql);
+        }
+        return sql;
+    }
+    
+    public static void clear() {
+        synchronized (SENTENCIAS) {
+            SENTENCIAS.clear();
+        }
+    }
+    
+    public static String last() {
+        synchronized (SENTENCIAS) {
+            return SENTENCIAS.isEmpty() ? null : SENTENCIAS.get(SENTENCIAS.size() - 1);
+        }
+    }
+    
+}
@@ -0,0 +1,247 @@
+package com.example.clientesapi.service;
+
+import com.example.clientesapi.cache.TipoClienteCache;
+import com.example.clientesapi.dto.BulkItemResultDTO;
+import com.example.clientesapi.dto.BulkItemResultDTO.Estado;
+import com.example.clientesapi.dto.BulkResultDTO;
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.dto.TipoClienteDTO;
+import com.example.clientesapi.entity.Rut;
+import com.example.clientesapi.event.ChangeType;
+import com.example.clientesapi.event.ClienteChangeEvent;
+import com.example.clientesapi.repository.ClienteBulkRepository;
+import com.example.clientesapi.repository.ClienteRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.reset;
+
+/**
+ * Carga masiva con JPA sobre H2: resultado por fila, validaciones dentro del lote y contra la base de
+ * datos, actualización condicional a la versión leída, reintento fila por fila y confirmación por lote.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@RecordApplicationEvents
+class ClienteBulkServiceTest {
+    
+    private static final AtomicInteger SIGUIENTE = new AtomicInteger(70_000_000);
+    
+    @SpyBean
+    private ClienteBulkRepository clienteBulkRepository;
+    
+    @Autowired
+    private ClienteBulkService clienteBulkService;
+    
+    @Autowired
+    private ClienteService clienteService;
+    
+    @Autowired
+    private ClienteRepository clienteRepository;
+    
+    @Autowired
+    private TipoClienteService tipoClienteService;
+    
+    @Autowired
+    private TipoClienteCache tipoClienteCache;
+    
+    @Autowired
+    private ApplicationEvents events;
+    
+    @BeforeEach
+    void setUpTipos() {
+        if (!tipoClienteCache.contains("VIP")) {
+            tipoClienteService.save(new TipoClienteDTO("VIP", "Cliente VIP"));
+        }
+    }
+    
+    @AfterEach
+    void tearDown() {
+        reset(clienteBulkRepository);
+    }
+    
+    @Test
+    void cadaFilaTieneSuResultado() {
+        ClienteDTO existente = clienteService.create(cliente(SIGUIENTE.incrementAndGet()));
+        ClienteDTO valido = cliente(SIGUIENTE.incrementAndGet());
+        ClienteDTO sinNombre = cliente(SIGUIENTE.incrementAndGet());
+        sinNombre.setNombre(null);
+        ClienteDTO tipoInexistente = cliente(SIGUIENTE.incrementAndGet());
+        tipoInexistente.setCodTipoCliente("NOEXISTE");
+        ClienteDTO mismoRut = cliente(SIGUIENTE.incrementAndGet());
+        mismoRut.setRut(existente.getRut());
+        
+        BulkResultDTO resultado = clienteBulkService.process(List.of(valido, sinNombre, tipoInexistente, mismoRut).iterator(), false);
+        
+        assertThat(resultado.getTotal()).isEqualTo(4);
+        assertThat(resultado.getCreados()).isEqualTo(1);
+        assertThat(resultado.getFallidos()).isEqualTo(3);
+        assertThat(resultado.getResultados()).extracting(BulkItemResultDTO::getIndice).containsExactly(0, 1, 2, 3);
+        assertThat(resultado.getResultados()).extracting(BulkItemResultDTO::getEstado)
+                .containsExactly(Estado.CREADO, Estado.ERROR, Estado.ERROR, Estado.ERROR);
+        assertThat(resultado.getResultados().get(0).getId()).isEqualTo(clienteService.findByRut(valido.getRut()).getId());
+        assertThat(resultado.getResultados().get(1).getMensaje()).contains("nombre");
+        assertThat(resultado.getResultados().get(2).getMensaje()).contains("NOEXISTE");
+        assertThat(resultado.getResultados().get(3).getMensaje()).contains(existente.getRut());
+    }
+    
+    @Test
+    void rutOEmailRepetidosEnElMismoLoteSeRechazan() {
+        int numero = SIGUIENTE.incrementAndGet();
+        ClienteDTO primero = cliente(numero);
+        // El mismo RUT en otro formato, y el email de otra fila en mayúsculas
+        ClienteDTO mismoRut = cliente(SIGUIENTE.incrementAndGet());
+        mismoRut.setRut(String.format(Locale.ROOT, "%,d", numero).replace(',', '.') + "-" + Rut.digitoVerificador(numero));
+        ClienteDTO mismoEmail = cliente(SIGUIENTE.incrementAndGet());
+        mismoEmail.setEmail(primero.getEmail().toUpperCase());
+        
+        BulkResultDTO resultado = clienteBulkService.process(List.of(primero, mismoRut, mismoEmail).iterator(), false);
+        
+        assertThat(resultado.getResultados()).extracting(BulkItemResultDTO::getEstado)
+                .containsExactly(Estado.CREADO, Estado.ERROR, Estado.ERROR);
+        assertThat(resultado.getResultados().get(1).getMensaje()).contains("RUT repetido");
+        assertThat(resultado.getResultados().get(2).getMensaje()).contains("Email repetido");
+    }
+    
+    @Test
+    void unEmailExistenteSeDetectaSinDistinguirMayusculas() {
+        ClienteDTO existente = clienteService.create(cliente(SIGUIENTE.incrementAndGet()));
+        ClienteDTO mismoEmail = cliente(SIGUIENTE.incrementAndGet());
+        mismoEmail.setEmail(existente.getEmail().toUpperCase());
+        
+        BulkResultDTO resultado = clienteBulkService.process(List.of(mismoEmail).iterator(), false);
+        
+        assertThat(resultado.getFallidos()).isEqualTo(1);
+        assertThat(resultado.getResultados().get(0).getMensaje()).contains("email");
+    }
+    
+    @Test
+    void upsertActualizaYPublicaLaVersionResultante() {
+        ClienteDTO existente = clienteService.create(cliente(SIGUIENTE.incrementAndGet()));
+        ClienteDTO cambio = cliente(Rut.numero(existente.getRut()));
+        cambio.setNombre("Actualizada");
+        
+        BulkResultDTO resultado = clienteBulkService.process(List.of(cambio).iterator(), true);
+        
+        assertThat(resultado.getActualizados()).isEqualTo(1);
+        ClienteDTO leido = clienteService.findById(existente.getId());
+        assertThat(leido.getNombre()).isEqualTo("Actualizada");
+        assertThat(leido.getVersion()).isEqualTo(existente.getVersion() + 1);
+        assertThat(events.stream(ClienteChangeEvent.class)
+                .filter(event -> event.getType() == ChangeType.UPDATED && event.getId().equals(existente.getId())))
+                .singleElement()
+                .satisfies(event -> assertThat(event.getAfter().getVersion()).isEqualTo(leido.getVersion()));
+    }
+    
+    @Test
+    void unClienteModificadoDuranteLaCargaSeReportaComoConflicto() {
+        ClienteDTO existente = clienteService.create(cliente(SIGUIENTE.incrementAndGet()));
+        ClienteDTO otro = cliente(SIGUIENTE.incrementAndGet());
+        ClienteDTO cambio = cliente(Rut.numero(existente.getRut()));
+        cambio.setNombre("Desde la carga");
+        // Otro escritor modifica el cliente después de que la carga leyó su versión
+        doAnswer(invocation -> {
+            Object leidos = invocation.callRealMethod();
+            ClienteDTO concurrente = cliente(Rut.numero(existente.getRut()));
+            concurrente.setNombre("Concurrente");
+            enOtraTransaccion(() -> clienteService.update(existente.getId(), concurrente, null));
+            return leidos;
+        }).when(clienteBulkRepository).findByRuts(anyCollection());
+        
+        BulkResultDTO resultado = clienteBulkService.process(List.of(cambio, otro).iterator(), true);
+        
+        assertThat(resultado.getResultados()).extracting(BulkItemResultDTO::getEstado)
+                .containsExactly(Estado.ERROR, Estado.CREADO);
+        assertThat(resultado.getResultados().get(0).getMensaje()).contains("modificado");
+        assertThat(clienteService.findById(existente.getId()).getNombre()).isEqualTo("Concurrente");
+    }
+    
+    @Test
+    void unConflictoAlEscribirSeReintentaFilaPorFila() {
+        ClienteDTO antes = cliente(SIGUIENTE.incrementAndGet());
+        ClienteDTO enConflicto = cliente(SIGUIENTE.incrementAndGet());
+        ClienteDTO despues = cliente(SIGUIENTE.incrementAndGet());
+        // Otro escritor confirma el RUT de una fila entre la verificación y el INSERT del lote
+        ClienteDTO concurrente = cliente(Rut.numero(enConflicto.getRut()));
+        concurrente.setEmail("concurrente" + SIGUIENTE.incrementAndGet() + "@example.com");
+        AtomicInteger lecturas = new AtomicInteger();
+        doAnswer(invocation -> {
+            Object leidos = invocation.callRealMethod();
+            if (lecturas.incrementAndGet() == 1) {
+                enOtraTransaccion(() -> clienteService.create(concurrente));
+            }
+            return leidos;
+        }).when(clienteBulkRepository).findRutsByEmail(anyCollection());
+        
+        BulkResultDTO resultado = clienteBulkService.process(List.of(antes, enConflicto, despues).iterator(), false);
+        
+        assertThat(resultado.getResultados()).extracting(BulkItemResultDTO::getEstado)
+                .containsExactly(Estado.CREADO, Estado.ERROR, Estado.CREADO);
+        assertThat(resultado.getResultados().get(1).getMensaje()).contains(enConflicto.getRut());
+        // Un intento por el lote y uno por cada fila
+        assertThat(lecturas.get()).isEqualTo(4);
+        assertThat(clienteService.findByRut(enConflicto.getRut()).getEmail()).isEqualTo(concurrente.getEmail());
+    }
+    
+    @Test
+    void cadaLoteSeConfirmaPorSeparado() {
+        List<ClienteDTO> clientes = List.of(cliente(SIGUIENTE.incrementAndGet()), cliente(SIGUIENTE.incrementAndGet()),
+                cliente(SIGUIENTE.incrementAndGet()));
+        // La entrada falla al leer la cuarta fila, con el segundo lote a medio armar
+        Iterator<ClienteDTO> entrada = new Iterator<>() {
+            private int siguiente;
+            
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+            
+            @Override
+            public ClienteDTO next() {
+                if (siguiente == clientes.size()) {
+                    throw new IllegalStateException("Entrada cortada");
+                }
+                return clientes.get(siguiente++);
+            }
+        };
+        
+        assertThatThrownBy(() -> clienteBulkService.process(entrada, false, 2, false))
+                .isInstanceOf(IllegalStateException.class);
+        
+        assertThat(clienteRepository.existsByRutNumeroAndRutDv(Rut.numero(clientes.get(0).getRut()),
+                String.valueOf(Rut.dv(clientes.get(0).getRut())))).isTrue();
+        assertThat(clienteRepository.existsByRutNumeroAndRutDv(Rut.numero(clientes.get(1).getRut()),
+                String.valueOf(Rut.dv(clientes.get(1).getRut())))).isTrue();
+        assertThat(clienteRepository.existsByRutNumeroAndRutDv(Rut.numero(clientes.get(2).getRut()),
+                String.valueOf(Rut.dv(clientes.get(2).getRut())))).isFalse();
+    }
+    
+    // En otro hilo, para confirmarse fuera de la transacción del lote
+    private static void enOtraTransaccion(Runnable escritura) throws Exception {
+        CompletableFuture.runAsync(escritura).get(10, TimeUnit.SECONDS);
+    }
+    
+    private static ClienteDTO cliente(int numero) {
+        return new ClienteDTO(null, numero + "-" + Rut.digitoVerificador(numero), "Ana", "Rojas", 30,
+                "bulk" + numero + "@example.com", "VIP");
+    }
+    
+}
@@ -0,0 +1,77 @@
+package com.example.clientesapi.service;
+
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.exception.BusinessLogicException;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ClienteCsvTest {
+    
+    @Test
+    void camposConComasComillasYSaltosDeLineaSeLeenIgual() throws Exception {
+        List<ClienteDTO> clientes = List.of(
+                new ClienteDTO(1L, "12345678-5", "Ana, María", "Rojas \"la Rubia\"", 30, "ana@example.com", "VIP"),
+                new ClienteDTO(2L, "11111111-1", "Juan\nPablo", "Pérez\r\nSoto", null, "juan@example.com", "REGULAR"),
+                new ClienteDTO(3L, "22222222-2", "\"", ",", 0, "x@example.com", "NUEVO"));
+        StringWriter out = new StringWriter();
+        ClienteCsv.writeHeader(out);
+        for (ClienteDTO cliente : clientes) {
+            ClienteCsv.writeRow(out, cliente);
+        }
+        
+        assertThat(out.toString()).contains("\"Ana, María\",\"Rojas \"\"la Rubia\"\"\"");
+        List<ClienteDTO> leidos = leer(out.toString());
+        assertThat(leidos).hasSize(3);
+        for (int i = 0; i < clientes.size(); i++) {
+            // El id no se importa
+            assertThat(leidos.get(i)).usingRecursiveComparison().ignoringFields("id").isEqualTo(clientes.get(i));
+        }
+    }
+    
+    @Test
+    void lasColumnasSeUbicanPorNombreYSeIgnoraElBom() {
+        List<ClienteDTO> leidos = leer("\uFEFFemail,codTipoCliente,rut,nombre,apellido,edad\n"
+                + "ana@example.com,VIP,12345678-5,Ana,Rojas,30\n"
+                + "\n");
+        
+        assertThat(leidos).singleElement().satisfies(cliente -> {
+            assertThat(cliente.getRut()).isEqualTo("12345678-5");
+            assertThat(cliente.getEmail()).isEqualTo("ana@example.com");
+            assertThat(cliente.getEdad()).isEqualTo(30);
+        });
+    }
+    
+    @Test
+    void unaFilaMalFormadaIndicaSuLinea() {
+        String cabecera = String.join(",", ClienteCsv.COLUMNAS) + "\n";
+        
+        assertThatThrownBy(() -> leer(cabecera + ",12345678-5,Ana,Rojas,30,ana@example.com\n"))
+                .isInstanceOf(BusinessLogicException.class)
+                .hasMessageContaining("línea 2");
+        assertThatThrownBy(() -> leer(cabecera + ",12345678-5,Ana,Rojas,treinta,ana@example.com,VIP\n"))
+                .isInstanceOf(BusinessLogicException.class)
+                .hasMessageContaining("edad no numérica");
+        assertThatThrownBy(() -> leer(cabecera + ",12345678-5,\"Ana,Rojas,30,ana@example.com,VIP\n"))
+                .isInstanceOf(BusinessLogicException.class)
+                .hasMessageContaining("comillas sin cerrar");
+        assertThatThrownBy(() -> leer("id,rut,nombre\n"))
+                .isInstanceOf(BusinessLogicException.class)
+                .hasMessageContaining("columna: apellido");
+    }
+    
+    private static List<ClienteDTO> leer(String csv) {
+        List<ClienteDTO> clientes = new ArrayList<>();
+        Iterator<ClienteDTO> reader = ClienteCsv.reader(new StringReader(csv));
+        reader.forEachRemaining(clientes::add);
+        return clientes;
+    }
+    
+}
@@ -0,0 +1,221 @@
+package com.example.clientesapi.service;
+
+import com.example.clientesapi.cache.TipoClienteCache;
+import com.example.clientesapi.dto.BulkResultDTO;
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.dto.TipoClienteDTO;
+import com.example.clientesapi.entity.Rut;
+import com.example.clientesapi.exception.BusinessLogicException;
+import com.example.clientesapi.exception.ResourceNotFoundException;
+import com.example.clientesapi.service.ClienteExportService.Formato;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Exportación e importación completas contra H2: CSV con campos entre comillas, NDJSON, gzip, errores
+ * de formato y confirmación por lote.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ClienteExportServiceTest {
+    
+    private static final AtomicInteger SIGUIENTE = new AtomicInteger(90_000_000);
+    
+    @Autowired
+    private ClienteExportService exportService;
+    
+    @Autowired
+    private ClienteService clienteService;
+    
+    @Autowired
+    private TipoClienteService tipoClienteService;
+    
+    @Autowired
+    private TipoClienteCache tipoClienteCache;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @BeforeEach
+    void setUpTipos() {
+        if (!tipoClienteCache.contains("VIP")) {
+            tipoClienteService.save(new TipoClienteDTO("VIP", "Cliente VIP"));
+        }
+    }
+    
+    @Test
+    void csvConComillasSeExportaEImportaIgual() throws Exception {
+        ClienteDTO comas = cliente(SIGUIENTE.incrementAndGet());
+        comas.setNombre("Ana, María");
+        comas.setApellido("Rojas \"la Rubia\"");
+        ClienteDTO saltos = cliente(SIGUIENTE.incrementAndGet());
+        saltos.setNombre("Juan\nPablo");
+        saltos.setApellido("Pérez\r\nSoto");
+        
+        BulkResultDTO resultado = importar(Formato.CSV, false, csv(comas, saltos), false, 100);
+        assertThat(resultado.getCreados()).isEqualTo(2);
+        assertThat(resultado.getFallidos()).isZero();
+        assertThat(clienteService.findByRut(comas.getRut()))
+                .usingRecursiveComparison().comparingOnlyFields("nombre", "apellido", "email").isEqualTo(comas);
+        assertThat(clienteService.findByRut(saltos.getRut()))
+                .usingRecursiveComparison().comparingOnlyFields("nombre", "apellido", "email").isEqualTo(saltos);
+        
+        Map<String, ClienteDTO> exportados = porRut(leerCsv(exportar(Formato.CSV, false)));
+        assertThat(exportados.get(comas.getRut()))
+                .usingRecursiveComparison().comparingOnlyFields("nombre", "apellido", "edad", "email", "codTipoCliente").isEqualTo(comas);
+        assertThat(exportados.get(saltos.getRut()))
+                .usingRecursiveComparison().comparingOnlyFields("nombre", "apellido", "edad", "email", "codTipoCliente").isEqualTo(saltos);
+    }
+    
+    @Test
+    void conGzipSeExportaElMismoContenidoComprimido() throws Exception {
+        clienteService.create(cliente(SIGUIENTE.incrementAndGet()));
+        
+        for (Formato formato : Formato.values()) {
+            byte[] plano = exportar(formato, false);
+            byte[] comprimido = exportar(formato, true);
+            
+            assertThat(comprimido[0] & 0xFF).isEqualTo(0x1F);
+            assertThat(comprimido[1] & 0xFF).isEqualTo(0x8B);
+            assertThat(new GZIPInputStream(new ByteArrayInputStream(comprimido)).readAllBytes()).isEqualTo(plano);
+        }
+    }
+    
+    @Test
+    void ndjsonTieneUnClientePorLineaYSeImportaConGzip() throws Exception {
+        ClienteDTO existente = clienteService.create(cliente(SIGUIENTE.incrementAndGet()));
+        
+        String[] lineas = new String(exportar(Formato.NDJSON, false), StandardCharsets.UTF_8).split("\n");
+        List<ClienteDTO> exportados = new ArrayList<>();
+        for (String linea : lineas) {
+            exportados.add(objectMapper.readValue(linea, ClienteDTO.class));
+        }
+        assertThat(porRut(exportados).get(existente.getRut()).getId()).isEqualTo(existente.getId());
+        
+        ClienteDTO nuevo = cliente(SIGUIENTE.incrementAndGet());
+        nuevo.setNombre("Línea \"con\" comillas");
+        ClienteDTO modificado = cliente(existente.getRut(), "otro" + SIGUIENTE.incrementAndGet() + "@example.com");
+        String ndjson = objectMapper.writeValueAsString(nuevo) + "\n" + objectMapper.writeValueAsString(modificado) + "\n";
+        
+        BulkResultDTO resultado = importar(Formato.NDJSON, true, gzip(ndjson.getBytes(StandardCharsets.UTF_8)), true, 100);
+        assertThat(resultado.getCreados()).isEqualTo(1);
+        assertThat(resultado.getActualizados()).isEqualTo(1);
+        assertThat(clienteService.findByRut(nuevo.getRut()).getNombre()).isEqualTo("Línea \"con\" comillas");
+        assertThat(clienteService.findById(existente.getId()).getEmail()).isEqualTo(modificado.getEmail());
+    }
+    
+    @Test
+    void entradaMalFormadaOTamanoDeLoteFueraDeRangoSeRechazan() {
+        byte[] csv = csv(cliente(SIGUIENTE.incrementAndGet()));
+        
+        assertThatThrownBy(() -> importar(Formato.CSV, true, csv, false, 100))
+                .isInstanceOf(BusinessLogicException.class)
+                .hasMessageContaining("no está comprimido con gzip");
+        assertThatThrownBy(() -> importar(Formato.NDJSON, false, "{\"rut\": \"1-9\", \"nombre\": }\n".getBytes(StandardCharsets.UTF_8), false, 100))
+                .isInstanceOf(BusinessLogicException.class)
+                .hasMessageContaining("no es NDJSON válido");
+        assertThatThrownBy(() -> importar(Formato.CSV, false, csv, false, 0))
+                .isInstanceOf(BusinessLogicException.class)
+                .hasMessageContaining("tamaño de lote");
+        assertThatThrownBy(() -> importar(Formato.CSV, false, csv, false, ClienteExportService.MAX_CHUNK_SIZE + 1))
+                .isInstanceOf(BusinessLogicException.class)
+                .hasMessageContaining("tamaño de lote");
+        assertThatThrownBy(() -> Formato.from("xml"))
+                .isInstanceOf(BusinessLogicException.class);
+    }
+    
+    @Test
+    void unErrorEnUnLoteDejaConfirmadosLosAnteriores() {
+        List<ClienteDTO> clientes = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            clientes.add(cliente(SIGUIENTE.incrementAndGet()));
+        }
+        // La sexta fila, en el tercer lote, tiene una columna de menos
+        String csv = new String(csv(clientes.toArray(ClienteDTO[]::new)), StandardCharsets.UTF_8)
+                + ",99999999-9,Ana,Rojas,30,ana@example.com\n";
+        
+        assertThatThrownBy(() -> importar(Formato.CSV, false, csv.getBytes(StandardCharsets.UTF_8), false, 2))
+                .isInstanceOf(BusinessLogicException.class)
+                .hasMessageContaining("línea 7");
+        
+        for (ClienteDTO cliente : clientes.subList(0, 4)) {
+            assertThat(clienteService.findByRut(cliente.getRut()).getEmail()).isEqualTo(cliente.getEmail());
+        }
+        // El tercer lote no llegó a escribirse
+        assertThatThrownBy(() -> clienteService.findByRut(clientes.get(4).getRut()))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+    
+    private byte[] exportar(Formato formato, boolean gzip) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(formato, gzip, out);
+        return out.toByteArray();
+    }
+    
+    private BulkResultDTO importar(Formato formato, boolean gzip, byte[] contenido, boolean upsert, int chunkSize) throws IOException {
+        return exportService.importClientes(formato, gzip, new ByteArrayInputStream(contenido), upsert, chunkSize, false);
+    }
+    
+    private static byte[] csv(ClienteDTO... clientes) {
+        try {
+            StringWriter out = new StringWriter();
+            ClienteCsv.writeHeader(out);
+            for (ClienteDTO cliente : clientes) {
+                ClienteCsv.writeRow(out, cliente);
+            }
+            return out.toString().getBytes(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private static List<ClienteDTO> leerCsv(byte[] csv) {
+        List<ClienteDTO> clientes = new ArrayList<>();
+        ClienteCsv.reader(new InputStreamReader(new ByteArrayInputStream(csv), StandardCharsets.UTF_8))
+                .forEachRemaining(clientes::add);
+        return clientes;
+    }
+    
+    private static byte[] gzip(byte[] contenido) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(contenido);
+        }
+        return out.toByteArray();
+    }
+    
+    private static Map<String, ClienteDTO> porRut(List<ClienteDTO> clientes) {
+        return clientes.stream().collect(Collectors.toMap(ClienteDTO::getRut, Function.identity()));
+    }
+    
+    private static ClienteDTO cliente(int numero) {
+        return cliente(numero + "-" + Rut.digitoVerificador(numero), "export" + numero + "@example.com");
+    }
+    
+    private static ClienteDTO cliente(String rut, String email) {
+        return new ClienteDTO(null, rut, "Ana", "Rojas", 30, email, "VIP");
+    }
+    
+}
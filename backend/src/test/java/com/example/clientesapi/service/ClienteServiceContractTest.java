@@ -0,0 +1,350 @@
+package com.example.clientesapi.service;
+
+import com.example.clientesapi.cache.ClienteCache;
+import com.example.clientesapi.cache.TipoClienteCache;
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.dto.ClienteMgetResultDTO;
+import com.example.clientesapi.dto.ClienteSearchCriteria;
+import com.example.clientesapi.dto.TipoClienteDTO;
+import com.example.clientesapi.entity.Cliente;
+import com.example.clientesapi.entity.Rut;
+import com.example.clientesapi.exception.BusinessLogicException;
+import com.example.clientesapi.exception.DuplicateResourceException;
+import com.example.clientesapi.exception.PreconditionFailedException;
+import com.example.clientesapi.exception.ResourceNotFoundException;
+import com.example.clientesapi.repository.ClienteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Comportamiento de los servicios y repositorios que debe ser el mismo con JPA ({@link ClienteServiceJpaTest})
+ * y con el almacenamiento en memoria ({@link ClienteServiceMemoryTest}).
+ */
+@SpringBootTest
+abstract class ClienteServiceContractTest {
+    
+    // Compartido por ambas variantes: cada cliente creado en la JVM tiene RUT y email propios
+    private static final AtomicInteger SIGUIENTE = new AtomicInteger(20_000_000);
+    
+    @Autowired
+    protected ClienteService clienteService;
+    
+    @Autowired
+    protected TipoClienteService tipoClienteService;
+    
+    @SpyBean
+    protected ClienteRepository clienteRepository;
+    
+    @Autowired
+    private ClienteCache clienteCache;
+    
+    @Autowired
+    private TipoClienteCache tipoClienteCache;
+    
+    @BeforeEach
+    void setUpTipos() {
+        for (String codigo : List.of("VIP", "REGULAR")) {
+            if (!tipoClienteCache.contains(codigo)) {
+                tipoClienteService.save(new TipoClienteDTO(codigo, "Cliente " + codigo));
+            }
+        }
+    }
+    
+    @Test
+    void creaYLeePorIdYPorRutEnCualquierFormato() {
+        int numero = SIGUIENTE.incrementAndGet();
+        ClienteDTO creado = clienteService.create(cliente(numero, "Ana", "Rojas"));
+        
+        assertThat(creado.getId()).isNotNull();
+        assertThat(creado.getVersion()).isNotNull();
+        assertThat(creado.getRut()).isEqualTo(rut(numero));
+        assertThat(clienteService.findById(creado.getId()).getEmail()).isEqualTo(creado.getEmail());
+        assertThat(clienteService.findByRut(numero + "" + Rut.digitoVerificador(numero)).getId()).isEqualTo(creado.getId());
+        assertThat(clienteService.findDetalleById(creado.getId()).getDescripcionTipoCliente())
+                .isEqualTo(tipoClienteService.findById("VIP").getDescripcion());
+    }
+    
+    @Test
+    void rutOEmailRepetidosSeRechazan() {
+        int numero = SIGUIENTE.incrementAndGet();
+        ClienteDTO creado = clienteService.create(cliente(numero, "Ana", "Rojas"));
+        
+        ClienteDTO mismoRut = cliente(numero, "Otra", "Persona");
+        mismoRut.setEmail("otra" + numero + "@example.com");
+        assertThatThrownBy(() -> clienteService.create(mismoRut)).isInstanceOf(DuplicateResourceException.class);
+        
+        ClienteDTO mismoEmail = cliente(SIGUIENTE.incrementAndGet(), "Otra", "Persona");
+        mismoEmail.setEmail(creado.getEmail().toUpperCase());
+        assertThatThrownBy(() -> clienteService.create(mismoEmail)).isInstanceOf(DuplicateResourceException.class);
+    }
+    
+    @Test
+    void modificacionConRutOEmailDeOtroClienteSeRechaza() {
+        ClienteDTO otro = clienteService.create(cliente(SIGUIENTE.incrementAndGet(), "Ana", "Rojas"));
+        ClienteDTO creado = clienteService.create(cliente(SIGUIENTE.incrementAndGet(), "Berta", "Rojas"));
+        
+        ClienteDTO conRutRepetido = new ClienteDTO(null, otro.getRut().replace("-", ""), "Berta", "Rojas", 30,
+                creado.getEmail(), "VIP");
+        assertThatThrownBy(() -> clienteService.update(creado.getId(), conRutRepetido, null))
+                .isInstanceOf(DuplicateResourceException.class);
+        
+        ClienteDTO conEmailRepetido = new ClienteDTO(null, creado.getRut(), "Berta", "Rojas", 30,
+                otro.getEmail().toUpperCase(), "VIP");
+        assertThatThrownBy(() -> clienteService.update(creado.getId(), conEmailRepetido, null))
+                .isInstanceOf(DuplicateResourceException.class);
+        
+        // El cliente no cambió, y conservar su propio RUT y email (con otras mayúsculas) no es un conflicto
+        assertThat(clienteService.findById(creado.getId()).getRut()).isEqualTo(creado.getRut());
+        ClienteDTO mismoEmail = new ClienteDTO(null, creado.getRut(), "Bertita", "Rojas", 30,
+                creado.getEmail().toUpperCase(), "VIP");
+        assertThat(clienteService.update(creado.getId(), mismoEmail, null).getNombre()).isEqualTo("Bertita");
+    }
+    
+    @Test
+    void tipoInexistenteSeRechaza() {
+        ClienteDTO cliente = cliente(SIGUIENTE.incrementAndGet(), "Ana", "Rojas");
+        cliente.setCodTipoCliente("NOEXISTE");
+        
+        assertThatThrownBy(() -> clienteService.create(cliente)).isInstanceOf(BusinessLogicException.class);
+    }
+    
+    @Test
+    void modificacionVerificaLaVersionEsperada() {
+        ClienteDTO creado = clienteService.create(cliente(SIGUIENTE.incrementAndGet(), "Ana", "Rojas"));
+        creado.setNombre("Anita");
+        
+        ClienteDTO modificado = clienteService.update(creado.getId(), creado, creado.getVersion());
+        
+        assertThat(modificado.getNombre()).isEqualTo("Anita");
+        assertThat(modificado.getVersion()).isGreaterThan(creado.getVersion());
+        assertThat(clienteService.findById(creado.getId()).getNombre()).isEqualTo("Anita");
+        assertThatThrownBy(() -> clienteService.update(creado.getId(), creado, creado.getVersion()))
+                .isInstanceOf(PreconditionFailedException.class);
+    }
+    
+    @Test
+    void eliminadoYaNoSeEncuentra() {
+        ClienteDTO creado = clienteService.create(cliente(SIGUIENTE.incrementAndGet(), "Ana", "Rojas"));
+        
+        clienteService.delete(creado.getId());
+        
+        assertThatThrownBy(() -> clienteService.findById(creado.getId())).isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> clienteService.findByRut(creado.getRut())).isInstanceOf(ResourceNotFoundException.class);
+    }
+    
+    @Test
+    void paginaPorIdContinuaDesdeElCursor() {
+        ClienteDTO a = clienteService.create(cliente(SIGUIENTE.incrementAndGet(), "Ana", "Rojas"));
+        ClienteDTO b = clienteService.create(cliente(SIGUIENTE.incrementAndGet(), "Berta", "Rojas"));
+        ClienteDTO c = clienteService.create(cliente(SIGUIENTE.incrementAndGet(), "Carla", "Rojas"));
+        
+        assertThat(clienteService.findPage(a.getId() - 1, 2)).extracting(ClienteDTO::getId).containsExactly(a.getId(), b.getId());
+        assertThat(clienteService.findPage(b.getId(), 2)).extracting(ClienteDTO::getId).startsWith(c.getId());
+    }
+    
+    @Test
+    void busquedaPorPrefijoOrdenadaPorNombre() {
+        String apellido = "Busqueda" + SIGUIENTE.incrementAndGet();
+        clienteService.create(cliente(SIGUIENTE.incrementAndGet(), "Carla", apellido));
+        clienteService.create(cliente(SIGUIENTE.incrementAndGet(), "Ana", apellido));
+        clienteService.create(cliente(SIGUIENTE.incrementAndGet(), "Berta", apellido));
+        ClienteSearchCriteria criteria = new ClienteSearchCriteria();
+        criteria.setApellido(apellido);
+        criteria.setOrden(ClienteSearchCriteria.ORDEN_NOMBRE);
+        
+        var primera = clienteService.search(criteria, null, 2);
+        var segunda = clienteService.search(criteria, primera.getNextCursor(), 2);
+        
+        assertThat(primera.getClientes()).extracting(ClienteDTO::getNombre).containsExactly("Ana", "Berta");
+        assertThat(segunda.getClientes()).extracting(ClienteDTO::getNombre).containsExactly("Carla");
+        assertThat(segunda.getNextCursor()).isNull();
+    }
+    
+    @Test
+    void mgetInformaLasClavesNoEncontradas() {
+        ClienteDTO porId = clienteService.create(cliente(SIGUIENTE.incrementAndGet(), "Ana", "Rojas"));
+        ClienteDTO porRut = clienteService.create(cliente(SIGUIENTE.incrementAndGet(), "Berta", "Rojas"));
+        String rutInexistente = rut(SIGUIENTE.incrementAndGet());
+        
+        ClienteMgetResultDTO resultado = clienteService.findAllByIdsAndRuts(
+                List.of(porId.getId(), -1L), List.of(porRut.getRut(), rutInexistente));
+        
+        assertThat(resultado.getClientes()).extracting(ClienteDTO::getId).containsExactly(porId.getId(), porRut.getId());
+        assertThat(resultado.getIdsNoEncontrados()).containsExactly(-1L);
+        assertThat(resultado.getRutsNoEncontrados()).containsExactly(rutInexistente);
+    }
+    
+    @Test
+    void mgetRespetaElOrdenPedido() {
+        ClienteDTO a = clienteService.create(cliente(SIGUIENTE.incrementAndGet(), "Ana", "Rojas"));
+        ClienteDTO b = clienteService.create(cliente(SIGUIENTE.incrementAndGet(), "Berta", "Rojas"));
+        ClienteDTO c = clienteService.create(cliente(SIGUIENTE.incrementAndGet(), "Carla", "Rojas"));
+        ClienteDTO d = clienteService.create(cliente(SIGUIENTE.incrementAndGet(), "Diana", "Rojas"));
+        String rutSinGuion = d.getRut().replace("-", "");
+        
+        ClienteMgetResultDTO resultado = clienteService.findAllByIdsAndRuts(
+                List.of(c.getId(), a.getId(), c.getId()), List.of(d.getRut(), b.getRut(), rutSinGuion));
+        
+        // Primero los ID y luego los RUT, cada grupo en el orden pedido y sin repetir clientes
+        assertThat(resultado.getClientes()).extracting(ClienteDTO::getId)
+                .containsExactly(c.getId(), a.getId(), d.getId(), b.getId());
+        assertThat(resultado.getIdsNoEncontrados()).isEmpty();
+        assertThat(resultado.getRutsNoEncontrados()).isEmpty();
+    }
+    
+    @Test
+    void mgetConsultaLaBaseDeDatosDeA500Claves() {
+        ClienteDTO existente = clienteService.create(cliente(SIGUIENTE.incrementAndGet(), "Ana", "Rojas"));
+        clienteCache.invalidate(existente.getId());
+        List<Long> ids = new ArrayList<>();
+        for (long id = -1; ids.size() < 500; id--) {
+            ids.add(id);
+        }
+        ids.add(existente.getId());
+        List<String> ruts = new ArrayList<>();
+        for (int i = 0; i < 501; i++) {
+            ruts.add(rut(SIGUIENTE.incrementAndGet()));
+        }
+        clearInvocations(clienteRepository);
+        
+        ClienteMgetResultDTO porId = clienteService.findAllByIdsAndRuts(ids, null);
+        ClienteMgetResultDTO porRut = clienteService.findAllByIdsAndRuts(null, ruts);
+        
+        assertThat(porId.getClientes()).extracting(ClienteDTO::getId).containsExactly(existente.getId());
+        assertThat(porId.getIdsNoEncontrados()).hasSize(500).doesNotContain(existente.getId());
+        assertThat(porRut.getClientes()).isEmpty();
+        assertThat(porRut.getRutsNoEncontrados()).containsExactlyElementsOf(ruts);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Iterable<Long>> idsConsultados = ArgumentCaptor.forClass(Iterable.class);
+        verify(clienteRepository, times(2)).findAllById(idsConsultados.capture());
+        assertThat(idsConsultados.getAllValues()).extracting(ClienteServiceContractTest::tamano).containsExactly(500, 1);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<String>> rutsConsultados = ArgumentCaptor.forClass(Collection.class);
+        verify(clienteRepository, times(2)).findByRutIn(rutsConsultados.capture());
+        assertThat(rutsConsultados.getAllValues()).extracting(Collection::size).containsExactly(500, 1);
+    }
+    
+    @Test
+    void mgetAceptaHasta1000ClavesDistintas() {
+        List<Long> ids = new ArrayList<>();
+        for (long id = -1; ids.size() < 600; id--) {
+            ids.add(id);
+        }
+        List<String> ruts = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            ruts.add(rut(SIGUIENTE.incrementAndGet()));
+        }
+        
+        // Las claves repetidas cuentan una sola vez
+        List<Long> conRepetido = new ArrayList<>(ids);
+        conRepetido.add(-1L);
+        ClienteMgetResultDTO resultado = clienteService.findAllByIdsAndRuts(conRepetido, ruts);
+        assertThat(resultado.getIdsNoEncontrados()).hasSize(600);
+        assertThat(resultado.getRutsNoEncontrados()).hasSize(400);
+        
+        ruts.add(rut(SIGUIENTE.incrementAndGet()));
+        assertThatThrownBy(() -> clienteService.findAllByIdsAndRuts(ids, ruts))
+                .isInstanceOf(BusinessLogicException.class)
+                .hasMessageContaining(String.valueOf(ClienteService.MAX_MGET_KEYS));
+    }
+    
+    @Test
+    void mgetResuelveDesdeLaCacheAntesDeConsultar() {
+        ClienteDTO cacheado = clienteService.create(cliente(SIGUIENTE.incrementAndGet(), "Ana", "Rojas"));
+        ClienteDTO noCacheado = clienteService.create(cliente(SIGUIENTE.incrementAndGet(), "Berta", "Rojas"));
+        clienteService.findById(cacheado.getId());
+        clienteCache.invalidate(noCacheado.getId());
+        clearInvocations(clienteRepository);
+        
+        ClienteMgetResultDTO resultado = clienteService.findAllByIdsAndRuts(
+                List.of(cacheado.getId(), noCacheado.getId()), List.of(cacheado.getRut()));
+        
+        assertThat(resultado.getClientes()).extracting(ClienteDTO::getId)
+                .containsExactly(cacheado.getId(), noCacheado.getId(), cacheado.getId());
+        verify(clienteRepository).findAllById(List.of(noCacheado.getId()));
+        verify(clienteRepository, never()).findByRutIn(any());
+    }
+    
+    @Test
+    void tipoConClientesNoSeElimina() {
+        clienteService.create(cliente(SIGUIENTE.incrementAndGet(), "Ana", "Rojas"));
+        
+        assertThatThrownBy(() -> tipoClienteService.deleteById("VIP")).isInstanceOf(BusinessLogicException.class);
+        assertThat(tipoClienteService.findById("VIP")).isNotNull();
+    }
+    
+    @Test
+    void repositorioOrdenaPaginaYBuscaPorEjemplo() {
+        String apellido = "Ejemplo" + SIGUIENTE.incrementAndGet();
+        for (String nombre : List.of("Carla", "Ana", "Berta")) {
+            clienteService.create(cliente(SIGUIENTE.incrementAndGet(), nombre, apellido));
+        }
+        Cliente probe = new Cliente();
+        probe.setApellido(apellido.toLowerCase());
+        Example<Cliente> porApellido = Example.of(probe, ExampleMatcher.matching().withIgnoreCase("apellido"));
+        
+        assertThat(clienteRepository.count(porApellido)).isEqualTo(3);
+        assertThat(clienteRepository.exists(porApellido)).isTrue();
+        assertThat(clienteRepository.findAll(porApellido, Sort.by(Sort.Direction.DESC, "nombre")))
+                .extracting(Cliente::getNombre).containsExactly("Carla", "Berta", "Ana");
+        
+        Page<Cliente> pagina = clienteRepository.findAll(porApellido, PageRequest.of(1, 2, Sort.by("nombre")));
+        assertThat(pagina.getContent()).extracting(Cliente::getNombre).containsExactly("Carla");
+        assertThat(pagina.getTotalElements()).isEqualTo(3);
+        
+        Cliente primero = clienteRepository.findBy(porApellido, consulta -> consulta.sortBy(Sort.by("nombre")).firstValue());
+        assertThat(primero.getNombre()).isEqualTo("Ana");
+        
+        Cliente prefijo = new Cliente();
+        prefijo.setApellido(apellido);
+        prefijo.setNombre("Be");
+        Example<Cliente> porPrefijo = Example.of(prefijo, ExampleMatcher.matching()
+                .withIgnoreCase("apellido")
+                .withMatcher("nombre", ExampleMatcher.GenericPropertyMatchers.startsWith()));
+        assertThat(clienteRepository.findOne(porPrefijo)).map(Cliente::getNombre).contains("Berta");
+        List<String> apellidos = clienteRepository.findAll(Sort.by("apellido", "nombre")).stream()
+                .filter(cliente -> cliente.getApellido().equals(apellido))
+                .map(Cliente::getNombre)
+                .toList();
+        assertThat(apellidos).containsExactly("Ana", "Berta", "Carla");
+    }
+    
+    private static int tamano(Iterable<?> valores) {
+        int tamano = 0;
+        for (Object ignored : valores) {
+            tamano++;
+        }
+        return tamano;
+    }
+    
+    protected static String rut(int numero) {
+        return numero + "-" + Rut.digitoVerificador(numero);
+    }
+    
+    protected static ClienteDTO cliente(int numero, String nombre, String apellido) {
+        return new ClienteDTO(null, rut(numero), nombre, apellido, 30, "cliente" + numero + "@example.com", "VIP");
+    }
+    
+}
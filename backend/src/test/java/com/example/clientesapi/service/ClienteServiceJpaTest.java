@@ -0,0 +1,11 @@
+package com.example.clientesapi.service;
+
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * {@link ClienteServiceContractTest} con JPA sobre H2.
+ */
+@ActiveProfiles("test")
+class ClienteServiceJpaTest extends ClienteServiceContractTest {
+    
+}
@@ -0,0 +1,11 @@
+package com.example.clientesapi.service;
+
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * {@link ClienteServiceContractTest} con el almacenamiento en memoria (perfil {@code memory}).
+ */
+@ActiveProfiles({"test", "memory"})
+class ClienteServiceMemoryTest extends ClienteServiceContractTest {
+    
+}
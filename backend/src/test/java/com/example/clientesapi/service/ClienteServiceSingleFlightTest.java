@@ -0,0 +1,108 @@
+package com.example.clientesapi.service;
+
+import com.example.clientesapi.cache.ClienteCache;
+import com.example.clientesapi.cache.TipoClienteCache;
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.dto.TipoClienteDTO;
+import com.example.clientesapi.entity.Cliente;
+import com.example.clientesapi.entity.Rut;
+import com.example.clientesapi.repository.ClienteRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Las lecturas concurrentes de un cliente que no está en caché llegan al repositorio como una sola.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ClienteServiceSingleFlightTest {
+    
+    private static final int LECTORES = 8;
+    
+    @SpyBean
+    private ClienteRepository clienteRepository;
+    
+    @Autowired
+    private ClienteService clienteService;
+    
+    @Autowired
+    private TipoClienteService tipoClienteService;
+    
+    @Autowired
+    private TipoClienteCache tipoClienteCache;
+    
+    @Autowired
+    private ClienteCache clienteCache;
+    
+    @Test
+    void lecturasConcurrentesDelMismoIdConsultanUnaVez() throws Exception {
+        if (!tipoClienteCache.contains("VIP")) {
+            tipoClienteService.save(new TipoClienteDTO("VIP", "Cliente VIP"));
+        }
+        int numero = 30_000_001;
+        Long id = clienteService.create(new ClienteDTO(null, numero + "-" + Rut.digitoVerificador(numero),
+                "Ana", "Rojas", 30, "singleflight@example.com", "VIP")).getId();
+        clienteCache.invalidate(id);
+        
+        // La consulta no termina hasta que todas las lecturas están bloqueadas: una en el repositorio y las
+        // demás esperando su resultado
+        Optional<Cliente> cliente = clienteRepository.findById(id);
+        CountDownLatch liberar = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            liberar.await(10, TimeUnit.SECONDS);
+            return cliente;
+        }).when(clienteRepository).findById(id);
+        clearInvocations(clienteRepository);
+        
+        ExecutorService executor = Executors.newFixedThreadPool(LECTORES);
+        try {
+            Queue<Thread> hilos = new ConcurrentLinkedQueue<>();
+            List<Future<ClienteDTO>> lecturas = new ArrayList<>();
+            for (int i = 0; i < LECTORES; i++) {
+                lecturas.add(executor.submit(() -> {
+                    hilos.add(Thread.currentThread());
+                    return clienteService.findById(id);
+                }));
+            }
+            long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (!bloqueados(hilos) && System.nanoTime() < limite) {
+                Thread.sleep(10);
+            }
+            liberar.countDown();
+            
+            for (Future<ClienteDTO> lectura : lecturas) {
+                assertThat(lectura.get(10, TimeUnit.SECONDS).getId()).isEqualTo(id);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(clienteRepository, times(1)).findById(id);
+        assertThat(clienteCache.getLoadsById().getShared()).isGreaterThanOrEqualTo(LECTORES - 1);
+    }
+    
+    private static boolean bloqueados(Queue<Thread> hilos) {
+        return hilos.size() == LECTORES && hilos.stream().allMatch(hilo ->
+                hilo.getState() == Thread.State.WAITING || hilo.getState() == Thread.State.TIMED_WAITING);
+    }
+    
+}
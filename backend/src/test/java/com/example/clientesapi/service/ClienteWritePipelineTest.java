@@ -0,0 +1,202 @@
+package com.example.clientesapi.service;
+
+import com.example.clientesapi.cache.TipoClienteCache;
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.dto.TipoClienteDTO;
+import com.example.clientesapi.entity.Rut;
+import com.example.clientesapi.exception.BusinessLogicException;
+import com.example.clientesapi.exception.DuplicateResourceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pipeline de escrituras: agrupación en lotes, operaciones que pasan al lote siguiente, reintento
+ * operación por operación y respuesta 202 cuando la espera del lote se agota. La ventana de cada lote
+ * (max-wait) es mayor que la espera de la request (wait-timeout), de modo que las requests síncronas
+ * responden 202 y las operaciones encoladas juntas caen en el mismo lote.
+ */
+@SpringBootTest(properties = {
+        "clientes.write-pipeline.enabled=true",
+        "clientes.write-pipeline.max-wait=300ms",
+        "clientes.write-pipeline.wait-timeout=50ms"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ClienteWritePipelineTest {
+    
+    private static final AtomicInteger SIGUIENTE = new AtomicInteger(40_000_000);
+    
+    @Autowired
+    private ClienteService clienteService;
+    
+    @Autowired
+    private ClienteWritePipeline pipeline;
+    
+    @Autowired
+    private TipoClienteService tipoClienteService;
+    
+    @Autowired
+    private TipoClienteCache tipoClienteCache;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @BeforeEach
+    void setUpTipos() {
+        if (!tipoClienteCache.contains("VIP")) {
+            tipoClienteService.save(new TipoClienteDTO("VIP", "Cliente VIP"));
+        }
+    }
+    
+    @Test
+    void escriturasConcurrentesSeConfirmanEnUnSoloLote() throws Exception {
+        long lotes = pipeline.getLotes();
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        List<ClienteWritePipeline.Operacion> operaciones = new ArrayList<>();
+        try {
+            List<Future<ClienteWritePipeline.Operacion>> envios = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                ClienteDTO cliente = cliente(SIGUIENTE.incrementAndGet());
+                envios.add(executor.submit(() -> clienteService.submitCreate(cliente)));
+            }
+            for (Future<ClienteWritePipeline.Operacion> envio : envios) {
+                operaciones.add(envio.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        
+        for (ClienteWritePipeline.Operacion operacion : operaciones) {
+            assertThat(resultado(operacion).getId()).isNotNull();
+        }
+        assertThat(pipeline.getLotes() - lotes).isEqualTo(1);
+    }
+    
+    @Test
+    void operacionesQueRepitenIdRutOEmailPasanAlLoteSiguiente() throws Exception {
+        ClienteDTO existente = resultado(clienteService.submitCreate(cliente(SIGUIENTE.incrementAndGet())));
+        long lotes = pipeline.getLotes();
+        
+        ClienteWritePipeline.Operacion primeraModificacion = clienteService.submitUpdate(existente.getId(), modificado(existente, "Uno"), null);
+        ClienteWritePipeline.Operacion segundaModificacion = clienteService.submitUpdate(existente.getId(), modificado(existente, "Dos"), null);
+        ClienteDTO conRut = cliente(SIGUIENTE.incrementAndGet());
+        ClienteWritePipeline.Operacion alta = clienteService.submitCreate(conRut);
+        ClienteDTO mismoRut = cliente(SIGUIENTE.incrementAndGet());
+        mismoRut.setRut(conRut.getRut());
+        ClienteWritePipeline.Operacion altaMismoRut = clienteService.submitCreate(mismoRut);
+        ClienteDTO conEmail = cliente(SIGUIENTE.incrementAndGet());
+        ClienteWritePipeline.Operacion altaConEmail = clienteService.submitCreate(conEmail);
+        ClienteDTO mismoEmail = cliente(SIGUIENTE.incrementAndGet());
+        mismoEmail.setEmail(conEmail.getEmail().toUpperCase());
+        ClienteWritePipeline.Operacion altaMismoEmail = clienteService.submitCreate(mismoEmail);
+        
+        // Las que repiten se validan en el lote siguiente contra lo ya confirmado
+        assertThat(resultado(primeraModificacion).getNombre()).isEqualTo("Uno");
+        ClienteDTO segunda = resultado(segundaModificacion);
+        assertThat(segunda.getNombre()).isEqualTo("Dos");
+        assertThat(segunda.getVersion()).isGreaterThan(resultado(primeraModificacion).getVersion());
+        assertThat(resultado(alta).getId()).isNotNull();
+        assertThatThrownBy(() -> resultado(altaMismoRut)).isInstanceOf(DuplicateResourceException.class);
+        assertThat(resultado(altaConEmail).getId()).isNotNull();
+        assertThatThrownBy(() -> resultado(altaMismoEmail)).isInstanceOf(DuplicateResourceException.class);
+        assertThat(pipeline.getLotes() - lotes).isEqualTo(2);
+        assertThat(clienteService.findById(existente.getId()).getNombre()).isEqualTo("Dos");
+    }
+    
+    @Test
+    void unLoteQueFallaEnLaBaseDeDatosSeReintentaOperacionPorOperacion() throws Exception {
+        // Un tipo que sigue en la caché pero ya no existe: la verificación del lote no lo detecta y el
+        // INSERT agrupado falla por la clave foránea
+        tipoClienteService.save(new TipoClienteDTO("FANTASMA", "Eliminado fuera de la aplicación"));
+        jdbcTemplate.update("DELETE FROM tipo_cliente WHERE codigo = 'FANTASMA'");
+        try {
+            long lotes = pipeline.getLotes();
+            ClienteWritePipeline.Operacion antes = clienteService.submitCreate(cliente(SIGUIENTE.incrementAndGet()));
+            ClienteDTO fantasma = cliente(SIGUIENTE.incrementAndGet());
+            fantasma.setCodTipoCliente("FANTASMA");
+            ClienteWritePipeline.Operacion conflicto = clienteService.submitCreate(fantasma);
+            ClienteWritePipeline.Operacion despues = clienteService.submitCreate(cliente(SIGUIENTE.incrementAndGet()));
+            
+            assertThat(resultado(antes).getId()).isNotNull();
+            assertThatThrownBy(() -> resultado(conflicto)).isInstanceOf(BusinessLogicException.class)
+                    .hasMessageContaining("FANTASMA");
+            assertThat(resultado(despues).getId()).isNotNull();
+            // El lote fallido no se confirma; las dos operaciones válidas se confirman cada una por separado
+            assertThat(pipeline.getLotes() - lotes).isEqualTo(2);
+        } finally {
+            tipoClienteCache.reload();
+        }
+    }
+    
+    @Test
+    void esperaAgotadaResponde202ConElEstadoDeLaOperacion() throws Exception {
+        int numero = SIGUIENTE.incrementAndGet();
+        MvcResult respuesta = mockMvc.perform(post("/api/clientes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"rut": "%s", "nombre": "Ana", "apellido": "Rojas", "edad": 30,
+                                 "email": "pipeline%d@example.com", "codTipoCliente": "VIP"}
+                                """.formatted(rut(numero), numero)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.estado").value("PENDIENTE"))
+                .andReturn();
+        String location = respuesta.getResponse().getHeader("Location");
+        assertThat(location).startsWith("/api/clientes/operaciones/");
+        
+        String id = location.substring(location.lastIndexOf('/') + 1);
+        resultado(pipeline.findOperacion(id).orElseThrow());
+        mockMvc.perform(get(location))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.estado").value("COMPLETADA"))
+                .andExpect(jsonPath("$.cliente.rut").value(rut(numero)));
+    }
+    
+    private static ClienteDTO resultado(ClienteWritePipeline.Operacion operacion) throws Exception {
+        try {
+            return operacion.getResultado().get(10, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            throw (Exception) e.getCause();
+        }
+    }
+    
+    private static String rut(int numero) {
+        return numero + "-" + Rut.digitoVerificador(numero);
+    }
+    
+    private static ClienteDTO cliente(int numero) {
+        return new ClienteDTO(null, rut(numero), "Ana", "Rojas", 30, "pipeline" + numero + "@example.com", "VIP");
+    }
+    
+    private static ClienteDTO modificado(ClienteDTO cliente, String nombre) {
+        return new ClienteDTO(null, cliente.getRut(), nombre, cliente.getApellido(), cliente.getEdad(),
+                cliente.getEmail(), cliente.getCodTipoCliente());
+    }
+    
+}
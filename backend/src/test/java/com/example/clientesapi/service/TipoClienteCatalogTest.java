@@ -0,0 +1,157 @@
+package com.example.clientesapi.service;
+
+import com.example.clientesapi.cache.TipoClienteCache;
+import com.example.clientesapi.dto.ClienteDTO;
+import com.example.clientesapi.dto.TipoClienteDTO;
+import com.example.clientesapi.entity.Rut;
+import com.example.clientesapi.exception.BusinessLogicException;
+import com.example.clientesapi.repository.TipoClienteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Catálogo de tipos de cliente en memoria: la validación de los clientes no lo consulta en la base de
+ * datos, y cada cambio de un tipo reemplaza el catálogo y su ETag de una sola vez.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TipoClienteCatalogTest {
+    
+    private static final AtomicInteger SIGUIENTE = new AtomicInteger(35_000_000);
+    private static final AtomicInteger TIPOS = new AtomicInteger();
+    private static final int LECTORES = 4;
+    
+    @SpyBean
+    private TipoClienteRepository tipoClienteRepository;
+    
+    @Autowired
+    private ClienteService clienteService;
+    
+    @Autowired
+    private TipoClienteService tipoClienteService;
+    
+    @Autowired
+    private TipoClienteCache tipoClienteCache;
+    
+    @BeforeEach
+    void setUpTipos() {
+        for (String codigo : List.of("VIP", "REGULAR")) {
+            if (!tipoClienteCache.contains(codigo)) {
+                tipoClienteService.save(new TipoClienteDTO(codigo, "Cliente " + codigo));
+            }
+        }
+    }
+    
+    @Test
+    void laValidacionDelTipoNoConsultaLaBaseDeDatos() {
+        clearInvocations(tipoClienteRepository);
+        
+        ClienteDTO creado = clienteService.create(cliente(SIGUIENTE.incrementAndGet(), "VIP"));
+        creado.setCodTipoCliente("REGULAR");
+        clienteService.update(creado.getId(), creado, null);
+        ClienteDTO tipoInexistente = cliente(SIGUIENTE.incrementAndGet(), "NOEXISTE");
+        assertThatThrownBy(() -> clienteService.create(tipoInexistente)).isInstanceOf(BusinessLogicException.class);
+        creado.setCodTipoCliente("NOEXISTE");
+        assertThatThrownBy(() -> clienteService.update(creado.getId(), creado, null)).isInstanceOf(BusinessLogicException.class);
+        
+        verifyNoInteractions(tipoClienteRepository);
+    }
+    
+    @Test
+    void cadaCambioReemplazaElCatalogoYSuEtag() {
+        String codigo = "CAT" + TIPOS.incrementAndGet();
+        String inicial = tipoClienteService.getCatalogEtag();
+        
+        TipoClienteDTO creado = tipoClienteService.save(new TipoClienteDTO(codigo, "Catálogo"));
+        String trasCrear = tipoClienteService.getCatalogEtag();
+        assertThat(trasCrear).isNotEqualTo(inicial);
+        assertThat(tipoClienteService.findAll()).extracting(TipoClienteDTO::getCodigo).contains(codigo);
+        assertThat(tipoClienteCache.get(codigo).getVersion()).isEqualTo(creado.getVersion());
+        assertThat(tipoClienteService.getCatalogLastModified()).isGreaterThanOrEqualTo(creado.getUpdatedAt().toEpochMilli());
+        
+        tipoClienteService.update(codigo, new TipoClienteDTO(codigo, "Catálogo modificado"), creado.getVersion());
+        String trasModificar = tipoClienteService.getCatalogEtag();
+        assertThat(trasModificar).isNotEqualTo(trasCrear);
+        assertThat(tipoClienteCache.get(codigo).getDescripcion()).isEqualTo("Catálogo modificado");
+        
+        tipoClienteService.deleteById(codigo);
+        assertThat(tipoClienteService.getCatalogEtag()).isNotEqualTo(trasModificar);
+        assertThat(tipoClienteCache.get(codigo)).isNull();
+        assertThat(tipoClienteService.findAll()).extracting(TipoClienteDTO::getCodigo).doesNotContain(codigo);
+    }
+    
+    @Test
+    void lasLecturasConcurrentesVenElEtagJuntoConSuCatalogo() throws Exception {
+        // Para cada ETag leído dos veces sin cambios entremedio, el catálogo leído entre ambas lecturas
+        // debe ser siempre el mismo
+        Map<String, String> catalogoPorEtag = new ConcurrentHashMap<>();
+        AtomicBoolean terminar = new AtomicBoolean();
+        AtomicInteger inconsistencias = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(LECTORES);
+        try {
+            List<Future<?>> lectores = new ArrayList<>();
+            for (int i = 0; i < LECTORES; i++) {
+                lectores.add(executor.submit(() -> {
+                    while (!terminar.get()) {
+                        String antes = tipoClienteService.getCatalogEtag();
+                        String catalogo = firma(tipoClienteService.findAll());
+                        if (antes.equals(tipoClienteService.getCatalogEtag())
+                                && !catalogo.equals(catalogoPorEtag.computeIfAbsent(antes, etag -> catalogo))) {
+                            inconsistencias.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            
+            for (int i = 0; i < 20; i++) {
+                String codigo = "CAT" + TIPOS.incrementAndGet();
+                TipoClienteDTO creado = tipoClienteService.save(new TipoClienteDTO(codigo, "Catálogo"));
+                tipoClienteService.update(codigo, new TipoClienteDTO(codigo, "Catálogo " + i), creado.getVersion());
+                tipoClienteService.deleteById(codigo);
+            }
+            terminar.set(true);
+            for (Future<?> lector : lectores) {
+                lector.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            terminar.set(true);
+            executor.shutdown();
+        }
+        
+        assertThat(inconsistencias).hasValue(0);
+        assertThat(catalogoPorEtag).hasSizeGreaterThan(1);
+    }
+    
+    private static String firma(List<TipoClienteDTO> tipos) {
+        return tipos.stream()
+                .map(tipo -> tipo.getCodigo() + ":" + tipo.getVersion() + ":" + tipo.getDescripcion())
+                .collect(Collectors.joining(","));
+    }
+    
+    private static ClienteDTO cliente(int numero, String codTipoCliente) {
+        return new ClienteDTO(null, numero + "-" + Rut.digitoVerificador(numero), "Ana", "Rojas", 30,
+                "catalogo" + numero + "@example.com", codTipoCliente);
+    }
+    
+}
@@ -0,0 +1,87 @@
+#!/bin/bash
+
+# Archivo de clases compartidas (AppCDS) para arrancar la aplicación en la JVM sin volver a cargar,
+# verificar y enlazar las ~15.000 clases de Spring, Hibernate y Tomcat en cada réplica.
+#
+# Uso:
+#   mvn clean package -DskipTests    (o mvn clean -Paot package -DskipTests para sumar el procesamiento AOT)
+#   ./startup-cds.sh crear           extrae el jar en target/cds y genera target/cds/app.jsa
+#   ./startup-cds.sh ejecutar [args] arranca con el archivo (los args van a la aplicación)
+#
+# El archivo se genera con una ejecución de entrenamiento que se detiene al terminar de crear el contexto
+# (-Dspring.context.exit=onRefresh), así que requiere lo mismo que un arranque normal: con el perfil prod,
+# la base de datos accesible para validar el esquema. Solo sirve para el mismo jar y la misma JVM con que
+# se generó: volver a crearlo tras cada compilación. Si no coincide, la JVM lo ignora y arranca sin él.
+#
+# Variables opcionales: PERFIL (perfiles de Spring, por defecto prod), JAVA_OPTS
+
+set -e
+
+cd "$(dirname "$0")"
+
+PERFIL="${PERFIL:-prod}"
+DIRECTORIO="target/cds"
+MAIN_CLASS="com.example.clientesapi.ClientesApiApplication"
+
+opciones_aot() {
+    # El jar procesado con -Paot incluye el inicializador generado del contexto
+    if [ -f "${DIRECTORIO}/app.jar" ] && unzip -l "${DIRECTORIO}/app.jar" | grep -q "ClientesApiApplication__ApplicationContextInitializer"; then
+        echo "-Dspring.aot.enabled=true"
+    fi
+}
+
+crear() {
+    JAR=$(ls target/clientes-api-*-exec.jar 2>/dev/null | head -1)
+    if [ -z "${JAR}" ]; then
+        echo "Error: no se encontró el jar ejecutable; compilar primero con mvn clean package -DskipTests."
+        exit 1
+    fi
+
+    rm -rf "${DIRECTORIO}"
+    mkdir -p "${DIRECTORIO}/extraido"
+    (cd "${DIRECTORIO}/extraido" && jar xf "../../../${JAR}")
+
+    # CDS no archiva clases cargadas desde directorios: las de la aplicación se empaquetan en un jar y
+    # el classpath se fija explícitamente (debe ser idéntico al crear el archivo y al usarlo)
+    jar cf "${DIRECTORIO}/app.jar" -C "${DIRECTORIO}/extraido/BOOT-INF/classes" .
+    mv "${DIRECTORIO}/extraido/BOOT-INF/lib" "${DIRECTORIO}/lib"
+    rm -rf "${DIRECTORIO}/extraido"
+    CLASSPATH="app.jar"
+    for LIB in $(ls "${DIRECTORIO}/lib" | sort); do
+        CLASSPATH="${CLASSPATH}:lib/${LIB}"
+    done
+    echo "${CLASSPATH}" > "${DIRECTORIO}/classpath.txt"
+
+    echo "Ejecución de entrenamiento (perfil: ${PERFIL})..."
+    (cd "${DIRECTORIO}" && java -XX:ArchiveClassesAtExit=app.jsa -Dspring.context.exit=onRefresh \
+        $(opciones_aot) ${JAVA_OPTS} -cp "$(cat classpath.txt)" "${MAIN_CLASS}" \
+        --spring.profiles.active="${PERFIL}" > entrenamiento.log 2>&1) || {
+        echo "Error: la ejecución de entrenamiento falló (ver ${DIRECTORIO}/entrenamiento.log)."
+        exit 1
+    }
+    echo "Archivo generado: ${DIRECTORIO}/app.jsa ($(du -h "${DIRECTORIO}/app.jsa" | cut -f1))"
+}
+
+ejecutar() {
+    if [ ! -f "${DIRECTORIO}/app.jsa" ]; then
+        echo "Error: no existe ${DIRECTORIO}/app.jsa; generarlo con ./startup-cds.sh crear."
+        exit 1
+    fi
+    cd "${DIRECTORIO}"
+    exec java -XX:SharedArchiveFile=app.jsa $(opciones_aot) ${JAVA_OPTS} -cp "$(cat classpath.txt)" "${MAIN_CLASS}" \
+        --spring.profiles.active="${PERFIL}" "$@"
+}
+
+case "${1:-}" in
+    crear)
+        crear
+        ;;
+    ejecutar)
+        shift
+        ejecutar "$@"
+        ;;
+    *)
+        echo "Uso: $0 crear | ejecutar [argumentos de la aplicación]"
+        exit 1
+        ;;
+esac
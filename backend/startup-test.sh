@@ -0,0 +1,101 @@
+#!/bin/bash
+
+# Mide el tiempo hasta la primera respuesta (desde que se lanza el proceso hasta el primer 200 de
+# GET /api/tipos-cliente) y la memoria residente (RSS) en ese momento, para cada variante de arranque.
+#
+# Variantes:
+#   jvm     java -jar target/clientes-api-*-exec.jar (con -Dspring.aot.enabled=true si el jar se compiló con -Paot)
+#   cds     ./startup-cds.sh ejecutar (requiere ./startup-cds.sh crear)
+#   native  target/clientes-api (requiere mvn -Pnative package con GraalVM)
+#
+# Uso, comparando con y sin AOT:
+#   mvn clean package -DskipTests && ./startup-cds.sh crear && ./startup-test.sh jvm cds
+#   mvn clean -Paot package -DskipTests && ./startup-cds.sh crear && ./startup-test.sh jvm cds
+#   mvn clean -Pnative package -DskipTests && ./startup-test.sh native
+#
+# Variables opcionales: PERFIL (por defecto prod), PUERTO, REPETICIONES
+
+cd "$(dirname "$0")"
+
+PERFIL="${PERFIL:-prod}"
+PUERTO="${PUERTO:-8080}"
+REPETICIONES="${REPETICIONES:-5}"
+URL="http://localhost:${PUERTO}/api/tipos-cliente"
+RESULTADOS="startup-test.txt"
+
+JAR=$(ls target/clientes-api-*-exec.jar 2>/dev/null | head -1)
+AOT=""
+if [ -n "${JAR}" ] && unzip -l "${JAR}" | grep -q "ClientesApiApplication__ApplicationContextInitializer"; then
+    AOT="-Dspring.aot.enabled=true"
+fi
+
+lanzar() {
+    case "$1" in
+        jvm)
+            exec java ${AOT} -jar "${JAR}" --spring.profiles.active="${PERFIL}" --server.port="${PUERTO}"
+            ;;
+        cds)
+            PERFIL="${PERFIL}" exec ./startup-cds.sh ejecutar --server.port="${PUERTO}"
+            ;;
+        native)
+            exec target/clientes-api --spring.profiles.active="${PERFIL}" --server.port="${PUERTO}"
+            ;;
+    esac
+}
+
+disponible() {
+    case "$1" in
+        jvm) [ -n "${JAR}" ] ;;
+        cds) [ -f target/cds/app.jsa ] ;;
+        native) [ -x target/clientes-api ] ;;
+        *) return 1 ;;
+    esac
+}
+
+if curl -s -o /dev/null "${URL}"; then
+    echo "Error: el puerto ${PUERTO} ya está en uso."
+    exit 1
+fi
+
+printf "%-12s %-10s %-22s %-10s\n" "variante" "perfil" "primera respuesta (ms)" "RSS (MB)" | tee -a "${RESULTADOS}"
+
+VARIANTES=("$@")
+if [ ${#VARIANTES[@]} -eq 0 ]; then
+    VARIANTES=(jvm cds native)
+fi
+
+for VARIANTE in "${VARIANTES[@]}"; do
+    if ! disponible "${VARIANTE}"; then
+        echo "Variante ${VARIANTE} no disponible: se omite."
+        continue
+    fi
+    ETIQUETA="${VARIANTE}"
+    if [ "${VARIANTE}" != "native" ] && [ -n "${AOT}" ]; then
+        ETIQUETA="${VARIANTE}+aot"
+    fi
+
+    SUMA_MS=0
+    SUMA_RSS=0
+    for ((i = 1; i <= REPETICIONES; i++)); do
+        INICIO=$(date +%s%N)
+        lanzar "${VARIANTE}" > "startup-test-${VARIANTE}.log" 2>&1 &
+        PID=$!
+        until curl -sf -o /dev/null "${URL}"; do
+            if ! kill -0 "${PID}" 2> /dev/null; then
+                echo "Error: la variante ${VARIANTE} terminó sin responder (ver startup-test-${VARIANTE}.log)."
+                exit 1
+            fi
+            sleep 0.01
+        done
+        FIN=$(date +%s%N)
+        RSS_KB=$(awk '/VmRSS/ {print $2}' "/proc/${PID}/status")
+        kill "${PID}"
+        wait "${PID}" 2> /dev/null
+
+        SUMA_MS=$((SUMA_MS + (FIN - INICIO) / 1000000))
+        SUMA_RSS=$((SUMA_RSS + RSS_KB / 1024))
+    done
+
+    printf "%-12s %-10s %-22s %-10s\n" "${ETIQUETA}" "${PERFIL}" "$((SUMA_MS / REPETICIONES))" \
+        "$((SUMA_RSS / REPETICIONES))" | tee -a "${RESULTADOS}"
+done